@@ -0,0 +1,80 @@
+package co.edu.uniquindio.proyectobases.carga;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Banco de preguntas y examen de la prueba de carga, creados sobre las paramétricas de 'carga/datos.sql'.
+ * Cada pregunta tiene una sola opción correcta y su dificultad rota entre las tres disponibles, de modo que
+ * los porcentajes de las preguntas de cada intento varían como en un examen real.
+ */
+public final class DatosCarga {
+
+    /**
+     * Identificador del examen de la prueba.
+     */
+    public static final long ID_EXAMEN = 1L;
+
+    /**
+     * Identificador del docente autor del banco y del examen.
+     */
+    private static final long ID_DOCENTE = 1L;
+
+    private static final String ENUNCIADO = "¿Cuál de las siguientes sentencias SQL devuelve las filas de la tabla "
+        + "Pregunta que tienen al menos una opción de respuesta asociada y pertenecen al tema indicado? ";
+    private static final String OPCION = "SELECT p.* FROM Pregunta p WHERE EXISTS (SELECT 1 FROM OpcionRespuesta o) ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Crea el generador de datos sobre la base de datos de la prueba.
+     * @param jdbcTemplate plantilla JDBC de la aplicación
+     */
+    public DatosCarga(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Crea el examen de la prueba, abierto desde este momento, junto con su banco de preguntas.
+     * @param preguntas cantidad de preguntas del examen
+     * @param preguntasMostradas cantidad de preguntas que se asignan a cada estudiante
+     * @param opcionesPorPregunta cantidad de opciones de cada pregunta
+     * @return identificador del examen creado
+     */
+    public long crearExamen(int preguntas, int preguntasMostradas, int opcionesPorPregunta) {
+        List<Object[]> filasPreguntas = new ArrayList<>(preguntas);
+        List<Object[]> filasOpciones = new ArrayList<>(preguntas * opcionesPorPregunta);
+        List<Object[]> filasExamen = new ArrayList<>(preguntas);
+        long idOpcion = 1;
+        for (long idPregunta = 1; idPregunta <= preguntas; idPregunta++) {
+            filasPreguntas.add(new Object[] {idPregunta, ENUNCIADO + idPregunta, idPregunta % 3 + 1, ID_DOCENTE});
+            for (int o = 1; o <= opcionesPorPregunta; o++) {
+                filasOpciones.add(new Object[] {idOpcion++, idPregunta, OPCION + o, o == 1 ? 1L : 2L});
+            }
+            filasExamen.add(new Object[] {ID_EXAMEN, idPregunta});
+        }
+
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO Pregunta (idPregunta, enunciado, idTema, idVisibilidad, idDificultad, idDocente, idUnidad, idTipo, porcentajeNota, idEstado)
+            VALUES (?, ?, 1, 1, ?, ?, 1, 1, 10, 1)
+            """, filasPreguntas);
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO OpcionRespuesta (idOpcion, idPregunta, textoOpcion, idTipoRespuesta)
+            VALUES (?, ?, ?, ?)
+            """, filasOpciones);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        jdbcTemplate.update("""
+            INSERT INTO Examen (idExamen, idGrupo, idDocente, idTema, titulo, descripcion, cantidadPreguntas, preguntasMostradas,
+                                tiempoLimite, fechaDisponible, fechaCierre, pesoEnCurso, umbralAprobacion, idUnidad, idEstado)
+            VALUES (?, 1, ?, 1, 'Parcial de carga', 'Examen generado para la prueba de carga', ?, ?, 120, ?, ?, 20, 60, 1, 1)
+            """, ID_EXAMEN, ID_DOCENTE, preguntas, preguntasMostradas,
+            Timestamp.valueOf(ahora), Timestamp.valueOf(ahora.plusHours(4)));
+        jdbcTemplate.batchUpdate("INSERT INTO ExamenPregunta (idExamen, idPregunta) VALUES (?, ?)", filasExamen);
+        return ID_EXAMEN;
+    }
+}
@@ -0,0 +1,263 @@
+package co.edu.uniquindio.proyectobases.carga;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.uniquindio.proyectobases.repository.RegistroProcedimientos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Registro de procedimientos para la prueba de carga sobre H2, que no ejecuta PL/SQL ni devuelve parámetros
+ * de salida a SimpleJdbcCall. Reemplaza a los procedimientos almacenados del flujo de presentación de un examen
+ * por equivalentes en Java que ejecutan las mismas sentencias con el JdbcTemplate de la aplicación y devuelven
+ * los mismos parámetros de salida y códigos de resultado, incluidos los de sus bloques EXCEPTION.
+ * Los demás procedimientos no tienen equivalente y fallan si se invocan.
+ */
+@Primary
+@Component
+@Profile("carga")
+public class ProcedimientosEnJava extends RegistroProcedimientos {
+
+    /**
+     * Dirección IP con la que 'generar_examen_estudiante' registra los intentos.
+     */
+    private static final String IP_ACCESO = "192.168.10.4";
+
+    /**
+     * Estado con el que 'finalizar_intento' marca los intentos finalizados.
+     */
+    private static final long ESTADO_FINALIZADO = 5L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry registroMetricas;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     * @param registroMetricas registro de métricas de la aplicación
+     * @param transactionManager gestor de transacciones de la fuente de datos
+     */
+    public ProcedimientosEnJava(JdbcTemplate jdbcTemplate, MeterRegistry registroMetricas,
+                                PlatformTransactionManager transactionManager) {
+        super(jdbcTemplate, registroMetricas);
+        this.jdbcTemplate = jdbcTemplate;
+        this.registroMetricas = registroMetricas;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Map<String, Object> ejecutar(String nombre, SqlParameterSource params) {
+        Map<String, Object> valores = new HashMap<>();
+        if (params.getParameterNames() != null) {
+            for (String parametro : params.getParameterNames()) {
+                valores.put(parametro, params.getValue(parametro));
+            }
+        }
+        return ejecutar(nombre, valores);
+    }
+
+    @Override
+    public Map<String, Object> ejecutar(String nombre, Map<String, ?> params) {
+        Timer temporizador = Timer.builder("proyectobases.procedimiento")
+            .description("Duración de las llamadas a procedimientos almacenados")
+            .tag("procedimiento", nombre)
+            .register(registroMetricas);
+        long inicio = System.nanoTime();
+        try {
+            return switch (nombre) {
+                case "generar_examen_estudiante" -> generarExamenEstudiante(
+                    numero(params, "p_idExamen"), numero(params, "p_idEstudiante"));
+                case "registrar_respuesta_estudiante" -> registrarRespuestaEstudiante(
+                    numero(params, "p_idIntento"), numero(params, "p_idPregunta"), numero(params, "p_idOpcion"));
+                case "finalizar_intento" -> finalizarIntento(numero(params, "p_idIntento"));
+                default -> throw new InvalidDataAccessApiUsageException(
+                    "El procedimiento '" + nombre + "' no tiene equivalente en la base de datos de carga.");
+            };
+        } finally {
+            temporizador.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Sin procedimientos reales no hay metadatos que leer.
+     */
+    @Override
+    public void compilar() {
+    }
+
+    /**
+     * Equivalente de 'generar_examen_estudiante': crea el intento y le asigna al azar 'preguntasMostradas'
+     * preguntas del examen, con un porcentaje proporcional al peso de su dificultad.
+     */
+    private Map<String, Object> generarExamenEstudiante(long idExamen, long idEstudiante) {
+        Map<String, Object> salida = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Integer existentes = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM IntentoExamen WHERE idExamen = ? AND idEstudiante = ?",
+                    Integer.class, idExamen, idEstudiante);
+                if (existentes != null && existentes > 0) {
+                    salida.put("p_resultado", -1);
+                    salida.put("p_idIntento", null);
+                    return;
+                }
+
+                int preguntasMostradas = jdbcTemplate.queryForObject(
+                    "SELECT preguntasMostradas FROM Examen WHERE idExamen = ?", Integer.class, idExamen);
+
+                KeyHolder llave = new GeneratedKeyHolder();
+                jdbcTemplate.update(conexion -> {
+                    PreparedStatement ps = conexion.prepareStatement(
+                        "INSERT INTO IntentoExamen (idEstudiante, idExamen, fechaInicio, ipacceso) VALUES (?, ?, SYSTIMESTAMP, ?)",
+                        new String[] {"idIntento"});
+                    ps.setLong(1, idEstudiante);
+                    ps.setLong(2, idExamen);
+                    ps.setString(3, IP_ACCESO);
+                    return ps;
+                }, llave);
+                long idIntento = llave.getKey().longValue();
+
+                List<PreguntaPeso> preguntas = new ArrayList<>(jdbcTemplate.query("""
+                    SELECT p.idPregunta, d.peso
+                    FROM ExamenPregunta ep
+                    JOIN Pregunta p ON ep.idPregunta = p.idPregunta
+                    JOIN DificultadPregunta d ON p.idDificultad = d.idDificultad
+                    WHERE ep.idExamen = ?
+                    """, (rs, rowNum) -> new PreguntaPeso(rs.getLong("idPregunta"), rs.getDouble("peso")), idExamen));
+                Collections.shuffle(preguntas, ThreadLocalRandom.current());
+                List<PreguntaPeso> seleccion = preguntas.subList(0, Math.min(preguntasMostradas, preguntas.size()));
+
+                double sumaPesos = 0;
+                for (PreguntaPeso pregunta : seleccion) {
+                    sumaPesos += pregunta.peso();
+                }
+                List<Object[]> filas = new ArrayList<>(seleccion.size());
+                for (PreguntaPeso pregunta : seleccion) {
+                    BigDecimal porcentaje = BigDecimal.valueOf(pregunta.peso() / sumaPesos * 100).setScale(2, RoundingMode.HALF_UP);
+                    filas.add(new Object[] {idIntento, idExamen, pregunta.idPregunta(), idEstudiante, porcentaje});
+                }
+                jdbcTemplate.batchUpdate("""
+                    INSERT INTO ExamenEstudiante (idIntento, idExamen, idPregunta, idEstudiante, porcentajePregunta)
+                    VALUES (?, ?, ?, ?, ?)
+                    """, filas);
+
+                salida.put("p_idIntento", idIntento);
+                salida.put("p_resultado", 1);
+            });
+        } catch (RuntimeException e) {
+            salida.put("p_idIntento", null);
+            salida.put("p_resultado", -99);
+        }
+        return salida;
+    }
+
+    /**
+     * Equivalente de 'registrar_respuesta_estudiante': el puntaje es el porcentaje de la pregunta en el intento
+     * si la opción es correcta y cero en caso contrario.
+     */
+    private Map<String, Object> registrarRespuestaEstudiante(long idIntento, long idPregunta, long idOpcion) {
+        Map<String, Object> salida = new HashMap<>();
+        try {
+            Long tipoRespuesta = jdbcTemplate.queryForObject(
+                "SELECT idTipoRespuesta FROM OpcionRespuesta WHERE idPregunta = ? AND idOpcion = ?",
+                Long.class, idPregunta, idOpcion);
+            jdbcTemplate.queryForObject("SELECT idExamen FROM IntentoExamen WHERE idIntento = ?",
+                Long.class, idIntento);
+
+            BigDecimal puntaje = BigDecimal.ZERO;
+            if (tipoRespuesta != null && tipoRespuesta == 1L) {
+                puntaje = jdbcTemplate.queryForObject(
+                    "SELECT porcentajePregunta FROM ExamenEstudiante WHERE idIntento = ? AND idPregunta = ?",
+                    BigDecimal.class, idIntento, idPregunta);
+            }
+
+            jdbcTemplate.update(
+                "INSERT INTO RespuestaEstudiante (idIntento, idPregunta, idOpcion, puntajeObtenido) VALUES (?, ?, ?, ?)",
+                idIntento, idPregunta, idOpcion, puntaje);
+            salida.put("p_resultado", 1);
+        } catch (EmptyResultDataAccessException e) {
+            salida.put("p_resultado", -1);
+        } catch (DataAccessException e) {
+            salida.put("p_resultado", -2);
+        }
+        return salida;
+    }
+
+    /**
+     * Equivalente de 'finalizar_intento': suma los puntajes obtenidos y cierra el intento. Como en el
+     * procedimiento, un intento sin respuestas no se puede finalizar.
+     */
+    private Map<String, Object> finalizarIntento(long idIntento) {
+        Map<String, Object> salida = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Object[] intento = jdbcTemplate.queryForObject("""
+                    SELECT SUM(r.puntajeObtenido) AS total, i.fechaInicio
+                    FROM IntentoExamen i
+                    JOIN RespuestaEstudiante r ON i.idIntento = r.idIntento
+                    WHERE i.idIntento = ?
+                    GROUP BY i.idIntento, i.fechaInicio
+                    """, (rs, rowNum) -> new Object[] {rs.getBigDecimal("total"), rs.getTimestamp("fechaInicio")}, idIntento);
+                BigDecimal total = (BigDecimal) intento[0];
+                LocalDateTime ahora = LocalDateTime.now();
+                long minutos = Math.round(Duration.between(((Timestamp) intento[1]).toLocalDateTime(), ahora).toSeconds() / 60.0);
+
+                jdbcTemplate.update("""
+                    UPDATE IntentoExamen
+                    SET calificacion = ?,
+                        fechaFin = ?,
+                        tiempoEmpleado = ?,
+                        idEstado = ?
+                    WHERE idIntento = ?
+                    """, total, Timestamp.valueOf(ahora), minutos, ESTADO_FINALIZADO, idIntento);
+
+                salida.put("p_calificacion", total);
+                salida.put("p_resultado", 1);
+            });
+        } catch (RuntimeException e) {
+            salida.put("p_calificacion", null);
+            salida.put("p_resultado", -1);
+        }
+        return salida;
+    }
+
+    private static long numero(Map<String, ?> params, String nombre) {
+        Object valor = params.get(nombre);
+        if (!(valor instanceof Number numero)) {
+            throw new InvalidDataAccessApiUsageException("Falta el parámetro numérico '" + nombre + "'.");
+        }
+        return numero.longValue();
+    }
+
+    /**
+     * Pregunta del examen con el peso de su dificultad.
+     */
+    private record PreguntaPeso(long idPregunta, double peso) {
+    }
+}
@@ -0,0 +1,231 @@
+package co.edu.uniquindio.proyectobases.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.uniquindio.proyectobases.ProyectoBasesApplication;
+
+/**
+ * Prueba de carga de extremo a extremo del flujo de presentación de un examen.
+ * Levanta la aplicación con el perfil 'carga' (H2 en memoria en modo Oracle y los procedimientos almacenados
+ * reemplazados por {@link ProcedimientosEnJava}), crea un examen con {@link DatosCarga} y simula estudiantes
+ * concurrentes que, por HTTP, generan su intento, obtienen el examen, responden cada pregunta y finalizan.
+ * Al terminar imprime por endpoint la cantidad de solicitudes, los errores, la latencia p50, p99 y máxima, y
+ * el throughput.
+ * <p>
+ * Se ejecuta con {@code ./gradlew cargaExamen} y se parametriza con propiedades del sistema, que desde Gradle se
+ * pasan como {@code -Pcarga.estudiantes=5000}:
+ * <ul>
+ *   <li>'carga.estudiantes': estudiantes que presentan el examen (2000 por defecto).</li>
+ *   <li>'carga.concurrencia': estudiantes presentando a la vez (200 por defecto).</li>
+ *   <li>'carga.preguntas': preguntas del examen (40 por defecto).</li>
+ *   <li>'carga.preguntas-mostradas': preguntas que le corresponden a cada estudiante (20 por defecto).</li>
+ *   <li>'carga.opciones': opciones de cada pregunta (4 por defecto).</li>
+ * </ul>
+ * Las latencias incluyen la red local y la serialización, pero no el costo de Oracle: sirven para comparar
+ * cambios de la aplicación entre sí, no para estimar tiempos absolutos en producción.
+ */
+public final class PruebaCargaExamen {
+
+    private static final String BASE_EXAMEN = "/api/examen";
+
+    private final HttpClient cliente;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String urlBase;
+    private final long idExamen;
+
+    private final Medicion generar = new Medicion("generar-examen-estudiante");
+    private final Medicion obtener = new Medicion("obtener-examen-estudiante");
+    private final Medicion registrar = new Medicion("registrar-respuesta-estudiante");
+    private final Medicion finalizar = new Medicion("finalizar-intento-obtener-calificacion");
+
+    /**
+     * Estudiantes que completaron el flujo hasta obtener su calificación.
+     */
+    private final LongAdder completados = new LongAdder();
+
+    private PruebaCargaExamen(int puerto, long idExamen) {
+        this.cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        this.urlBase = "http://localhost:" + puerto + BASE_EXAMEN;
+        this.idExamen = idExamen;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int estudiantes = Integer.getInteger("carga.estudiantes", 2000);
+        int concurrencia = Integer.getInteger("carga.concurrencia", 200);
+        int preguntas = Integer.getInteger("carga.preguntas", 40);
+        int preguntasMostradas = Integer.getInteger("carga.preguntas-mostradas", 20);
+        int opciones = Integer.getInteger("carga.opciones", 4);
+
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ProyectoBasesApplication.class)
+            .profiles("carga")
+            .run(args);
+        try {
+            long idExamen = new DatosCarga(contexto.getBean(JdbcTemplate.class))
+                .crearExamen(preguntas, preguntasMostradas, opciones);
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+
+            Environment entorno = contexto.getEnvironment();
+            System.out.printf("%nPrueba de carga: %d estudiantes, %d concurrentes, %d de %d preguntas con %d opciones%n",
+                estudiantes, concurrencia, preguntasMostradas, preguntas, opciones);
+            System.out.printf("Buffer de respuestas: %s, motor de calificación: %s%n",
+                entorno.getProperty("examen.respuestas.buffer.habilitado", "false"),
+                entorno.getProperty("examen.calificacion.en-memoria", "false"));
+
+            new PruebaCargaExamen(puerto, idExamen).ejecutar(estudiantes, concurrencia);
+        } finally {
+            contexto.close();
+        }
+    }
+
+    private void ejecutar(int estudiantes, int concurrencia) throws InterruptedException {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(concurrencia);
+        long inicio = System.nanoTime();
+        for (int i = 1; i <= estudiantes; i++) {
+            long idEstudiante = 1_000_000L + i;
+            ejecutor.execute(() -> presentarExamen(idEstudiante));
+        }
+        ejecutor.shutdown();
+        ejecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        System.out.printf("%nDuración: %.1f s, estudiantes completados: %d (%.1f por segundo)%n%n",
+            segundos, completados.sum(), completados.sum() / segundos);
+        System.out.printf("%-40s %11s %8s %9s %9s %9s %14s%n",
+            "Endpoint", "Solicitudes", "Errores", "p50 (ms)", "p99 (ms)", "Máx (ms)", "Solicitudes/s");
+        for (Medicion medicion : List.of(generar, obtener, registrar, finalizar)) {
+            medicion.imprimir(segundos);
+        }
+    }
+
+    /**
+     * Flujo completo de un estudiante. Si una solicitud falla el estudiante abandona el examen, de modo que
+     * los errores de un paso no inflan el conteo de los siguientes.
+     */
+    private void presentarExamen(long idEstudiante) {
+        JsonNode generado = enviar(generar, "POST", "/generar-examen-estudiante/" + idExamen + "/" + idEstudiante);
+        if (generado == null) {
+            return;
+        }
+        long idIntento = generado.path("idIntento").asLong();
+
+        JsonNode examen = enviar(obtener, "GET", "/obtener-examen-estudiante/" + idExamen + "/" + idEstudiante);
+        if (examen == null) {
+            return;
+        }
+        for (JsonNode pregunta : examen) {
+            JsonNode opciones = pregunta.path("opciones");
+            if (opciones.isEmpty()) {
+                continue;
+            }
+            JsonNode opcion = opciones.get(ThreadLocalRandom.current().nextInt(opciones.size()));
+            JsonNode registrada = enviar(registrar, "POST", "/registrar-respuesta-estudiante/" + idIntento + "/"
+                + pregunta.path("idPregunta").asLong() + "/" + opcion.path("idOpcionRespuesta").asLong());
+            if (registrada == null) {
+                return;
+            }
+            if (registrada.asInt() < 0) {
+                // La aplicación respondió, pero rechazó la opción
+                registrar.errores.increment();
+            }
+        }
+
+        if (enviar(finalizar, "POST", "/finalizar-intento-obtener-calificacion/" + idIntento) != null) {
+            completados.increment();
+        }
+    }
+
+    /**
+     * Envía una solicitud y registra su latencia en la medición del endpoint.
+     * @return el campo 'respuesta' del MensajeDto, o null si la solicitud falló o el mensaje indica error
+     */
+    private JsonNode enviar(Medicion medicion, String metodo, String ruta) {
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create(urlBase + ruta))
+            .timeout(Duration.ofSeconds(60))
+            .method(metodo, HttpRequest.BodyPublishers.noBody())
+            .build();
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<byte[]> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.ofByteArray());
+            medicion.registrar(System.nanoTime() - inicio);
+            if (respuesta.statusCode() >= 400) {
+                medicion.errores.increment();
+                return null;
+            }
+            JsonNode mensaje = mapper.readTree(respuesta.body());
+            if (mensaje.path("error").asBoolean() || mensaje.path("respuesta").isNull()) {
+                medicion.errores.increment();
+                return null;
+            }
+            return mensaje.path("respuesta");
+        } catch (IOException e) {
+            medicion.registrar(System.nanoTime() - inicio);
+            medicion.errores.increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Latencias y errores de un endpoint.
+     */
+    private static final class Medicion {
+
+        private final String endpoint;
+        private final Queue<Long> latencias = new ConcurrentLinkedQueue<>();
+        private final LongAdder errores = new LongAdder();
+
+        private Medicion(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void registrar(long nanos) {
+            latencias.add(nanos);
+        }
+
+        private void imprimir(double segundos) {
+            List<Long> ordenadas = new ArrayList<>(latencias);
+            ordenadas.sort(null);
+            System.out.printf("%-40s %11d %8d %9.2f %9.2f %9.2f %14.1f%n",
+                endpoint, ordenadas.size(), errores.sum(),
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                ordenadas.isEmpty() ? 0.0 : ordenadas.get(ordenadas.size() - 1) / 1_000_000.0,
+                ordenadas.size() / segundos);
+        }
+
+        private static double percentil(List<Long> ordenadas, double cuantil) {
+            if (ordenadas.isEmpty()) {
+                return 0.0;
+            }
+            int indice = (int) Math.ceil(cuantil * ordenadas.size()) - 1;
+            return ordenadas.get(Math.max(indice, 0)) / 1_000_000.0;
+        }
+    }
+}
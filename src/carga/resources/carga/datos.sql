@@ -0,0 +1,19 @@
+-- Tablas parametricas de la prueba de carga; el banco de preguntas, el examen y los estudiantes los crea
+-- PruebaCargaExamen segun los parametros de cada ejecucion.
+
+INSERT INTO UnidadAcademica (idUnidad, nombre) VALUES (1, 'Facultad de Ingenieria');
+
+INSERT INTO EstadoGeneral (idEstado, nombre) VALUES (1, 'activo');
+INSERT INTO EstadoGeneral (idEstado, nombre) VALUES (2, 'inactivo');
+INSERT INTO EstadoGeneral (idEstado, nombre) VALUES (5, 'finalizado');
+
+INSERT INTO Curso (idCurso, nombre, idUnidad) VALUES (1, 'Bases de Datos', 1);
+INSERT INTO Grupo (idGrupo, nombre, idCurso) VALUES (1, 'Grupo 1', 1);
+INSERT INTO Tema (idTema, nombre, idCurso) VALUES (1, 'Consultas SQL', 1);
+
+INSERT INTO DificultadPregunta (idDificultad, nombre, peso) VALUES (1, 'Baja', 1);
+INSERT INTO DificultadPregunta (idDificultad, nombre, peso) VALUES (2, 'Media', 2);
+INSERT INTO DificultadPregunta (idDificultad, nombre, peso) VALUES (3, 'Alta', 3);
+
+INSERT INTO TipoPregunta (idTipo, nombre) VALUES (1, 'Seleccion unica');
+INSERT INTO VisibilidadPregunta (idVisibilidad, nombre) VALUES (1, 'Publica');
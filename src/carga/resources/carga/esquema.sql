@@ -0,0 +1,126 @@
+-- Esquema minimo para la prueba de carga en H2 (modo Oracle): solo las tablas y columnas que leen y escriben
+-- el catalogo de parametricas y el flujo de presentacion de un examen. Los identificadores generados por
+-- la base de datos se declaran como columnas de identidad.
+
+CREATE TABLE UnidadAcademica (
+    idUnidad NUMBER PRIMARY KEY,
+    nombre VARCHAR2(100) NOT NULL
+);
+
+CREATE TABLE EstadoGeneral (
+    idEstado NUMBER PRIMARY KEY,
+    nombre VARCHAR2(50) NOT NULL
+);
+
+CREATE TABLE Curso (
+    idCurso NUMBER PRIMARY KEY,
+    nombre VARCHAR2(100) NOT NULL,
+    idUnidad NUMBER NOT NULL
+);
+
+CREATE TABLE Grupo (
+    idGrupo NUMBER PRIMARY KEY,
+    nombre VARCHAR2(100) NOT NULL,
+    idCurso NUMBER NOT NULL
+);
+
+CREATE TABLE Tema (
+    idTema NUMBER PRIMARY KEY,
+    nombre VARCHAR2(100) NOT NULL,
+    idCurso NUMBER NOT NULL
+);
+
+CREATE TABLE DificultadPregunta (
+    idDificultad NUMBER PRIMARY KEY,
+    nombre VARCHAR2(50) NOT NULL,
+    peso NUMBER NOT NULL
+);
+
+CREATE TABLE TipoPregunta (
+    idTipo NUMBER PRIMARY KEY,
+    nombre VARCHAR2(50) NOT NULL
+);
+
+CREATE TABLE VisibilidadPregunta (
+    idVisibilidad NUMBER PRIMARY KEY,
+    nombre VARCHAR2(50) NOT NULL
+);
+
+CREATE TABLE Pregunta (
+    idPregunta NUMBER PRIMARY KEY,
+    enunciado CLOB NOT NULL,
+    idTema NUMBER NOT NULL,
+    idVisibilidad NUMBER NOT NULL,
+    idDificultad NUMBER NOT NULL,
+    idDocente NUMBER NOT NULL,
+    idUnidad NUMBER NOT NULL,
+    idTipo NUMBER NOT NULL,
+    porcentajeNota NUMBER(5,2),
+    fechaCreacion TIMESTAMP DEFAULT SYSTIMESTAMP,
+    idEstado NUMBER
+);
+
+CREATE TABLE OpcionRespuesta (
+    idOpcion NUMBER PRIMARY KEY,
+    idPregunta NUMBER NOT NULL,
+    textoOpcion VARCHAR2(1000) NOT NULL,
+    textoPareja VARCHAR2(1000),
+    idTipoRespuesta NUMBER
+);
+CREATE INDEX ix_opcion_pregunta ON OpcionRespuesta (idPregunta);
+
+CREATE TABLE Examen (
+    idExamen NUMBER PRIMARY KEY,
+    idGrupo NUMBER NOT NULL,
+    idDocente NUMBER NOT NULL,
+    idTema NUMBER NOT NULL,
+    titulo VARCHAR2(200) NOT NULL,
+    descripcion CLOB,
+    cantidadPreguntas NUMBER NOT NULL,
+    preguntasMostradas NUMBER NOT NULL,
+    tiempoLimite NUMBER NOT NULL,
+    fechaDisponible TIMESTAMP,
+    fechaCierre TIMESTAMP,
+    pesoEnCurso NUMBER(5,2),
+    umbralAprobacion NUMBER(5,2),
+    idUnidad NUMBER NOT NULL,
+    idEstado NUMBER
+);
+
+CREATE TABLE ExamenPregunta (
+    idExamen NUMBER NOT NULL,
+    idPregunta NUMBER NOT NULL,
+    PRIMARY KEY (idExamen, idPregunta)
+);
+
+CREATE TABLE IntentoExamen (
+    idIntento BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    idEstudiante NUMBER NOT NULL,
+    idExamen NUMBER NOT NULL,
+    fechaInicio TIMESTAMP,
+    fechaFin TIMESTAMP,
+    tiempoEmpleado NUMBER,
+    calificacion NUMBER(6,2),
+    ipacceso VARCHAR2(50),
+    idEstado NUMBER
+);
+CREATE INDEX ix_intento_examen_estudiante ON IntentoExamen (idExamen, idEstudiante);
+
+CREATE TABLE ExamenEstudiante (
+    idIntento NUMBER NOT NULL,
+    idExamen NUMBER NOT NULL,
+    idPregunta NUMBER NOT NULL,
+    idEstudiante NUMBER NOT NULL,
+    porcentajePregunta NUMBER(5,2),
+    PRIMARY KEY (idIntento, idPregunta)
+);
+CREATE INDEX ix_examen_estudiante ON ExamenEstudiante (idExamen, idEstudiante);
+
+CREATE TABLE RespuestaEstudiante (
+    idRespuesta BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    idIntento NUMBER NOT NULL,
+    idPregunta NUMBER NOT NULL,
+    idOpcion NUMBER NOT NULL,
+    puntajeObtenido NUMBER(5,2)
+);
+CREATE INDEX ix_respuesta_intento ON RespuestaEstudiante (idIntento, idPregunta);
@@ -0,0 +1,237 @@
+package co.edu.uniquindio.proyectobases.benchmark;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import co.edu.uniquindio.proyectobases.benchmark.JdbcEnMemoria.Tabla;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerOpcionRespuestaDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaEstudianteDto;
+
+/**
+ * Banco de preguntas y exámenes sintético para los benchmarks, con textos de longitud parecida a los reales.
+ * Expone las mismas filas tanto como tablas para el DataSource en memoria como ya mapeadas a DTOs.
+ */
+public final class BancoSintetico {
+
+    private static final Timestamp FECHA = Timestamp.valueOf("2025-03-01 08:00:00");
+    private static final String ENUNCIADO = "¿Cuál de las siguientes sentencias SQL devuelve las filas de la tabla "
+        + "Pregunta que tienen al menos una opción de respuesta asociada y pertenecen al tema indicado? ";
+    private static final String OPCION = "SELECT p.* FROM Pregunta p WHERE EXISTS (SELECT 1 FROM OpcionRespuesta o) ";
+
+    private final int preguntas;
+    private final int opcionesPorPregunta;
+    private final int examenes;
+
+    /**
+     * Crea un banco sintético.
+     * @param preguntas cantidad de preguntas
+     * @param opcionesPorPregunta cantidad de opciones de cada pregunta
+     * @param examenes cantidad de exámenes en los listados de exámenes
+     */
+    public BancoSintetico(int preguntas, int opcionesPorPregunta, int examenes) {
+        this.preguntas = preguntas;
+        this.opcionesPorPregunta = opcionesPorPregunta;
+        this.examenes = examenes;
+    }
+
+    /**
+     * DataSource en memoria que responde las consultas de los repositorios con este banco.
+     * @return DataSource en memoria
+     */
+    public DataSource dataSource() {
+        return dataSource(Duration.ZERO);
+    }
+
+    /**
+     * DataSource en memoria que responde las consultas de los repositorios con este banco, bloqueando cada
+     * consulta durante la latencia indicada.
+     * @param latencia tiempo que bloquea cada consulta
+     * @return DataSource en memoria
+     */
+    public DataSource dataSource(Duration latencia) {
+        Tabla preguntasJoin = preguntasConOpciones();
+        Tabla opciones = opciones();
+        Tabla preguntasPagina = preguntas();
+        Tabla contenidoExamen = contenidoExamen();
+        Tabla seleccionEstudiante = seleccionEstudiante();
+        Tabla examenesListado = examenes();
+        Tabla temas = parametrica("idTema", "Tema", 40).agregarColumnaCurso();
+        Tabla dificultades = parametrica("id", "Dificultad", 3).tabla();
+        Tabla tipos = parametrica("id", "Tipo", 5).tabla();
+        Tabla visibilidades = parametrica("id", "Visibilidad", 2).tabla();
+        Tabla unidades = parametrica("id", "Unidad", 10).tabla();
+        Tabla estados = parametrica("id", "Estado", 3).tabla();
+        Tabla relacion = new Tabla("a", "b").fila(1L, 1L);
+
+        return JdbcEnMemoria.dataSource(sql -> {
+            if (sql.contains("JOIN OpcionRespuesta o ON")) {
+                return preguntasJoin;
+            }
+            if (sql.contains("WHERE o.idPregunta IN")) {
+                return opciones;
+            }
+            if (sql.contains("FROM Pregunta p")) {
+                return preguntasPagina;
+            }
+            if (sql.contains("FROM ExamenEstudiante ee")) {
+                return seleccionEstudiante;
+            }
+            if (sql.contains("FROM ExamenPregunta ep")) {
+                return contenidoExamen;
+            }
+            if (sql.contains("FROM Examen e")) {
+                return examenesListado;
+            }
+            if (sql.contains("FROM Tema")) {
+                return temas;
+            }
+            if (sql.contains("FROM DificultadPregunta")) {
+                return dificultades;
+            }
+            if (sql.contains("FROM TipoPregunta")) {
+                return tipos;
+            }
+            if (sql.contains("FROM VisibilidadPregunta")) {
+                return visibilidades;
+            }
+            if (sql.contains("FROM UnidadAcademica")) {
+                return unidades;
+            }
+            if (sql.contains("FROM EstadoGeneral")) {
+                return estados;
+            }
+            if (sql.contains("FROM Curso") || sql.contains("FROM Grupo")) {
+                return relacion;
+            }
+            throw new IllegalArgumentException("Consulta sin datos sintéticos: " + sql);
+        }, latencia);
+    }
+
+    /**
+     * Las preguntas del banco ya mapeadas, como las entrega el repositorio.
+     * @return lista de preguntas con sus opciones
+     */
+    public List<ObtenerPreguntaDto> preguntasDto() {
+        List<ObtenerPreguntaDto> lista = new ArrayList<>(preguntas);
+        for (long id = 1; id <= preguntas; id++) {
+            List<ObtenerOpcionRespuestaDto> opciones = new ArrayList<>(opcionesPorPregunta);
+            for (long o = 1; o <= opcionesPorPregunta; o++) {
+                opciones.add(new ObtenerOpcionRespuestaDto(idOpcion(id, o), OPCION + o, null, o == 1 ? 1L : 2L));
+            }
+            lista.add(new ObtenerPreguntaDto(id, ENUNCIADO + id, "Tema " + (id % 40 + 1), "Visibilidad 1",
+                "Dificultad " + (id % 3 + 1), "Docente " + (id % 20), "Unidad " + (id % 10 + 1), "Tipo " + (id % 5 + 1),
+                10.0, FECHA, "Estado 1", opciones));
+        }
+        return lista;
+    }
+
+    /**
+     * Las preguntas del banco como las ve un estudiante en su examen.
+     * @return lista de preguntas del examen
+     */
+    public List<PreguntaEstudianteDto> preguntasEstudianteDto() {
+        List<PreguntaEstudianteDto> lista = new ArrayList<>(preguntas);
+        for (ObtenerPreguntaDto pregunta : preguntasDto()) {
+            lista.add(new PreguntaEstudianteDto(pregunta.idPregunta(), pregunta.enunciado(), 1L, 7L, 1L, null, pregunta.opciones()));
+        }
+        return lista;
+    }
+
+    private Tabla preguntas() {
+        Tabla tabla = new Tabla("idPregunta", "enunciado", "idTema", "idVisibilidad", "idDificultad", "docente",
+            "idUnidad", "idTipo", "porcentajeNota", "fechaCreacion", "idEstado");
+        for (long id = 1; id <= preguntas; id++) {
+            tabla.fila(id, ENUNCIADO + id, id % 40 + 1, 1L, id % 3 + 1, "Docente " + (id % 20), id % 10 + 1, id % 5 + 1,
+                10.0, FECHA, 1L);
+        }
+        return tabla;
+    }
+
+    private Tabla opciones() {
+        Tabla tabla = new Tabla("idPregunta", "idOpcion", "textoOpcion", "textoPareja", "idTipoRespuesta");
+        for (long id = 1; id <= preguntas; id++) {
+            for (long o = 1; o <= opcionesPorPregunta; o++) {
+                tabla.fila(id, idOpcion(id, o), OPCION + o, null, o == 1 ? 1L : 2L);
+            }
+        }
+        return tabla;
+    }
+
+    private Tabla preguntasConOpciones() {
+        Tabla tabla = new Tabla("idPregunta", "enunciado", "idTema", "idVisibilidad", "idDificultad", "docente",
+            "idUnidad", "idTipo", "porcentajeNota", "fechaCreacion", "idEstado",
+            "idOpcion", "textoOpcion", "textoPareja", "idTipoRespuesta");
+        for (long id = 1; id <= preguntas; id++) {
+            for (long o = 1; o <= opcionesPorPregunta; o++) {
+                tabla.fila(id, ENUNCIADO + id, id % 40 + 1, 1L, id % 3 + 1, "Docente " + (id % 20), id % 10 + 1, id % 5 + 1,
+                    10.0, FECHA, 1L, idOpcion(id, o), OPCION + o, null, o == 1 ? 1L : 2L);
+            }
+        }
+        return tabla;
+    }
+
+    private Tabla contenidoExamen() {
+        Tabla tabla = new Tabla("idPregunta", "enunciado", "idTipo", "idDocente", "idUnidad",
+            "idOpcion", "textoOpcion", "textoPareja", "idTipoRespuesta");
+        for (long id = 1; id <= preguntas; id++) {
+            for (long o = 1; o <= opcionesPorPregunta; o++) {
+                tabla.fila(id, ENUNCIADO + id, 1L, 7L, 1L, idOpcion(id, o), OPCION + o, null, o == 1 ? 1L : 2L);
+            }
+        }
+        return tabla;
+    }
+
+    private Tabla seleccionEstudiante() {
+        Tabla tabla = new Tabla("idPregunta", "porcentajePregunta");
+        for (long id = 1; id <= preguntas; id++) {
+            tabla.fila(id, 100.0 / preguntas);
+        }
+        return tabla;
+    }
+
+    private Tabla examenes() {
+        Tabla tabla = new Tabla("idExamen", "idTema", "tema", "titulo", "descripcion", "cantidadPreguntas",
+            "preguntasMostradas", "tiempoLimite", "fechaDisponible", "fechaCierre", "pesoEnCurso", "umbralAprobacion",
+            "idUnidad", "unidadAcademica", "estado");
+        for (long id = 1; id <= examenes; id++) {
+            tabla.fila(id, id % 40 + 1, "Tema " + (id % 40 + 1), "Parcial " + id, "Evaluación de consultas SQL y PL/SQL",
+                20, 10, 60, FECHA, FECHA, 0.2, 3.0, 1L, "Unidad 1", "activo");
+        }
+        return tabla;
+    }
+
+    private static Parametrica parametrica(String columnaId, String prefijo, int cantidad) {
+        return new Parametrica(columnaId, prefijo, cantidad);
+    }
+
+    private static long idOpcion(long idPregunta, long opcion) {
+        return idPregunta * 10 + opcion;
+    }
+
+    /**
+     * Tabla paramétrica de pares (id, nombre).
+     */
+    private record Parametrica(String columnaId, String prefijo, int cantidad) {
+
+        private Tabla tabla() {
+            Tabla tabla = new Tabla(columnaId, "nombre");
+            for (long id = 1; id <= cantidad; id++) {
+                tabla.fila(id, prefijo + " " + id);
+            }
+            return tabla;
+        }
+
+        private Tabla agregarColumnaCurso() {
+            Tabla tabla = new Tabla(columnaId, "nombre", "idCurso");
+            for (long id = 1; id <= cantidad; id++) {
+                tabla.fila(id, prefijo + " " + id, 1L);
+            }
+            return tabla;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package co.edu.uniquindio.proyectobases.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import co.edu.uniquindio.proyectobases.cache.RegistroCaches;
+import co.edu.uniquindio.proyectobases.repository.DataSourceLimitado;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+import co.edu.uniquindio.proyectobases.repository.RegistroProcedimientos;
+import co.edu.uniquindio.proyectobases.service.CacheContenidoExamen;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Benchmark de 'obtenerExamenEstudiante' bajo carga concurrente, comparando el pool de hilos de plataforma
+ * de Tomcat (200 hilos por defecto) contra un hilo virtual por petición.
+ * Cada operación atiende una ráfaga de peticiones simultáneas, como la apertura de un examen; cada petición
+ * consulta la selección del estudiante con la latencia de red indicada, a través del límite de conexiones
+ * del tamaño del pool, y arma el examen desde la cache de contenido, que ya está cargada.
+ * Con pocas conexiones ambos modos quedan limitados por el pool; la diferencia aparece cuando el pool deja
+ * de ser el cuello de botella y la cantidad de hilos pasa a serlo.
+ * La latencia se simula con {@code Thread.sleep} en un driver en memoria, por lo que este benchmark no puede mostrar
+ * que un hilo virtual quede fijado a su hilo portador dentro de un bloque {@code synchronized} del driver real; eso
+ * se revisa contra Oracle con {@code -Djdk.tracePinnedThreads=short}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HilosVirtualesBenchmark {
+
+    /**
+     * Hilos máximos del conector de Tomcat por defecto.
+     */
+    private static final int HILOS_TOMCAT = 200;
+
+    @Param({"plataforma", "virtuales"})
+    private String hilos;
+
+    @Param({"2000"})
+    private int peticiones;
+
+    @Param({"20", "1000"})
+    private int conexiones;
+
+    @Param({"5"})
+    private int latenciaMs;
+
+    private ExecutorService ejecutor;
+    private CacheContenidoExamen cacheContenido;
+
+    @Setup
+    public void preparar() {
+        BancoSintetico banco = new BancoSintetico(20, 4, 0);
+        DataSource dataSource = new DataSourceLimitado(banco.dataSource(Duration.ofMillis(latenciaMs)), conexiones, 30_000);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        RegistroProcedimientos procedimientos = new RegistroProcedimientos(jdbcTemplate, new SimpleMeterRegistry());
+        ExamenRepository examenRepository = new ExamenRepository(jdbcTemplate, procedimientos, new DataSourceTransactionManager(dataSource));
+
+        cacheContenido = new CacheContenidoExamen(examenRepository, new RegistroCaches(new SimpleMeterRegistry()),
+            Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(),
+            10, 30);
+        cacheContenido.obtenerExamenEstudianteJson(1L, 1L);
+
+        ejecutor = hilos.equals("virtuales")
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(HILOS_TOMCAT);
+    }
+
+    @TearDown
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int rafagaObtenerExamen() throws Exception {
+        List<Future<Integer>> respuestas = new ArrayList<>(peticiones);
+        for (int i = 0; i < peticiones; i++) {
+            long idEstudiante = i;
+            respuestas.add(ejecutor.submit(() -> cacheContenido.obtenerExamenEstudianteJson(1L, idEstudiante).size()));
+        }
+        int preguntas = 0;
+        for (Future<Integer> respuesta : respuestas) {
+            preguntas += respuesta.get();
+        }
+        return preguntas;
+    }
+}
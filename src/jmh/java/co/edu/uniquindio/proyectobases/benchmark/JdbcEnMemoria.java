@@ -0,0 +1,177 @@
+package co.edu.uniquindio.proyectobases.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+/**
+ * Base de datos falsa en memoria para los benchmarks: un DataSource cuyas sentencias devuelven filas fijas
+ * según el texto SQL, de modo que los repositorios ejecutan su código real de mapeo sin una base de datos.
+ * Las interfaces JDBC se implementan con proxies dinámicos; su costo por columna leída es constante y
+ * es el mismo en todas las variantes que se comparan.
+ */
+public final class JdbcEnMemoria {
+
+    private JdbcEnMemoria() {
+    }
+
+    /**
+     * Crea un DataSource cuyas consultas devuelven la tabla que indique el resolutor para su SQL.
+     * @param resolutor función que recibe el SQL de la sentencia y retorna sus filas
+     * @return DataSource en memoria
+     */
+    public static DataSource dataSource(Function<String, Tabla> resolutor) {
+        return dataSource(resolutor, Duration.ZERO);
+    }
+
+    /**
+     * Crea un DataSource cuyas consultas devuelven la tabla que indique el resolutor para su SQL, después de
+     * bloquear el hilo durante la latencia indicada, como lo haría el viaje de red a la base de datos.
+     * @param resolutor función que recibe el SQL de la sentencia y retorna sus filas
+     * @param latencia tiempo que bloquea cada consulta
+     * @return DataSource en memoria
+     */
+    public static DataSource dataSource(Function<String, Tabla> resolutor, Duration latencia) {
+        Connection conexion = proxy(Connection.class, (instancia, metodo, args) -> switch (metodo.getName()) {
+            case "prepareStatement", "prepareCall" -> sentencia((String) args[0], resolutor, latencia);
+            case "createStatement" -> sentencia(null, resolutor, latencia);
+            case "getAutoCommit" -> true;
+            default -> valorPredeterminado(metodo);
+        });
+        return proxy(DataSource.class, (instancia, metodo, args) ->
+            metodo.getName().equals("getConnection") ? conexion : valorPredeterminado(metodo));
+    }
+
+    private static PreparedStatement sentencia(String sql, Function<String, Tabla> resolutor, Duration latencia) {
+        return proxy(PreparedStatement.class, (instancia, metodo, args) -> switch (metodo.getName()) {
+            case "executeQuery" -> {
+                if (!latencia.isZero()) {
+                    Thread.sleep(latencia);
+                }
+                yield resolutor.apply(sql != null ? sql : (String) args[0]).abrir();
+            }
+            case "getUpdateCount" -> -1;
+            default -> valorPredeterminado(metodo);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, InvocationHandler manejador) {
+        return (T) Proxy.newProxyInstance(JdbcEnMemoria.class.getClassLoader(), new Class<?>[] {tipo}, manejador);
+    }
+
+    private static Object valorPredeterminado(Method metodo) {
+        Class<?> retorno = metodo.getReturnType();
+        if (retorno == boolean.class) {
+            return false;
+        }
+        if (retorno == int.class) {
+            return 0;
+        }
+        if (retorno == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    /**
+     * Resultado fijo de una consulta: nombres de columna y filas.
+     */
+    public static final class Tabla {
+
+        private final Map<String, Integer> indices = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final List<Object[]> filas = new ArrayList<>();
+
+        /**
+         * Crea una tabla vacía con las columnas indicadas.
+         * @param columnas nombres de las columnas, en orden
+         */
+        public Tabla(String... columnas) {
+            for (int i = 0; i < columnas.length; i++) {
+                indices.put(columnas[i], i);
+            }
+        }
+
+        /**
+         * Agrega una fila; los valores van en el orden de las columnas.
+         * @param valores valores de la fila
+         * @return la misma tabla
+         */
+        public Tabla fila(Object... valores) {
+            filas.add(valores);
+            return this;
+        }
+
+        /**
+         * Cantidad de filas de la tabla.
+         * @return cantidad de filas
+         */
+        public int tamano() {
+            return filas.size();
+        }
+
+        /**
+         * Abre un ResultSet nuevo sobre las filas de la tabla.
+         * @return ResultSet posicionado antes de la primera fila
+         */
+        ResultSet abrir() {
+            int[] posicion = {-1};
+            boolean[] ultimoNulo = {false};
+            return proxy(ResultSet.class, (instancia, metodo, args) -> {
+                String nombre = metodo.getName();
+                if (nombre.equals("next")) {
+                    return ++posicion[0] < filas.size();
+                }
+                if (!nombre.startsWith("get") || args == null || args.length != 1 || nombre.equals("getWarnings")) {
+                    return nombre.equals("wasNull") ? ultimoNulo[0] : valorPredeterminado(metodo);
+                }
+                Object valor = filas.get(posicion[0])[indice(args[0])];
+                ultimoNulo[0] = valor == null;
+                return convertir(valor, metodo.getReturnType());
+            });
+        }
+
+        private int indice(Object columna) throws SQLException {
+            if (columna instanceof Integer posicion) {
+                return posicion - 1;
+            }
+            Integer indice = indices.get((String) columna);
+            if (indice == null) {
+                throw new SQLException("Columna inexistente: " + columna);
+            }
+            return indice;
+        }
+
+        private static Object convertir(Object valor, Class<?> tipo) {
+            if (tipo == long.class) {
+                return valor == null ? 0L : ((Number) valor).longValue();
+            }
+            if (tipo == int.class) {
+                return valor == null ? 0 : ((Number) valor).intValue();
+            }
+            if (tipo == double.class) {
+                return valor == null ? 0.0 : ((Number) valor).doubleValue();
+            }
+            if (tipo == String.class) {
+                return valor == null ? null : valor.toString();
+            }
+            if (tipo == Timestamp.class) {
+                return (Timestamp) valor;
+            }
+            return valor;
+        }
+    }
+}
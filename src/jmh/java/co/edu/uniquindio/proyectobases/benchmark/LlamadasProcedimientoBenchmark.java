@@ -0,0 +1,193 @@
+package co.edu.uniquindio.proyectobases.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlOutParameter;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.simple.SimpleJdbcCall;
+
+import co.edu.uniquindio.proyectobases.repository.RegistroProcedimientos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Benchmark de las llamadas a 'registrar_respuesta_estudiante': un SimpleJdbcCall construido y compilado en cada
+ * petición, como lo hacían los repositorios, contra la llamada compilada una sola vez y reutilizada desde
+ * {@link RegistroProcedimientos}.
+ * <p>
+ * El driver es un Oracle simulado: informa 'Oracle' como producto para que Spring use su proveedor de metadatos de
+ * Oracle, responde los metadatos del procedimiento y la llamada, y cada viaje a la base de datos (la ejecución y
+ * cada consulta de metadatos que el driver real resuelve con SQL) bloquea el hilo durante 'latenciaMicros'.
+ * Con latencia cero se mide solo el trabajo de Spring al compilar; con latencia se suma el costo de los viajes de
+ * red que la compilación agrega a cada petición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LlamadasProcedimientoBenchmark {
+
+    private static final String PROCEDIMIENTO = "registrar_respuesta_estudiante";
+
+    @Param({"0", "300"})
+    private long latenciaMicros;
+
+    private JdbcTemplate jdbcTemplate;
+    private RegistroProcedimientos procedimientos;
+    private MapSqlParameterSource parametros;
+
+    /**
+     * Viajes a la base de datos simulada; se informan al terminar para comparar las dos variantes.
+     */
+    private final AtomicLong viajes = new AtomicLong();
+
+    @Setup
+    public void preparar() {
+        jdbcTemplate = new JdbcTemplate(new OracleSimulado(latenciaMicros, viajes).dataSource());
+        procedimientos = new RegistroProcedimientos(jdbcTemplate, new SimpleMeterRegistry());
+        procedimientos.registrar(PROCEDIMIENTO, parametrosDeclarados());
+        procedimientos.compilar();
+        parametros = new MapSqlParameterSource()
+            .addValue("p_idIntento", 10L)
+            .addValue("p_idPregunta", 20L)
+            .addValue("p_idOpcion", 30L);
+    }
+
+    @TearDown
+    public void informar() {
+        System.out.println("Viajes a la base de datos simulada: " + viajes.get());
+    }
+
+    @Benchmark
+    public Map<String, Object> compilarPorLlamada() {
+        return new SimpleJdbcCall(jdbcTemplate)
+            .withProcedureName(PROCEDIMIENTO)
+            .declareParameters(parametrosDeclarados())
+            .execute(parametros);
+    }
+
+    @Benchmark
+    public Map<String, Object> reutilizarCompilada() {
+        return procedimientos.ejecutar(PROCEDIMIENTO, parametros);
+    }
+
+    private static SqlParameter[] parametrosDeclarados() {
+        return new SqlParameter[] {
+            new SqlParameter("p_idIntento", Types.NUMERIC),
+            new SqlParameter("p_idPregunta", Types.NUMERIC),
+            new SqlParameter("p_idOpcion", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.NUMERIC)
+        };
+    }
+
+    /**
+     * Driver simulado con los metadatos de 'registrar_respuesta_estudiante' y una latencia por viaje.
+     */
+    private static final class OracleSimulado {
+
+        private final long latenciaMicros;
+        private final AtomicLong viajes;
+
+        private OracleSimulado(long latenciaMicros, AtomicLong viajes) {
+            this.latenciaMicros = latenciaMicros;
+            this.viajes = viajes;
+        }
+
+        private DataSource dataSource() {
+            DatabaseMetaData metadatos = proxy(DatabaseMetaData.class, (instancia, metodo, args) -> switch (metodo.getName()) {
+                case "getDatabaseProductName" -> "Oracle";
+                case "getDatabaseProductVersion" -> "Oracle Database 21c";
+                case "getUserName" -> {
+                    viajar();
+                    yield "PROYECTO";
+                }
+                case "storesUpperCaseIdentifiers", "supportsSchemasInProcedureCalls" -> true;
+                case "getProcedures" -> {
+                    viajar();
+                    yield new JdbcEnMemoria.Tabla("PROCEDURE_CAT", "PROCEDURE_SCHEM", "PROCEDURE_NAME")
+                        .fila(null, "PROYECTO", "REGISTRAR_RESPUESTA_ESTUDIANTE").abrir();
+                }
+                case "getProcedureColumns" -> {
+                    viajar();
+                    yield new JdbcEnMemoria.Tabla("COLUMN_NAME", "COLUMN_TYPE", "DATA_TYPE", "TYPE_NAME", "NULLABLE")
+                        .fila("P_IDINTENTO", DatabaseMetaData.procedureColumnIn, Types.NUMERIC, "NUMBER", DatabaseMetaData.procedureNullable)
+                        .fila("P_IDPREGUNTA", DatabaseMetaData.procedureColumnIn, Types.NUMERIC, "NUMBER", DatabaseMetaData.procedureNullable)
+                        .fila("P_IDOPCION", DatabaseMetaData.procedureColumnIn, Types.NUMERIC, "NUMBER", DatabaseMetaData.procedureNullable)
+                        .fila("P_RESULTADO", DatabaseMetaData.procedureColumnOut, Types.NUMERIC, "NUMBER", DatabaseMetaData.procedureNullable)
+                        .abrir();
+                }
+                default -> valorPredeterminado(metodo);
+            });
+            Connection[] conexion = new Connection[1];
+            conexion[0] = proxy(Connection.class, (instancia, metodo, args) -> switch (metodo.getName()) {
+                case "getMetaData" -> metadatos;
+                case "prepareCall" -> llamada(conexion[0]);
+                case "getAutoCommit" -> true;
+                default -> valorPredeterminado(metodo);
+            });
+            return proxy(DataSource.class, (instancia, metodo, args) ->
+                metodo.getName().equals("getConnection") ? conexion[0] : valorPredeterminado(metodo));
+        }
+
+        private CallableStatement llamada(Connection conexion) {
+            return proxy(CallableStatement.class, (instancia, metodo, args) -> switch (metodo.getName()) {
+                case "execute" -> {
+                    viajar();
+                    yield false;
+                }
+                case "getUpdateCount" -> -1;
+                case "getConnection" -> conexion;
+                case "getObject" -> BigDecimal.ONE;
+                default -> valorPredeterminado(metodo);
+            });
+        }
+
+        private void viajar() {
+            viajes.incrementAndGet();
+            if (latenciaMicros > 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latenciaMicros));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, InvocationHandler manejador) {
+        return (T) Proxy.newProxyInstance(LlamadasProcedimientoBenchmark.class.getClassLoader(), new Class<?>[] {tipo}, manejador);
+    }
+
+    private static Object valorPredeterminado(Method metodo) {
+        Class<?> retorno = metodo.getReturnType();
+        if (retorno == boolean.class) {
+            return false;
+        }
+        if (retorno == int.class) {
+            return 0;
+        }
+        if (retorno == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package co.edu.uniquindio.proyectobases.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ExamenGrupoDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ObtenerExamenDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaEstudianteDto;
+import co.edu.uniquindio.proyectobases.exception.ExamenException;
+import co.edu.uniquindio.proyectobases.repository.CatalogoParametricas;
+import co.edu.uniquindio.proyectobases.repository.ConsultaPreguntas;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+import co.edu.uniquindio.proyectobases.repository.RegistroProcedimientos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Benchmarks del mapeo de filas a DTOs en los repositorios, ejecutando el código real de cada repositorio
+ * sobre un ResultSet en memoria. Miden solo el costo de recorrer las filas y armar los objetos.
+ * <ul>
+ *   <li>'paginaDosConsultas' y 'paginaJoin' comparan la página armada con una consulta de preguntas y otra de
+ *   opciones contra el mismo resultado leído de un solo join agrupado por pregunta.</li>
+ *   <li>'contenidoExamen' mide la agrupación con LinkedHashMap del contenido de un examen.</li>
+ *   <li>'examenesDocente' y 'examenesGrupo' miden los RowMapper de ObtenerExamenDto y ExamenGrupoDto.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapeoRepositoriosBenchmark {
+
+    @Param({"50", "200"})
+    private int preguntas;
+
+    @Param({"4"})
+    private int opcionesPorPregunta;
+
+    private ConsultaPreguntas consultaPreguntas;
+    private ExamenRepository examenRepository;
+
+    @Setup
+    public void preparar() {
+        DataSource dataSource = new BancoSintetico(preguntas, opcionesPorPregunta, preguntas).dataSource();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        CatalogoParametricas catalogo = new CatalogoParametricas(jdbcTemplate, Long.MAX_VALUE);
+        catalogo.recargar();
+        consultaPreguntas = new ConsultaPreguntas(jdbcTemplate, catalogo);
+
+        RegistroProcedimientos procedimientos = new RegistroProcedimientos(jdbcTemplate, new SimpleMeterRegistry());
+        examenRepository = new ExamenRepository(jdbcTemplate, procedimientos, new DataSourceTransactionManager(dataSource));
+    }
+
+    @Benchmark
+    public PaginaDto<ObtenerPreguntaDto> paginaDosConsultas() {
+        return consultaPreguntas.consultar("1 = 1", List.of(), null, preguntas);
+    }
+
+    @Benchmark
+    public void paginaJoin(Blackhole blackhole) {
+        consultaPreguntas.recorrer("1 = 1", List.of(), preguntas * opcionesPorPregunta, blackhole::consume);
+    }
+
+    @Benchmark
+    public List<PreguntaEstudianteDto> contenidoExamen() {
+        return examenRepository.obtenerContenidoExamen(1L);
+    }
+
+    @Benchmark
+    public List<ObtenerExamenDto> examenesDocente() throws ExamenException {
+        return examenRepository.listarExamenesDocente(7L);
+    }
+
+    @Benchmark
+    public List<ExamenGrupoDto> examenesGrupo() throws ExamenException {
+        return examenRepository.ListarExamenGrupo(1L);
+    }
+}
@@ -0,0 +1,101 @@
+package co.edu.uniquindio.proyectobases.benchmark;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import co.edu.uniquindio.proyectobases.dto.MensajeDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaEstudianteDto;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
+
+/**
+ * Benchmarks de la serialización JSON de las respuestas MensajeDto, con un ObjectMapper configurado como el
+ * de Spring Boot. Comparan serializar los DTOs en cada respuesta contra escribir fragmentos ya serializados:
+ * <ul>
+ *   <li>'preguntasDto' y 'preguntasFragmentos' para los listados del banco de preguntas.</li>
+ *   <li>'examenDto' y 'examenPlantillas' para el examen de un estudiante, donde cada respuesta solo completa
+ *   el porcentaje de cada pregunta en la plantilla cacheada.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacionBenchmark {
+
+    @Param({"50", "200"})
+    private int preguntas;
+
+    private ObjectWriter escritor;
+    private MensajeDto<List<ObtenerPreguntaDto>> mensajePreguntas;
+    private MensajeDto<List<FragmentoJson>> mensajeFragmentos;
+    private List<PreguntaEstudianteDto> examen;
+    private List<FragmentoJson.Plantilla> plantillas;
+
+    @Setup
+    public void preparar() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        escritor = mapper.writer();
+
+        BancoSintetico banco = new BancoSintetico(preguntas, 4, 0);
+        List<ObtenerPreguntaDto> listado = banco.preguntasDto();
+        List<FragmentoJson> fragmentos = new ArrayList<>(listado.size());
+        for (ObtenerPreguntaDto pregunta : listado) {
+            fragmentos.add(FragmentoJson.de(mapper, pregunta));
+        }
+        mensajePreguntas = new MensajeDto<>(false, "Preguntas obtenidas exitosamente", listado);
+        mensajeFragmentos = new MensajeDto<>(false, "Preguntas obtenidas exitosamente", fragmentos);
+
+        examen = banco.preguntasEstudianteDto();
+        plantillas = new ArrayList<>(examen.size());
+        for (PreguntaEstudianteDto pregunta : examen) {
+            plantillas.add(FragmentoJson.Plantilla.de(mapper, pregunta, "porcentajePregunta"));
+        }
+    }
+
+    @Benchmark
+    public void preguntasDto() throws Exception {
+        escritor.writeValue(OutputStream.nullOutputStream(), mensajePreguntas);
+    }
+
+    @Benchmark
+    public void preguntasFragmentos() throws Exception {
+        escritor.writeValue(OutputStream.nullOutputStream(), mensajeFragmentos);
+    }
+
+    @Benchmark
+    public void examenDto() throws Exception {
+        List<PreguntaEstudianteDto> respuesta = new ArrayList<>(examen.size());
+        for (PreguntaEstudianteDto pregunta : examen) {
+            respuesta.add(new PreguntaEstudianteDto(pregunta.idPregunta(), pregunta.enunciado(), pregunta.idTipo(),
+                pregunta.idDocente(), pregunta.idUnidad(), 5.0, pregunta.opciones()));
+        }
+        escritor.writeValue(OutputStream.nullOutputStream(), new MensajeDto<>(false, "Examen obtenido exitosamente", respuesta));
+    }
+
+    @Benchmark
+    public void examenPlantillas() throws Exception {
+        List<FragmentoJson> respuesta = new ArrayList<>(plantillas.size());
+        for (FragmentoJson.Plantilla plantilla : plantillas) {
+            respuesta.add(plantilla.con(5.0));
+        }
+        escritor.writeValue(OutputStream.nullOutputStream(), new MensajeDto<>(false, "Examen obtenido exitosamente", respuesta));
+    }
+}
@@ -0,0 +1,351 @@
+package co.edu.uniquindio.proyectobases.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import co.edu.uniquindio.proyectobases.dto.MonitoreoDto.EstadisticaCacheDto;
+
+/**
+ * Cache en memoria acotada por cantidad de entradas (desalojo de la menos usada recientemente)
+ * y por tiempo de vida de cada entrada, con contadores de aciertos, fallos, desalojos e invalidaciones.
+ * Los valores se cargan fuera del bloqueo, por lo que una consulta lenta a la base de datos no bloquea
+ * a los lectores de otras claves. Los fallos simultáneos de una misma clave comparten una sola carga: el primero la
+ * ejecuta y los demás esperan su resultado, en lugar de repetir la consulta; lo mismo vale para las claves de una
+ * carga de varias claves a la vez. Una carga que termina después de que
+ * su clave se invalidó o se guardó directamente no se almacena; invalidar otras claves no la afecta.
+ *
+ * @param <K> tipo de la clave
+ * @param <V> tipo del valor
+ */
+public class CacheAcotada<K, V> {
+
+    private final String nombre;
+    private final int capacidad;
+    private final long ttlNanos;
+    private final ReentrantLock bloqueo = new ReentrantLock();
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    /**
+     * Carga en curso de cada clave. Una carga solo se almacena si al terminar sigue registrada aquí; invalidar o
+     * guardar la clave la retira, de modo que cada clave tiene su propia generación.
+     */
+    private final HashMap<K, Carga<V>> cargas = new HashMap<>();
+
+    /**
+     * Crea una cache acotada.
+     * @param nombre nombre con el que se reportan las estadísticas
+     * @param capacidad cantidad máxima de entradas
+     * @param ttl tiempo de vida de cada entrada desde su carga
+     */
+    public CacheAcotada(String nombre, int capacidad, Duration ttl) {
+        this.nombre = nombre;
+        this.capacidad = capacidad;
+        this.ttlNanos = ttl.toNanos();
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Obtiene el valor asociado a la clave, cargándolo si no está en la cache o si ya expiró.
+     * @param clave clave a consultar
+     * @param cargador función que carga el valor cuando no está en la cache
+     * @return valor asociado a la clave
+     */
+    public V obtener(K clave, Function<? super K, ? extends V> cargador) {
+        Carga<V> carga;
+        boolean propia = false;
+        bloqueo.lock();
+        try {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null) {
+                if (System.nanoTime() - entrada.cargadaEn < ttlNanos) {
+                    aciertos.increment();
+                    return entrada.valor;
+                }
+                entradas.remove(clave);
+                desalojos.increment();
+            }
+            fallos.increment();
+            carga = cargas.get(clave);
+            if (carga == null) {
+                carga = new Carga<>();
+                cargas.put(clave, carga);
+                propia = true;
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+        if (!propia) {
+            return carga.esperar();
+        }
+
+        V valor;
+        try {
+            valor = cargador.apply(clave);
+        } catch (RuntimeException | Error e) {
+            bloqueo.lock();
+            try {
+                cargas.remove(clave, carga);
+            } finally {
+                bloqueo.unlock();
+            }
+            carga.resultado.completeExceptionally(e);
+            throw e;
+        }
+
+        bloqueo.lock();
+        try {
+            if (cargas.remove(clave, carga) && valor != null) {
+                entradas.put(clave, new Entrada<>(valor, System.nanoTime()));
+                desalojarExcedentes();
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+        carga.resultado.complete(valor);
+        return valor;
+    }
+
+    /**
+     * Obtiene los valores de varias claves. Las que no están en la cache ni tienen una carga en curso se cargan
+     * juntas con una sola invocación del cargador, con las mismas garantías que {@link #obtener}: los fallos
+     * simultáneos de esas claves esperan esta carga, y una clave invalidada o guardada mientras tanto no se almacena.
+     * Las claves que otro hilo ya está cargando se esperan en lugar de cargarlas de nuevo.
+     * @param claves claves a consultar; las repetidas se consultan una vez
+     * @param cargador función que recibe las claves faltantes y retorna los valores de las que existen
+     * @return valores de las claves que existen, en el orden de las claves
+     */
+    public Map<K, V> obtenerVarios(Collection<? extends K> claves, Function<? super Set<K>, ? extends Map<K, ? extends V>> cargador) {
+        Map<K, V> encontrados = new LinkedHashMap<>();
+        Map<K, Carga<V>> ajenas = new LinkedHashMap<>();
+        Map<K, Carga<V>> propias = new LinkedHashMap<>();
+        bloqueo.lock();
+        try {
+            long ahora = System.nanoTime();
+            for (K clave : new LinkedHashSet<>(claves)) {
+                Entrada<V> entrada = entradas.get(clave);
+                if (entrada != null) {
+                    if (ahora - entrada.cargadaEn < ttlNanos) {
+                        aciertos.increment();
+                        encontrados.put(clave, entrada.valor);
+                        continue;
+                    }
+                    entradas.remove(clave);
+                    desalojos.increment();
+                }
+                fallos.increment();
+                encontrados.put(clave, null);
+                Carga<V> carga = cargas.get(clave);
+                if (carga != null) {
+                    ajenas.put(clave, carga);
+                } else {
+                    carga = new Carga<>();
+                    cargas.put(clave, carga);
+                    propias.put(clave, carga);
+                }
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+
+        if (!propias.isEmpty()) {
+            Map<K, ? extends V> cargados;
+            try {
+                cargados = cargador.apply(new LinkedHashSet<>(propias.keySet()));
+            } catch (RuntimeException | Error e) {
+                bloqueo.lock();
+                try {
+                    propias.forEach(cargas::remove);
+                } finally {
+                    bloqueo.unlock();
+                }
+                propias.values().forEach(carga -> carga.resultado.completeExceptionally(e));
+                throw e;
+            }
+
+            bloqueo.lock();
+            try {
+                long ahora = System.nanoTime();
+                propias.forEach((clave, carga) -> {
+                    V valor = cargados.get(clave);
+                    if (cargas.remove(clave, carga) && valor != null) {
+                        entradas.put(clave, new Entrada<>(valor, ahora));
+                    }
+                });
+                desalojarExcedentes();
+            } finally {
+                bloqueo.unlock();
+            }
+            propias.forEach((clave, carga) -> {
+                V valor = cargados.get(clave);
+                encontrados.put(clave, valor);
+                carga.resultado.complete(valor);
+            });
+        }
+
+        ajenas.forEach((clave, carga) -> encontrados.put(clave, carga.esperar()));
+        encontrados.values().removeIf(valor -> valor == null);
+        return encontrados;
+    }
+
+    /**
+     * Obtiene el valor asociado a la clave solo si está en la cache y no ha expirado.
+     * @param clave clave a consultar
+     * @return valor en cache o null si no está
+     */
+    public V consultar(K clave) {
+        bloqueo.lock();
+        try {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null && System.nanoTime() - entrada.cargadaEn < ttlNanos) {
+                aciertos.increment();
+                return entrada.valor;
+            }
+            fallos.increment();
+            return null;
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Almacena directamente un valor en la cache. Una carga de la misma clave que esté en curso ya no se almacena
+     * al terminar, para que no reemplace este valor.
+     * @param clave clave del valor
+     * @param valor valor a almacenar
+     */
+    public void guardar(K clave, V valor) {
+        bloqueo.lock();
+        try {
+            cargas.remove(clave);
+            entradas.put(clave, new Entrada<>(valor, System.nanoTime()));
+            desalojarExcedentes();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Reemplaza el valor de una clave solo si la cache todavía tiene el valor esperado, conservando su momento de
+     * carga. Si la entrada se invalidó, expiró o se volvió a cargar mientras se preparaba el nuevo valor, no hace nada.
+     * @param clave clave del valor
+     * @param esperado valor que debe estar en la cache
+     * @param nuevo valor que lo reemplaza
+     * @return true si se reemplazó
+     */
+    public boolean reemplazar(K clave, V esperado, V nuevo) {
+        bloqueo.lock();
+        try {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada == null || entrada.valor != esperado || System.nanoTime() - entrada.cargadaEn >= ttlNanos) {
+                return false;
+            }
+            entradas.put(clave, new Entrada<>(nuevo, entrada.cargadaEn));
+            return true;
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Elimina la entrada asociada a una clave. Una carga de la clave que esté en curso ya no se almacena al terminar.
+     * @param clave clave a invalidar
+     */
+    public void invalidar(K clave) {
+        bloqueo.lock();
+        try {
+            entradas.remove(clave);
+            cargas.remove(clave);
+            invalidaciones.increment();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Elimina todas las entradas de la cache. Las cargas en curso ya no se almacenan al terminar.
+     */
+    public void invalidarTodo() {
+        bloqueo.lock();
+        try {
+            entradas.clear();
+            cargas.clear();
+            invalidaciones.increment();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas de uso de la cache.
+     * @return estadísticas de la cache
+     */
+    public EstadisticaCacheDto estadisticas() {
+        int tamano;
+        bloqueo.lock();
+        try {
+            tamano = entradas.size();
+        } finally {
+            bloqueo.unlock();
+        }
+        return new EstadisticaCacheDto(nombre, tamano, capacidad, aciertos.sum(), fallos.sum(), desalojos.sum(), invalidaciones.sum());
+    }
+
+    /**
+     * Nombre con el que se reportan las estadísticas de la cache.
+     * @return nombre de la cache
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    private void desalojarExcedentes() {
+        Iterator<Map.Entry<K, Entrada<V>>> iterador = entradas.entrySet().iterator();
+        while (entradas.size() > capacidad && iterador.hasNext()) {
+            iterador.next();
+            iterador.remove();
+            desalojos.increment();
+        }
+    }
+
+    private record Entrada<V>(V valor, long cargadaEn) {}
+
+    /**
+     * Carga en curso de una clave, con el resultado que esperan los demás fallos de la misma clave.
+     */
+    private static final class Carga<V> {
+
+        private final CompletableFuture<V> resultado = new CompletableFuture<>();
+
+        /**
+         * Espera el resultado de la carga y lo retorna, o relanza la excepción del cargador.
+         */
+        private V esperar() {
+            try {
+                return resultado.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                if (e.getCause() instanceof Error causa) {
+                    throw causa;
+                }
+                throw e;
+            }
+        }
+    }
+}
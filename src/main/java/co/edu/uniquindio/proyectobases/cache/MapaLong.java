@@ -0,0 +1,169 @@
+package co.edu.uniquindio.proyectobases.cache;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de claves {@code long} primitivas con direccionamiento abierto y sondeo lineal.
+ * A diferencia de un {@code HashMap<Long, V>}, no crea un objeto por clave ni por entrada: las claves quedan en
+ * un arreglo de {@code long} y los valores en un arreglo paralelo, lo que reduce la memoria y la presión sobre el
+ * recolector en índices de cientos de miles de usuarios.
+ * No es seguro entre hilos; se usa construyéndolo por completo y publicándolo después sin modificarlo más.
+ * La clave {@link Long#MIN_VALUE} está reservada para las posiciones vacías.
+ * @param <V> tipo de los valores
+ */
+public final class MapaLong<V> {
+
+    private static final long VACIO = Long.MIN_VALUE;
+
+    private static final float CARGA_MAXIMA = 0.6f;
+
+    private long[] claves;
+    private Object[] valores;
+    private int tamano;
+
+    /**
+     * Crea un mapa con espacio para la cantidad de entradas indicada sin crecer.
+     * @param capacidadEsperada cantidad de entradas esperada
+     */
+    public MapaLong(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(4, (int) (capacidadEsperada / CARGA_MAXIMA) + 1) - 1) << 1;
+        this.claves = new long[capacidad];
+        this.valores = new Object[capacidad];
+        Arrays.fill(claves, VACIO);
+    }
+
+    private MapaLong(long[] claves, Object[] valores, int tamano) {
+        this.claves = claves;
+        this.valores = valores;
+        this.tamano = tamano;
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     * @param clave clave a buscar
+     * @return valor asociado, o null si la clave no está
+     */
+    @SuppressWarnings("unchecked")
+    public V obtener(long clave) {
+        int posicion = posicion(clave);
+        return claves[posicion] == VACIO ? null : (V) valores[posicion];
+    }
+
+    /**
+     * Asocia un valor a una clave, reemplazando el anterior si existía.
+     * @param clave clave, distinta de {@link Long#MIN_VALUE}
+     * @param valor valor a asociar, distinto de null
+     */
+    public void guardar(long clave, V valor) {
+        if (clave == VACIO) {
+            throw new IllegalArgumentException("La clave " + VACIO + " está reservada");
+        }
+        int posicion = posicion(clave);
+        if (claves[posicion] == VACIO) {
+            claves[posicion] = clave;
+            tamano++;
+        }
+        valores[posicion] = valor;
+        if (tamano > claves.length * CARGA_MAXIMA) {
+            redimensionar(claves.length << 1);
+        }
+    }
+
+    /**
+     * Elimina una clave. Las entradas siguientes de la misma secuencia de sondeo se reubican para que sigan
+     * siendo alcanzables, sin dejar marcas de borrado.
+     * @param clave clave a eliminar
+     */
+    public void eliminar(long clave) {
+        int posicion = posicion(clave);
+        if (claves[posicion] == VACIO) {
+            return;
+        }
+        int mascara = claves.length - 1;
+        int hueco = posicion;
+        int siguiente = (hueco + 1) & mascara;
+        while (claves[siguiente] != VACIO) {
+            int ideal = dispersar(claves[siguiente]) & mascara;
+            // La entrada puede ocupar el hueco si su posición ideal no está entre el hueco (excluido) y ella misma
+            if (((siguiente - ideal) & mascara) >= ((siguiente - hueco) & mascara)) {
+                claves[hueco] = claves[siguiente];
+                valores[hueco] = valores[siguiente];
+                hueco = siguiente;
+            }
+            siguiente = (siguiente + 1) & mascara;
+        }
+        claves[hueco] = VACIO;
+        valores[hueco] = null;
+        tamano--;
+    }
+
+    /**
+     * Cantidad de entradas del mapa.
+     * @return cantidad de claves
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Copia independiente del mapa, para modificarla sin afectar a quienes leen el original.
+     * @return copia del mapa
+     */
+    public MapaLong<V> copia() {
+        return new MapaLong<>(claves.clone(), valores.clone(), tamano);
+    }
+
+    /**
+     * Recorre todas las entradas del mapa, sin un orden particular.
+     * @param visitante función que recibe cada clave con su valor
+     */
+    @SuppressWarnings("unchecked")
+    public void recorrer(Visitante<? super V> visitante) {
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != VACIO) {
+                visitante.visitar(claves[i], (V) valores[i]);
+            }
+        }
+    }
+
+    private int posicion(long clave) {
+        int mascara = claves.length - 1;
+        int posicion = dispersar(clave) & mascara;
+        while (claves[posicion] != VACIO && claves[posicion] != clave) {
+            posicion = (posicion + 1) & mascara;
+        }
+        return posicion;
+    }
+
+    private void redimensionar(int capacidad) {
+        long[] clavesAnteriores = claves;
+        Object[] valoresAnteriores = valores;
+        claves = new long[capacidad];
+        valores = new Object[capacidad];
+        Arrays.fill(claves, VACIO);
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO) {
+                int posicion = posicion(clavesAnteriores[i]);
+                claves[posicion] = clavesAnteriores[i];
+                valores[posicion] = valoresAnteriores[i];
+            }
+        }
+    }
+
+    /**
+     * Mezcla los bits de la clave para que ids consecutivos no ocupen posiciones consecutivas.
+     */
+    private static int dispersar(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Función que recibe cada entrada del mapa.
+     * @param <V> tipo de los valores
+     */
+    @FunctionalInterface
+    public interface Visitante<V> {
+        void visitar(long clave, V valor);
+    }
+}
@@ -0,0 +1,85 @@
+package co.edu.uniquindio.proyectobases.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.dto.MonitoreoDto.EstadisticaCacheDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registro de las caches en memoria de la aplicación, usado para crearlas y reportar sus estadísticas en un solo lugar.
+ * Cada cache se publica en Micrometer, etiquetada por su nombre: 'proyectobases.cache.tamano' y los contadores
+ * 'proyectobases.cache.aciertos', 'proyectobases.cache.fallos', 'proyectobases.cache.desalojos' y
+ * 'proyectobases.cache.invalidaciones'.
+ */
+@Component
+public class RegistroCaches {
+
+    /**
+     * Caches creadas a través del registro.
+     */
+    private final List<CacheAcotada<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registro de métricas de la aplicación.
+     */
+    private final MeterRegistry registroMetricas;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param registroMetricas registro de métricas de la aplicación
+     */
+    public RegistroCaches(MeterRegistry registroMetricas) {
+        this.registroMetricas = registroMetricas;
+    }
+
+    /**
+     * Crea una cache acotada y la registra para el monitoreo.
+     * @param nombre nombre de la cache
+     * @param capacidad cantidad máxima de entradas
+     * @param ttl tiempo de vida de cada entrada
+     * @param <K> tipo de la clave
+     * @param <V> tipo del valor
+     * @return cache creada
+     */
+    public <K, V> CacheAcotada<K, V> crear(String nombre, int capacidad, Duration ttl) {
+        CacheAcotada<K, V> cache = new CacheAcotada<>(nombre, capacidad, ttl);
+        caches.add(cache);
+        Gauge.builder("proyectobases.cache.tamano", cache, c -> c.estadisticas().tamano())
+            .description("Entradas guardadas en la cache")
+            .tag("cache", nombre)
+            .register(registroMetricas);
+        contador(cache, "aciertos", "Consultas resueltas con una entrada de la cache", EstadisticaCacheDto::aciertos);
+        contador(cache, "fallos", "Consultas que tuvieron que cargar el valor", EstadisticaCacheDto::fallos);
+        contador(cache, "desalojos", "Entradas desalojadas por capacidad", EstadisticaCacheDto::desalojos);
+        contador(cache, "invalidaciones", "Invalidaciones de una clave o de toda la cache", EstadisticaCacheDto::invalidaciones);
+        return cache;
+    }
+
+    /**
+     * Obtiene las estadísticas de todas las caches registradas.
+     * @return lista de estadísticas por cache
+     */
+    public List<EstadisticaCacheDto> obtenerEstadisticas() {
+        List<EstadisticaCacheDto> estadisticas = new ArrayList<>();
+        for (CacheAcotada<?, ?> cache : caches) {
+            estadisticas.add(cache.estadisticas());
+        }
+        return estadisticas;
+    }
+
+    private void contador(CacheAcotada<?, ?> cache, String nombre, String descripcion, ToDoubleFunction<EstadisticaCacheDto> valor) {
+        FunctionCounter.builder("proyectobases.cache." + nombre, cache, c -> valor.applyAsDouble(c.estadisticas()))
+            .description(descripcion)
+            .tag("cache", cache.getNombre())
+            .register(registroMetricas);
+    }
+}
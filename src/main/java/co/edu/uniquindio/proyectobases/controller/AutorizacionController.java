@@ -1,12 +1,16 @@
 package co.edu.uniquindio.proyectobases.controller;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import co.edu.uniquindio.proyectobases.dto.MensajeDto;
 import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.LoginDto;
-import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.LoginResponseDto;
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.LoginTokenDto;
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.SesionDto;
+import co.edu.uniquindio.proyectobases.exception.AdmisionException;
 import co.edu.uniquindio.proyectobases.exception.AutorizacionException;
+import co.edu.uniquindio.proyectobases.seguridad.FiltroTokenSesion;
 import co.edu.uniquindio.proyectobases.service.AutenticacionService;
 
 /**
@@ -31,18 +35,48 @@ public class AutorizacionController {
     }
 
     /**
-     * Realiza el login de un usuario.
+     * Realiza el login de un usuario y entrega su token de sesión, que se envía en las siguientes peticiones en la
+     * cabecera {@code Authorization: Bearer <token>}.
      * @param logindto DTO con los datos del usuario
      * @return ResponseEntity con el mensaje de respuesta
      * @throws AutorizacionException si ocurre un error al realizar el login
      */
     @PostMapping("/login")
-    public ResponseEntity<MensajeDto<LoginResponseDto>> login(@RequestBody LoginDto logindto) throws AutorizacionException {
+    public ResponseEntity<MensajeDto<LoginTokenDto>> login(@RequestBody LoginDto logindto) throws AutorizacionException {
         try {
-            LoginResponseDto loginResponseDto = autenticacionService.login(logindto);
+            LoginTokenDto loginResponseDto = autenticacionService.login(logindto);
             return ResponseEntity.ok(new MensajeDto<>(false, "Login exitoso", loginResponseDto));
         } catch (AutorizacionException e) {
             return ResponseEntity.badRequest().body(new MensajeDto<>(true, "Credenciales inválidas", null));
+        } catch (AdmisionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new MensajeDto<>(true, e.getMessage(), null));
         }
     }
+
+    /**
+     * Obtiene los datos de la sesión del token, sin consultar la base de datos.
+     * @param sesion sesión validada por el filtro de tokens
+     * @return ResponseEntity con el mensaje de respuesta
+     */
+    @GetMapping("/sesion")
+    public ResponseEntity<MensajeDto<SesionDto>> obtenerSesion(@RequestAttribute(name = FiltroTokenSesion.ATRIBUTO_SESION, required = false) SesionDto sesion) {
+        if (sesion == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MensajeDto<>(true, "No hay una sesión activa", null));
+        }
+        return ResponseEntity.ok(new MensajeDto<>(false, "Sesión obtenida exitosamente", sesion));
+    }
+
+    /**
+     * Cierra la sesión del token: se revoca hasta su expiración.
+     * @param sesion sesión validada por el filtro de tokens
+     * @return ResponseEntity con el mensaje de respuesta
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<MensajeDto<Void>> logout(@RequestAttribute(name = FiltroTokenSesion.ATRIBUTO_SESION, required = false) SesionDto sesion) {
+        if (sesion == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MensajeDto<>(true, "No hay una sesión activa", null));
+        }
+        autenticacionService.cerrarSesion(sesion);
+        return ResponseEntity.ok(new MensajeDto<>(false, "Sesión cerrada exitosamente", null));
+    }
 }
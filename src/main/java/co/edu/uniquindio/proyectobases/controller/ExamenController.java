@@ -4,25 +4,35 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import co.edu.uniquindio.proyectobases.dto.MensajeDto;
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.SesionDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.CalificacionIntentoDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.CrearExamenDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.EditarExamenDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ExamenGrupoDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ObtenerExamenDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.RespuestaCrearExamenDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.RespuestaPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ResultadoGeneracionExamenDTO;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ResultadoRespuestaDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.cantidadPreguntasDto;
-import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaEstudianteDto;
+import co.edu.uniquindio.proyectobases.exception.AccesoExamenException;
 import co.edu.uniquindio.proyectobases.exception.ExamenException;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
+import co.edu.uniquindio.proyectobases.seguridad.AccesoExamenes;
+import co.edu.uniquindio.proyectobases.seguridad.FiltroTokenSesion;
 import co.edu.uniquindio.proyectobases.service.ExamenService;
 
 /**
@@ -38,12 +48,19 @@ public class ExamenController {
      */
     private final ExamenService examenService;
 
+    /**
+     * Reglas de acceso de los endpoints con los que un estudiante presenta un examen.
+     */
+    private final AccesoExamenes accesoExamenes;
+
     /**
      * Constructor que inicializa el servicio.
      * @param examenService servicio que gestiona las operaciones relacionadas con exámenes
+     * @param accesoExamenes reglas de acceso a los exámenes de los estudiantes
      */
-    public ExamenController(ExamenService examenService) {
+    public ExamenController(ExamenService examenService, AccesoExamenes accesoExamenes) {
         this.examenService = examenService;
+        this.accesoExamenes = accesoExamenes;
     }
 
     /**
@@ -135,11 +152,14 @@ public class ExamenController {
      * Genera un examen para un estudiante.
      * @param idExamen identificador del examen
      * @param idEstudiante identificador del estudiante
+     * @param sesion sesión del token de la petición, si la trae
      * @return ResponseEntity con el mensaje de respuesta
      * @throws ExamenException si ocurre un error al generar el examen
+     * @throws AccesoExamenException si el estudiante no puede presentar el examen
      */
     @PostMapping("/generar-examen-estudiante/{idExamen}/{idEstudiante}")
-    public ResponseEntity<MensajeDto<ResultadoGeneracionExamenDTO>> generarExamenEstudiante(@PathVariable Long idExamen, @PathVariable Long idEstudiante) throws ExamenException {
+    public ResponseEntity<MensajeDto<ResultadoGeneracionExamenDTO>> generarExamenEstudiante(@PathVariable Long idExamen, @PathVariable Long idEstudiante, @RequestAttribute(name = FiltroTokenSesion.ATRIBUTO_SESION, required = false) SesionDto sesion) throws ExamenException, AccesoExamenException {
+        accesoExamenes.verificarExamen(idExamen, idEstudiante, sesion);
         try {
             Optional<ResultadoGeneracionExamenDTO> result = examenService.generarExamenEstudiante(idExamen, idEstudiante);
             return ResponseEntity.ok(new MensajeDto<>(false, "Examen generado exitosamente", result.get()));
@@ -152,13 +172,16 @@ public class ExamenController {
      * Obtiene un examen para un estudiante
      * @param idExamen identificador del examen
      * @param idEstudiante identificador del estudiante
+     * @param sesion sesión del token de la petición, si la trae
      * @return ResponseEntity con el mensaje de respuesta
      * @throws ExamenException si ocurre un error al obtener el examen
+     * @throws AccesoExamenException si el estudiante no puede presentar el examen
      */
     @GetMapping("/obtener-examen-estudiante/{idExamen}/{idEstudiante}")
-    public ResponseEntity<MensajeDto<List<PreguntaEstudianteDto>>> obtenerExamenEstudiante(@PathVariable Long idExamen, @PathVariable Long idEstudiante) throws ExamenException {
+    public ResponseEntity<MensajeDto<List<FragmentoJson>>> obtenerExamenEstudiante(@PathVariable Long idExamen, @PathVariable Long idEstudiante, @RequestAttribute(name = FiltroTokenSesion.ATRIBUTO_SESION, required = false) SesionDto sesion) throws ExamenException, AccesoExamenException {
+        accesoExamenes.verificarExamen(idExamen, idEstudiante, sesion);
         try {
-            List<PreguntaEstudianteDto> examen = examenService.obtenerExamenEstudiante(idExamen, idEstudiante);
+            List<FragmentoJson> examen = examenService.obtenerExamenEstudianteJson(idExamen, idEstudiante);
             return ResponseEntity.ok(new MensajeDto<>(false, "Examen obtenido exitosamente", examen));
         } catch (ExamenException e) {
             return ResponseEntity.badRequest().body(new MensajeDto<>(true, e.getMessage(), null));
@@ -171,11 +194,14 @@ public class ExamenController {
      * @param idPregunta identificador de la pregunta
      * @param idOpcion identificador de la opción
      * @param tiempoEmpleado tiempo empleado en la pregunta
+     * @param sesion sesión del token de la petición, si la trae
      * @return ResponseEntity con el mensaje de respuesta
      * @throws ExamenException si ocurre un error al registrar la respuesta
+     * @throws AccesoExamenException si el intento no es del estudiante de la sesión
      */
     @PostMapping("/registrar-respuesta-estudiante/{idIntento}/{idPregunta}/{idOpcion}")
-    public ResponseEntity<MensajeDto<Integer>> registrarRespuestaEstudiante(@PathVariable Long idIntento, @PathVariable Long idPregunta, @PathVariable Long idOpcion) throws ExamenException {
+    public ResponseEntity<MensajeDto<Integer>> registrarRespuestaEstudiante(@PathVariable Long idIntento, @PathVariable Long idPregunta, @PathVariable Long idOpcion, @RequestAttribute(name = FiltroTokenSesion.ATRIBUTO_SESION, required = false) SesionDto sesion) throws ExamenException, AccesoExamenException {
+        accesoExamenes.verificarIntento(idIntento, sesion);
         try {
             int result = examenService.registrarRespuestaEstudiante(idIntento, idPregunta, idOpcion);
             return ResponseEntity.ok(new MensajeDto<>(false, "Respuesta registrada exitosamente", result));
@@ -184,14 +210,56 @@ public class ExamenController {
         }
     }
 
+    /**
+     * Registra en una sola solicitud varias respuestas de un intento
+     * @param idIntento identificador del intento
+     * @param respuestas lista de respuestas (pregunta y opción) del intento
+     * @param sesion sesión del token de la petición, si la trae
+     * @return ResponseEntity con el resultado de cada respuesta
+     * @throws ExamenException si ocurre un error al registrar las respuestas
+     * @throws AccesoExamenException si el intento no es del estudiante de la sesión
+     */
+    @PostMapping("/registrar-respuestas-estudiante/{idIntento}")
+    public ResponseEntity<MensajeDto<List<ResultadoRespuestaDto>>> registrarRespuestasEstudiante(@PathVariable Long idIntento, @RequestBody List<RespuestaPreguntaDto> respuestas, @RequestAttribute(name = FiltroTokenSesion.ATRIBUTO_SESION, required = false) SesionDto sesion) throws ExamenException, AccesoExamenException {
+        accesoExamenes.verificarIntento(idIntento, sesion);
+        try {
+            List<ResultadoRespuestaDto> result = examenService.registrarRespuestasEstudiante(idIntento, respuestas);
+            return ResponseEntity.ok(new MensajeDto<>(false, "Respuestas procesadas exitosamente", result));
+        } catch (ExamenException e) {
+            return ResponseEntity.badRequest().body(new MensajeDto<>(true, e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Guarda de inmediato las respuestas del intento que aún no se han escrito en la base de datos
+     * @param idIntento identificador del intento
+     * @param sesion sesión del token de la petición, si la trae
+     * @return ResponseEntity con el resultado de cada respuesta guardada
+     * @throws ExamenException si ocurre un error al guardar las respuestas
+     * @throws AccesoExamenException si el intento no es del estudiante de la sesión
+     */
+    @PostMapping("/guardar-respuestas/{idIntento}")
+    public ResponseEntity<MensajeDto<List<ResultadoRespuestaDto>>> guardarRespuestas(@PathVariable Long idIntento, @RequestAttribute(name = FiltroTokenSesion.ATRIBUTO_SESION, required = false) SesionDto sesion) throws ExamenException, AccesoExamenException {
+        accesoExamenes.verificarIntento(idIntento, sesion);
+        try {
+            List<ResultadoRespuestaDto> result = examenService.guardarRespuestas(idIntento);
+            return ResponseEntity.ok(new MensajeDto<>(false, "Respuestas guardadas exitosamente", result));
+        } catch (ExamenException e) {
+            return ResponseEntity.badRequest().body(new MensajeDto<>(true, e.getMessage(), null));
+        }
+    }
+
     /**
      * Finaliza un intento y obtiene la calificación
      * @param idIntento identificador del intento
+     * @param sesion sesión del token de la petición, si la trae
      * @return ResponseEntity con el mensaje de respuesta
      * @throws ExamenException si ocurre un error al finalizar el intento
+     * @throws AccesoExamenException si el intento no es del estudiante de la sesión
      */
     @PostMapping("/finalizar-intento-obtener-calificacion/{idIntento}")
-    public ResponseEntity<MensajeDto<Double>> finalizarIntentoYObtenerCalificacion(@PathVariable Long idIntento) throws ExamenException {
+    public ResponseEntity<MensajeDto<Double>> finalizarIntentoYObtenerCalificacion(@PathVariable Long idIntento, @RequestAttribute(name = FiltroTokenSesion.ATRIBUTO_SESION, required = false) SesionDto sesion) throws ExamenException, AccesoExamenException {
+        accesoExamenes.verificarIntento(idIntento, sesion);
         try {
             Optional<Double> result = examenService.finalizarIntentoYObtenerCalificacion(idIntento);
             return ResponseEntity.ok(new MensajeDto<>(false, "Calificación obtenida exitosamente", result.get()));
@@ -200,6 +268,25 @@ public class ExamenController {
         }
     }
 
+    /**
+     * Finaliza y califica todos los intentos abiertos de un examen, después de su fecha de cierre
+     * @param idExamen identificador del examen
+     * @param sesion sesión del token de la petición; debe ser la del docente del examen
+     * @return ResponseEntity con la calificación de cada intento finalizado
+     * @throws ExamenException si ocurre un error al finalizar los intentos
+     * @throws AccesoExamenException si la petición no viene del docente del examen
+     */
+    @PostMapping("/finalizar-intentos-examen/{idExamen}")
+    public ResponseEntity<MensajeDto<List<CalificacionIntentoDto>>> finalizarIntentosExamen(@PathVariable Long idExamen, @RequestAttribute(name = FiltroTokenSesion.ATRIBUTO_SESION, required = false) SesionDto sesion) throws ExamenException, AccesoExamenException {
+        accesoExamenes.verificarDocenteExamen(idExamen, sesion);
+        try {
+            List<CalificacionIntentoDto> result = examenService.finalizarIntentosExamen(idExamen);
+            return ResponseEntity.ok(new MensajeDto<>(false, "Intentos finalizados exitosamente", result));
+        } catch (ExamenException e) {
+            return ResponseEntity.badRequest().body(new MensajeDto<>(true, e.getMessage(), null));
+        }
+    }
+
     /**
      * Edita un examen
      * @param dto DTO con los datos del examen
@@ -236,5 +323,13 @@ public class ExamenController {
         }
     }
 
+    /**
+     * Responde con 403 cuando el estudiante no tiene acceso al examen o al intento.
+     * @param e excepción con el motivo
+     * @return ResponseEntity con el mensaje de error
+     */
+    @ExceptionHandler(AccesoExamenException.class)
+    public ResponseEntity<MensajeDto<Void>> accesoDenegado(AccesoExamenException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new MensajeDto<>(true, e.getMessage(), null));
+    }
 }
-
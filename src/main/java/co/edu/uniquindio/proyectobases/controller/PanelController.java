@@ -0,0 +1,73 @@
+package co.edu.uniquindio.proyectobases.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.edu.uniquindio.proyectobases.dto.MensajeDto;
+import co.edu.uniquindio.proyectobases.dto.PanelDto.PanelDocenteDto;
+import co.edu.uniquindio.proyectobases.dto.PanelDto.PanelEstudianteDto;
+import co.edu.uniquindio.proyectobases.exception.PanelException;
+import co.edu.uniquindio.proyectobases.service.PanelService;
+
+/**
+ * Controlador que entrega los paneles de inicio en una sola petición.
+ */
+@RestController
+@RequestMapping("/api/panel")
+@CrossOrigin(origins = {"http://localhost:4200", "*"})
+public class PanelController {
+
+    /**
+     * Servicio que arma los paneles.
+     */
+    private final PanelService panelService;
+
+    /**
+     * Constructor que inicializa el servicio.
+     * @param panelService servicio que arma los paneles
+     */
+    public PanelController(PanelService panelService) {
+        this.panelService = panelService;
+    }
+
+    /**
+     * Obtiene el panel de inicio de un estudiante: sus cursos y sus grupos con los exámenes de cada uno.
+     * @param idEstudiante identificador del estudiante
+     * @return ResponseEntity con el mensaje de respuesta
+     * @throws PanelException si el panel no se pudo obtener a tiempo
+     */
+    @GetMapping("/estudiante/{idEstudiante}")
+    public ResponseEntity<MensajeDto<PanelEstudianteDto>> obtenerPanelEstudiante(@PathVariable Long idEstudiante) throws PanelException {
+        return ResponseEntity.ok(new MensajeDto<>(false, "Panel obtenido exitosamente", panelService.obtenerPanelEstudiante(idEstudiante)));
+    }
+
+    /**
+     * Obtiene el panel de inicio de un docente: sus cursos, grupos, unidades académicas, exámenes y la primera página
+     * de sus preguntas. Las páginas siguientes se piden a 'obtener-preguntas-docente' con el cursor de la respuesta.
+     * @param idDocente identificador del docente
+     * @param tamano cantidad de preguntas de la primera página (opcional)
+     * @return ResponseEntity con el mensaje de respuesta
+     * @throws PanelException si el panel no se pudo obtener a tiempo
+     */
+    @GetMapping("/docente/{idDocente}")
+    public ResponseEntity<MensajeDto<PanelDocenteDto>> obtenerPanelDocente(@PathVariable Long idDocente, @RequestParam(required = false) Integer tamano) throws PanelException {
+        return ResponseEntity.ok(new MensajeDto<>(false, "Panel obtenido exitosamente", panelService.obtenerPanelDocente(idDocente, tamano)));
+    }
+
+    /**
+     * Responde con 503 cuando un panel no se pudo armar a tiempo, para que el cliente reintente.
+     * @param e excepción con el motivo
+     * @return ResponseEntity con el mensaje de error
+     */
+    @ExceptionHandler(PanelException.class)
+    public ResponseEntity<MensajeDto<Void>> panelNoDisponible(PanelException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new MensajeDto<>(true, e.getMessage(), null));
+    }
+}
@@ -1,27 +1,42 @@
 package co.edu.uniquindio.proyectobases.controller;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import co.edu.uniquindio.proyectobases.dto.MensajeDto;
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.OpcionRespuestaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaDto;
+import co.edu.uniquindio.proyectobases.exception.AdmisionException;
 import co.edu.uniquindio.proyectobases.exception.PreguntaException;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
 import co.edu.uniquindio.proyectobases.service.PreguntaService;
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * Controlador que gestiona las operaciones relacionadas con las preguntas.
+ * Los listados de preguntas se responden por páginas, con el JSON de cada pregunta ya serializado, que es
+ * idéntico al que se obtendría serializando los DTO. Para pedir la página siguiente se envía como 'cursor'
+ * el 'cursorSiguiente' de la página anterior.
  */
 @RestController
 @RequestMapping("/api/pregunta")
@@ -68,52 +83,99 @@ public class PreguntaController {
     }
 
     /**
-     * Obtiene todas las preguntas con sus opciones.
+     * Obtiene una página de todas las preguntas con sus opciones.
+     * @param cursor id de la última pregunta de la página anterior; se omite para la primera página
+     * @param tamano cantidad de preguntas por página
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PreguntaException si ocurre un error al obtener las preguntas
      */
     @GetMapping("/obtener-preguntas-opciones")
-    public ResponseEntity<MensajeDto<List<ObtenerPreguntaDto>>> obtenerTodasLasPreguntasConOpciones() throws PreguntaException {
-        List<ObtenerPreguntaDto> preguntas = preguntaService.obtenerTodasLasPreguntasConOpciones();
-        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", preguntas));
+    public ResponseEntity<MensajeDto<PaginaDto<FragmentoJson>>> obtenerTodasLasPreguntasConOpciones(@RequestParam(required = false) Long cursor, @RequestParam(required = false) Integer tamano) throws PreguntaException {
+        PaginaDto<ObtenerPreguntaDto> preguntas = preguntaService.obtenerTodasLasPreguntasConOpciones(cursor, tamano);
+        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", preguntaService.serializarPagina(preguntas)));
     }
 
     /**
-     * Obtiene todas las preguntas con sus opciones.
+     * Exporta todas las preguntas con sus opciones como JSON delimitado por saltos de línea, una pregunta por línea.
+     * La respuesta se escribe a medida que se leen las preguntas, sin cargar el banco completo en memoria.
+     * Solo se admiten 'pregunta.exportacion.concurrencia' exportaciones a la vez; las demás reciben 503.
+     * El turno se libera también al completarse el procesamiento asíncrono de la respuesta, porque con un tiempo
+     * agotado o una desconexión antes de iniciar el flujo el cuerpo nunca llega a ejecutarse.
+     * @param request petición en curso
+     * @return ResponseEntity con el flujo de la exportación
+     * @throws AdmisionException si ya están en curso todas las exportaciones permitidas
+     */
+    @GetMapping(value = "/exportar-preguntas-opciones", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportarPreguntasConOpciones(HttpServletRequest request) throws AdmisionException {
+        PreguntaService.Exportacion exportacion = preguntaService.reservarExportacion();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(PreguntaService.Exportacion.class,
+            new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest solicitud, Callable<T> tarea) {
+                    exportacion.liberar();
+                }
+            });
+        StreamingResponseBody cuerpo = exportacion::escribir;
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(cuerpo);
+    }
+
+    /**
+     * Obtiene una página de las preguntas de un docente con sus opciones.
+     * @param id identificador del docente
+     * @param cursor id de la última pregunta de la página anterior; se omite para la primera página
+     * @param tamano cantidad de preguntas por página
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PreguntaException si ocurre un error al obtener las preguntas
      */
     @GetMapping("/obtener-preguntas-docente/{id}")
-    public ResponseEntity<MensajeDto<List<ObtenerPreguntaDto>>> listarPreguntasDocente(@PathVariable("id") Long id) throws PreguntaException {
-        List<ObtenerPreguntaDto> preguntas = preguntaService.obtenerPreguntasDocente(id);
-        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", preguntas));
+    public ResponseEntity<MensajeDto<PaginaDto<FragmentoJson>>> listarPreguntasDocente(@PathVariable("id") Long id, @RequestParam(required = false) Long cursor, @RequestParam(required = false) Integer tamano) throws PreguntaException {
+        PaginaDto<ObtenerPreguntaDto> preguntas = preguntaService.obtenerPreguntasDocente(id, cursor, tamano);
+        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", preguntaService.serializarPagina(preguntas)));
     }
 
     /**
-     * Obtiene una lista de preguntas filtradas por el tema especificado.
+     * Obtiene una página de preguntas filtradas por el tema especificado.
      *
      * @param idTema identificador del tema por el cual se filtran las preguntas
+     * @param cursor id de la última pregunta de la página anterior; se omite para la primera página
+     * @param tamano cantidad de preguntas por página
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PreguntaException si ocurre un error al obtener las preguntas
      */
     @GetMapping("/obtener-preguntas-tema/{idTema}")
-    public ResponseEntity<MensajeDto<List<ObtenerPreguntaDto>>> listarPreguntasTema(@PathVariable("idTema") Long idTema) throws PreguntaException {
-        List<ObtenerPreguntaDto> preguntas = preguntaService.obtenerPreguntasTema(idTema);
-        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", preguntas));
+    public ResponseEntity<MensajeDto<PaginaDto<FragmentoJson>>> listarPreguntasTema(@PathVariable("idTema") Long idTema, @RequestParam(required = false) Long cursor, @RequestParam(required = false) Integer tamano) throws PreguntaException {
+        PaginaDto<ObtenerPreguntaDto> preguntas = preguntaService.obtenerPreguntasTema(idTema, cursor, tamano);
+        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", preguntaService.serializarPagina(preguntas)));
     }
 
     /**
-     * Obtiene una lista de preguntas filtradas por el docente y el tema.
+     * Obtiene una página de preguntas filtradas por el docente y el tema.
      *
      * @param idDocente identificador del docente
      * @param idTema identificador del tema
+     * @param cursor id de la última pregunta de la página anterior; se omite para la primera página
+     * @param tamano cantidad de preguntas por página
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PreguntaException si ocurre un error al obtener las preguntas
      */
     @GetMapping("/obtener-preguntas-docente-tema/{idDocente}/{idTema}")
-    public ResponseEntity<MensajeDto<List<ObtenerPreguntaDto>>> listarPreguntasDocenteYTema(@PathVariable("idDocente") Long idDocente, @PathVariable("idTema") Long idTema) throws PreguntaException {
-        List<ObtenerPreguntaDto> preguntas = preguntaService.obtenerPreguntasDocenteYTema(idDocente, idTema);
-        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", preguntas));
+    public ResponseEntity<MensajeDto<PaginaDto<FragmentoJson>>> listarPreguntasDocenteYTema(@PathVariable("idDocente") Long idDocente, @PathVariable("idTema") Long idTema, @RequestParam(required = false) Long cursor, @RequestParam(required = false) Integer tamano) throws PreguntaException {
+        PaginaDto<ObtenerPreguntaDto> preguntas = preguntaService.obtenerPreguntasDocenteYTema(idDocente, idTema, cursor, tamano);
+        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", preguntaService.serializarPagina(preguntas)));
     }
 
+
+    /**
+     * Responde con 503 cuando no hay turno para exportar el banco, para que el cliente reintente más tarde.
+     * @param e excepción con el motivo
+     * @return ResponseEntity con el mensaje de error
+     */
+    @ExceptionHandler(AdmisionException.class)
+    public ResponseEntity<MensajeDto<Void>> exportacionNoDisponible(AdmisionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new MensajeDto<>(true, e.getMessage(), null));
+    }
 }
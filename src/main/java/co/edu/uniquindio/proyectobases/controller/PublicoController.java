@@ -1,18 +1,27 @@
 package co.edu.uniquindio.proyectobases.controller;
 
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import co.edu.uniquindio.proyectobases.dto.MensajeDto;
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
 import co.edu.uniquindio.proyectobases.dto.CursosDto.CursoDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ExamenResumenDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.DificultadDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TablaParametrica;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TemaDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TipoPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.UnidadAcademicaDto;
@@ -37,12 +46,20 @@ public class PublicoController {
      */
     private final PublicoService publicoService;
 
+    /**
+     * Cabecera Cache-Control de las respuestas de paramétricas.
+     */
+    private final CacheControl cacheParametricas;
+
     /**
      * Constructor que inicializa el servicio.
      * @param publicoService servicio que gestiona las operaciones publicas
+     * @param maxAgeSegundos segundos que el cliente puede reutilizar una respuesta de paramétricas sin revalidarla
      */
-    public PublicoController(PublicoService publicoService) {
+    public PublicoController(PublicoService publicoService,
+                             @Value("${parametricas.cache-control.max-age-segundos:60}") long maxAgeSegundos) {
         this.publicoService = publicoService;
+        this.cacheParametricas = CacheControl.maxAge(Duration.ofSeconds(maxAgeSegundos)).cachePublic().mustRevalidate();
     }
 
     /**
@@ -56,34 +73,49 @@ public class PublicoController {
         return ResponseEntity.ok(new MensajeDto<>(false, "Usuario obtenido exitosamente", publicoService.obtenerUsuario(id)));
     }
 
+    /**
+     * Obtiene el detalle de varios usuarios en una sola petición, por ejemplo para los integrantes de un grupo.
+     * Los usuarios que no existen se omiten de la respuesta.
+     * @param ids identificadores de los usuarios, separados por comas
+     * @return ResponseEntity con el mensaje de respuesta
+     * @throws PublicoException si se piden más usuarios de los permitidos por petición
+     */
+    @GetMapping("/obtener-usuarios")
+    public ResponseEntity<MensajeDto<List<UsuarioDetalleDto>>> obtenerUsuarios(@RequestParam List<Long> ids) throws PublicoException {
+        return ResponseEntity.ok(new MensajeDto<>(false, "Usuarios obtenidos exitosamente", publicoService.obtenerUsuarios(ids)));
+    }
+
     /**
      * Obtiene todos los temas.
+     * @param request solicitud con las cabeceras condicionales
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PublicoException si ocurre un error al obtener los temas
      */
     @GetMapping("/obtener-temas")
-    public ResponseEntity<MensajeDto<List<TemaDto>>> listar() throws PublicoException {
-        return ResponseEntity.ok(new MensajeDto<>(false, "Temas obtenidos exitosamente", publicoService.obtenerTemas()));
-    } 
+    public ResponseEntity<MensajeDto<List<TemaDto>>> listar(WebRequest request) throws PublicoException {
+        return responderParametrica(request, "Temas obtenidos exitosamente", publicoService::obtenerTemas, TablaParametrica.TEMA);
+    }
 
     /**
      * Obtiene todas las dificultades.
+     * @param request solicitud con las cabeceras condicionales
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PublicoException si ocurre un error al obtener las dificultades
      */
     @GetMapping("/obtener-dificultades")
-    public ResponseEntity<MensajeDto<List<DificultadDto>>> listarDificultades() throws PublicoException {
-        return ResponseEntity.ok(new MensajeDto<>(false, "Dificultades obtenidas exitosamente", publicoService.obtenerDificultades()));
+    public ResponseEntity<MensajeDto<List<DificultadDto>>> listarDificultades(WebRequest request) throws PublicoException {
+        return responderParametrica(request, "Dificultades obtenidas exitosamente", publicoService::obtenerDificultades, TablaParametrica.DIFICULTAD);
     }
 
     /**
      * Obtiene todos los tipos de preguntas.
+     * @param request solicitud con las cabeceras condicionales
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PublicoException si ocurre un error al obtener los tipos de preguntas
      */
     @GetMapping("/obtener-tipos")
-    public ResponseEntity<MensajeDto<List<TipoPreguntaDto>>> listarTipos() throws PublicoException {
-        return ResponseEntity.ok(new MensajeDto<>(false, "Tipos obtenidos exitosamente", publicoService.obtenerTipos()));
+    public ResponseEntity<MensajeDto<List<TipoPreguntaDto>>> listarTipos(WebRequest request) throws PublicoException {
+        return responderParametrica(request, "Tipos obtenidos exitosamente", publicoService::obtenerTipos, TablaParametrica.TIPO);
     }
 
     /**
@@ -109,23 +141,27 @@ public class PublicoController {
     }
 
     /**
-     * Obtiene todas las preguntas publicas.
+     * Obtiene una página de las preguntas publicas de una unidad académica.
+     * @param idUnidad identificador de la unidad académica
+     * @param cursor id de la última pregunta de la página anterior; se omite para la primera página
+     * @param tamano cantidad de preguntas por página
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PublicoException si ocurre un error al obtener las preguntas
      */
     @GetMapping("/obtener-preguntas-publicas/{idUnidad}")
-    public ResponseEntity<MensajeDto<List<ObtenerPreguntaDto>>> listarPreguntasPublicas(@PathVariable("idUnidad") Long idUnidad) throws PublicoException {
-        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", publicoService.obtenerPreguntasPublicas(idUnidad)));
+    public ResponseEntity<MensajeDto<PaginaDto<ObtenerPreguntaDto>>> listarPreguntasPublicas(@PathVariable("idUnidad") Long idUnidad, @RequestParam(required = false) Long cursor, @RequestParam(required = false) Integer tamano) throws PublicoException {
+        return ResponseEntity.ok(new MensajeDto<>(false, "Preguntas obtenidas exitosamente", publicoService.obtenerPreguntasPublicas(idUnidad, cursor, tamano)));
     }
 
     /**
      * Obtiene todas las visibilidades.
+     * @param request solicitud con las cabeceras condicionales
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PublicoException si ocurre un error al obtener las visibilidades
      */
     @GetMapping("/obtener-visibilidades")
-    public ResponseEntity<MensajeDto<List<VisibilidadDto>>> listarVisibilidades() throws PublicoException {
-        return ResponseEntity.ok(new MensajeDto<>(false, "Visibilidades obtenidas exitosamente", publicoService.obtenerVisibilidades()));
+    public ResponseEntity<MensajeDto<List<VisibilidadDto>>> listarVisibilidades(WebRequest request) throws PublicoException {
+        return responderParametrica(request, "Visibilidades obtenidas exitosamente", publicoService::obtenerVisibilidades, TablaParametrica.VISIBILIDAD);
     }
 
     /**
@@ -140,12 +176,27 @@ public class PublicoController {
 
     /**
      * Obtiene todas las unidades académicas.
+     * @param request solicitud con las cabeceras condicionales
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PublicoException si ocurre un error al obtener las unidades académicas
      */
     @GetMapping("/obtener-unidades")
-    public ResponseEntity<MensajeDto<List<UnidadAcademicaDto>>> listarUnidades() throws PublicoException {
-        return ResponseEntity.ok(new MensajeDto<>(false, "Unidades obtenidas exitosamente", publicoService.obtenerUnidades()));
+    public ResponseEntity<MensajeDto<List<UnidadAcademicaDto>>> listarUnidades(WebRequest request) throws PublicoException {
+        return responderParametrica(request, "Unidades obtenidas exitosamente", publicoService::obtenerUnidades, TablaParametrica.UNIDAD);
+    }
+
+    /**
+     * Recarga el catálogo en memoria de las tablas paramétricas. Solo se admite una recarga por intervalo mínimo;
+     * las demás reciben 429.
+     * @return ResponseEntity con el mensaje de respuesta y la fecha de la carga
+     */
+    @PostMapping("/recargar-parametricas")
+    public ResponseEntity<MensajeDto<String>> recargarParametricas() {
+        try {
+            return ResponseEntity.ok(new MensajeDto<>(false, "Parametricas recargadas exitosamente", publicoService.recargarParametricas()));
+        } catch (PublicoException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new MensajeDto<>(true, e.getMessage(), null));
+        }
     }
 
     /**
@@ -162,12 +213,14 @@ public class PublicoController {
     /**
      * Obtiene todos los temas de una unidad académica.
      * @param id identificador de la unidad académica
+     * @param request solicitud con las cabeceras condicionales
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PublicoException si ocurre un error al obtener los temas
      */
     @GetMapping("/obtener-temas-unidad/{id}")
-    public ResponseEntity<MensajeDto<List<TemaDto>>> listarTemasUnidad(@PathVariable("id") Long id) throws PublicoException {
-        return ResponseEntity.ok(new MensajeDto<>(false, "Temas obtenidos exitosamente", publicoService.obtenerTemasUnidad(id)));
+    public ResponseEntity<MensajeDto<List<TemaDto>>> listarTemasUnidad(@PathVariable("id") Long id, WebRequest request) throws PublicoException {
+        return responderParametrica(request, "Temas obtenidos exitosamente", () -> publicoService.obtenerTemasUnidad(id),
+            TablaParametrica.TEMA, TablaParametrica.CURSO);
     }
 
     /**
@@ -195,12 +248,42 @@ public class PublicoController {
     /**
      * Obtiene todos los temas de un grupo.
      * @param idGrupo identificador del grupo
+     * @param request solicitud con las cabeceras condicionales
      * @return ResponseEntity con el mensaje de respuesta
      * @throws PublicoException si ocurre un error al obtener los temas
      */
     @GetMapping("/obtener-temas-grupo/{idGrupo}")
-    public ResponseEntity<MensajeDto<List<TemaDto>>> listarTemasGrupo(@PathVariable("idGrupo") Long idGrupo) throws PublicoException {
-        return ResponseEntity.ok(new MensajeDto<>(false, "Temas obtenidos exitosamente", publicoService.obtenerTemasGrupo(idGrupo)));
+    public ResponseEntity<MensajeDto<List<TemaDto>>> listarTemasGrupo(@PathVariable("idGrupo") Long idGrupo, WebRequest request) throws PublicoException {
+        return responderParametrica(request, "Temas obtenidos exitosamente", () -> publicoService.obtenerTemasGrupo(idGrupo),
+            TablaParametrica.TEMA, TablaParametrica.GRUPO);
+    }
+
+    /**
+     * Responde una consulta de paramétricas con ETag y Cache-Control. Si el ETag que envía el cliente en
+     * If-None-Match coincide con la versión vigente de las tablas, se responde 304 sin consultar ni serializar nada.
+     * @param request solicitud con las cabeceras condicionales
+     * @param mensaje mensaje de la respuesta
+     * @param consulta consulta que produce los datos cuando el cliente no tiene la versión vigente
+     * @param tablas tablas de las que dependen los datos
+     * @return ResponseEntity con los datos o con estado 304
+     * @throws PublicoException si ocurre un error al obtener los datos
+     */
+    private <T> ResponseEntity<MensajeDto<T>> responderParametrica(WebRequest request, String mensaje,
+                                                                   ConsultaParametrica<T> consulta,
+                                                                   TablaParametrica... tablas) throws PublicoException {
+        String etag = publicoService.obtenerEtag(tablas);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheParametricas).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheParametricas).body(new MensajeDto<>(false, mensaje, consulta.obtener()));
+    }
+
+    /**
+     * Consulta de paramétricas que se ejecuta solo cuando el cliente no tiene la versión vigente.
+     */
+    @FunctionalInterface
+    private interface ConsultaParametrica<T> {
+        T obtener() throws PublicoException;
     }
 
 }
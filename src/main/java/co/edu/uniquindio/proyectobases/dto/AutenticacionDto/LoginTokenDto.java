@@ -0,0 +1,12 @@
+package co.edu.uniquindio.proyectobases.dto.AutenticacionDto;
+
+import java.time.Instant;
+
+public record LoginTokenDto(
+    Long idUsuario,
+    Integer idRol,
+    Long idUnidad,
+    String correo,
+    String token,
+    Instant expira
+) {}
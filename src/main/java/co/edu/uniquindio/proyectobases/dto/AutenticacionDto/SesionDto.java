@@ -0,0 +1,11 @@
+package co.edu.uniquindio.proyectobases.dto.AutenticacionDto;
+
+import java.time.Instant;
+
+public record SesionDto(
+    Long idUsuario,
+    Integer idRol,
+    Long idUnidad,
+    String idToken,
+    Instant expira
+) {}
@@ -0,0 +1,6 @@
+package co.edu.uniquindio.proyectobases.dto.ExamenDto;
+
+public record CalificacionIntentoDto(
+    Long idIntento,
+    Double calificacion
+) {}
@@ -0,0 +1,8 @@
+package co.edu.uniquindio.proyectobases.dto.ExamenDto;
+
+public record OpcionClaveDto(
+    Long idPregunta,
+    Long idOpcion,
+    Long idTipoRespuesta,
+    Double pesoPregunta
+) {}
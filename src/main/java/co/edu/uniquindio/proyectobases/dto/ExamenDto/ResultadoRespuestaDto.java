@@ -0,0 +1,7 @@
+package co.edu.uniquindio.proyectobases.dto.ExamenDto;
+
+public record ResultadoRespuestaDto(
+    Long idPregunta,
+    Long idOpcion,
+    Integer resultado
+) {}
@@ -0,0 +1,11 @@
+package co.edu.uniquindio.proyectobases.dto.MonitoreoDto;
+
+public record EstadisticaCacheDto(
+    String cache,
+    int tamano,
+    int capacidad,
+    long aciertos,
+    long fallos,
+    long desalojos,
+    long invalidaciones
+) {}
@@ -0,0 +1,9 @@
+package co.edu.uniquindio.proyectobases.dto;
+
+import java.util.List;
+
+public record PaginaDto<T>(
+    List<T> elementos,
+    Long cursorSiguiente,
+    boolean hayMas
+) {}
@@ -0,0 +1,13 @@
+package co.edu.uniquindio.proyectobases.dto.PanelDto;
+
+import java.util.List;
+
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ExamenGrupoDto;
+
+public record GrupoPanelDto(
+    Long idGrupo,
+    String nombre,
+    Long idCurso,
+    String nombreCurso,
+    List<ExamenGrupoDto> examenes
+) {}
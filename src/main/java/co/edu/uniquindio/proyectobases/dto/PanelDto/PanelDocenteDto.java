@@ -0,0 +1,19 @@
+package co.edu.uniquindio.proyectobases.dto.PanelDto;
+
+import java.util.List;
+
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
+import co.edu.uniquindio.proyectobases.dto.CursosDto.CursoDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ObtenerExamenDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.UnidadAcademicaDto;
+import co.edu.uniquindio.proyectobases.dto.PublicoDto.ObtenerGruposIdDto;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
+
+public record PanelDocenteDto(
+    Long idDocente,
+    List<CursoDto> cursos,
+    List<ObtenerGruposIdDto> grupos,
+    List<UnidadAcademicaDto> unidades,
+    List<ObtenerExamenDto> examenes,
+    PaginaDto<FragmentoJson> preguntas
+) {}
@@ -0,0 +1,11 @@
+package co.edu.uniquindio.proyectobases.dto.PanelDto;
+
+import java.util.List;
+
+import co.edu.uniquindio.proyectobases.dto.CursosDto.CursoDto;
+
+public record PanelEstudianteDto(
+    Long idEstudiante,
+    List<CursoDto> cursos,
+    List<GrupoPanelDto> grupos
+) {}
@@ -0,0 +1,15 @@
+package co.edu.uniquindio.proyectobases.dto.ParametricasDto;
+
+/**
+ * Tablas de referencia cuyo contenido se versiona en el catálogo de paramétricas.
+ */
+public enum TablaParametrica {
+    TEMA,
+    DIFICULTAD,
+    TIPO,
+    VISIBILIDAD,
+    UNIDAD,
+    ESTADO,
+    CURSO,
+    GRUPO
+}
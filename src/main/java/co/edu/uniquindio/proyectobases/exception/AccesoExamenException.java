@@ -0,0 +1,7 @@
+package co.edu.uniquindio.proyectobases.exception;
+
+public class AccesoExamenException extends Exception {
+    public AccesoExamenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package co.edu.uniquindio.proyectobases.exception;
+
+public class AdmisionException extends Exception {
+    public AdmisionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package co.edu.uniquindio.proyectobases.exception;
+
+public class PanelException extends Exception {
+    public PanelException(String message) {
+        super(message);
+    }
+}
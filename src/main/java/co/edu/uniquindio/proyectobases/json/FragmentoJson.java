@@ -0,0 +1,128 @@
+package co.edu.uniquindio.proyectobases.json;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Valor JSON ya serializado y codificado en UTF-8.
+ * Al escribir la respuesta, Jackson copia sus bytes directamente al flujo de salida en lugar de volver a
+ * recorrer el objeto original, por lo que un fragmento cacheado se serializa una sola vez sin importar cuántas
+ * respuestas lo incluyan. Puede formarse por varias partes, por ejemplo el contenido de una pregunta con
+ * un campo propio de cada estudiante intercalado.
+ */
+@JsonSerialize(using = FragmentoJson.Serializador.class)
+public final class FragmentoJson {
+
+    /**
+     * Partes del fragmento en el orden en que se escriben; sus bytes UTF-8 quedan calculados al crearlas.
+     */
+    private final SerializedString[] partes;
+
+    private FragmentoJson(SerializedString... partes) {
+        for (SerializedString parte : partes) {
+            parte.asUnquotedUTF8();
+        }
+        this.partes = partes;
+    }
+
+    /**
+     * Serializa un valor con el ObjectMapper de la aplicación, para que el fragmento sea idéntico a lo que
+     * Jackson escribiría para el valor original.
+     * @param mapper ObjectMapper de la aplicación
+     * @param valor valor a serializar
+     * @return fragmento con el JSON del valor
+     */
+    public static FragmentoJson de(ObjectMapper mapper, Object valor) {
+        return new FragmentoJson(new SerializedString(escribir(mapper, valor)));
+    }
+
+    /**
+     * Cantidad de bytes UTF-8 del fragmento.
+     * @return tamaño del fragmento en bytes
+     */
+    public int tamano() {
+        int tamano = 0;
+        for (SerializedString parte : partes) {
+            tamano += parte.asUnquotedUTF8().length;
+        }
+        return tamano;
+    }
+
+    private static String escribir(ObjectMapper mapper, Object valor) {
+        try {
+            return mapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el fragmento JSON", e);
+        }
+    }
+
+    /**
+     * Fragmento con un hueco para un campo numérico que cambia en cada respuesta, como el porcentaje de una
+     * pregunta en el intento de cada estudiante. El resto del objeto se serializa una sola vez.
+     */
+    public static final class Plantilla {
+
+        private final SerializedString prefijo;
+        private final SerializedString sufijo;
+
+        private Plantilla(SerializedString prefijo, SerializedString sufijo) {
+            prefijo.asUnquotedUTF8();
+            sufijo.asUnquotedUTF8();
+            this.prefijo = prefijo;
+            this.sufijo = sufijo;
+        }
+
+        /**
+         * Serializa un valor cuyo campo variable es nulo y lo divide alrededor de ese campo.
+         * @param mapper ObjectMapper de la aplicación
+         * @param valor valor a serializar, con el campo variable en null
+         * @param campo nombre del campo variable
+         * @return plantilla del valor
+         * @throws IllegalStateException si el campo no aparece como nulo en el JSON del valor
+         */
+        public static Plantilla de(ObjectMapper mapper, Object valor, String campo) {
+            String json = escribir(mapper, valor);
+            // Las comillas dentro de cadenas se escapan, así que el patrón solo puede coincidir con el campo mismo
+            String hueco = "\"" + campo + "\":null";
+            int posicion = json.indexOf(hueco);
+            if (posicion < 0) {
+                throw new IllegalStateException("El campo '" + campo + "' no se serializa como nulo");
+            }
+            int finPrefijo = posicion + hueco.length() - "null".length();
+            return new Plantilla(
+                new SerializedString(json.substring(0, finPrefijo)),
+                new SerializedString(json.substring(posicion + hueco.length()))
+            );
+        }
+
+        /**
+         * Completa la plantilla con el valor del campo variable.
+         * @param valor valor del campo, o null
+         * @return fragmento completo
+         */
+        public FragmentoJson con(Number valor) {
+            return new FragmentoJson(prefijo, new SerializedString(String.valueOf(valor)), sufijo);
+        }
+    }
+
+    /**
+     * Serializador que copia las partes del fragmento sin interpretarlas.
+     */
+    public static final class Serializador extends JsonSerializer<FragmentoJson> {
+
+        @Override
+        public void serialize(FragmentoJson fragmento, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeRawValue(fragmento.partes[0]);
+            for (int i = 1; i < fragmento.partes.length; i++) {
+                gen.writeRaw(fragmento.partes[i]);
+            }
+        }
+    }
+}
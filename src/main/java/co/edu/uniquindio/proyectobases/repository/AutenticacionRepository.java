@@ -1,10 +1,8 @@
 package co.edu.uniquindio.proyectobases.repository;
 
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.SqlOutParameter;
 import org.springframework.jdbc.core.SqlParameter;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
-import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 import org.springframework.stereotype.Repository;
 
 import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.LoginResponseDto;
@@ -21,16 +19,25 @@ import java.util.Optional;
 public class AutenticacionRepository {
 
     /**
-     * JdbcTemplate para realizar operaciones sobre la base de datos.
+     * Registro compartido de procedimientos almacenados precompilados.
      */
-    private final JdbcTemplate jdbcTemplate;
+    private final RegistroProcedimientos procedimientos;
 
     /**
-     * Constructor que recibe el JdbcTemplate por inyección de dependencias.
-     * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     * Constructor que recibe el registro de procedimientos por inyección de dependencias
+     * y declara una sola vez el procedimiento 'validar_login'.
+     * @param procedimientos registro de procedimientos almacenados
      */
-    public AutenticacionRepository(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    public AutenticacionRepository(RegistroProcedimientos procedimientos) {
+        this.procedimientos = procedimientos;
+
+        procedimientos.registrar("validar_login",
+            new SqlParameter("p_correo", Types.VARCHAR),
+            new SqlParameter("p_contrasena", Types.VARCHAR),
+            new SqlOutParameter("p_result", Types.INTEGER),
+            new SqlOutParameter("p_idusuario", Types.NUMERIC),
+            new SqlOutParameter("p_idrol", Types.NUMERIC)
+        );
     }
 
     /**
@@ -41,24 +48,13 @@ public class AutenticacionRepository {
      */
     public Optional<LoginResponseDto> validarLogin(String correo, String contrasena) {
         try {
-            // Configura el llamado al procedimiento almacenado 'validar_login' y sus parámetros de entrada/salida
-            SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withProcedureName("validar_login")
-                .declareParameters(
-                    new SqlParameter("p_correo", Types.VARCHAR),
-                    new SqlParameter("p_contrasena", Types.VARCHAR),
-                    new SqlOutParameter("p_result", Types.INTEGER),
-                    new SqlOutParameter("p_idusuario", Types.NUMERIC),
-                    new SqlOutParameter("p_idrol", Types.NUMERIC)
-                );
-
             // Prepara los parámetros de entrada para el procedimiento
             MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("p_correo", correo)
                 .addValue("p_contrasena", contrasena);
 
             // Ejecuta el procedimiento y obtiene los resultados
-            Map<String, Object> result = jdbcCall.execute(params);
+            Map<String, Object> result = procedimientos.ejecutar("validar_login", params);
 
             // Recupera el código de resultado para verificar si la autenticación fue exitosa
             Number resultCode = (Number) result.get("p_result");
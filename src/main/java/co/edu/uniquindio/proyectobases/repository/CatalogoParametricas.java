@@ -0,0 +1,492 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.DificultadDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TablaParametrica;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TemaDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TipoPreguntaDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.UnidadAcademicaDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.VisibilidadDto;
+
+/**
+ * Catálogo en memoria de las tablas paramétricas: temas, dificultades, tipos de pregunta, visibilidades,
+ * unidades académicas y estados. Estas tablas cambian pocas veces por semestre, por lo que se leen completas
+ * al iniciar la aplicación y se recargan de forma periódica o a solicitud.
+ * Cada carga produce una instantánea inmutable que reemplaza a la anterior de forma atómica; los lectores
+ * nunca toman bloqueos ni ven una mezcla de dos cargas. Cada tabla tiene además una versión, usada como ETag
+ * por los endpoints de paramétricas para responder 304 sin consultar la base de datos. La instantánea guarda
+ * también las relaciones Tema-Curso, Curso-Unidad y Grupo-Curso, de modo que los temas por unidad y por grupo
+ * se sirven de la misma carga de la que sale su versión.
+ */
+@Component
+public class CatalogoParametricas {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoParametricas.class);
+
+    /**
+     * Consulta del nombre por id de cada tabla paramétrica con nombre, con un hueco para la lista de ids.
+     */
+    private static final Map<TablaParametrica, String> CONSULTAS_NOMBRE = new EnumMap<>(Map.of(
+        TablaParametrica.TEMA, "SELECT idTema AS id, nombre FROM Tema WHERE idTema IN (%s)",
+        TablaParametrica.DIFICULTAD, "SELECT idDificultad AS id, nombre FROM DificultadPregunta WHERE idDificultad IN (%s)",
+        TablaParametrica.TIPO, "SELECT idTipo AS id, nombre FROM TipoPregunta WHERE idTipo IN (%s)",
+        TablaParametrica.VISIBILIDAD, "SELECT idVisibilidad AS id, nombre FROM VisibilidadPregunta WHERE idVisibilidad IN (%s)",
+        TablaParametrica.UNIDAD, "SELECT idUnidad AS id, nombre FROM UnidadAcademica WHERE idUnidad IN (%s)",
+        TablaParametrica.ESTADO, "SELECT idEstado AS id, nombre FROM EstadoGeneral WHERE idEstado IN (%s)"
+    ));
+
+    /**
+     * JdbcTemplate para leer las tablas paramétricas.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Milisegundos mínimos entre dos recargas a solicitud: las provocadas por un id desconocido y las pedidas
+     * por el endpoint de recarga comparten este límite.
+     */
+    private final long recargaPorFaltanteMs;
+
+    /**
+     * Instantánea vigente; null hasta la primera carga.
+     */
+    private final AtomicReference<Instantanea> actual = new AtomicReference<>();
+
+    /**
+     * Momento de la última recarga a solicitud.
+     */
+    private final AtomicLong ultimaRecargaAPedido = new AtomicLong();
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     * @param recargaPorFaltanteMs milisegundos mínimos entre recargas a solicitud, incluidas las provocadas por un id
+     *                             que no está en el catálogo
+     */
+    public CatalogoParametricas(JdbcTemplate jdbcTemplate,
+                                @Value("${parametricas.recarga-por-faltante-ms:10000}") long recargaPorFaltanteMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recargaPorFaltanteMs = recargaPorFaltanteMs;
+    }
+
+    /**
+     * Carga el catálogo al terminar de iniciar la aplicación, antes de atender la primera solicitud.
+     * Si la base de datos no está disponible el catálogo se carga en el primer acceso.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo precargar el catálogo de paramétricas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarga periódicamente el catálogo para recoger cambios hechos directamente en la base de datos.
+     */
+    @Scheduled(initialDelayString = "${parametricas.recarga-ms:3600000}", fixedDelayString = "${parametricas.recarga-ms:3600000}")
+    public void recargarPeriodicamente() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo recargar el catálogo de paramétricas, se conserva el anterior: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lee de nuevo todas las tablas paramétricas y reemplaza la instantánea vigente.
+     * Al leer cada tabla se calcula su versión, una huella de su contenido que solo cambia si cambian sus filas.
+     * @return instantánea recién cargada
+     */
+    public Instantanea recargar() {
+        Map<TablaParametrica, Long> versiones = new EnumMap<>(TablaParametrica.class);
+
+        List<TemaDto> temas = new ArrayList<>();
+        Map<Long, Long> cursoDeTema = new HashMap<>();
+        Huella huellaTemas = new Huella();
+        jdbcTemplate.query("SELECT idTema, nombre, idCurso FROM Tema ORDER BY idTema", (RowCallbackHandler) rs -> {
+            long idTema = rs.getLong("idTema");
+            long idCurso = rs.getLong("idCurso");
+            if (!rs.wasNull()) {
+                cursoDeTema.put(idTema, idCurso);
+            }
+            temas.add(new TemaDto(idTema, rs.getString("nombre")));
+            huellaTemas.agregar(idTema).agregar(rs.getString("nombre")).agregar(idCurso);
+        });
+        versiones.put(TablaParametrica.TEMA, huellaTemas.valor());
+
+        Map<Long, String> estados = new HashMap<>();
+        for (Map.Entry<Long, String> estado : cargarNombres("SELECT idEstado AS id, nombre FROM EstadoGeneral ORDER BY idEstado",
+                TablaParametrica.ESTADO, versiones, AbstractMap.SimpleImmutableEntry<Long, String>::new)) {
+            estados.put(estado.getKey(), nombreNoNulo(estado.getValue()));
+        }
+
+        Map<Long, Long> unidadDeCurso = cargarRelacion("SELECT idCurso, idUnidad FROM Curso ORDER BY idCurso",
+            TablaParametrica.CURSO, versiones);
+        Map<Long, Long> cursoDeGrupo = cargarRelacion("SELECT idGrupo, idCurso FROM Grupo ORDER BY idGrupo",
+            TablaParametrica.GRUPO, versiones);
+
+        Instantanea instantanea = new Instantanea(
+            temas,
+            cursoDeTema,
+            unidadDeCurso,
+            cursoDeGrupo,
+            cargarNombres("SELECT idDificultad AS id, nombre FROM DificultadPregunta ORDER BY idDificultad",
+                TablaParametrica.DIFICULTAD, versiones, DificultadDto::new),
+            cargarNombres("SELECT idTipo AS id, nombre FROM TipoPregunta ORDER BY idTipo",
+                TablaParametrica.TIPO, versiones, TipoPreguntaDto::new),
+            cargarNombres("SELECT idVisibilidad AS id, nombre FROM VisibilidadPregunta ORDER BY idVisibilidad",
+                TablaParametrica.VISIBILIDAD, versiones, VisibilidadDto::new),
+            cargarNombres("SELECT idUnidad AS id, nombre FROM UnidadAcademica ORDER BY idUnidad",
+                TablaParametrica.UNIDAD, versiones, UnidadAcademicaDto::new),
+            estados,
+            versiones,
+            Instant.now()
+        );
+        actual.set(instantanea);
+        return instantanea;
+    }
+
+    /**
+     * Recarga el catálogo a solicitud de un cliente, como máximo una vez cada {@link #recargaPorFaltanteMs}
+     * milisegundos, para que el endpoint de recarga no pueda usarse para releer las tablas en cada petición.
+     * @return Optional con la instantánea recién cargada, vacío si ya hubo una recarga a solicitud dentro del intervalo
+     */
+    public Optional<Instantanea> recargarAPedido() {
+        return tomarTurnoRecarga() ? Optional.of(recargar()) : Optional.empty();
+    }
+
+    /**
+     * Milisegundos mínimos entre dos recargas a solicitud.
+     * @return intervalo mínimo en milisegundos
+     */
+    public long getRecargaPorFaltanteMs() {
+        return recargaPorFaltanteMs;
+    }
+
+    /**
+     * Obtiene la instantánea vigente, cargándola si aún no se ha cargado.
+     * @return instantánea vigente del catálogo
+     */
+    public Instantanea obtener() {
+        Instantanea instantanea = actual.get();
+        return instantanea != null ? instantanea : recargar();
+    }
+
+    /**
+     * Nombre de una fila paramétrica en la instantánea vigente, sin recargar el catálogo ni consultar la base de
+     * datos, por lo que se puede usar mientras una consulta tiene abierta su conexión, por ejemplo desde un RowMapper.
+     * @param tabla tabla de la fila; una de las que tienen nombre por id
+     * @param id identificador de la fila
+     * @return nombre de la fila (vacío si la fila no tiene nombre), o null si el id no está en la instantánea
+     */
+    public String nombreConocido(TablaParametrica tabla, long id) {
+        return obtener().nombres(tabla).get(id);
+    }
+
+    /**
+     * Resuelve los nombres de los ids que una consulta ya terminada no encontró en la instantánea. Nunca debe
+     * invocarse con una consulta abierta: si le corresponde turno recarga el catálogo, y los ids que la recarga no
+     * trajo, o todos si no hubo turno, se leen directamente de sus tablas sin guardarlos en el catálogo.
+     * @param faltantes ids desconocidos de cada tabla
+     * @return nombre de cada id de cada tabla; nunca null, vacío para una fila sin nombre o que ya no existe
+     */
+    public Map<TablaParametrica, Map<Long, String>> resolverFaltantes(Map<TablaParametrica, Set<Long>> faltantes) {
+        Instantanea instantanea = tomarTurnoRecarga() ? recargar() : obtener();
+        Map<TablaParametrica, Map<Long, String>> resueltos = new EnumMap<>(TablaParametrica.class);
+        faltantes.forEach((tabla, ids) -> {
+            Map<Long, String> nombres = new HashMap<>();
+            List<Long> sinNombre = new ArrayList<>();
+            for (Long id : ids) {
+                String nombre = instantanea.nombres(tabla).get(id);
+                if (nombre != null) {
+                    nombres.put(id, nombre);
+                } else {
+                    sinNombre.add(id);
+                }
+            }
+            if (!sinNombre.isEmpty()) {
+                String marcadores = String.join(", ", Collections.nCopies(sinNombre.size(), "?"));
+                jdbcTemplate.query(CONSULTAS_NOMBRE.get(tabla).formatted(marcadores),
+                    (RowCallbackHandler) rs -> nombres.put(rs.getLong("id"), nombreNoNulo(rs.getString("nombre"))),
+                    sinNombre.toArray());
+                sinNombre.forEach(id -> nombres.putIfAbsent(id, ""));
+            }
+            resueltos.put(tabla, nombres);
+        });
+        return resueltos;
+    }
+
+    /**
+     * Lee directamente el nombre de una fila paramétrica con una conexión ya abierta, sin pedir otra al pool ni
+     * recargar el catálogo, para resolver un id desconocido en medio de un recorrido en flujo.
+     * @param conexion conexión del recorrido
+     * @param tabla tabla de la fila; una de las que tienen nombre por id
+     * @param id identificador de la fila
+     * @return nombre de la fila, vacío si no tiene nombre o ya no existe
+     * @throws SQLException si falla la consulta
+     */
+    public String leerNombre(Connection conexion, TablaParametrica tabla, long id) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement(CONSULTAS_NOMBRE.get(tabla).formatted("?"))) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? nombreNoNulo(rs.getString("nombre")) : "";
+            }
+        }
+    }
+
+    /**
+     * Versión del contenido de una tabla paramétrica en la instantánea vigente.
+     * @param tabla tabla a consultar
+     * @return huella del contenido de la tabla
+     */
+    public long version(TablaParametrica tabla) {
+        return obtener().versiones.get(tabla);
+    }
+
+    /**
+     * Lee una tabla de pares (id, nombre) y registra su versión.
+     */
+    private <T> List<T> cargarNombres(String sql, TablaParametrica tabla, Map<TablaParametrica, Long> versiones,
+                                      BiFunction<Long, String, T> fabrica) {
+        List<T> filas = new ArrayList<>();
+        Huella huella = new Huella();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            long id = rs.getLong("id");
+            String nombre = rs.getString("nombre");
+            filas.add(fabrica.apply(id, nombre));
+            huella.agregar(id).agregar(nombre);
+        });
+        versiones.put(tabla, huella.valor());
+        return filas;
+    }
+
+    /**
+     * Lee una relación de dos columnas numéricas como un índice de la primera a la segunda y registra su versión.
+     * Las filas con la segunda columna nula cuentan para la versión pero no entran en el índice.
+     */
+    private Map<Long, Long> cargarRelacion(String sql, TablaParametrica tabla, Map<TablaParametrica, Long> versiones) {
+        Map<Long, Long> relacion = new HashMap<>();
+        Huella huella = new Huella();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            long id = rs.getLong(1);
+            long destino = rs.getLong(2);
+            if (!rs.wasNull()) {
+                relacion.put(id, destino);
+            }
+            huella.agregar(id).agregar(destino);
+        });
+        versiones.put(tabla, huella.valor());
+        return relacion;
+    }
+
+    /**
+     * Reserva la próxima recarga a solicitud si ya pasó el intervalo mínimo desde la anterior. Entre varias
+     * solicitudes simultáneas solo una la obtiene.
+     */
+    private boolean tomarTurnoRecarga() {
+        long ahora = System.currentTimeMillis();
+        long ultima = ultimaRecargaAPedido.get();
+        return ahora - ultima >= recargaPorFaltanteMs && ultimaRecargaAPedido.compareAndSet(ultima, ahora);
+    }
+
+    /**
+     * Los índices de nombres guardan como vacío el nombre nulo de una fila, para distinguirla de un id desconocido.
+     */
+    private static String nombreNoNulo(String nombre) {
+        return nombre != null ? nombre : "";
+    }
+
+    /**
+     * Contenido inmutable de una carga del catálogo: las listas tal como las exponen los servicios,
+     * los temas agrupados por curso y por unidad, y los índices de nombre por id usados al armar los listados
+     * de preguntas.
+     */
+    public static final class Instantanea {
+
+        private final List<TemaDto> temas;
+        private final List<DificultadDto> dificultades;
+        private final List<TipoPreguntaDto> tipos;
+        private final List<VisibilidadDto> visibilidades;
+        private final List<UnidadAcademicaDto> unidades;
+        private final Map<Long, String> nombresTema;
+        private final Map<Long, String> nombresDificultad;
+        private final Map<Long, String> nombresTipo;
+        private final Map<Long, String> nombresVisibilidad;
+        private final Map<Long, String> nombresUnidad;
+        private final Map<Long, String> nombresEstado;
+        private final Map<Long, List<TemaDto>> temasPorCurso;
+        private final Map<Long, List<TemaDto>> temasPorUnidad;
+        private final Map<Long, Long> cursoDeGrupo;
+        private final Map<TablaParametrica, Long> versiones;
+        private final Instant cargadaEn;
+
+        private Instantanea(List<TemaDto> temas, Map<Long, Long> cursoDeTema, Map<Long, Long> unidadDeCurso,
+                            Map<Long, Long> cursoDeGrupo, List<DificultadDto> dificultades, List<TipoPreguntaDto> tipos,
+                            List<VisibilidadDto> visibilidades, List<UnidadAcademicaDto> unidades,
+                            Map<Long, String> estados, Map<TablaParametrica, Long> versiones, Instant cargadaEn) {
+            this.temas = List.copyOf(temas);
+            this.dificultades = List.copyOf(dificultades);
+            this.tipos = List.copyOf(tipos);
+            this.visibilidades = List.copyOf(visibilidades);
+            this.unidades = List.copyOf(unidades);
+            this.nombresTema = indexar(temas, TemaDto::idTema, TemaDto::nombre);
+            this.nombresDificultad = indexar(dificultades, DificultadDto::idDificultad, DificultadDto::nombre);
+            this.nombresTipo = indexar(tipos, TipoPreguntaDto::idTipo, TipoPreguntaDto::nombre);
+            this.nombresVisibilidad = indexar(visibilidades, VisibilidadDto::idVisibilidad, VisibilidadDto::nombre);
+            this.nombresUnidad = indexar(unidades, UnidadAcademicaDto::idUnidad, UnidadAcademicaDto::nombre);
+            this.nombresEstado = Map.copyOf(estados);
+            Map<Long, List<TemaDto>> porCurso = new HashMap<>();
+            Map<Long, List<TemaDto>> porUnidad = new HashMap<>();
+            for (TemaDto tema : temas) {
+                Long idCurso = cursoDeTema.get(tema.idTema());
+                if (idCurso == null) {
+                    continue;
+                }
+                porCurso.computeIfAbsent(idCurso, id -> new ArrayList<>()).add(tema);
+                Long idUnidad = unidadDeCurso.get(idCurso);
+                if (idUnidad != null) {
+                    porUnidad.computeIfAbsent(idUnidad, id -> new ArrayList<>()).add(tema);
+                }
+            }
+            this.temasPorCurso = congelar(porCurso);
+            this.temasPorUnidad = congelar(porUnidad);
+            this.cursoDeGrupo = Map.copyOf(cursoDeGrupo);
+            this.versiones = new EnumMap<>(versiones);
+            this.cargadaEn = cargadaEn;
+        }
+
+        public List<TemaDto> temas() {
+            return temas;
+        }
+
+        public List<DificultadDto> dificultades() {
+            return dificultades;
+        }
+
+        public List<TipoPreguntaDto> tipos() {
+            return tipos;
+        }
+
+        public List<VisibilidadDto> visibilidades() {
+            return visibilidades;
+        }
+
+        public List<UnidadAcademicaDto> unidades() {
+            return unidades;
+        }
+
+        public Instant cargadaEn() {
+            return cargadaEn;
+        }
+
+        /**
+         * Temas de los cursos de una unidad académica, en orden de id.
+         * @param idUnidad identificador de la unidad académica
+         * @return temas de la unidad, vacío si no tiene
+         */
+        public List<TemaDto> temasUnidad(long idUnidad) {
+            return temasPorUnidad.getOrDefault(idUnidad, List.of());
+        }
+
+        /**
+         * Temas del curso al que pertenece un grupo, en orden de id.
+         * @param idGrupo identificador del grupo
+         * @return temas del grupo, vacío si el grupo no existe o su curso no tiene temas
+         */
+        public List<TemaDto> temasGrupo(long idGrupo) {
+            Long idCurso = cursoDeGrupo.get(idGrupo);
+            return idCurso != null ? temasPorCurso.getOrDefault(idCurso, List.of()) : List.of();
+        }
+
+        /**
+         * Índice de nombres por id de una tabla paramétrica con nombre.
+         */
+        private Map<Long, String> nombres(TablaParametrica tabla) {
+            return switch (tabla) {
+                case TEMA -> nombresTema;
+                case DIFICULTAD -> nombresDificultad;
+                case TIPO -> nombresTipo;
+                case VISIBILIDAD -> nombresVisibilidad;
+                case UNIDAD -> nombresUnidad;
+                case ESTADO -> nombresEstado;
+                case CURSO, GRUPO -> throw new IllegalArgumentException("La tabla " + tabla + " no tiene nombres en el catálogo");
+            };
+        }
+
+        private static Map<Long, List<TemaDto>> congelar(Map<Long, List<TemaDto>> temas) {
+            Map<Long, List<TemaDto>> copia = new HashMap<>();
+            temas.forEach((id, lista) -> copia.put(id, List.copyOf(lista)));
+            return Map.copyOf(copia);
+        }
+
+        private static <T> Map<Long, String> indexar(List<T> filas, Function<T, Long> id, Function<T, String> nombre) {
+            Map<Long, String> indice = new HashMap<>();
+            for (T fila : filas) {
+                indice.put(id.apply(fila), nombreNoNulo(nombre.apply(fila)));
+            }
+            return Map.copyOf(indice);
+        }
+    }
+
+    /**
+     * Huella FNV-1a de 64 bits sobre las filas de una tabla, en el orden en que se leen.
+     * Es estable entre reinicios y entre instancias de la aplicación, a diferencia de un contador en memoria.
+     */
+    private static final class Huella {
+
+        private static final long PRIMO = 0x100000001b3L;
+
+        private long valor = 0xcbf29ce484222325L;
+
+        Huella agregar(long dato) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                valor = (valor ^ ((dato >>> (i * 8)) & 0xff)) * PRIMO;
+            }
+            return this;
+        }
+
+        Huella agregar(String dato) {
+            if (dato == null) {
+                return agregar(-1L);
+            }
+            agregar(dato.length());
+            for (int i = 0; i < dato.length(); i++) {
+                valor = (valor ^ dato.charAt(i)) * PRIMO;
+            }
+            return this;
+        }
+
+        long valor() {
+            return valor;
+        }
+    }
+}
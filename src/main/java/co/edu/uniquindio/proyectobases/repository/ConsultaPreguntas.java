@@ -0,0 +1,333 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TablaParametrica;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerOpcionRespuestaDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
+
+/**
+ * Consulta paginada del banco de preguntas, compartida por los listados de preguntas de los repositorios.
+ * Pagina por cursor sobre 'idPregunta': cada página trae las preguntas con id mayor al cursor recibido, de modo
+ * que el costo de una página no depende de cuántas preguntas hay antes de ella ni del tamaño total del banco.
+ * La página se arma con dos consultas: una trae las preguntas con sus datos paramétricos y otra las opciones de
+ * esas preguntas, que se unen en memoria; así el enunciado de cada pregunta no se repite por cada opción.
+ * Los nombres de tema, visibilidad, dificultad, unidad, tipo y estado se resuelven con el catálogo de paramétricas
+ * en memoria en lugar de unir esas tablas en cada consulta. Mientras una consulta está abierta solo se consulta la
+ * instantánea del catálogo: las filas guardan los ids, y los que no están en ella se resuelven al terminar la
+ * consulta en una página, o con la misma conexión en un recorrido, sin recargar el catálogo con la conexión tomada.
+ * Igual que los listados originales, solo incluye preguntas que tienen al menos una opción de respuesta.
+ * Para exportaciones completas ofrece además un recorrido en flujo que no materializa el resultado.
+ */
+@Component
+public class ConsultaPreguntas {
+
+    /**
+     * Cantidad de preguntas por página cuando no se indica un tamaño.
+     */
+    public static final int TAMANO_PAGINA_PREDETERMINADO = 50;
+
+    /**
+     * Cantidad máxima de preguntas por página.
+     */
+    public static final int TAMANO_PAGINA_MAXIMO = 200;
+
+    /**
+     * JdbcTemplate para ejecutar las consultas.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Catálogo en memoria con los nombres de las tablas paramétricas.
+     */
+    private final CatalogoParametricas catalogo;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     * @param catalogo catálogo de paramétricas
+     */
+    public ConsultaPreguntas(JdbcTemplate jdbcTemplate, CatalogoParametricas catalogo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogo = catalogo;
+    }
+
+    /**
+     * Obtiene una página de preguntas con sus opciones.
+     * @param filtro condición SQL sobre la tabla 'Pregunta' con alias 'p'; debe ser un texto fijo del repositorio
+     * @param parametros valores de los parámetros del filtro, en orden
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página; se limita a {@link #TAMANO_PAGINA_MAXIMO}
+     * @return página de preguntas ordenadas por id
+     */
+    public PaginaDto<ObtenerPreguntaDto> consultar(String filtro, List<Object> parametros, Long cursor, Integer tamano) {
+        int tamanoPagina = normalizarTamano(tamano);
+        String sql = """
+            SELECT
+                p.idPregunta,
+                p.enunciado,
+                p.idTema,
+                p.idVisibilidad,
+                p.idDificultad,
+                u.nombre || ' ' || u.apellido AS docente,
+                p.idUnidad,
+                p.idTipo,
+                p.porcentajeNota,
+                p.fechaCreacion,
+                p.idEstado
+            FROM Pregunta p
+            JOIN Usuario u ON p.idDocente = u.idUsuario
+            WHERE %s
+              AND p.idPregunta > ?
+              AND EXISTS (SELECT 1 FROM OpcionRespuesta op WHERE op.idPregunta = p.idPregunta)
+            ORDER BY p.idPregunta
+            FETCH FIRST ? ROWS ONLY
+            """.formatted(filtro);
+
+        List<Object> argumentos = new ArrayList<>(parametros);
+        argumentos.add(cursor != null ? cursor : 0L);
+        // Se pide una pregunta de más para saber si existe una página siguiente
+        argumentos.add(tamanoPagina + 1);
+
+        List<FilaPregunta> filas = jdbcTemplate.query(sql, (rs, rowNum) -> FilaPregunta.leer(rs), argumentos.toArray());
+        boolean hayMas = filas.size() > tamanoPagina;
+        if (hayMas) {
+            filas = filas.subList(0, tamanoPagina);
+        }
+
+        Map<TablaParametrica, Set<Long>> faltantes = new EnumMap<>(TablaParametrica.class);
+        for (FilaPregunta fila : filas) {
+            fila.anotarFaltantes(catalogo, faltantes);
+        }
+        Map<TablaParametrica, Map<Long, String>> resueltos = faltantes.isEmpty() ? Map.of() : catalogo.resolverFaltantes(faltantes);
+        List<ObtenerPreguntaDto> preguntas = new ArrayList<>(filas.size());
+        for (FilaPregunta fila : filas) {
+            preguntas.add(fila.aPregunta((tabla, id) -> {
+                String nombre = catalogo.nombreConocido(tabla, id);
+                return nombre != null ? nombre : resueltos.get(tabla).get(id);
+            }));
+        }
+        cargarOpciones(preguntas);
+
+        Long cursorSiguiente = hayMas ? preguntas.get(preguntas.size() - 1).idPregunta() : null;
+        return new PaginaDto<>(preguntas, cursorSiguiente, hayMas);
+    }
+
+    /**
+     * Carga en una sola consulta las opciones de un conjunto de preguntas y las agrega a cada una.
+     * Cada enunciado se lee una sola vez por pregunta y no una vez por opción.
+     * @param preguntas preguntas a completar; como máximo {@link #TAMANO_PAGINA_MAXIMO}, dentro del límite de Oracle para IN
+     */
+    private void cargarOpciones(List<ObtenerPreguntaDto> preguntas) {
+        if (preguntas.isEmpty()) {
+            return;
+        }
+        Map<Long, ObtenerPreguntaDto> preguntasMap = new HashMap<>();
+        for (ObtenerPreguntaDto pregunta : preguntas) {
+            preguntasMap.put(pregunta.idPregunta(), pregunta);
+        }
+
+        String marcadores = String.join(", ", Collections.nCopies(preguntas.size(), "?"));
+        String sql = """
+            SELECT
+                o.idPregunta,
+                o.idOpcion,
+                o.textoOpcion,
+                o.textoPareja,
+                o.idTipoRespuesta
+            FROM OpcionRespuesta o
+            WHERE o.idPregunta IN (%s)
+            ORDER BY o.idPregunta, o.idOpcion
+            """.formatted(marcadores);
+
+        jdbcTemplate.query(sql, rs -> {
+            ObtenerPreguntaDto pregunta = preguntasMap.get(rs.getLong("idPregunta"));
+            if (pregunta != null) {
+                pregunta.opciones().add(mapearOpcion(rs));
+            }
+        }, preguntasMap.keySet().toArray());
+    }
+
+    /**
+     * Recorre todas las preguntas que cumplen el filtro sin cargarlas en memoria: las filas se leen del cursor
+     * en bloques de 'tamanoBloque' y cada pregunta se entrega, con todas sus opciones, en cuanto termina de leerse.
+     * Un id que no está en el catálogo se lee con la conexión del recorrido, una vez por id, y al terminar se pide
+     * una recarga del catálogo para que las siguientes consultas ya lo encuentren.
+     * @param filtro condición SQL sobre la tabla 'Pregunta' con alias 'p'; debe ser un texto fijo del repositorio
+     * @param parametros valores de los parámetros del filtro, en orden
+     * @param tamanoBloque cantidad de filas que el driver trae de la base de datos en cada viaje
+     * @param consumidor función que recibe cada pregunta en orden de id
+     */
+    public void recorrer(String filtro, List<Object> parametros, int tamanoBloque, Consumer<ObtenerPreguntaDto> consumidor) {
+        String sql = """
+            SELECT
+                p.idPregunta,
+                p.enunciado,
+                p.idTema,
+                p.idVisibilidad,
+                p.idDificultad,
+                u.nombre || ' ' || u.apellido AS docente,
+                p.idUnidad,
+                p.idTipo,
+                p.porcentajeNota,
+                p.fechaCreacion,
+                p.idEstado,
+                o.idOpcion,
+                o.textoOpcion,
+                o.textoPareja,
+                o.idTipoRespuesta
+            FROM Pregunta p
+            JOIN Usuario u ON p.idDocente = u.idUsuario
+            JOIN OpcionRespuesta o ON p.idPregunta = o.idPregunta
+            WHERE %s
+            ORDER BY p.idPregunta, o.idOpcion
+            """.formatted(filtro);
+
+        ObtenerPreguntaDto[] actual = new ObtenerPreguntaDto[1];
+        Connection[] conexionRecorrido = new Connection[1];
+        Map<TablaParametrica, Map<Long, String>> leidos = new EnumMap<>(TablaParametrica.class);
+        jdbcTemplate.query(conexion -> {
+            conexionRecorrido[0] = conexion;
+            PreparedStatement ps = conexion.prepareStatement(sql);
+            ps.setFetchSize(tamanoBloque);
+            for (int i = 0; i < parametros.size(); i++) {
+                ps.setObject(i + 1, parametros.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            long idPregunta = rs.getLong("idPregunta");
+            if (actual[0] == null || actual[0].idPregunta() != idPregunta) {
+                if (actual[0] != null) {
+                    consumidor.accept(actual[0]);
+                }
+                actual[0] = FilaPregunta.leer(rs).aPregunta((tabla, id) -> {
+                    String nombre = catalogo.nombreConocido(tabla, id);
+                    if (nombre != null) {
+                        return nombre;
+                    }
+                    Map<Long, String> nombres = leidos.computeIfAbsent(tabla, t -> new HashMap<>());
+                    String leido = nombres.get(id);
+                    if (leido == null) {
+                        leido = catalogo.leerNombre(conexionRecorrido[0], tabla, id);
+                        nombres.put(id, leido);
+                    }
+                    return leido;
+                });
+            }
+            actual[0].opciones().add(mapearOpcion(rs));
+        });
+        if (actual[0] != null) {
+            consumidor.accept(actual[0]);
+        }
+        if (!leidos.isEmpty()) {
+            catalogo.recargarAPedido();
+        }
+    }
+
+    /**
+     * Ajusta el tamaño de página solicitado a los límites permitidos.
+     * @param tamano tamaño solicitado, o null
+     * @return tamaño de página a usar
+     */
+    public static int normalizarTamano(Integer tamano) {
+        if (tamano == null || tamano <= 0) {
+            return TAMANO_PAGINA_PREDETERMINADO;
+        }
+        return Math.min(tamano, TAMANO_PAGINA_MAXIMO);
+    }
+
+    private static ObtenerOpcionRespuestaDto mapearOpcion(ResultSet rs) throws SQLException {
+        return new ObtenerOpcionRespuestaDto(
+            rs.getLong("idOpcion"),
+            rs.getString("textoOpcion"),
+            rs.getString("textoPareja"),
+            rs.getLong("idTipoRespuesta")
+        );
+    }
+
+    /**
+     * Fuente de nombres de las paramétricas de una pregunta.
+     */
+    @FunctionalInterface
+    private interface Nombres<E extends Exception> {
+        String nombre(TablaParametrica tabla, long id) throws E;
+    }
+
+    /**
+     * Fila de una pregunta tal como se lee de la consulta, con los ids de sus paramétricas aún sin nombre.
+     */
+    private record FilaPregunta(long idPregunta, String enunciado, long idTema, long idVisibilidad, long idDificultad,
+                                String docente, long idUnidad, long idTipo, double porcentajeNota,
+                                Timestamp fechaCreacion, long idEstado) {
+
+        static FilaPregunta leer(ResultSet rs) throws SQLException {
+            return new FilaPregunta(
+                rs.getLong("idPregunta"),
+                rs.getString("enunciado"),
+                rs.getLong("idTema"),
+                rs.getLong("idVisibilidad"),
+                rs.getLong("idDificultad"),
+                rs.getString("docente"),
+                rs.getLong("idUnidad"),
+                rs.getLong("idTipo"),
+                rs.getDouble("porcentajeNota"),
+                rs.getTimestamp("fechaCreacion"),
+                rs.getLong("idEstado")
+            );
+        }
+
+        /**
+         * Anota los ids de la fila que no están en la instantánea del catálogo.
+         */
+        void anotarFaltantes(CatalogoParametricas catalogo, Map<TablaParametrica, Set<Long>> faltantes) {
+            anotar(catalogo, faltantes, TablaParametrica.TEMA, idTema);
+            anotar(catalogo, faltantes, TablaParametrica.VISIBILIDAD, idVisibilidad);
+            anotar(catalogo, faltantes, TablaParametrica.DIFICULTAD, idDificultad);
+            anotar(catalogo, faltantes, TablaParametrica.UNIDAD, idUnidad);
+            anotar(catalogo, faltantes, TablaParametrica.TIPO, idTipo);
+            anotar(catalogo, faltantes, TablaParametrica.ESTADO, idEstado);
+        }
+
+        <E extends Exception> ObtenerPreguntaDto aPregunta(Nombres<E> nombres) throws E {
+            return new ObtenerPreguntaDto(
+                idPregunta,
+                enunciado,
+                nombres.nombre(TablaParametrica.TEMA, idTema),
+                nombres.nombre(TablaParametrica.VISIBILIDAD, idVisibilidad),
+                nombres.nombre(TablaParametrica.DIFICULTAD, idDificultad),
+                docente,
+                nombres.nombre(TablaParametrica.UNIDAD, idUnidad),
+                nombres.nombre(TablaParametrica.TIPO, idTipo),
+                porcentajeNota,
+                fechaCreacion,
+                nombres.nombre(TablaParametrica.ESTADO, idEstado),
+                new ArrayList<>()
+            );
+        }
+
+        private static void anotar(CatalogoParametricas catalogo, Map<TablaParametrica, Set<Long>> faltantes,
+                                   TablaParametrica tabla, long id) {
+            if (catalogo.nombreConocido(tabla, id) == null) {
+                faltantes.computeIfAbsent(tabla, t -> new HashSet<>()).add(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que limita cuántas conexiones pueden estar prestadas a la vez.
+ * Con hilos virtuales la cantidad de peticiones en curso ya no está acotada por el pool de hilos de Tomcat, y
+ * miles de peticiones pueden quedar esperando conexión dentro del pool de HikariCP. Este límite, del mismo tamaño
+ * que el pool, hace que esas peticiones esperen en un semáforo justo (en orden de llegada), donde un hilo virtual
+ * bloqueado no ocupa un hilo de plataforma, y que una espera mayor a la máxima falle de inmediato con
+ * {@link SQLTransientConnectionException}, igual que un tiempo de espera agotado del pool.
+ * Cada permiso se devuelve al cerrar la conexión prestada.
+ */
+public class DataSourceLimitado extends DelegatingDataSource {
+
+    /**
+     * Permisos de conexión, uno por conexión del pool.
+     */
+    private final Semaphore permisos;
+
+    /**
+     * Cantidad total de permisos.
+     */
+    private final int maximoPermisos;
+
+    /**
+     * Tiempo máximo de espera por un permiso, en milisegundos.
+     */
+    private final long esperaMaximaMs;
+
+    /**
+     * Solicitudes de conexión rechazadas por agotar la espera.
+     */
+    private final LongAdder rechazos = new LongAdder();
+
+    /**
+     * Crea el límite sobre un DataSource.
+     * @param destino DataSource real, normalmente el pool de conexiones
+     * @param maximoPermisos conexiones prestadas a la vez como máximo
+     * @param esperaMaximaMs tiempo máximo de espera por una conexión, en milisegundos
+     */
+    public DataSourceLimitado(DataSource destino, int maximoPermisos, long esperaMaximaMs) {
+        super(destino);
+        this.permisos = new Semaphore(maximoPermisos, true);
+        this.maximoPermisos = maximoPermisos;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String clave) throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(obtainTargetDataSource().getConnection(usuario, clave));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Conexiones prestadas en este momento.
+     * @return cantidad de permisos en uso
+     */
+    public int getEnUso() {
+        return maximoPermisos - permisos.availablePermits();
+    }
+
+    /**
+     * Solicitudes de conexión esperando un permiso, aproximado.
+     * @return cantidad de hilos en espera
+     */
+    public int getEnEspera() {
+        return permisos.getQueueLength();
+    }
+
+    /**
+     * Solicitudes de conexión rechazadas desde el arranque por agotar la espera.
+     * @return cantidad de rechazos
+     */
+    public long getRechazos() {
+        return rechazos.sum();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                rechazos.increment();
+                throw new SQLTransientConnectionException("No hubo una conexión disponible en " + esperaMaximaMs
+                    + " ms (" + maximoPermisos + " en uso, " + permisos.getQueueLength() + " en espera).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido mientras esperaba una conexión.", e);
+        }
+    }
+
+    /**
+     * Envuelve la conexión para cerrarla y devolver el permiso solo la primera vez que se cierre.
+     */
+    private Connection liberarAlCerrar(Connection conexion) {
+        AtomicBoolean cerrada = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(DataSourceLimitado.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, (instancia, metodo, args) -> {
+                switch (metodo.getName()) {
+                    case "equals":
+                        return instancia == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(instancia);
+                    default:
+                        break;
+                }
+                if (metodo.getName().equals("close")) {
+                    // Solo el primer cierre llega al pool: la conexión real ya puede estar prestada a otro hilo
+                    if (cerrada.compareAndSet(false, true)) {
+                        try {
+                            conexion.close();
+                        } finally {
+                            permisos.release();
+                        }
+                    }
+                    return null;
+                }
+                try {
+                    return metodo.invoke(conexion, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+}
@@ -1,26 +1,44 @@
 package co.edu.uniquindio.proyectobases.repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.Set;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.SqlOutParameter;
 import org.springframework.jdbc.core.SqlParameter;
-import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.CalificacionIntentoDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.CrearExamenDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.EditarExamenDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ExamenGrupoDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ObtenerExamenDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.OpcionClaveDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.RespuestaCrearExamenDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.RespuestaPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ResultadoGeneracionExamenDTO;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ResultadoRespuestaDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.SeleccionPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.cantidadPreguntasDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerOpcionRespuestaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaEstudianteDto;
@@ -38,12 +56,90 @@ public class ExamenRepository {
      */
     private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Registro compartido de procedimientos almacenados precompilados.
+     */
+    private final RegistroProcedimientos procedimientos;
+
+    /**
+     * Plantilla transaccional usada para que los lotes de escritura se confirmen o reviertan completos.
+     */
+    private final TransactionTemplate transactionTemplate;
+
     /**
      * Constructor con inyección de dependencias.
+     * Declara una sola vez los procedimientos almacenados usados por este repositorio.
      * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     * @param procedimientos registro de procedimientos almacenados
+     * @param transactionManager gestor de transacciones de la fuente de datos
      */
-    public ExamenRepository(JdbcTemplate jdbcTemplate) {
+    public ExamenRepository(JdbcTemplate jdbcTemplate, RegistroProcedimientos procedimientos, PlatformTransactionManager transactionManager) {
         this.jdbcTemplate = jdbcTemplate;
+        this.procedimientos = procedimientos;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        procedimientos.registrar("crear_examen",
+            new SqlParameter("p_idGrupo", Types.NUMERIC),
+            new SqlParameter("p_idDocente", Types.NUMERIC),
+            new SqlParameter("p_idTema", Types.NUMERIC),
+            new SqlParameter("p_titulo", Types.VARCHAR),
+            new SqlParameter("p_descripcion", Types.CLOB),
+            new SqlParameter("p_cantidadPreguntas", Types.NUMERIC),
+            new SqlParameter("p_preguntasMostradas", Types.NUMERIC),
+            new SqlParameter("p_tiempoLimite", Types.NUMERIC),
+            new SqlParameter("p_fechaDisponible", Types.TIMESTAMP),
+            new SqlParameter("p_fechaCierre", Types.TIMESTAMP),
+            new SqlParameter("p_pesoEnCurso", Types.NUMERIC),
+            new SqlParameter("p_umbralAprobacion", Types.NUMERIC),
+            new SqlParameter("p_idUnidad", Types.NUMERIC),
+            new SqlOutParameter("p_idExamen", Types.NUMERIC),
+            new SqlOutParameter("p_idTemas", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.NUMERIC)
+        );
+        procedimientos.registrar("agregar_pregunta_a_examen",
+            new SqlParameter("p_idExamen", Types.NUMERIC),
+            new SqlParameter("p_idPregunta", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.INTEGER)
+        );
+        procedimientos.registrar("actualizar_datos_examen",
+            new SqlParameter("p_idExamen", Types.NUMERIC),
+            new SqlParameter("p_totalPreguntas", Types.NUMERIC),
+            new SqlParameter("p_preguntasMostrar", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.INTEGER)
+        );
+        procedimientos.registrar("generar_examen_estudiante",
+            new SqlParameter("p_idExamen", Types.NUMERIC),
+            new SqlParameter("p_idEstudiante", Types.NUMERIC),
+            new SqlOutParameter("p_idIntento", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.INTEGER)
+        );
+        procedimientos.registrar("registrar_respuesta_estudiante",
+            new SqlParameter("p_idIntento", Types.NUMERIC),
+            new SqlParameter("p_idPregunta", Types.NUMERIC),
+            new SqlParameter("p_idOpcion", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.NUMERIC)
+        );
+        procedimientos.registrar("finalizar_intento",
+            new SqlParameter("p_idIntento", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.NUMERIC),
+            new SqlOutParameter("p_calificacion", Types.NUMERIC)
+        );
+        procedimientos.registrar("editar_examen",
+            new SqlParameter("p_idExamen", Types.NUMERIC),
+            new SqlParameter("p_titulo", Types.VARCHAR),
+            new SqlParameter("p_descripcion", Types.CLOB),
+            new SqlParameter("p_preguntasMostradas", Types.NUMERIC),
+            new SqlParameter("p_tiempoLimite", Types.NUMERIC),
+            new SqlParameter("p_fechaDisponible", Types.TIMESTAMP),
+            new SqlParameter("p_fechaCierre", Types.TIMESTAMP),
+            new SqlParameter("p_pesoEnCurso", Types.NUMERIC),
+            new SqlParameter("p_umbralAprobacion", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.NUMERIC)
+        );
+        procedimientos.registrar("eliminar_examen",
+            new SqlParameter("p_idExamen", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.NUMERIC)
+        );
     }
 
     /**
@@ -55,28 +151,6 @@ public class ExamenRepository {
      */
     public Optional<RespuestaCrearExamenDto> crearExamen(CrearExamenDto dto) throws ExamenException {
 
-            // Configura el llamado al procedimiento almacenado 'crear_examen' y sus parámetros
-            SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withProcedureName("crear_examen")
-                .declareParameters(
-                    new SqlParameter("p_idGrupo", Types.NUMERIC),
-                    new SqlParameter("p_idDocente", Types.NUMERIC),
-                    new SqlParameter("p_idTema", Types.NUMERIC),
-                    new SqlParameter("p_titulo", Types.VARCHAR),
-                    new SqlParameter("p_descripcion", Types.CLOB),
-                    new SqlParameter("p_cantidadPreguntas", Types.NUMERIC),
-                    new SqlParameter("p_preguntasMostradas", Types.NUMERIC),
-                    new SqlParameter("p_tiempoLimite", Types.NUMERIC),
-                    new SqlParameter("p_fechaDisponible", Types.TIMESTAMP),
-                    new SqlParameter("p_fechaCierre", Types.TIMESTAMP),
-                    new SqlParameter("p_pesoEnCurso", Types.NUMERIC),
-                    new SqlParameter("p_umbralAprobacion", Types.NUMERIC),
-                    new SqlParameter("p_idUnidad", Types.NUMERIC),
-                    new SqlOutParameter("p_idExamen", Types.NUMERIC),
-                    new SqlOutParameter("p_idTemas", Types.NUMERIC),
-                    new SqlOutParameter("p_resultado", Types.NUMERIC)
-                );
-
             // Prepara los parámetros de entrada para el procedimiento
             MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("p_idGrupo", dto.idGrupo())
@@ -94,7 +168,7 @@ public class ExamenRepository {
                 .addValue("p_idUnidad", dto.idUnidad());
 
             // Ejecuta el procedimiento y obtiene el resultado
-            Map<String, Object> result = jdbcCall.execute(params);
+            Map<String, Object> result = procedimientos.ejecutar("crear_examen", params);
 
             // Recupera el resultado y el id del examen creado
             Number resultado = (Number) result.get("p_resultado");
@@ -196,7 +270,55 @@ public class ExamenRepository {
         ORDER BY e.fechaDisponible DESC
         """;
         
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new ExamenGrupoDto(
+        return jdbcTemplate.query(sql, (rs, rowNum) -> mapearExamenGrupo(rs), idGrupo);
+
+    }
+
+    /**
+     * Lista en una sola consulta los exámenes de todos los grupos en los que está inscrito un estudiante,
+     * con los mismos datos que {@link #ListarExamenGrupo(Long)}, de modo que el costo no crece con la
+     * cantidad de grupos del estudiante.
+     * @param idEstudiante identificador del estudiante
+     * @return exámenes indexados por id de grupo; cada lista ordenada por fecha de disponibilidad descendente
+     */
+    public Map<Long, List<ExamenGrupoDto>> listarExamenesGruposEstudiante(Long idEstudiante) {
+        String sql = """
+            SELECT
+                e.idGrupo,
+                e.idExamen,
+                e.idTema,
+                t.nombre AS tema,
+                e.titulo,
+                e.descripcion,
+                e.cantidadPreguntas,
+                e.preguntasMostradas,
+                e.tiempoLimite,
+                e.fechaDisponible,
+                e.fechaCierre,
+                e.pesoEnCurso,
+                e.umbralAprobacion,
+                e.idUnidad,
+                ua.nombre AS unidadAcademica,
+                eg.nombre AS estado
+            FROM Examen e
+            JOIN UnidadAcademica ua ON e.idUnidad = ua.idUnidad
+            JOIN EstadoGeneral eg ON e.idEstado = eg.idEstado
+            JOIN Tema t ON e.idTema = t.idTema
+            WHERE e.idGrupo IN (SELECT gu.idGrupo FROM GrupoUsuario gu WHERE gu.idUsuario = ?)
+            ORDER BY e.idGrupo, e.fechaDisponible DESC
+            """;
+
+        return jdbcTemplate.query(sql, rs -> {
+            Map<Long, List<ExamenGrupoDto>> examenes = new LinkedHashMap<>();
+            while (rs.next()) {
+                examenes.computeIfAbsent(rs.getLong("idGrupo"), idGrupo -> new ArrayList<>()).add(mapearExamenGrupo(rs));
+            }
+            return examenes;
+        }, idEstudiante);
+    }
+
+    private static ExamenGrupoDto mapearExamenGrupo(ResultSet rs) throws SQLException {
+        return new ExamenGrupoDto(
             rs.getLong("idExamen"),
             rs.getLong("idTema"),
             rs.getString("tema"),
@@ -212,8 +334,7 @@ public class ExamenRepository {
             rs.getLong("idUnidad"),
             rs.getString("unidadAcademica"),
             rs.getString("estado")
-        ), idGrupo);
-
+        );
     }
 
     /**
@@ -227,19 +348,11 @@ public class ExamenRepository {
      * @throws ExamenException si ocurre un error al agregar la pregunta al examen
      */
     public int agregarPreguntaExamen(Long idExamen, Long idPregunta) throws ExamenException {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-            .withProcedureName("agregar_pregunta_a_examen")
-            .declareParameters(
-                new SqlParameter("p_idExamen", Types.NUMERIC),
-                new SqlParameter("p_idPregunta", Types.NUMERIC),
-                new SqlOutParameter("p_resultado", Types.INTEGER)
-            );
-    
         MapSqlParameterSource params = new MapSqlParameterSource()
             .addValue("p_idExamen", idExamen)
             .addValue("p_idPregunta", idPregunta);
     
-        Map<String, Object> result = jdbcCall.execute(params);
+        Map<String, Object> result = procedimientos.ejecutar("agregar_pregunta_a_examen", params);
         return ((Number) result.get("p_resultado")).intValue();
     }
 
@@ -250,21 +363,12 @@ public class ExamenRepository {
      * @throws ExamenException si ocurre un error
      */
     public Map<String, Object> actualizarCantidadPreguntas(cantidadPreguntasDto dto) throws ExamenException {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-            .withProcedureName("actualizar_datos_examen")
-            .declareParameters(
-                new SqlParameter("p_idExamen", Types.NUMERIC),
-                new SqlParameter("p_totalPreguntas", Types.NUMERIC),
-                new SqlParameter("p_preguntasMostrar", Types.NUMERIC),
-                new SqlOutParameter("p_resultado", Types.INTEGER)
-            );
-        
         MapSqlParameterSource params = new MapSqlParameterSource()
             .addValue("p_idExamen", dto.idExamen())
             .addValue("p_totalPreguntas", dto.totalPreguntas())
             .addValue("p_preguntasMostrar", dto.preguntasMostrar());
         
-        Map<String, Object> result = jdbcCall.execute(params);
+        Map<String, Object> result = procedimientos.ejecutar("actualizar_datos_examen", params);
         return result;
     }
     
@@ -276,20 +380,11 @@ public class ExamenRepository {
      * @throws ExamenException si ocurre un error
      */
     public Optional<ResultadoGeneracionExamenDTO> generarExamenEstudiante(Long idExamen, Long idEstudiante) throws ExamenException {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-            .withProcedureName("generar_examen_estudiante")
-            .declareParameters(
-                new SqlParameter("p_idExamen", Types.NUMERIC),
-                new SqlParameter("p_idEstudiante", Types.NUMERIC),
-                new SqlOutParameter("p_idIntento", Types.NUMERIC),
-                new SqlOutParameter("p_resultado", Types.INTEGER)
-            );
-    
         MapSqlParameterSource params = new MapSqlParameterSource()
             .addValue("p_idExamen", idExamen)
             .addValue("p_idEstudiante", idEstudiante);
     
-        Map<String, Object> result = jdbcCall.execute(params);
+        Map<String, Object> result = procedimientos.ejecutar("generar_examen_estudiante", params);
         
         Number idIntento = (Number) result.get("p_idIntento");
         Number resultado = (Number) result.get("p_resultado");
@@ -307,38 +402,222 @@ public class ExamenRepository {
     }
     
     /**
-     * Obtiene un examen para un estudiante
+     * Genera el intento de un estudiante antes de que el examen se abra y lo deja sin iniciar, con 'fechaInicio'
+     * nula, para que el estudiante lo reclame al iniciar en lugar de aleatorizar sus preguntas en ese momento.
+     * Un intento pregenerado es exactamente un intento sin fecha de inicio: no se le pueden registrar respuestas
+     * hasta reclamarlo. La generación y el estado sin iniciar se confirman juntos.
      * @param idExamen identificador del examen
      * @param idEstudiante identificador del estudiante
-     * @return List con las preguntas del examen
-     * @throws ExamenException si ocurre un error
+     * @return Optional con el id del intento pregenerado, vacío si el estudiante ya tenía un intento o la generación falló
+     */
+    public Optional<Long> pregenerarIntento(Long idExamen, Long idEstudiante) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("p_idExamen", idExamen)
+            .addValue("p_idEstudiante", idEstudiante);
+
+        return transactionTemplate.execute(status -> {
+            Map<String, Object> result = procedimientos.ejecutar("generar_examen_estudiante", params);
+            Number idIntento = (Number) result.get("p_idIntento");
+            Number resultado = (Number) result.get("p_resultado");
+            if (resultado == null || resultado.intValue() != 1 || idIntento == null) {
+                return Optional.<Long>empty();
+            }
+            jdbcTemplate.update("UPDATE IntentoExamen SET fechaInicio = NULL WHERE idIntento = ?", idIntento.longValue());
+            return Optional.of(idIntento.longValue());
+        });
+    }
+
+    /**
+     * Reclama el intento pregenerado de un estudiante, iniciándolo en este momento.
+     * Si dos solicitudes del mismo estudiante llegan a la vez solo una lo reclama.
+     * @param idExamen identificador del examen
+     * @param idEstudiante identificador del estudiante
+     * @return Optional con el id del intento reclamado, vacío si el estudiante no tenía un intento pregenerado
+     */
+    public Optional<Long> reclamarIntentoPregenerado(Long idExamen, Long idEstudiante) {
+        String sqlReclamar = """
+            UPDATE IntentoExamen
+            SET fechaInicio = SYSTIMESTAMP
+            WHERE idExamen = ?
+              AND idEstudiante = ?
+              AND fechaInicio IS NULL
+              AND fechaFin IS NULL
+            """;
+        String sqlIntento = "SELECT idIntento FROM IntentoExamen WHERE idExamen = ? AND idEstudiante = ?";
+
+        return transactionTemplate.execute(status -> {
+            int reclamados = jdbcTemplate.update(sqlReclamar, idExamen, idEstudiante);
+            if (reclamados == 0) {
+                return Optional.<Long>empty();
+            }
+            List<Long> intentos = jdbcTemplate.query(sqlIntento, (rs, rowNum) -> rs.getLong("idIntento"), idExamen, idEstudiante);
+            return intentos.stream().findFirst();
+        });
+    }
+
+    /**
+     * Elimina los intentos pregenerados de un examen que ningún estudiante ha reclamado, junto con sus preguntas.
+     * Se usa antes de modificar el examen, ya que sus preguntas pueden cambiar y la base de datos no permite
+     * modificar un examen con intentos registrados.
+     * @param idExamen identificador del examen
+     * @return cantidad de intentos eliminados
+     */
+    public int descartarIntentosPregenerados(Long idExamen) {
+        String sqlPreguntas = """
+            DELETE FROM ExamenEstudiante
+            WHERE idIntento IN (
+                SELECT idIntento FROM IntentoExamen WHERE idExamen = ? AND fechaInicio IS NULL AND fechaFin IS NULL
+            )
+            """;
+        String sqlIntentos = "DELETE FROM IntentoExamen WHERE idExamen = ? AND fechaInicio IS NULL AND fechaFin IS NULL";
+
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update(sqlPreguntas, idExamen);
+            return jdbcTemplate.update(sqlIntentos, idExamen);
+        });
+    }
+
+    /**
+     * Elimina los intentos pregenerados que ningún estudiante reclamó en los exámenes cuya fecha de cierre ya pasó,
+     * junto con sus preguntas, para que no queden abiertos indefinidamente.
+     * @return cantidad de intentos eliminados
+     */
+    public int descartarIntentosPregeneradosVencidos() {
+        String sqlPreguntas = """
+            DELETE FROM ExamenEstudiante
+            WHERE idIntento IN (
+                SELECT i.idIntento
+                FROM IntentoExamen i
+                JOIN Examen e ON e.idExamen = i.idExamen
+                WHERE i.fechaInicio IS NULL AND i.fechaFin IS NULL AND e.fechaCierre <= SYSTIMESTAMP
+            )
+            """;
+        String sqlIntentos = """
+            DELETE FROM IntentoExamen
+            WHERE fechaInicio IS NULL
+              AND fechaFin IS NULL
+              AND idExamen IN (SELECT idExamen FROM Examen WHERE fechaCierre <= SYSTIMESTAMP)
+            """;
+
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update(sqlPreguntas);
+            return jdbcTemplate.update(sqlIntentos);
+        });
+    }
+
+    /**
+     * Lista los exámenes que se abren dentro de la ventana indicada y aún tienen estudiantes de su grupo sin intento.
+     * @param anticipacionMinutos minutos antes de la fecha de disponibilidad en que se pregeneran los intentos
+     * @return lista de identificadores de examen
      */
-    @SuppressWarnings("deprecation")
-    public List<PreguntaEstudianteDto> obtenerExamenEstudiante(Long idExamen, Long idEstudiante) throws ExamenException {
-    String sql = """
-        SELECT
-            ee.idExamenEstudiante,
-            ee.idExamen,
-            ee.idEstudiante,
-            ee.porcentajePregunta,
-            p.idPregunta,
-            p.enunciado,
-            p.idTipo,
-            p.idDocente,
-            p.idUnidad,
-            o.idOpcion,
-            o.textoOpcion,
-            o.textoPareja,
-            o.idTipoRespuesta
-        FROM ExamenEstudiante ee
-        JOIN Pregunta p ON ee.idPregunta = p.idPregunta
-        LEFT JOIN OpcionRespuesta o ON p.idPregunta = o.idPregunta
-        WHERE ee.idExamen = ?
-          AND ee.idEstudiante = ?
-        ORDER BY p.idPregunta
-    """;
-
-    return jdbcTemplate.query(sql, new Object[]{idExamen, idEstudiante}, rs -> {
+    public List<Long> listarExamenesPorPregenerar(long anticipacionMinutos) {
+        String sql = """
+            SELECT e.idExamen
+            FROM Examen e
+            WHERE e.fechaDisponible > SYSTIMESTAMP
+              AND e.fechaDisponible <= SYSTIMESTAMP + NUMTODSINTERVAL(?, 'MINUTE')
+              AND EXISTS (
+                  SELECT 1
+                  FROM GrupoUsuario gu
+                  JOIN Grupo g ON g.idGrupo = gu.idGrupo
+                  WHERE gu.idGrupo = e.idGrupo
+                    AND gu.idUsuario <> g.idDocente
+                    AND NOT EXISTS (
+                        SELECT 1 FROM IntentoExamen i
+                        WHERE i.idExamen = e.idExamen AND i.idEstudiante = gu.idUsuario
+                    )
+              )
+            ORDER BY e.fechaDisponible
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("idExamen"), anticipacionMinutos);
+    }
+
+    /**
+     * Lista los estudiantes del grupo de un examen que aún no tienen intento en él.
+     * @param idExamen identificador del examen
+     * @return lista de identificadores de estudiante
+     */
+    public List<Long> listarEstudiantesSinIntento(Long idExamen) {
+        String sql = """
+            SELECT gu.idUsuario
+            FROM Examen e
+            JOIN Grupo g ON g.idGrupo = e.idGrupo
+            JOIN GrupoUsuario gu ON gu.idGrupo = e.idGrupo
+            WHERE e.idExamen = ?
+              AND gu.idUsuario <> g.idDocente
+              AND NOT EXISTS (
+                  SELECT 1 FROM IntentoExamen i
+                  WHERE i.idExamen = e.idExamen AND i.idEstudiante = gu.idUsuario
+              )
+            ORDER BY gu.idUsuario
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("idUsuario"), idExamen);
+    }
+
+    /**
+     * Obtiene el contenido compartido de un examen: todas sus preguntas con sus opciones, sin datos de ningún estudiante.
+     * El porcentaje de cada pregunta queda nulo porque depende del intento.
+     * @param idExamen identificador del examen
+     * @return List con las preguntas del examen ordenadas por id
+     */
+    public List<PreguntaEstudianteDto> obtenerContenidoExamen(Long idExamen) {
+        String sql = """
+            SELECT
+                p.idPregunta,
+                p.enunciado,
+                p.idTipo,
+                p.idDocente,
+                p.idUnidad,
+                o.idOpcion,
+                o.textoOpcion,
+                o.textoPareja,
+                o.idTipoRespuesta
+            FROM ExamenPregunta ep
+            JOIN Pregunta p ON ep.idPregunta = p.idPregunta
+            LEFT JOIN OpcionRespuesta o ON p.idPregunta = o.idPregunta
+            WHERE ep.idExamen = ?
+            ORDER BY p.idPregunta
+            """;
+
+        return jdbcTemplate.query(sql, (ResultSetExtractor<List<PreguntaEstudianteDto>>) this::leerContenidoPreguntas, idExamen);
+    }
+
+    /**
+     * Obtiene el contenido compartido de algunas preguntas, con el mismo formato que
+     * {@link #obtenerContenidoExamen(Long)}. Se usa para completar el contenido en cache de un examen con preguntas
+     * que ya no están en 'ExamenPregunta' pero que le correspondieron a un estudiante.
+     * @param idsPregunta identificadores de las preguntas
+     * @return List con las preguntas encontradas ordenadas por id dentro de cada bloque de consulta
+     */
+    public List<PreguntaEstudianteDto> obtenerContenidoPreguntas(List<Long> idsPregunta) {
+        List<PreguntaEstudianteDto> preguntas = new ArrayList<>();
+        for (int inicio = 0; inicio < idsPregunta.size(); inicio += PublicoRepository.MAXIMO_IDS_POR_CONSULTA) {
+            List<Long> bloque = idsPregunta.subList(inicio, Math.min(inicio + PublicoRepository.MAXIMO_IDS_POR_CONSULTA, idsPregunta.size()));
+            String sql = """
+                SELECT
+                    p.idPregunta,
+                    p.enunciado,
+                    p.idTipo,
+                    p.idDocente,
+                    p.idUnidad,
+                    o.idOpcion,
+                    o.textoOpcion,
+                    o.textoPareja,
+                    o.idTipoRespuesta
+                FROM Pregunta p
+                LEFT JOIN OpcionRespuesta o ON p.idPregunta = o.idPregunta
+                WHERE p.idPregunta IN (%s)
+                ORDER BY p.idPregunta
+                """.formatted(String.join(", ", Collections.nCopies(bloque.size(), "?")));
+            preguntas.addAll(jdbcTemplate.query(sql, (ResultSetExtractor<List<PreguntaEstudianteDto>>) this::leerContenidoPreguntas, bloque.toArray()));
+        }
+        return preguntas;
+    }
+
+    /**
+     * Agrupa por pregunta las filas de pregunta y opción ordenadas por id de pregunta.
+     */
+    private List<PreguntaEstudianteDto> leerContenidoPreguntas(ResultSet rs) throws SQLException {
         Map<Long, PreguntaEstudianteDto> preguntaMap = new LinkedHashMap<>();
 
         while (rs.next()) {
@@ -352,7 +631,7 @@ public class ExamenRepository {
                     rs.getLong("idTipo"),
                     rs.getLong("idDocente"),
                     rs.getLong("idUnidad"),
-                    rs.getDouble("porcentajePregunta"),
+                    null,
                     new ArrayList<>()
                 );
                 preguntaMap.put(idPregunta, pregunta);
@@ -360,17 +639,38 @@ public class ExamenRepository {
 
             // Verificar si la opción es nula (por LEFT JOIN)
             if (rs.getObject("idOpcion") != null) {
-                ObtenerOpcionRespuestaDto opcion = new ObtenerOpcionRespuestaDto(
+                pregunta.opciones().add(new ObtenerOpcionRespuestaDto(
                     rs.getLong("idOpcion"),
                     rs.getString("textoOpcion"),
                     rs.getString("textoPareja"),
                     rs.getLong("idTipoRespuesta")
-                );
-                pregunta.opciones().add(opcion);
+                ));
             }
         }
         return new ArrayList<>(preguntaMap.values());
-    });
+    }
+
+    /**
+     * Obtiene las preguntas que le correspondieron a un estudiante en un examen con su porcentaje,
+     * sin leer el texto de las preguntas ni de las opciones.
+     * @param idExamen identificador del examen
+     * @param idEstudiante identificador del estudiante
+     * @return List con la selección de preguntas del estudiante ordenada por id
+     */
+    public List<SeleccionPreguntaDto> obtenerSeleccionEstudiante(Long idExamen, Long idEstudiante) {
+        String sql = """
+            SELECT
+                ee.idPregunta,
+                ee.porcentajePregunta
+            FROM ExamenEstudiante ee
+            WHERE ee.idExamen = ?
+              AND ee.idEstudiante = ?
+            ORDER BY ee.idPregunta
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new SeleccionPreguntaDto(
+            rs.getLong("idPregunta"),
+            rs.getDouble("porcentajePregunta")
+        ), idExamen, idEstudiante);
     }
 
     /**
@@ -382,25 +682,131 @@ public class ExamenRepository {
      * @throws ExamenException si ocurre un error
      */
     public int registrarRespuestaEstudiante(Long idIntento, Long idPregunta, Long idOpcion) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withProcedureName("registrar_respuesta_estudiante")
-                .declareParameters(
-                        new SqlParameter("p_idIntento", Types.NUMERIC),
-                        new SqlParameter("p_idPregunta", Types.NUMERIC),
-                        new SqlParameter("p_idOpcion", Types.NUMERIC),
-                        new SqlOutParameter("p_resultado", Types.NUMERIC)
-                );
-
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("p_idIntento", idIntento)
                 .addValue("p_idPregunta", idPregunta)
                 .addValue("p_idOpcion", idOpcion);
                 
-        Map<String, Object> result = jdbcCall.execute(params);
+        Map<String, Object> result = procedimientos.ejecutar("registrar_respuesta_estudiante", params);
 
         return result.get("p_resultado") != null ? ((Number) result.get("p_resultado")).intValue() : -1;
     }
 
+    /**
+     * Registra en un solo lote JDBC varias respuestas de un mismo intento.
+     * Cada fila replica la lógica de 'registrar_respuesta_estudiante': el puntaje es el porcentaje de la pregunta
+     * en el intento si la opción es correcta, o cero en caso contrario. Una respuesta idéntica ya registrada no se
+     * vuelve a insertar, de modo que reenviar el mismo lote es seguro.
+     * Si el lote falla se revierte completo y cada respuesta se registra individualmente con el procedimiento
+     * almacenado para obtener su código de resultado.
+     *
+     * @param idIntento identificador del intento
+     * @param respuestas respuestas a registrar
+     * @return lista con el resultado de cada respuesta, en el mismo orden recibido:
+     *         1 si se registró, 0 si ya estaba registrada, -1 si la opción, la pregunta o el intento no existen,
+     *         -2 ante cualquier otro error
+     */
+    public List<ResultadoRespuestaDto> registrarRespuestasEstudiante(Long idIntento, List<RespuestaPreguntaDto> respuestas) {
+        String sql = """
+            INSERT INTO RespuestaEstudiante (idIntento, idPregunta, idOpcion, puntajeObtenido)
+            SELECT
+                i.idIntento,
+                o.idPregunta,
+                o.idOpcion,
+                CASE WHEN o.idTipoRespuesta = 1 THEN ee.porcentajePregunta ELSE 0 END
+            FROM IntentoExamen i
+            JOIN OpcionRespuesta o ON o.idPregunta = ? AND o.idOpcion = ?
+            LEFT JOIN ExamenEstudiante ee ON ee.idIntento = i.idIntento AND ee.idPregunta = o.idPregunta
+            WHERE i.idIntento = ?
+              AND (NVL(o.idTipoRespuesta, 0) <> 1 OR ee.idPregunta IS NOT NULL)
+              AND NOT EXISTS (
+                  SELECT 1
+                  FROM RespuestaEstudiante r
+                  WHERE r.idIntento = i.idIntento
+                    AND r.idPregunta = o.idPregunta
+                    AND r.idOpcion = o.idOpcion
+              )
+            """;
+
+        int[] conteos;
+        try {
+            conteos = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    RespuestaPreguntaDto respuesta = respuestas.get(i);
+                    ps.setLong(1, respuesta.idPregunta());
+                    ps.setLong(2, respuesta.idOpcion());
+                    ps.setLong(3, idIntento);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return respuestas.size();
+                }
+            }));
+        } catch (DataAccessException e) {
+            List<ResultadoRespuestaDto> resultados = new ArrayList<>();
+            for (RespuestaPreguntaDto respuesta : respuestas) {
+                int resultado;
+                try {
+                    resultado = registrarRespuestaEstudiante(idIntento, respuesta.idPregunta(), respuesta.idOpcion());
+                } catch (DataAccessException ex) {
+                    resultado = -2;
+                }
+                resultados.add(new ResultadoRespuestaDto(respuesta.idPregunta(), respuesta.idOpcion(), resultado));
+            }
+            return resultados;
+        }
+
+        // Las filas no insertadas pueden ser respuestas repetidas o respuestas inválidas
+        Set<String> registradas = null;
+        List<ResultadoRespuestaDto> resultados = new ArrayList<>();
+        for (int i = 0; i < respuestas.size(); i++) {
+            RespuestaPreguntaDto respuesta = respuestas.get(i);
+            int resultado = 1;
+            if (conteos[i] == 0) {
+                if (registradas == null) {
+                    registradas = new HashSet<>(jdbcTemplate.query(
+                        "SELECT idPregunta, idOpcion FROM RespuestaEstudiante WHERE idIntento = ?",
+                        (rs, rowNum) -> rs.getLong("idPregunta") + ":" + rs.getLong("idOpcion"),
+                        idIntento));
+                }
+                resultado = registradas.contains(respuesta.idPregunta() + ":" + respuesta.idOpcion()) ? 0 : -1;
+            } else if (conteos[i] < 0 && conteos[i] != Statement.SUCCESS_NO_INFO) {
+                resultado = -2;
+            }
+            resultados.add(new ResultadoRespuestaDto(respuesta.idPregunta(), respuesta.idOpcion(), resultado));
+        }
+        return resultados;
+    }
+
+    /**
+     * Obtiene el tiempo que le queda a un intento según el reloj de la base de datos, con el mismo límite que
+     * aplica 'trg_validar_tiempo_respuesta': la fecha de inicio más el tiempo límite del examen.
+     * La diferencia se calcula con EXTRACT sobre el intervalo, igual que en {@link #guardarCalificaciones(List)}, para
+     * que se evalúe igual en Oracle y en el H2 de la prueba de carga.
+     * @param idIntento identificador del intento
+     * @return Optional con los segundos restantes (negativos si el tiempo ya se cumplió), vacío si el intento no
+     *         existe o es un intento pregenerado que aún no se ha iniciado
+     */
+    public Optional<Long> obtenerSegundosRestantesIntento(Long idIntento) {
+        String sql = """
+            SELECT
+                ROUND(
+                    EXTRACT(DAY FROM (i.fechaInicio - CAST(SYSTIMESTAMP AS TIMESTAMP))) * 24 * 60 * 60
+                    + EXTRACT(HOUR FROM (i.fechaInicio - CAST(SYSTIMESTAMP AS TIMESTAMP))) * 60 * 60
+                    + EXTRACT(MINUTE FROM (i.fechaInicio - CAST(SYSTIMESTAMP AS TIMESTAMP))) * 60
+                    + EXTRACT(SECOND FROM (i.fechaInicio - CAST(SYSTIMESTAMP AS TIMESTAMP)))
+                ) + e.tiempoLimite * 60 AS segundosRestantes
+            FROM IntentoExamen i
+            JOIN Examen e ON e.idExamen = i.idExamen
+            WHERE i.idIntento = ?
+              AND i.fechaInicio IS NOT NULL
+            """;
+        List<Long> restantes = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("segundosRestantes"), idIntento);
+        return restantes.stream().findFirst();
+    }
+
     /**
      * Finaliza un intento y obtiene la calificación
      * @param idIntento identificador del intento
@@ -408,18 +814,10 @@ public class ExamenRepository {
      * @throws ExamenException si ocurre un error
      */
     public Optional<Double> finalizarIntentoYObtenerCalificacion(Long idIntento) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-            .withProcedureName("finalizar_intento")
-            .declareParameters(
-                new SqlParameter("p_idIntento", Types.NUMERIC),
-                new SqlOutParameter("p_resultado", Types.NUMERIC),
-                new SqlOutParameter("p_calificacion", Types.NUMERIC)
-            );
-    
         MapSqlParameterSource params = new MapSqlParameterSource()
             .addValue("p_idIntento", idIntento);
     
-        Map<String, Object> result = jdbcCall.execute(params);
+        Map<String, Object> result = procedimientos.ejecutar("finalizar_intento", params);
     
         int resultado = ((Number) result.get("p_resultado")).intValue();
         Number calificacion = (Number) result.get("p_calificacion");
@@ -430,6 +828,198 @@ public class ExamenRepository {
         return Optional.empty();
     }
 
+    /**
+     * Obtiene el examen al que pertenece un intento.
+     * @param idIntento identificador del intento
+     * @return Optional con el id del examen, vacío si el intento no existe
+     */
+    public Optional<Long> obtenerExamenIntento(Long idIntento) {
+        String sql = "SELECT idExamen FROM IntentoExamen WHERE idIntento = ?";
+        List<Long> examenes = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("idExamen"), idIntento);
+        return examenes.stream().findFirst();
+    }
+
+    /**
+     * Lista los intentos de un examen que aún no han sido finalizados.
+     * @param idExamen identificador del examen
+     * @return lista de identificadores de intento
+     */
+    public List<Long> listarIntentosAbiertos(Long idExamen) {
+        String sql = "SELECT idIntento FROM IntentoExamen WHERE idExamen = ? AND fechaFin IS NULL";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("idIntento"), idExamen);
+    }
+
+    /**
+     * Obtiene la clave de respuestas de un examen: cada pregunta con el peso de su dificultad y cada una de sus
+     * opciones con su tipo de respuesta. Las preguntas sin opciones se retornan con la opción nula.
+     * @param idExamen identificador del examen
+     * @return lista de opciones de las preguntas del examen
+     */
+    public List<OpcionClaveDto> obtenerClaveRespuestas(Long idExamen) {
+        String sql = """
+            SELECT
+                ep.idPregunta,
+                o.idOpcion,
+                o.idTipoRespuesta,
+                d.peso
+            FROM ExamenPregunta ep
+            JOIN Pregunta p ON p.idPregunta = ep.idPregunta
+            JOIN DificultadPregunta d ON p.idDificultad = d.idDificultad
+            LEFT JOIN OpcionRespuesta o ON o.idPregunta = ep.idPregunta
+            WHERE ep.idExamen = ?
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new OpcionClaveDto(
+            rs.getLong("idPregunta"),
+            rs.getObject("idOpcion") != null ? rs.getLong("idOpcion") : null,
+            rs.getObject("idTipoRespuesta") != null ? rs.getLong("idTipoRespuesta") : null,
+            rs.getDouble("peso")
+        ), idExamen);
+    }
+
+    /**
+     * Califica y finaliza un intento abierto con una sola sentencia, igual que 'finalizar_intento': la calificación
+     * es la suma de los puntajes que 'registrar_respuesta_estudiante' fijó en cada respuesta al registrarla, sin
+     * volver a calificar contra la clave actual del examen. Un intento sin respuestas o ya finalizado no se modifica.
+     * El tiempo empleado se calcula igual que en {@link #guardarCalificaciones(List)}.
+     * @param idIntento identificador del intento
+     * @return true si el intento quedó finalizado con esta llamada
+     */
+    public boolean finalizarIntentoConPuntajes(Long idIntento) {
+        String sql = """
+            UPDATE IntentoExamen i
+            SET calificacion = (
+                    SELECT SUM(r.puntajeObtenido) FROM RespuestaEstudiante r WHERE r.idIntento = i.idIntento
+                ),
+                fechaFin = SYSTIMESTAMP,
+                tiempoEmpleado = ROUND(
+                    EXTRACT(DAY FROM (CAST(SYSTIMESTAMP AS TIMESTAMP) - fechaInicio)) * 24 * 60
+                    + EXTRACT(HOUR FROM (CAST(SYSTIMESTAMP AS TIMESTAMP) - fechaInicio)) * 60
+                    + EXTRACT(MINUTE FROM (CAST(SYSTIMESTAMP AS TIMESTAMP) - fechaInicio))
+                    + EXTRACT(SECOND FROM (CAST(SYSTIMESTAMP AS TIMESTAMP) - fechaInicio)) / 60
+                ),
+                idEstado = 5
+            WHERE i.idIntento = ?
+              AND i.fechaFin IS NULL
+              AND EXISTS (SELECT 1 FROM RespuestaEstudiante r WHERE r.idIntento = i.idIntento)
+            """;
+        return jdbcTemplate.update(sql, idIntento) > 0;
+    }
+
+    /**
+     * Suma en una sola consulta los puntajes obtenidos de cada intento abierto de un examen, que es la calificación
+     * que les daría 'finalizar_intento'. Los intentos sin respuestas no aparecen.
+     * @param idExamen identificador del examen
+     * @return calificación de cada intento abierto con respuestas
+     */
+    public List<CalificacionIntentoDto> sumarPuntajesIntentosAbiertos(Long idExamen) {
+        String sql = """
+            SELECT
+                i.idIntento,
+                SUM(r.puntajeObtenido) AS calificacion
+            FROM IntentoExamen i
+            JOIN RespuestaEstudiante r ON r.idIntento = i.idIntento
+            WHERE i.idExamen = ?
+              AND i.fechaFin IS NULL
+            GROUP BY i.idIntento
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            BigDecimal calificacion = rs.getBigDecimal("calificacion");
+            return new CalificacionIntentoDto(rs.getLong("idIntento"), calificacion != null ? calificacion.doubleValue() : null);
+        }, idExamen);
+    }
+
+    /**
+     * Bloquea los intentos abiertos de un examen hasta el fin de la transacción en curso.
+     * @param idExamen identificador del examen
+     * @return lista de identificadores de los intentos bloqueados
+     */
+    public List<Long> bloquearIntentosAbiertos(Long idExamen) {
+        String sql = "SELECT idIntento FROM IntentoExamen WHERE idExamen = ? AND fechaFin IS NULL FOR UPDATE";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("idIntento"), idExamen);
+    }
+
+    /**
+     * Obtiene la calificación guardada de un intento.
+     * @param idIntento identificador del intento
+     * @return Optional con la calificación, vacío si el intento no existe o no tiene calificación
+     */
+    public Optional<Double> obtenerCalificacionIntento(Long idIntento) {
+        String sql = "SELECT calificacion FROM IntentoExamen WHERE idIntento = ?";
+        List<Double> calificaciones = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            BigDecimal calificacion = rs.getBigDecimal("calificacion");
+            return calificacion != null ? calificacion.doubleValue() : null;
+        }, idIntento);
+        return calificaciones.stream().filter(Objects::nonNull).findFirst();
+    }
+
+    /**
+     * Indica si la fecha de cierre de un examen ya pasó.
+     * @param idExamen identificador del examen
+     * @return true si el examen existe y ya cerró
+     */
+    public boolean examenCerrado(Long idExamen) {
+        String sql = "SELECT COUNT(*) FROM Examen WHERE idExamen = ? AND fechaCierre <= SYSTIMESTAMP";
+        Integer cerrados = jdbcTemplate.queryForObject(sql, Integer.class, idExamen);
+        return cerrados != null && cerrados > 0;
+    }
+
+    /**
+     * Obtiene el docente que creó un examen.
+     * @param idExamen identificador del examen
+     * @return Optional con el id del docente, vacío si el examen no existe
+     */
+    public Optional<Long> obtenerDocenteExamen(Long idExamen) {
+        String sql = "SELECT idDocente FROM Examen WHERE idExamen = ?";
+        List<Long> docentes = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("idDocente"), idExamen);
+        return docentes.stream().findFirst();
+    }
+
+    /**
+     * Guarda en un solo lote la calificación de varios intentos y los marca como finalizados,
+     * con los mismos campos que actualiza el procedimiento 'finalizar_intento'. Un intento que ya fue finalizado
+     * no se modifica, para no reemplazar la calificación de una finalización concurrente.
+     * El tiempo empleado se calcula con EXTRACT sobre el intervalo, que se evalúa igual en Oracle y en el H2 de la
+     * prueba de carga, en lugar de restar fechas como el procedimiento.
+     * @param calificaciones calificación de cada intento
+     * @return calificaciones de los intentos que quedaron finalizados con esta llamada
+     */
+    public List<CalificacionIntentoDto> guardarCalificaciones(List<CalificacionIntentoDto> calificaciones) {
+        String sql = """
+            UPDATE IntentoExamen
+            SET calificacion = ?,
+                fechaFin = SYSTIMESTAMP,
+                tiempoEmpleado = ROUND(
+                    EXTRACT(DAY FROM (CAST(SYSTIMESTAMP AS TIMESTAMP) - fechaInicio)) * 24 * 60
+                    + EXTRACT(HOUR FROM (CAST(SYSTIMESTAMP AS TIMESTAMP) - fechaInicio)) * 60
+                    + EXTRACT(MINUTE FROM (CAST(SYSTIMESTAMP AS TIMESTAMP) - fechaInicio))
+                    + EXTRACT(SECOND FROM (CAST(SYSTIMESTAMP AS TIMESTAMP) - fechaInicio)) / 60
+                ),
+                idEstado = 5
+            WHERE idIntento = ?
+              AND fechaFin IS NULL
+            """;
+        int[] conteos = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CalificacionIntentoDto calificacion = calificaciones.get(i);
+                ps.setBigDecimal(1, calificacion.calificacion() != null ? BigDecimal.valueOf(calificacion.calificacion()) : null);
+                ps.setLong(2, calificacion.idIntento());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return calificaciones.size();
+            }
+        }));
+        List<CalificacionIntentoDto> finalizadas = new ArrayList<>(calificaciones.size());
+        for (int i = 0; i < calificaciones.size(); i++) {
+            if (conteos[i] > 0 || conteos[i] == Statement.SUCCESS_NO_INFO) {
+                finalizadas.add(calificaciones.get(i));
+            }
+        }
+        return finalizadas;
+    }
+
     /**
      * Edita un examen
      * @param dto DTO con los datos del examen
@@ -437,22 +1027,6 @@ public class ExamenRepository {
      * @throws ExamenException si ocurre un error
      */
     public int editarExamen(EditarExamenDto dto) {
-
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withProcedureName("editar_examen")
-                .declareParameters(
-                        new SqlParameter("p_idExamen", Types.NUMERIC),
-                        new SqlParameter("p_titulo", Types.VARCHAR),
-                        new SqlParameter("p_descripcion", Types.CLOB),
-                        new SqlParameter("p_preguntasMostradas", Types.NUMERIC),
-                        new SqlParameter("p_tiempoLimite", Types.NUMERIC),
-                        new SqlParameter("p_fechaDisponible", Types.TIMESTAMP),
-                        new SqlParameter("p_fechaCierre", Types.TIMESTAMP),
-                        new SqlParameter("p_pesoEnCurso", Types.NUMERIC),
-                        new SqlParameter("p_umbralAprobacion", Types.NUMERIC),
-                        new SqlOutParameter("p_resultado", Types.NUMERIC)
-                );
-
         Map<String, Object> params = new HashMap<>();
         params.put("p_idExamen", dto.idExamen());
         params.put("p_titulo", dto.titulo());
@@ -464,7 +1038,7 @@ public class ExamenRepository {
         params.put("p_pesoEnCurso", dto.pesoEnCurso());
         params.put("p_umbralAprobacion", dto.umbralAprobacion());
 
-        Map<String, Object> result = jdbcCall.execute(params);
+        Map<String, Object> result = procedimientos.ejecutar("editar_examen", params);
         return ((Number) result.get("p_resultado")).intValue();
     }
     
@@ -475,15 +1049,8 @@ public class ExamenRepository {
      * @throws ExamenException si ocurre un error
      */
     public int eliminarExamen(Long idExamen) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withProcedureName("eliminar_examen")
-                .declareParameters(
-                        new SqlParameter("p_idExamen", Types.NUMERIC),
-                        new SqlOutParameter("p_resultado", Types.NUMERIC)
-                );
-
         Map<String, Object> params = Map.of("p_idExamen", idExamen);
-        Map<String, Object> result = jdbcCall.execute(params);
+        Map<String, Object> result = procedimientos.ejecutar("eliminar_examen", params);
 
         return ((Number) result.get("p_resultado")).intValue();
     }
@@ -0,0 +1,66 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Firma de un conjunto de ids, usada por los índices en memoria para detectar qué entradas cambiaron en la base de
+ * datos sin volver a leerlas: la cantidad de filas, la suma de los ids y la suma de sus cuadrados módulo
+ * {@link #MODULO}. La misma firma se calcula en la base de datos con {@link #columnasSql(String)} y en Java con
+ * {@link Acumulador}, y ambas deben coincidir para un mismo conjunto de filas.
+ *
+ * @param filas cantidad de filas
+ * @param suma suma de los ids
+ * @param sumaCuadrados suma de los cuadrados de los ids, cada uno módulo {@link #MODULO}
+ */
+record FirmaIds(long filas, long suma, long sumaCuadrados) {
+
+    /**
+     * Módulo de la suma de cuadrados, para que los cálculos en Java y en Oracle no se desborden.
+     */
+    static final long MODULO = 2147483647L;
+
+    /**
+     * Columnas que calculan la firma de una columna de ids en una consulta agrupada, con los alias que lee
+     * {@link #leer(ResultSet)}.
+     * @param columna columna de ids a firmar
+     * @return fragmento SQL para la lista del SELECT
+     */
+    static String columnasSql(String columna) {
+        // H2 tipa MOD(x, MODULO) como INTEGER y el producto se desbordaría; en Oracle el CAST no cambia nada
+        String resto = "MOD(" + columna + ", " + MODULO + ")";
+        return "COUNT(*) AS filas, SUM(" + columna + ") AS suma, "
+            + "SUM(MOD(CAST(" + resto + " AS NUMBER(19)) * " + resto + ", " + MODULO + ")) AS sumaCuadrados";
+    }
+
+    /**
+     * Lee la firma calculada por {@link #columnasSql(String)} en la fila actual.
+     * @param rs resultado posicionado en la fila
+     * @return firma de la fila
+     * @throws SQLException si no se pueden leer las columnas
+     */
+    static FirmaIds leer(ResultSet rs) throws SQLException {
+        return new FirmaIds(rs.getLong("filas"), rs.getLong("suma"), rs.getLong("sumaCuadrados"));
+    }
+
+    /**
+     * Calcula en Java la firma de un conjunto de ids, igual que {@link #columnasSql(String)}.
+     */
+    static final class Acumulador {
+
+        private long filas;
+        private long suma;
+        private long sumaCuadrados;
+
+        void agregar(long id) {
+            filas++;
+            suma += id;
+            long resto = Math.floorMod(id, MODULO);
+            sumaCuadrados += resto * resto % MODULO;
+        }
+
+        FirmaIds firma() {
+            return new FirmaIds(filas, suma, sumaCuadrados);
+        }
+    }
+}
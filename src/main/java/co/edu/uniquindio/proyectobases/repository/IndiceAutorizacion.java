@@ -0,0 +1,514 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.cache.MapaLong;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Índice en memoria para las verificaciones de acceso de los endpoints de presentación de exámenes: el grupo de
+ * cada examen, los estudiantes de cada grupo y el estudiante de cada intento. Con él, comprobar que un estudiante
+ * pertenece al grupo de un examen o que un intento es suyo no agrega consultas a la base de datos en el camino de
+ * 'registrar-respuesta-estudiante'.
+ * <ul>
+ *   <li>Los estudiantes de cada grupo se guardan en un mapa de bits desplazado al menor id del grupo, consultado
+ *   en O(1); si los ids del grupo están tan dispersos que el mapa de bits ocuparía más que la lista de ids, se
+ *   guarda la lista ordenada y se busca en ella.</li>
+ *   <li>El estudiante de cada intento se guarda en un arreglo de {@code long} indexado por id de intento, a partir
+ *   del intento abierto más antiguo (como máximo 'examen.autorizacion.intentos-maximos' intentos, de los que al
+ *   menos la mitad quedan libres para los intentos que se creen después de la carga).</li>
+ * </ul>
+ * El índice se carga al iniciar la aplicación y cada 'examen.autorizacion.recarga-ms' se actualiza solo con lo que
+ * cambió: los grupos cuya firma ({@link FirmaIds} de los ids de estudiante) es distinta, y los exámenes e intentos
+ * creados desde la última lectura. Los intentos generados por la aplicación se registran en el momento. Cada
+ * 'examen.autorizacion.recarga-completa-ms' se vuelve a leer todo, lo que descarta los exámenes eliminados y mueve
+ * la base del arreglo de intentos; también se recarga todo en cuanto un intento nuevo no cabe en el arreglo.
+ * <p>
+ * Una respuesta negativa, o un examen o intento que no está en el índice, se confirma en la base de datos, de modo
+ * que una inscripción reciente nunca se rechaza por llegar antes que la recarga. Esas consultas se cuentan en la
+ * métrica 'proyectobases.autorizacion.fallos', por tipo de verificación.
+ */
+@Component
+public class IndiceAutorizacion {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceAutorizacion.class);
+
+    /**
+     * JdbcTemplate para leer las membresías, los exámenes y los intentos.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Indica si el índice se carga; si no, todas las consultas van a la base de datos.
+     */
+    private final boolean habilitado;
+
+    /**
+     * Cantidad máxima de intentos en el arreglo de intentos.
+     */
+    private final int maximoIntentos;
+
+    /**
+     * Grupos y exámenes vigentes; null hasta la primera carga o si la carga falló.
+     */
+    private final AtomicReference<Instantanea> actual = new AtomicReference<>();
+
+    /**
+     * Estudiante de cada intento; null hasta la primera carga.
+     */
+    private volatile TablaIntentos intentos;
+
+    /**
+     * Grupo de los exámenes consultados en la base de datos desde la última recarga.
+     */
+    private final Map<Long, Long> examenesRecientes = new ConcurrentHashMap<>();
+
+    /**
+     * Último id de intento leído de la base de datos.
+     */
+    private long ultimoIntentoLeido;
+
+    /**
+     * Verificaciones de examen que no encontraron el examen en el índice.
+     */
+    private final Counter fallosExamen;
+
+    /**
+     * Verificaciones de examen que no encontraron al estudiante en el grupo indexado.
+     */
+    private final Counter fallosGrupo;
+
+    /**
+     * Verificaciones de intento que no encontraron el intento en el arreglo de intentos.
+     */
+    private final Counter fallosIntento;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     * @param registro registro de métricas de la aplicación
+     * @param habilitado si el índice se carga en memoria
+     * @param maximoIntentos cantidad máxima de intentos en el arreglo de intentos
+     */
+    public IndiceAutorizacion(JdbcTemplate jdbcTemplate,
+                              MeterRegistry registro,
+                              @Value("${examen.autorizacion.habilitada:true}") boolean habilitado,
+                              @Value("${examen.autorizacion.intentos-maximos:4000000}") int maximoIntentos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.habilitado = habilitado;
+        this.maximoIntentos = Math.max(2, maximoIntentos);
+        this.fallosExamen = contadorFallos(registro, "examen");
+        this.fallosGrupo = contadorFallos(registro, "grupo");
+        this.fallosIntento = contadorFallos(registro, "intento");
+    }
+
+    private static Counter contadorFallos(MeterRegistry registro, String tipo) {
+        return Counter.builder("proyectobases.autorizacion.fallos")
+            .description("Verificaciones de acceso a exámenes que no se resolvieron con el índice y se consultaron en la base de datos")
+            .tag("tipo", tipo)
+            .register(registro);
+    }
+
+    /**
+     * Carga el índice al terminar de iniciar la aplicación. Si la base de datos no está disponible, las
+     * verificaciones van a la base de datos hasta que una recarga lo logre.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo precargar el índice de autorización de exámenes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarga completa periódica, para descartar los exámenes eliminados y mover la base del arreglo de intentos.
+     */
+    @Scheduled(initialDelayString = "${examen.autorizacion.recarga-completa-ms:3600000}", fixedDelayString = "${examen.autorizacion.recarga-completa-ms:3600000}")
+    public void recargarPeriodicamente() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo recargar el índice de autorización de exámenes, se conserva el anterior: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarga periódica de los grupos que cambiaron y de los exámenes e intentos nuevos.
+     */
+    @Scheduled(initialDelayString = "${examen.autorizacion.recarga-ms:60000}", fixedDelayString = "${examen.autorizacion.recarga-ms:60000}")
+    public void recargarCambios() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            if (actual.get() == null) {
+                recargar();
+            } else {
+                actualizarCambios();
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo actualizar el índice de autorización de exámenes, se conserva el anterior: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lee completos los grupos, los exámenes y los intentos abiertos, y fija la base del arreglo de intentos en el
+     * intento abierto más antiguo, dejando libre al menos la mitad del arreglo para los intentos nuevos.
+     */
+    public synchronized void recargar() {
+        MapaLong<MiembrosGrupo> grupos = cargarGrupos("", List.of());
+        MapaLong<Long> examenes = new MapaLong<>(1024);
+        long[] ultimoExamen = {0};
+        jdbcTemplate.query("SELECT idExamen, idGrupo FROM Examen", (RowCallbackHandler) rs -> {
+            examenes.guardar(rs.getLong("idExamen"), rs.getLong("idGrupo"));
+            ultimoExamen[0] = Math.max(ultimoExamen[0], rs.getLong("idExamen"));
+        });
+
+        // Los intentos pregenerados sin reclamar no fijan la base: al reclamarse se registran o se consultan
+        long primerAbierto = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(MIN(idIntento), 0) FROM IntentoExamen WHERE fechaFin IS NULL AND fechaInicio IS NOT NULL",
+            Long.class);
+        long ultimoIntento = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(idIntento), 0) FROM IntentoExamen", Long.class);
+        long reservaNuevos = ultimoIntento + 1 - maximoIntentos / 2;
+        long base = primerAbierto > 0 ? Math.max(primerAbierto, reservaNuevos) : ultimoIntento + 1;
+        TablaIntentos tabla = new TablaIntentos(base, maximoIntentos);
+        jdbcTemplate.query("SELECT idIntento, idEstudiante FROM IntentoExamen WHERE fechaFin IS NULL AND idIntento >= ?",
+            (RowCallbackHandler) rs -> tabla.registrar(rs.getLong("idIntento"), rs.getLong("idEstudiante")), base);
+
+        intentos = tabla;
+        ultimoIntentoLeido = ultimoIntento;
+        actual.set(new Instantanea(grupos, examenes, ultimoExamen[0]));
+        examenesRecientes.clear();
+    }
+
+    /**
+     * Vuelve a leer los grupos cuya firma cambió y agrega los exámenes e intentos creados desde la última lectura.
+     * Si un intento nuevo queda fuera del arreglo de intentos, recarga todo para mover la base.
+     */
+    synchronized void actualizarCambios() {
+        Instantanea anterior = actual.get();
+
+        TablaIntentos tabla = intentos;
+        if (jdbcTemplate.queryForObject("SELECT COALESCE(MAX(idIntento), 0) FROM IntentoExamen", Long.class) >= tabla.limite()) {
+            log.debug("Los intentos nuevos no caben en el arreglo de intentos desde {}; se recarga el índice completo", tabla.base);
+            recargar();
+            return;
+        }
+
+        Set<Long> porLeer = new HashSet<>();
+        Set<Long> enBaseDatos = new HashSet<>();
+        jdbcTemplate.query("SELECT idGrupo, " + FirmaIds.columnasSql("idUsuario") + " FROM GrupoUsuario GROUP BY idGrupo",
+            (RowCallbackHandler) rs -> {
+                long idGrupo = rs.getLong("idGrupo");
+                enBaseDatos.add(idGrupo);
+                MiembrosGrupo miembros = anterior.grupos.obtener(idGrupo);
+                if (miembros == null || !miembros.firma.equals(FirmaIds.leer(rs))) {
+                    porLeer.add(idGrupo);
+                }
+            });
+        List<Long> eliminados = new ArrayList<>();
+        anterior.grupos.recorrer((idGrupo, miembros) -> {
+            if (!enBaseDatos.contains(idGrupo)) {
+                eliminados.add(idGrupo);
+            }
+        });
+
+        MapaLong<MiembrosGrupo> grupos = anterior.grupos;
+        if (!porLeer.isEmpty() || !eliminados.isEmpty()) {
+            grupos = grupos.copia();
+            eliminados.forEach(grupos::eliminar);
+            List<Long> ids = new ArrayList<>(porLeer);
+            for (int inicio = 0; inicio < ids.size(); inicio += PublicoRepository.MAXIMO_IDS_POR_CONSULTA) {
+                List<Long> bloque = ids.subList(inicio, Math.min(inicio + PublicoRepository.MAXIMO_IDS_POR_CONSULTA, ids.size()));
+                cargarGrupos(" WHERE idGrupo IN (" + String.join(", ", Collections.nCopies(bloque.size(), "?")) + ")", bloque)
+                    .recorrer(grupos::guardar);
+            }
+        }
+
+        MapaLong<Long> examenes = anterior.examenes;
+        long[] ultimoExamen = {anterior.ultimoExamen};
+        List<long[]> nuevos = jdbcTemplate.query("SELECT idExamen, idGrupo FROM Examen WHERE idExamen > ?",
+            (rs, rowNum) -> new long[] {rs.getLong("idExamen"), rs.getLong("idGrupo")}, anterior.ultimoExamen);
+        if (!nuevos.isEmpty()) {
+            examenes = examenes.copia();
+            for (long[] examen : nuevos) {
+                examenes.guardar(examen[0], examen[1]);
+                ultimoExamen[0] = Math.max(ultimoExamen[0], examen[0]);
+            }
+        }
+
+        long[] ultimoIntento = {ultimoIntentoLeido};
+        jdbcTemplate.query("SELECT idIntento, idEstudiante FROM IntentoExamen WHERE idIntento > ?", (RowCallbackHandler) rs -> {
+            tabla.registrar(rs.getLong("idIntento"), rs.getLong("idEstudiante"));
+            ultimoIntento[0] = Math.max(ultimoIntento[0], rs.getLong("idIntento"));
+        }, ultimoIntentoLeido);
+        ultimoIntentoLeido = ultimoIntento[0];
+
+        if (grupos != anterior.grupos || examenes != anterior.examenes) {
+            actual.set(new Instantanea(grupos, examenes, ultimoExamen[0]));
+            examenesRecientes.clear();
+            log.debug("Índice de autorización actualizado: {} grupos con cambios, {} exámenes nuevos",
+                porLeer.size() + eliminados.size(), nuevos.size());
+        }
+    }
+
+    /**
+     * Indica si un estudiante pertenece al grupo de un examen.
+     * @param idExamen identificador del examen
+     * @param idEstudiante identificador del estudiante
+     * @return true si el examen existe y el estudiante está inscrito en su grupo
+     */
+    public boolean estudianteEnExamen(long idExamen, long idEstudiante) {
+        Instantanea instantanea = actual.get();
+        Long idGrupo = instantanea != null ? instantanea.examenes.obtener(idExamen) : null;
+        if (idGrupo == null) {
+            idGrupo = examenesRecientes.get(idExamen);
+        }
+        if (idGrupo == null) {
+            fallosExamen.increment();
+            List<Long> grupos = jdbcTemplate.queryForList("SELECT idGrupo FROM Examen WHERE idExamen = ?", Long.class, idExamen);
+            if (grupos.isEmpty()) {
+                return false;
+            }
+            idGrupo = grupos.get(0);
+            if (instantanea != null) {
+                examenesRecientes.put(idExamen, idGrupo);
+            }
+        }
+        if (instantanea != null) {
+            MiembrosGrupo miembros = instantanea.grupos.obtener(idGrupo);
+            if (miembros != null && miembros.contiene(idEstudiante)) {
+                return true;
+            }
+        }
+        // No está en el índice: puede haberse inscrito después de la última recarga
+        fallosGrupo.increment();
+        Integer inscrito = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM GrupoUsuario WHERE idGrupo = ? AND idUsuario = ?", Integer.class, idGrupo, idEstudiante);
+        return inscrito != null && inscrito > 0;
+    }
+
+    /**
+     * Indica si un intento pertenece a un estudiante.
+     * @param idIntento identificador del intento
+     * @param idEstudiante identificador del estudiante
+     * @return true si el intento existe y es del estudiante
+     */
+    public boolean intentoDeEstudiante(long idIntento, long idEstudiante) {
+        TablaIntentos tabla = intentos;
+        long registrado = tabla != null ? tabla.obtener(idIntento) : 0;
+        if (registrado != 0) {
+            return registrado == idEstudiante;
+        }
+        fallosIntento.increment();
+        List<Long> estudiantes = jdbcTemplate.queryForList(
+            "SELECT idEstudiante FROM IntentoExamen WHERE idIntento = ?", Long.class, idIntento);
+        if (estudiantes.isEmpty()) {
+            return false;
+        }
+        if (tabla != null) {
+            tabla.registrar(idIntento, estudiantes.get(0));
+        }
+        return estudiantes.get(0) == idEstudiante;
+    }
+
+    /**
+     * Registra el estudiante de un intento recién generado, para no leerlo de la base de datos.
+     * @param idIntento identificador del intento
+     * @param idEstudiante identificador del estudiante
+     */
+    public void registrarIntento(long idIntento, long idEstudiante) {
+        TablaIntentos tabla = intentos;
+        if (tabla != null) {
+            tabla.registrar(idIntento, idEstudiante);
+        }
+    }
+
+    /**
+     * Lee los estudiantes de los grupos que cumplen el filtro, ordenados por grupo.
+     */
+    private MapaLong<MiembrosGrupo> cargarGrupos(String filtro, List<Long> parametros) {
+        MapaLong<MiembrosGrupo> grupos = new MapaLong<>(256);
+        long[] grupoActual = {Long.MIN_VALUE};
+        List<Long> estudiantes = new ArrayList<>();
+        jdbcTemplate.query("SELECT idGrupo, idUsuario FROM GrupoUsuario" + filtro + " ORDER BY idGrupo",
+            (RowCallbackHandler) rs -> {
+                long idGrupo = rs.getLong("idGrupo");
+                if (idGrupo != grupoActual[0]) {
+                    if (!estudiantes.isEmpty()) {
+                        grupos.guardar(grupoActual[0], MiembrosGrupo.de(estudiantes));
+                        estudiantes.clear();
+                    }
+                    grupoActual[0] = idGrupo;
+                }
+                estudiantes.add(rs.getLong("idUsuario"));
+            }, parametros.toArray());
+        if (!estudiantes.isEmpty()) {
+            grupos.guardar(grupoActual[0], MiembrosGrupo.de(estudiantes));
+        }
+        return grupos;
+    }
+
+    /**
+     * Estudiantes de un grupo, con la firma usada para detectar cambios.
+     */
+    static final class MiembrosGrupo {
+
+        /**
+         * Menor id de estudiante del grupo; el bit 0 del mapa de bits corresponde a él.
+         */
+        private final long base;
+
+        /**
+         * Mapa de bits de los estudiantes, o null si el grupo se guarda como lista ordenada.
+         */
+        private final BitSet bits;
+
+        /**
+         * Ids ordenados de los estudiantes, o null si el grupo se guarda como mapa de bits.
+         */
+        private final long[] ordenados;
+
+        /**
+         * Firma de las filas del grupo en GrupoUsuario.
+         */
+        private final FirmaIds firma;
+
+        private MiembrosGrupo(long base, BitSet bits, long[] ordenados, FirmaIds firma) {
+            this.base = base;
+            this.bits = bits;
+            this.ordenados = ordenados;
+            this.firma = firma;
+        }
+
+        /**
+         * Construye los miembros de un grupo a partir de sus filas, que pueden repetir estudiantes.
+         * @param estudiantes ids de los estudiantes, al menos uno
+         * @return miembros del grupo
+         */
+        static MiembrosGrupo de(List<Long> estudiantes) {
+            long[] ids = estudiantes.stream().mapToLong(Long::longValue).distinct().sorted().toArray();
+            FirmaIds.Acumulador firma = new FirmaIds.Acumulador();
+            estudiantes.forEach(firma::agregar);
+            long base = ids[0];
+            long rango = ids[ids.length - 1] - base + 1;
+            // El mapa de bits ocupa rango/8 bytes y la lista 8 bytes por estudiante
+            if (rango <= 64L * ids.length && rango <= Integer.MAX_VALUE) {
+                BitSet bits = new BitSet((int) rango);
+                for (long id : ids) {
+                    bits.set((int) (id - base));
+                }
+                return new MiembrosGrupo(base, bits, null, firma.firma());
+            }
+            return new MiembrosGrupo(base, null, ids, firma.firma());
+        }
+
+        /**
+         * Indica si el grupo se guarda como mapa de bits.
+         */
+        boolean esMapaDeBits() {
+            return bits != null;
+        }
+
+        /**
+         * Firma de las filas del grupo.
+         */
+        FirmaIds firma() {
+            return firma;
+        }
+
+        boolean contiene(long idEstudiante) {
+            if (bits != null) {
+                long desplazamiento = idEstudiante - base;
+                return desplazamiento >= 0 && desplazamiento < Integer.MAX_VALUE && bits.get((int) desplazamiento);
+            }
+            return Arrays.binarySearch(ordenados, idEstudiante) >= 0;
+        }
+    }
+
+    /**
+     * Estudiante de cada intento, en un arreglo indexado por id de intento a partir de 'base'.
+     * Las lecturas no toman bloqueos; las escrituras, poco frecuentes, se serializan y hacen crecer el arreglo
+     * al doble cuando hace falta, publicando el nuevo arreglo de forma atómica.
+     */
+    private static final class TablaIntentos {
+
+        private final long base;
+        private final int maximo;
+        private volatile AtomicLongArray estudiantes;
+
+        private TablaIntentos(long base, int maximo) {
+            this.base = base;
+            this.maximo = maximo;
+            this.estudiantes = new AtomicLongArray(1024);
+        }
+
+        /**
+         * Primer id de intento que no cabe en la tabla.
+         */
+        private long limite() {
+            return base + maximo;
+        }
+
+        /**
+         * Estudiante del intento, o 0 si el intento no está en la tabla.
+         */
+        private long obtener(long idIntento) {
+            long indice = idIntento - base;
+            AtomicLongArray actuales = estudiantes;
+            return indice >= 0 && indice < actuales.length() ? actuales.get((int) indice) : 0;
+        }
+
+        private synchronized void registrar(long idIntento, long idEstudiante) {
+            long indice = idIntento - base;
+            if (indice < 0 || indice >= maximo) {
+                return;
+            }
+            AtomicLongArray actuales = estudiantes;
+            if (indice >= actuales.length()) {
+                int longitud = (int) Math.min(maximo, Math.max(indice + 1, (long) actuales.length() * 2));
+                AtomicLongArray ampliados = new AtomicLongArray(longitud);
+                for (int i = 0; i < actuales.length(); i++) {
+                    ampliados.set(i, actuales.get(i));
+                }
+                estudiantes = ampliados;
+                actuales = ampliados;
+            }
+            actuales.set((int) indice, idEstudiante);
+        }
+    }
+
+    /**
+     * Grupos y exámenes de una carga del índice.
+     */
+    private record Instantanea(MapaLong<MiembrosGrupo> grupos, MapaLong<Long> examenes, long ultimoExamen) {}
+}
@@ -0,0 +1,335 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.cache.MapaLong;
+import co.edu.uniquindio.proyectobases.dto.CursosDto.CursoDto;
+import co.edu.uniquindio.proyectobases.dto.PublicoDto.ObtenerGruposIdDto;
+
+/**
+ * Índice en memoria de las membresías de los usuarios: los cursos y grupos de cada estudiante y de cada docente.
+ * Estas consultas se repiten en cada navegación y recorren vistas y uniones de Grupo, Curso, GrupoUsuario y
+ * Usuario, mientras que las membresías cambian pocas veces al día.
+ * <p>
+ * Al iniciar la aplicación se leen completas las cuatro relaciones en una instantánea inmutable, indexada por id
+ * de usuario en mapas de claves {@code long} primitivas ({@link MapaLong}), que reemplaza a la anterior de forma
+ * atómica. Cada 'membresias.recarga-delta-ms' se compara una firma por usuario ({@link FirmaIds} de los ids de
+ * grupo) calculada en la base de datos con la de la instantánea, y solo se vuelven a leer
+ * los usuarios cuya firma cambió; la firma no detecta cambios de nombres, por lo que cada
+ * 'membresias.recarga-completa-ms' se recarga todo.
+ * <p>
+ * Si el índice no está cargado, o el usuario no aparece en él (por ejemplo, inscrito después de la última
+ * recarga), la consulta va a la base de datos con las columnas explícitas de cada relación.
+ */
+@Component
+public class IndiceMembresias {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceMembresias.class);
+
+    /**
+     * Relaciones de membresía, con sus columnas explícitas y el origen de sus filas.
+     */
+    private enum Relacion {
+        CURSOS_ESTUDIANTE(
+            "idUsuario, idCurso, nombreCurso, creditos, unidadAcademica, idGrupo, nombreGrupo, nombreDocente",
+            "vista_estudiante_curso", "idUsuario", "idGrupo"),
+        CURSOS_DOCENTE(
+            "idUsuario, idCurso, nombreCurso, creditos, unidadAcademica, idGrupo, nombreGrupo, nombreDocente",
+            "vista_docente_curso", "idUsuario", "idGrupo"),
+        GRUPOS_ESTUDIANTE(
+            "u.idUsuario, g.idGrupo, g.nombre, g.idCurso, c.nombre AS nombreCurso",
+            """
+            Grupo g
+            JOIN Curso c ON c.idCurso = g.idCurso
+            JOIN GrupoUsuario gu ON g.idGrupo = gu.idGrupo
+            JOIN Usuario u ON gu.idUsuario = u.idUsuario""", "u.idUsuario", "g.idGrupo"),
+        GRUPOS_DOCENTE(
+            "u.idUsuario, g.idGrupo, g.nombre, g.idCurso, c.nombre AS nombreCurso",
+            """
+            Grupo g
+            JOIN Curso c ON g.idCurso = c.idCurso
+            JOIN Usuario u ON g.idDocente = u.idUsuario""", "u.idUsuario", "g.idGrupo");
+
+        private final String columnas;
+        private final String origen;
+        private final String columnaUsuario;
+        private final String columnaGrupo;
+
+        Relacion(String columnas, String origen, String columnaUsuario, String columnaGrupo) {
+            this.columnas = columnas;
+            this.origen = origen;
+            this.columnaUsuario = columnaUsuario;
+            this.columnaGrupo = columnaGrupo;
+        }
+
+        private boolean esCurso() {
+            return this == CURSOS_ESTUDIANTE || this == CURSOS_DOCENTE;
+        }
+    }
+
+    /**
+     * JdbcTemplate para leer las membresías.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Instantánea vigente; null hasta la primera carga o si la carga falló.
+     */
+    private final AtomicReference<Instantanea> actual = new AtomicReference<>();
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     */
+    public IndiceMembresias(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Carga el índice al terminar de iniciar la aplicación. Si la base de datos no está disponible, las consultas
+     * van a la base de datos hasta la siguiente recarga completa.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo precargar el índice de membresías: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarga completa periódica, para recoger cambios de nombres de cursos, grupos y docentes.
+     */
+    @Scheduled(initialDelayString = "${membresias.recarga-completa-ms:3600000}", fixedDelayString = "${membresias.recarga-completa-ms:3600000}")
+    public void recargarPeriodicamente() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo recargar el índice de membresías, se conserva el anterior: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarga periódica de los usuarios cuyas membresías cambiaron desde la última carga.
+     */
+    @Scheduled(initialDelayString = "${membresias.recarga-delta-ms:60000}", fixedDelayString = "${membresias.recarga-delta-ms:60000}")
+    public void recargarCambios() {
+        try {
+            if (actual.get() != null) {
+                actualizarCambios();
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron recargar los cambios de membresías, se conserva el índice anterior: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lee de nuevo todas las relaciones y reemplaza la instantánea vigente.
+     */
+    public synchronized void recargar() {
+        Map<Relacion, MapaLong<Membresia>> indices = new EnumMap<>(Relacion.class);
+        for (Relacion relacion : Relacion.values()) {
+            indices.put(relacion, agrupar(consultarFilas(relacion, "", List.of())));
+        }
+        actual.set(new Instantanea(indices));
+    }
+
+    /**
+     * Compara la firma de cada usuario en la base de datos con la de la instantánea y vuelve a leer solo los
+     * usuarios que cambiaron, aparecieron o desaparecieron.
+     */
+    synchronized void actualizarCambios() {
+        Instantanea anterior = actual.get();
+        Map<Relacion, MapaLong<Membresia>> indices = new EnumMap<>(Relacion.class);
+        int cambiados = 0;
+        for (Relacion relacion : Relacion.values()) {
+            MapaLong<Membresia> indiceAnterior = anterior.indices.get(relacion);
+            Set<Long> porLeer = new HashSet<>();
+            Set<Long> enBaseDatos = new HashSet<>();
+            jdbcTemplate.query(sqlFirmas(relacion), (RowCallbackHandler) rs -> {
+                long idUsuario = rs.getLong("idUsuario");
+                enBaseDatos.add(idUsuario);
+                Membresia membresia = indiceAnterior.obtener(idUsuario);
+                if (membresia == null || !membresia.firma.equals(FirmaIds.leer(rs))) {
+                    porLeer.add(idUsuario);
+                }
+            });
+            List<Long> eliminados = new ArrayList<>();
+            indiceAnterior.recorrer((idUsuario, membresia) -> {
+                if (!enBaseDatos.contains(idUsuario)) {
+                    eliminados.add(idUsuario);
+                }
+            });
+            if (porLeer.isEmpty() && eliminados.isEmpty()) {
+                indices.put(relacion, indiceAnterior);
+                continue;
+            }
+            MapaLong<Membresia> indice = indiceAnterior.copia();
+            eliminados.forEach(indice::eliminar);
+            List<Long> ids = new ArrayList<>(porLeer);
+            for (int inicio = 0; inicio < ids.size(); inicio += PublicoRepository.MAXIMO_IDS_POR_CONSULTA) {
+                List<Long> bloque = ids.subList(inicio, Math.min(inicio + PublicoRepository.MAXIMO_IDS_POR_CONSULTA, ids.size()));
+                String filtro = " WHERE " + relacion.columnaUsuario + " IN (" + String.join(", ", Collections.nCopies(bloque.size(), "?")) + ")";
+                agrupar(consultarFilas(relacion, filtro, bloque)).recorrer(indice::guardar);
+            }
+            indices.put(relacion, indice);
+            cambiados += porLeer.size() + eliminados.size();
+        }
+        if (cambiados > 0) {
+            actual.compareAndSet(anterior, new Instantanea(indices));
+            log.debug("Índice de membresías actualizado: {} usuarios con cambios", cambiados);
+        }
+    }
+
+    /**
+     * Cursos de un estudiante, con el grupo en el que está inscrito en cada uno.
+     * @param idUsuario id del estudiante
+     * @return lista de cursos del estudiante
+     */
+    public List<CursoDto> cursosEstudiante(Long idUsuario) {
+        return consultar(Relacion.CURSOS_ESTUDIANTE, idUsuario);
+    }
+
+    /**
+     * Cursos dictados por un docente, con cada uno de sus grupos.
+     * @param idUsuario id del docente
+     * @return lista de cursos del docente
+     */
+    public List<CursoDto> cursosDocente(Long idUsuario) {
+        return consultar(Relacion.CURSOS_DOCENTE, idUsuario);
+    }
+
+    /**
+     * Grupos en los que está inscrito un estudiante.
+     * @param idUsuario id del estudiante
+     * @return lista de grupos del estudiante
+     */
+    public List<ObtenerGruposIdDto> gruposEstudiante(Long idUsuario) {
+        return consultar(Relacion.GRUPOS_ESTUDIANTE, idUsuario);
+    }
+
+    /**
+     * Grupos a cargo de un docente.
+     * @param idUsuario id del docente
+     * @return lista de grupos del docente
+     */
+    public List<ObtenerGruposIdDto> gruposDocente(Long idUsuario) {
+        return consultar(Relacion.GRUPOS_DOCENTE, idUsuario);
+    }
+
+    /**
+     * Busca las filas de un usuario en la instantánea vigente y, si no están, en la base de datos.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> consultar(Relacion relacion, Long idUsuario) {
+        Instantanea instantanea = actual.get();
+        if (instantanea != null) {
+            Membresia membresia = instantanea.indices.get(relacion).obtener(idUsuario);
+            if (membresia != null) {
+                return (List<T>) membresia.filas;
+            }
+        }
+        List<Fila> filas = consultarFilas(relacion, " WHERE " + relacion.columnaUsuario + " = ?", List.of(idUsuario));
+        List<T> resultado = new ArrayList<>(filas.size());
+        for (Fila fila : filas) {
+            resultado.add((T) fila.dto);
+        }
+        return resultado;
+    }
+
+    private List<Fila> consultarFilas(Relacion relacion, String filtro, List<Long> parametros) {
+        String sql = "SELECT " + relacion.columnas + " FROM " + relacion.origen + filtro;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> mapear(relacion, rs), parametros.toArray());
+    }
+
+    private static Fila mapear(Relacion relacion, ResultSet rs) throws SQLException {
+        if (relacion.esCurso()) {
+            CursoDto curso = new CursoDto(
+                rs.getLong("idUsuario"),
+                rs.getLong("idCurso"),
+                rs.getString("nombreCurso"),
+                rs.getInt("creditos"),
+                rs.getString("unidadAcademica"),
+                rs.getLong("idGrupo"),
+                rs.getString("nombreGrupo"),
+                rs.getString("nombreDocente")
+            );
+            return new Fila(curso.idUsuario(), curso.idGrupo(), curso);
+        }
+        ObtenerGruposIdDto grupo = new ObtenerGruposIdDto(
+            rs.getLong("idGrupo"),
+            rs.getString("nombre"),
+            rs.getLong("idCurso"),
+            rs.getString("nombreCurso")
+        );
+        return new Fila(rs.getLong("idUsuario"), grupo.idGrupo(), grupo);
+    }
+
+    /**
+     * Agrupa las filas por usuario y calcula la firma de cada uno.
+     */
+    private static MapaLong<Membresia> agrupar(List<Fila> filas) {
+        MapaLong<List<Fila>> porUsuario = new MapaLong<>(filas.size());
+        for (Fila fila : filas) {
+            List<Fila> filasUsuario = porUsuario.obtener(fila.idUsuario);
+            if (filasUsuario == null) {
+                filasUsuario = new ArrayList<>(4);
+                porUsuario.guardar(fila.idUsuario, filasUsuario);
+            }
+            filasUsuario.add(fila);
+        }
+        MapaLong<Membresia> membresias = new MapaLong<>(porUsuario.tamano());
+        porUsuario.recorrer((idUsuario, filasUsuario) -> {
+            List<Object> dtos = new ArrayList<>(filasUsuario.size());
+            FirmaIds.Acumulador firma = new FirmaIds.Acumulador();
+            for (Fila fila : filasUsuario) {
+                dtos.add(fila.dto);
+                firma.agregar(fila.idGrupo);
+            }
+            membresias.guardar(idUsuario, new Membresia(Collections.unmodifiableList(dtos), firma.firma()));
+        });
+        return membresias;
+    }
+
+    /**
+     * Consulta que calcula en la base de datos la firma de cada usuario de una relación.
+     */
+    private static String sqlFirmas(Relacion relacion) {
+        return "SELECT " + relacion.columnaUsuario + " AS idUsuario, " + FirmaIds.columnasSql(relacion.columnaGrupo)
+            + " FROM " + relacion.origen + " GROUP BY " + relacion.columnaUsuario;
+    }
+
+    /**
+     * Fila leída de una relación, con el usuario y el grupo usados para agruparla y firmarla.
+     */
+    private record Fila(long idUsuario, long idGrupo, Object dto) {}
+
+    /**
+     * Filas de un usuario en una relación, con su firma.
+     */
+    private record Membresia(List<?> filas, FirmaIds firma) {}
+
+    /**
+     * Contenido inmutable de una carga del índice.
+     */
+    private record Instantanea(Map<Relacion, MapaLong<Membresia>> indices) {}
+}
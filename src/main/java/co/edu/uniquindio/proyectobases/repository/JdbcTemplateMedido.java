@@ -0,0 +1,153 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.CallableStatementCallback;
+import org.springframework.jdbc.core.CallableStatementCreator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * JdbcTemplate de la aplicación con medición de latencia por consulta.
+ * Todas las consultas, actualizaciones y llamadas de los repositorios pasan por los tres métodos 'execute'
+ * que se sobrescriben aquí, por lo que cada sentencia queda medida sin cambiar los repositorios.
+ * Cada sentencia se publica en Micrometer con el temporizador 'proyectobases.sentencia' y sus fallos se cuentan en
+ * 'proyectobases.sentencia.errores', etiquetados por su texto normalizado: se compactan los espacios y las listas
+ * de marcadores de un IN, para que una misma consulta con distinta cantidad de parámetros cuente como una sola.
+ * Si el hilo tiene un {@link PlazoSentencias} fijado, cada sentencia recibe como 'queryTimeout' lo que le queda.
+ */
+@Component
+public class JdbcTemplateMedido extends JdbcTemplate {
+
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final Pattern LISTA_MARCADORES = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    /**
+     * Nombre con el que se agrupan las sentencias que exceden el máximo de sentencias distintas.
+     */
+    private static final String OTRAS = "(otras sentencias)";
+
+    /**
+     * Nombre con el que se agrupan las sentencias cuyo creador no expone su texto SQL.
+     */
+    private static final String SIN_TEXTO = "(sentencias sin texto SQL)";
+
+    /**
+     * Registro de métricas de la aplicación.
+     */
+    private final MeterRegistry registro;
+
+    /**
+     * Cantidad máxima de sentencias distintas con medidores propios.
+     */
+    private final int maximoSentencias;
+
+    /**
+     * Medidores ya creados por sentencia normalizada, para no buscarlos en el registro en cada ejecución.
+     */
+    private final Map<String, Medidores> sentencias = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param dataSource origen de datos de la aplicación
+     * @param registro registro de métricas de la aplicación
+     * @param maximoSentencias cantidad máxima de sentencias distintas con medidores propios
+     */
+    public JdbcTemplateMedido(DataSource dataSource, MeterRegistry registro,
+                              @Value("${monitoreo.consultas.maximo-sentencias:500}") int maximoSentencias) {
+        super(dataSource);
+        this.registro = registro;
+        this.maximoSentencias = maximoSentencias;
+    }
+
+    @Override
+    public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+        return medir(action, () -> super.execute(action));
+    }
+
+    @Override
+    public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action) throws DataAccessException {
+        return medir(psc, () -> super.execute(psc, action));
+    }
+
+    @Override
+    public <T> T execute(CallableStatementCreator csc, CallableStatementCallback<T> action) throws DataAccessException {
+        return medir(csc, () -> super.execute(csc, action));
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        int restantes = PlazoSentencias.segundosRestantes();
+        if (restantes > 0 && (stmt.getQueryTimeout() == 0 || restantes < stmt.getQueryTimeout())) {
+            stmt.setQueryTimeout(restantes);
+        }
+    }
+
+    private <T> T medir(Object origen, Supplier<T> ejecucion) {
+        Medidores medidores = obtener(origen instanceof SqlProvider proveedor ? proveedor.getSql() : null);
+        Timer.Sample muestra = Timer.start(registro);
+        try {
+            return ejecucion.get();
+        } catch (RuntimeException e) {
+            medidores.errores.increment();
+            throw e;
+        } finally {
+            muestra.stop(medidores.temporizador);
+        }
+    }
+
+    private Medidores obtener(String sql) {
+        String clave = sql == null ? SIN_TEXTO : normalizar(sql);
+        Medidores medidores = sentencias.get(clave);
+        if (medidores != null) {
+            return medidores;
+        }
+        if (sentencias.size() >= maximoSentencias) {
+            clave = OTRAS;
+        }
+        return sentencias.computeIfAbsent(clave, Medidores::new);
+    }
+
+    private static String normalizar(String sql) {
+        String compacta = ESPACIOS.matcher(sql.trim()).replaceAll(" ");
+        return LISTA_MARCADORES.matcher(compacta).replaceAll("?, ...");
+    }
+
+    /**
+     * Temporizador y contador de errores de una sentencia.
+     */
+    private final class Medidores {
+
+        private final Timer temporizador;
+        private final Counter errores;
+
+        private Medidores(String sentencia) {
+            this.temporizador = Timer.builder("proyectobases.sentencia")
+                .description("Duración de las sentencias SQL")
+                .tag("sentencia", sentencia)
+                .register(registro);
+            this.errores = Counter.builder("proyectobases.sentencia.errores")
+                .description("Sentencias SQL que terminaron en excepción")
+                .tag("sentencia", sentencia)
+                .register(registro);
+        }
+    }
+}
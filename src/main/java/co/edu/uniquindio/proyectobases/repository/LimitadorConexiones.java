@@ -0,0 +1,119 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Instala un {@link DataSourceLimitado} sobre el DataSource de la aplicación cuando está habilitado, por defecto
+ * junto con el modo de hilos virtuales ('spring.threads.virtual.enabled'). El límite toma el tamaño máximo del
+ * pool y su tiempo de espera, de modo que nunca hay más peticiones esperando dentro de HikariCP que conexiones.
+ * Se aplica después de los demás post-procesadores; el envoltorio deja ver el DataSource de HikariCP, por lo que
+ * Spring Boot sigue publicando sus métricas 'hikaricp.*'. Publica además en Micrometer los permisos en uso, las
+ * esperas y los rechazos del límite.
+ */
+@Component
+public class LimitadorConexiones implements BeanPostProcessor, Ordered, SmartInitializingSingleton {
+
+    /**
+     * Indica si el límite se instala.
+     */
+    private final boolean habilitado;
+
+    /**
+     * Conexiones prestadas a la vez como máximo.
+     */
+    private final int maximoPermisos;
+
+    /**
+     * Tiempo máximo de espera por una conexión, en milisegundos.
+     */
+    private final long esperaMaximaMs;
+
+    /**
+     * Registro de Micrometer, resuelto cuando todos los beans existen para no inicializarlo junto con los post-procesadores.
+     */
+    private final ObjectProvider<MeterRegistry> registroMetricas;
+
+    /**
+     * Límites instalados, en el orden en que se crearon.
+     */
+    private final List<DataSourceLimitado> limites = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param habilitado si el límite se instala
+     * @param maximoPermisos conexiones prestadas a la vez como máximo
+     * @param esperaMaximaMs tiempo máximo de espera por una conexión, en milisegundos
+     * @param registroMetricas proveedor del registro de métricas de Micrometer
+     */
+    public LimitadorConexiones(@Value("${jdbc.limitador.habilitado:${spring.threads.virtual.enabled:false}}") boolean habilitado,
+                               @Value("${jdbc.limitador.permisos:${spring.datasource.hikari.maximum-pool-size:10}}") int maximoPermisos,
+                               @Value("${jdbc.limitador.espera-maxima-ms:${spring.datasource.hikari.connection-timeout:30000}}") long esperaMaximaMs,
+                               ObjectProvider<MeterRegistry> registroMetricas) {
+        this.habilitado = habilitado;
+        this.maximoPermisos = maximoPermisos;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.registroMetricas = registroMetricas;
+    }
+
+    /**
+     * Envuelve los DataSource de la aplicación con el límite de conexiones.
+     * @param bean bean inicializado
+     * @param nombreBean nombre del bean
+     * @return el DataSource limitado, o el mismo bean si el límite no aplica
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String nombreBean) {
+        if (!habilitado || !(bean instanceof DataSource dataSource) || bean instanceof DataSourceLimitado) {
+            return bean;
+        }
+        DataSourceLimitado limitado = new DataSourceLimitado(dataSource, maximoPermisos, esperaMaximaMs);
+        limites.add(limitado);
+        return limitado;
+    }
+
+    /**
+     * Publica las métricas de los límites instalados.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        MeterRegistry registro = registroMetricas.getIfAvailable();
+        if (registro == null) {
+            return;
+        }
+        for (int i = 0; i < limites.size(); i++) {
+            DataSourceLimitado limitado = limites.get(i);
+            String indice = String.valueOf(i);
+            Gauge.builder("proyectobases.jdbc.limitador.uso", limitado, DataSourceLimitado::getEnUso)
+                .description("Conexiones prestadas a través del límite de conexiones")
+                .tag("limite", indice)
+                .register(registro);
+            Gauge.builder("proyectobases.jdbc.limitador.espera", limitado, DataSourceLimitado::getEnEspera)
+                .description("Peticiones esperando una conexión en el límite de conexiones")
+                .tag("limite", indice)
+                .register(registro);
+            FunctionCounter.builder("proyectobases.jdbc.limitador.rechazos", limitado, DataSourceLimitado::getRechazos)
+                .description("Peticiones rechazadas por agotar la espera de una conexión")
+                .tag("limite", indice)
+                .register(registro);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,88 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas de Micrometer sobre cada llamada pública a los repositorios de la aplicación.
+ * Cada método queda medido con el temporizador 'proyectobases.repositorio' y sus fallos se cuentan en
+ * 'proyectobases.repositorio.errores', etiquetados por repositorio y por consulta (el nombre del método),
+ * de modo que en Prometheus se puede ver qué llamadas dominan la latencia durante los exámenes.
+ */
+@Aspect
+@Component
+public class MetricasRepositorios {
+
+    /**
+     * Registro de métricas de la aplicación.
+     */
+    private final MeterRegistry registro;
+
+    /**
+     * Medidores ya creados por firma de método, para no buscarlos en el registro en cada llamada.
+     */
+    private final Map<String, Medidores> medidores = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param registro registro de métricas de la aplicación
+     */
+    public MetricasRepositorios(MeterRegistry registro) {
+        this.registro = registro;
+    }
+
+    /**
+     * Mide una llamada a un repositorio y cuenta sus errores.
+     * @param llamada llamada interceptada
+     * @return resultado de la llamada
+     * @throws Throwable la excepción de la llamada, sin modificar
+     */
+    @Around("execution(public * co.edu.uniquindio.proyectobases.repository.ExamenRepository.*(..))"
+        + " || execution(public * co.edu.uniquindio.proyectobases.repository.PreguntaRepository.*(..))"
+        + " || execution(public * co.edu.uniquindio.proyectobases.repository.PublicoRepository.*(..))"
+        + " || execution(public * co.edu.uniquindio.proyectobases.repository.AutenticacionRepository.*(..))")
+    public Object medir(ProceedingJoinPoint llamada) throws Throwable {
+        Medidores medidoresLlamada = medidores.computeIfAbsent(llamada.getSignature().toLongString(),
+            firma -> new Medidores(llamada.getSignature().getDeclaringType().getSimpleName(), llamada.getSignature().getName()));
+        Timer.Sample muestra = Timer.start(registro);
+        try {
+            return llamada.proceed();
+        } catch (Throwable e) {
+            medidoresLlamada.errores.increment();
+            throw e;
+        } finally {
+            muestra.stop(medidoresLlamada.temporizador);
+        }
+    }
+
+    /**
+     * Temporizador y contador de errores de un método de repositorio.
+     */
+    private final class Medidores {
+
+        private final Timer temporizador;
+        private final Counter errores;
+
+        private Medidores(String repositorio, String consulta) {
+            this.temporizador = Timer.builder("proyectobases.repositorio")
+                .description("Duración de las llamadas a los repositorios")
+                .tag("repositorio", repositorio)
+                .tag("consulta", consulta)
+                .register(registro);
+            this.errores = Counter.builder("proyectobases.repositorio.errores")
+                .description("Llamadas a los repositorios que terminaron en excepción")
+                .tag("repositorio", repositorio)
+                .tag("consulta", consulta)
+                .register(registro);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.QueryTimeoutException;
+
+/**
+ * Plazo de las sentencias que ejecuta el hilo actual. Mientras está fijado, {@link JdbcTemplateMedido} le da a cada
+ * sentencia como 'queryTimeout' el tiempo que le queda al plazo, redondeado hacia arriba a segundos, y rechaza las
+ * que se inician con el plazo ya vencido. A diferencia del tiempo máximo de una transacción, no retiene una conexión
+ * entre sentencias: cada una la toma del pool y la devuelve al terminar.
+ */
+public final class PlazoSentencias {
+
+    private static final ThreadLocal<Long> LIMITE = new ThreadLocal<>();
+
+    private PlazoSentencias() {
+    }
+
+    /**
+     * Fija el plazo del hilo actual; debe quitarse con {@link #quitar()} en un bloque finally.
+     * @param limiteNanos instante límite, en la escala de {@link System#nanoTime()}
+     */
+    public static void fijar(long limiteNanos) {
+        LIMITE.set(limiteNanos);
+    }
+
+    /**
+     * Quita el plazo del hilo actual.
+     */
+    public static void quitar() {
+        LIMITE.remove();
+    }
+
+    /**
+     * Segundos que le quedan al plazo del hilo actual, redondeados hacia arriba.
+     * @return segundos restantes, o 0 si el hilo no tiene plazo
+     * @throws QueryTimeoutException si el plazo ya venció
+     */
+    static int segundosRestantes() {
+        Long limite = LIMITE.get();
+        if (limite == null) {
+            return 0;
+        }
+        long restanteMs = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+        if (restanteMs <= 0) {
+            throw new QueryTimeoutException("El plazo de la sentencia venció antes de ejecutarla");
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (restanteMs + 999) / 1000);
+    }
+}
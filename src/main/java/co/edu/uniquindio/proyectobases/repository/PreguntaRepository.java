@@ -1,21 +1,19 @@
 package co.edu.uniquindio.proyectobases.repository;
 
 import java.util.Optional;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.SqlOutParameter;
 import org.springframework.jdbc.core.SqlParameter;
-import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Types;
 
-import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerOpcionRespuestaDto;
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.OpcionRespuestaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaDto;
@@ -34,12 +32,49 @@ public class PreguntaRepository {
      */
     private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Registro compartido de procedimientos almacenados precompilados.
+     */
+    private final RegistroProcedimientos procedimientos;
+
+    /**
+     * Consulta paginada compartida del banco de preguntas.
+     */
+    private final ConsultaPreguntas consultaPreguntas;
+
     /**
      * Constructor con inyección de dependencias.
+     * Declara una sola vez los procedimientos almacenados usados por este repositorio.
      * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     * @param procedimientos registro de procedimientos almacenados
+     * @param consultaPreguntas consulta paginada del banco de preguntas
      */
-    public PreguntaRepository(JdbcTemplate jdbcTemplate) {
+    public PreguntaRepository(JdbcTemplate jdbcTemplate, RegistroProcedimientos procedimientos, ConsultaPreguntas consultaPreguntas) {
         this.jdbcTemplate = jdbcTemplate;
+        this.procedimientos = procedimientos;
+        this.consultaPreguntas = consultaPreguntas;
+
+        procedimientos.registrar("crear_pregunta",
+            new SqlParameter("p_enunciado", Types.CLOB),
+            new SqlParameter("p_idTema", Types.NUMERIC),
+            new SqlParameter("p_idDificultad", Types.NUMERIC),
+            new SqlParameter("p_idTipo", Types.NUMERIC),
+            new SqlParameter("p_porcentajeNota", Types.DOUBLE),
+            new SqlParameter("p_idVisibilidad", Types.NUMERIC),
+            new SqlParameter("p_idDocente", Types.NUMERIC),
+            new SqlParameter("p_idUnidad", Types.NUMERIC),
+            new SqlParameter("p_idEstado", Types.NUMERIC),
+            new SqlOutParameter("p_idPregunta", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.NUMERIC)
+        );
+        procedimientos.registrar("crear_opcion_respuesta",
+            new SqlParameter("p_idPregunta", Types.NUMERIC),
+            new SqlParameter("p_textoOpcion", Types.CLOB),
+            new SqlParameter("p_idTipoRespuesta", Types.NUMERIC),
+            new SqlParameter("p_textoPareja", Types.CLOB),
+            new SqlOutParameter("p_idOpcion", Types.NUMERIC),
+            new SqlOutParameter("p_resultado", Types.NUMERIC)
+        );
     }
 
     /**
@@ -52,22 +87,6 @@ public class PreguntaRepository {
      */
     public Optional<Long> crearPregunta(PreguntaDto dto) {
         try {
-            SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withProcedureName("crear_pregunta")
-                .declareParameters(
-                    new SqlParameter("p_enunciado", Types.CLOB),
-                    new SqlParameter("p_idTema", Types.NUMERIC),
-                    new SqlParameter("p_idDificultad", Types.NUMERIC),
-                    new SqlParameter("p_idTipo", Types.NUMERIC),
-                    new SqlParameter("p_porcentajeNota", Types.DOUBLE),
-                    new SqlParameter("p_idVisibilidad", Types.NUMERIC),
-                    new SqlParameter("p_idDocente", Types.NUMERIC),
-                    new SqlParameter("p_idUnidad", Types.NUMERIC),
-                    new SqlParameter("p_idEstado", Types.NUMERIC),
-                    new SqlOutParameter("p_idPregunta", Types.NUMERIC),
-                    new SqlOutParameter("p_resultado", Types.NUMERIC)
-                );
-    
             MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("p_enunciado", dto.enunciado())
                 .addValue("p_idTema", dto.idTema())
@@ -79,7 +98,7 @@ public class PreguntaRepository {
                 .addValue("p_idUnidad", dto.idUnidad())
                 .addValue("p_idEstado", dto.idEstado()); 
     
-            Map<String, Object> result = jdbcCall.execute(params);
+            Map<String, Object> result = procedimientos.ejecutar("crear_pregunta", params);
     
             Number estado = (Number) result.get("p_resultado");
             Number idPregunta = (Number) result.get("p_idPregunta");
@@ -103,24 +122,13 @@ public class PreguntaRepository {
      * @return id de la opción creada
      */
     public Optional<Long> crearOpcionRespuesta(Long idPregunta, OpcionRespuestaDto dto) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withProcedureName("crear_opcion_respuesta")
-                .declareParameters(
-                        new SqlParameter("p_idPregunta", Types.NUMERIC),
-                        new SqlParameter("p_textoOpcion", Types.CLOB),
-                        new SqlParameter("p_idTipoRespuesta", Types.NUMERIC),
-                        new SqlParameter("p_textoPareja", Types.CLOB),
-                        new SqlOutParameter("p_idOpcion", Types.NUMERIC),
-                        new SqlOutParameter("p_resultado", Types.NUMERIC)
-                );
-        
             MapSqlParameterSource params = new MapSqlParameterSource()
                     .addValue("p_idPregunta", idPregunta)
                     .addValue("p_textoOpcion", dto.textoOpcion())
                     .addValue("p_textoPareja", dto.textoPareja())
                     .addValue("p_idTipoRespuesta", dto.idTipoRespuesta());
         
-            Map<String, Object> result = jdbcCall.execute(params);
+            Map<String, Object> result = procedimientos.ejecutar("crear_opcion_respuesta", params);
 
             int resultado = ((Number) result.get("p_resultado")).intValue();
             
@@ -132,302 +140,80 @@ public class PreguntaRepository {
     }
 
     /**
-     * Obtiene todas las preguntas junto con sus opciones de respuesta asociadas.
-     * Realiza una consulta que une las preguntas con sus opciones (si existen),
-     * y agrupa los resultados en objetos que contienen la pregunta y su lista de opciones.
+     * Lista los exámenes que incluyen una pregunta, ya sea en su banco de preguntas o en el intento de algún
+     * estudiante, para descartar solo sus entradas en cache cuando la pregunta cambia.
      *
-     * @return lista de preguntas con sus opciones (puede estar vacía si no existen preguntas)
+     * @param idPregunta id de la pregunta
+     * @return ids de los exámenes que incluyen la pregunta
      */
-    public List<ObtenerPreguntaDto> obtenerTodasLasPreguntasConOpciones() {
+    public List<Long> listarExamenesConPregunta(Long idPregunta) {
         String sql = """
-            SELECT 
-               p.idPregunta,
-                p.enunciado,
-                t.nombre AS tema,
-                v.nombre AS visibilidad,
-                d.nombre AS dificultad,
-                u.nombre || ' ' || u.apellido AS docente,
-                ua.nombre AS unidadAcademica,
-                tp.nombre AS tipoPregunta,
-                p.porcentajeNota,
-                p.fechaCreacion,
-                eg.nombre AS estado,
-                o.idOpcion,
-                o.textoOpcion,
-                o.textoPareja,
-                o.idTipoRespuesta
-            FROM Pregunta p
-            JOIN Tema t ON p.idTema = t.idTema
-            JOIN VisibilidadPregunta v ON p.idVisibilidad = v.idVisibilidad
-            JOIN DificultadPregunta d ON p.idDificultad = d.idDificultad
-            JOIN Usuario u ON p.idDocente = u.idUsuario
-            JOIN UnidadAcademica ua ON p.idUnidad = ua.idUnidad
-            JOIN TipoPregunta tp ON p.idTipo = tp.idTipo
-            JOIN EstadoGeneral eg ON p.idEstado = eg.idEstado
-            JOIN OpcionRespuesta o ON p.idPregunta = o.idPregunta
-            ORDER BY p.idPregunta
-        """;
-    
-        Map<Long, ObtenerPreguntaDto> preguntasMap = new LinkedHashMap<>();
-        jdbcTemplate.query(sql, rs -> {
-            Long idPregunta = rs.getLong("idPregunta");
-            ObtenerPreguntaDto pregunta = preguntasMap.get(idPregunta);
-    
-            if (pregunta == null) {
-                pregunta = new ObtenerPreguntaDto(
-                    idPregunta,
-                    rs.getString("enunciado"),
-                    rs.getString("tema"),
-                    rs.getString("visibilidad"),
-                    rs.getString("dificultad"),
-                    rs.getString("docente"),
-                    rs.getString("unidadAcademica"),
-                    rs.getString("tipoPregunta"),
-                    rs.getDouble("porcentajeNota"),
-                    rs.getTimestamp("fechaCreacion"),
-                    rs.getString("estado"),
-                    new ArrayList<>()
-                );
-                preguntasMap.put(idPregunta, pregunta);
-            }
-    
-            // Agregar la opción a la lista de opciones de la pregunta
-            List<ObtenerOpcionRespuestaDto> opciones = pregunta.opciones();
-            opciones.add(new ObtenerOpcionRespuestaDto(
-                rs.getLong("idOpcion"),
-                rs.getString("textoOpcion"),
-                rs.getString("textoPareja"),
-                rs.getLong("idTipoRespuesta")
-            ));
-        });
+            SELECT idExamen FROM ExamenPregunta WHERE idPregunta = ?
+            UNION
+            SELECT idExamen FROM ExamenEstudiante WHERE idPregunta = ?
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("idExamen"), idPregunta, idPregunta);
+    }
+
+    /**
+     * Obtiene una página de todas las preguntas junto con sus opciones de respuesta asociadas.
+     *
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de preguntas con sus opciones (puede estar vacía si no existen preguntas)
+     */
+    public PaginaDto<ObtenerPreguntaDto> obtenerTodasLasPreguntasConOpciones(Long cursor, Integer tamano) {
+        return consultaPreguntas.consultar("1 = 1", List.of(), cursor, tamano);
+    }
     
-        return new ArrayList<>(preguntasMap.values());
+    /**
+     * Recorre todas las preguntas con sus opciones en orden de id, entregando cada una en cuanto se lee,
+     * sin materializar el banco completo en memoria.
+     *
+     * @param tamanoBloque cantidad de filas que el driver trae de la base de datos en cada viaje
+     * @param consumidor función que recibe cada pregunta con todas sus opciones
+     */
+    public void exportarPreguntasConOpciones(int tamanoBloque, Consumer<ObtenerPreguntaDto> consumidor) {
+        consultaPreguntas.recorrer("1 = 1", List.of(), tamanoBloque, consumidor);
     }
     
     /**
-     * Obtiene todas las preguntas creadas por un docente específico, incluyendo detalles como tema, visibilidad, dificultad,
-     * nombre del docente, unidad académica, tipo, porcentaje de nota, fecha de creación y estado.
-     * Realiza una consulta con múltiples joins para traer toda la información relevante de cada pregunta.
+     * Obtiene una página de las preguntas creadas por un docente específico, incluyendo detalles como tema, visibilidad,
+     * dificultad, nombre del docente, unidad académica, tipo, porcentaje de nota, fecha de creación y estado.
      *
      * @param idDocente id del docente cuyas preguntas se desean listar
-     * @return lista de preguntas detalladas del docente (puede estar vacía si no existen preguntas)
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de preguntas detalladas del docente (puede estar vacía si no existen preguntas)
      */
-    public List<ObtenerPreguntaDto> listarPreguntasDocente(Long idDocente) {
-        String sql = """
-            SELECT 
-                p.idPregunta,
-                p.enunciado,
-                t.nombre AS tema,
-                v.nombre AS visibilidad,
-                dp.nombre AS dificultad,
-                u.nombre || ' ' || u.apellido AS docente,
-                ua.nombre AS unidadAcademica,
-                tp.nombre AS tipo,
-                p.porcentajeNota,
-                p.fechaCreacion,
-                eg.nombre AS estado,
-                o.idOpcion,
-                o.textoOpcion,
-                o.textoPareja,
-                o.idTipoRespuesta
-            FROM Pregunta p
-            JOIN Tema t ON p.idTema = t.idTema
-            JOIN DificultadPregunta dp ON p.idDificultad = dp.idDificultad
-            JOIN Usuario u ON p.idDocente = u.idUsuario
-            JOIN TipoPregunta tp ON p.idTipo = tp.idTipo
-            JOIN UnidadAcademica ua ON p.idUnidad = ua.idUnidad
-            JOIN VisibilidadPregunta v ON p.idVisibilidad = v.idVisibilidad
-            JOIN EstadoGeneral eg ON p.idEstado = eg.idEstado
-            JOIN OpcionRespuesta o ON p.idPregunta = o.idPregunta
-            WHERE p.idDocente = ?
-            ORDER BY p.idPregunta, o.idOpcion
-            """;
-    
-        Map<Long, ObtenerPreguntaDto> preguntasMap = new LinkedHashMap<>();
-        jdbcTemplate.query(sql, rs -> {
-            Long idPregunta = rs.getLong("idPregunta");
-            ObtenerPreguntaDto pregunta = preguntasMap.get(idPregunta);
-    
-            if (pregunta == null) {
-                pregunta = new ObtenerPreguntaDto(
-                    idPregunta,
-                    rs.getString("enunciado"),
-                    rs.getString("tema"),
-                    rs.getString("visibilidad"),
-                    rs.getString("dificultad"),
-                    rs.getString("docente"),
-                    rs.getString("unidadAcademica"),
-                    rs.getString("tipo"),
-                    rs.getDouble("porcentajeNota"),
-                    rs.getTimestamp("fechaCreacion"),
-                    rs.getString("estado"),
-                    new ArrayList<>()
-                );
-                preguntasMap.put(idPregunta, pregunta);
-            }
-    
-            // Agregar la opción a la lista de opciones de la pregunta
-            List<ObtenerOpcionRespuestaDto> opciones = pregunta.opciones();
-            opciones.add(new ObtenerOpcionRespuestaDto(
-                rs.getLong("idOpcion"),
-                rs.getString("textoOpcion"),
-                rs.getString("textoPareja"),
-                rs.getLong("idTipoRespuesta")
-            ));
-        }, idDocente);
-    
-        return new ArrayList<>(preguntasMap.values());
+    public PaginaDto<ObtenerPreguntaDto> listarPreguntasDocente(Long idDocente, Long cursor, Integer tamano) {
+        return consultaPreguntas.consultar("p.idDocente = ?", List.of(idDocente), cursor, tamano);
     }
 
     /**
-     * Obtiene una lista de preguntas filtradas por el tema especificado.
+     * Obtiene una página de preguntas filtradas por el tema especificado.
      *
      * @param idTema identificador del tema por el cual se filtran las preguntas
-     * @return lista de preguntas que pertenecen al tema especificado
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de preguntas que pertenecen al tema especificado
      * @throws PreguntaException si ocurre un error al consultar las preguntas
      */
-    public List<ObtenerPreguntaDto> listarPreguntasTema(Long idTema) throws PreguntaException {
-        String sql = """
-            SELECT 
-                p.idPregunta,
-                p.enunciado,
-                t.nombre AS tema,
-                v.nombre AS visibilidad,
-                dp.nombre AS dificultad,
-                u.nombre || ' ' || u.apellido AS docente,
-                ua.nombre AS unidadAcademica,
-                tp.nombre AS tipo,
-                p.porcentajeNota,
-                p.fechaCreacion,
-                eg.nombre AS estado,
-                o.idOpcion,
-                o.textoOpcion,
-                o.textoPareja,
-                o.idTipoRespuesta
-            FROM Pregunta p
-            JOIN Tema t ON p.idTema = t.idTema
-            JOIN DificultadPregunta dp ON p.idDificultad = dp.idDificultad
-            JOIN Usuario u ON p.idDocente = u.idUsuario
-            JOIN TipoPregunta tp ON p.idTipo = tp.idTipo
-            JOIN UnidadAcademica ua ON p.idUnidad = ua.idUnidad
-            JOIN VisibilidadPregunta v ON p.idVisibilidad = v.idVisibilidad
-            JOIN EstadoGeneral eg ON p.idEstado = eg.idEstado
-            JOIN OpcionRespuesta o ON p.idPregunta = o.idPregunta
-            WHERE p.idTema = ?
-            ORDER BY p.idPregunta, o.idOpcion
-            """;
-    
-        Map<Long, ObtenerPreguntaDto> preguntasMap = new LinkedHashMap<>();
-    
-        jdbcTemplate.query(sql, ps -> ps.setLong(1, idTema), rs -> {
-            Long idPregunta = rs.getLong("idPregunta");
-            ObtenerPreguntaDto pregunta = preguntasMap.get(idPregunta);
-    
-            if (pregunta == null) {
-                pregunta = new ObtenerPreguntaDto(
-                    idPregunta,
-                    rs.getString("enunciado"),
-                    rs.getString("tema"),
-                    rs.getString("visibilidad"),
-                    rs.getString("dificultad"),
-                    rs.getString("docente"),
-                    rs.getString("unidadAcademica"),
-                    rs.getString("tipo"),
-                    rs.getDouble("porcentajeNota"),
-                    rs.getTimestamp("fechaCreacion"),
-                    rs.getString("estado"),
-                    new ArrayList<>()
-                );
-                preguntasMap.put(idPregunta, pregunta);
-            }
-    
-            // Agregar opción correspondiente
-            pregunta.opciones().add(new ObtenerOpcionRespuestaDto(
-                rs.getLong("idOpcion"),
-                rs.getString("textoOpcion"),
-                rs.getString("textoPareja"),
-                rs.getLong("idTipoRespuesta")
-            ));
-        });
-    
-        return new ArrayList<>(preguntasMap.values());
+    public PaginaDto<ObtenerPreguntaDto> listarPreguntasTema(Long idTema, Long cursor, Integer tamano) throws PreguntaException {
+        return consultaPreguntas.consultar("p.idTema = ?", List.of(idTema), cursor, tamano);
     }
-    
 
     /**
-     * Lista las preguntas filtradas por el docente y el tema.
+     * Lista una página de las preguntas filtradas por el docente y el tema.
      *
      * @param idDocente identificador del docente
      * @param idTema identificador del tema
-     * @return lista de preguntas que pertenecen al docente y al tema
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de preguntas que pertenecen al docente y al tema
      */
-    public List<ObtenerPreguntaDto> listarPreguntasPorDocenteYTema(Long idDocente, Long idTema) {
-        String sql = """
-            SELECT 
-                p.idPregunta,
-                p.enunciado,
-                t.nombre AS tema,
-                v.nombre AS visibilidad,
-                d.nombre AS dificultad,
-                u.nombre || ' ' || u.apellido AS docente,
-                ua.nombre AS unidadAcademica,
-                tp.nombre AS tipoPregunta,
-                p.porcentajeNota,
-                p.fechaCreacion,
-                eg.nombre AS estado,
-                o.idOpcion,
-                o.textoOpcion,
-                o.textoPareja,
-                o.idTipoRespuesta
-            FROM Pregunta p
-            JOIN Tema t ON p.idTema = t.idTema
-            JOIN VisibilidadPregunta v ON p.idVisibilidad = v.idVisibilidad
-            JOIN DificultadPregunta d ON p.idDificultad = d.idDificultad
-            JOIN Usuario u ON p.idDocente = u.idUsuario
-            JOIN UnidadAcademica ua ON p.idUnidad = ua.idUnidad
-            JOIN TipoPregunta tp ON p.idTipo = tp.idTipo
-            JOIN EstadoGeneral eg ON p.idEstado = eg.idEstado
-            JOIN OpcionRespuesta o ON p.idPregunta = o.idPregunta
-            WHERE u.idUsuario = ? AND t.idTema = ?
-            ORDER BY p.idPregunta
-        """;
-    
-        Map<Long, ObtenerPreguntaDto> preguntasMap = new LinkedHashMap<>();
-        jdbcTemplate.query(sql, ps -> {
-            ps.setLong(1, idDocente);
-            ps.setLong(2, idTema);
-        }, rs -> {
-            Long idPregunta = rs.getLong("idPregunta");
-            ObtenerPreguntaDto pregunta = preguntasMap.get(idPregunta);
-    
-            if (pregunta == null) {
-                pregunta = new ObtenerPreguntaDto(
-                    idPregunta,
-                    rs.getString("enunciado"),
-                    rs.getString("tema"),
-                    rs.getString("visibilidad"),
-                    rs.getString("dificultad"),
-                    rs.getString("docente"),
-                    rs.getString("unidadAcademica"),
-                    rs.getString("tipoPregunta"),
-                    rs.getDouble("porcentajeNota"),
-                    rs.getTimestamp("fechaCreacion"),
-                    rs.getString("estado"),
-                    new ArrayList<>()
-                );
-                preguntasMap.put(idPregunta, pregunta);
-            }
-    
-            // Agregar opción de respuesta
-            pregunta.opciones().add(new ObtenerOpcionRespuestaDto(
-                rs.getLong("idOpcion"),
-                rs.getString("textoOpcion"),
-                rs.getString("textoPareja"),
-                rs.getLong("idTipoRespuesta")
-            ));
-        });
-    
-        return new ArrayList<>(preguntasMap.values());
+    public PaginaDto<ObtenerPreguntaDto> listarPreguntasPorDocenteYTema(Long idDocente, Long idTema, Long cursor, Integer tamano) {
+        return consultaPreguntas.consultar("p.idDocente = ? AND p.idTema = ?", List.of(idDocente, idTema), cursor, tamano);
     }
 
-}
\ No newline at end of file
+}
@@ -1,9 +1,11 @@
 package co.edu.uniquindio.proyectobases.repository;
 
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.sql.Types;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -12,17 +14,17 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.SqlOutParameter;
 import org.springframework.jdbc.core.SqlParameter;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
-import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 import org.springframework.stereotype.Repository;
 
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
 import co.edu.uniquindio.proyectobases.dto.CursosDto.CursoDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ExamenResumenDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.DificultadDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TablaParametrica;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TemaDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TipoPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.UnidadAcademicaDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.VisibilidadDto;
-import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerOpcionRespuestaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.PublicoDto.ObtenerGruposIdDto;
 import co.edu.uniquindio.proyectobases.dto.UsuarioDto.UsuarioDetalleDto;
@@ -35,28 +37,54 @@ import co.edu.uniquindio.proyectobases.dto.UsuarioDto.UsuarioDetalleDto;
 @Repository
 public class PublicoRepository {
 
+    /**
+     * Cantidad máxima de ids por consulta con IN; Oracle admite hasta 1000 elementos.
+     */
+    public static final int MAXIMO_IDS_POR_CONSULTA = 500;
+
     /**
      * JdbcTemplate para ejecutar consultas y procedimientos almacenados en la base de datos.
      */
     private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Registro compartido de procedimientos almacenados precompilados.
+     */
+    private final RegistroProcedimientos procedimientos;
+
+    /**
+     * Consulta paginada compartida del banco de preguntas.
+     */
+    private final ConsultaPreguntas consultaPreguntas;
+
+    /**
+     * Catálogo en memoria de las tablas paramétricas.
+     */
+    private final CatalogoParametricas catalogo;
+
+    /**
+     * Índice en memoria de los cursos y grupos de cada usuario.
+     */
+    private final IndiceMembresias indiceMembresias;
+
     /**
      * Constructor con inyección de dependencias.
+     * Declara una sola vez los procedimientos almacenados usados por este repositorio.
      * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     * @param procedimientos registro de procedimientos almacenados
+     * @param consultaPreguntas consulta paginada del banco de preguntas
+     * @param catalogo catálogo de paramétricas
+     * @param indiceMembresias índice de cursos y grupos por usuario
      */
-    public PublicoRepository(JdbcTemplate jdbcTemplate){
+    public PublicoRepository(JdbcTemplate jdbcTemplate, RegistroProcedimientos procedimientos, ConsultaPreguntas consultaPreguntas,
+                             CatalogoParametricas catalogo, IndiceMembresias indiceMembresias){
         this.jdbcTemplate = jdbcTemplate;
-    }
+        this.procedimientos = procedimientos;
+        this.consultaPreguntas = consultaPreguntas;
+        this.catalogo = catalogo;
+        this.indiceMembresias = indiceMembresias;
 
-    /**
-     * Obtiene el detalle de un usuario dado su id, llamando a un procedimiento almacenado.
-     * @param idUsuario id del usuario a consultar
-     * @return Optional con el detalle del usuario si existe, vacío en caso contrario
-     */
-    public Optional<UsuarioDetalleDto> obtenerUsuarioPorId(Long idUsuario) {
-    SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-        .withProcedureName("obtener_usuario_detalle")
-        .declareParameters(
+        procedimientos.registrar("obtener_usuario_detalle",
             new SqlParameter("p_idUsuario", Types.NUMERIC),
             new SqlOutParameter("p_nombre", Types.VARCHAR),
             new SqlOutParameter("p_apellido", Types.VARCHAR),
@@ -68,11 +96,18 @@ public class PublicoRepository {
             new SqlOutParameter("p_idRol", Types.NUMERIC),
             new SqlOutParameter("p_resultado", Types.INTEGER)
         );
+    }
 
+    /**
+     * Obtiene el detalle de un usuario dado su id, llamando a un procedimiento almacenado.
+     * @param idUsuario id del usuario a consultar
+     * @return Optional con el detalle del usuario si existe, vacío en caso contrario
+     */
+    public Optional<UsuarioDetalleDto> obtenerUsuarioPorId(Long idUsuario) {
         MapSqlParameterSource params = new MapSqlParameterSource()
             .addValue("p_idUsuario", idUsuario);
 
-        Map<String, Object> result = jdbcCall.execute(params);
+        Map<String, Object> result = procedimientos.ejecutar("obtener_usuario_detalle", params);
 
         Integer resultado = (Integer) result.get("p_resultado");
         if (resultado != null && resultado == 1) {
@@ -95,39 +130,62 @@ public class PublicoRepository {
     }
 
     /**
-     * Lista todos los temas registrados en la base de datos.
+     * Obtiene en una sola consulta el detalle de varios usuarios, con las mismas columnas que 'obtener_usuario_detalle'.
+     * Los ids se consultan en bloques de {@link #MAXIMO_IDS_POR_CONSULTA}, dentro del límite de Oracle para IN.
+     * @param idsUsuario ids de los usuarios a consultar, sin repetidos
+     * @return detalle de los usuarios que existen, sin un orden particular
+     */
+    public List<UsuarioDetalleDto> listarUsuariosPorIds(Collection<Long> idsUsuario) {
+        List<Long> ids = new ArrayList<>(idsUsuario);
+        List<UsuarioDetalleDto> usuarios = new ArrayList<>(ids.size());
+        for (int inicio = 0; inicio < ids.size(); inicio += MAXIMO_IDS_POR_CONSULTA) {
+            List<Long> bloque = ids.subList(inicio, Math.min(inicio + MAXIMO_IDS_POR_CONSULTA, ids.size()));
+            String sql = """
+                SELECT u.idUsuario, u.nombre, u.apellido, c.correo, ua.idUnidad, ua.nombre AS nombreUnidad,
+                       u.fechaRegistro, e.nombre AS estado, c.idRol
+                FROM   Usuario u
+                JOIN   EstadoGeneral e ON u.idEstado = e.idEstado
+                JOIN   UnidadAcademica ua ON u.idUnidad = ua.idUnidad
+                JOIN   CredencialesAcceso c ON u.idUsuario = c.idUsuario
+                WHERE  u.idUsuario IN (%s)
+                """.formatted(String.join(", ", Collections.nCopies(bloque.size(), "?")));
+            usuarios.addAll(jdbcTemplate.query(sql, (rs, rowNum) -> new UsuarioDetalleDto(
+                rs.getLong("idUsuario"),
+                rs.getString("nombre"),
+                rs.getString("apellido"),
+                rs.getString("correo"),
+                rs.getLong("idUnidad"),
+                rs.getString("nombreUnidad"),
+                rs.getTimestamp("fechaRegistro").toLocalDateTime(),
+                rs.getString("estado"),
+                rs.getLong("idRol")
+            ), bloque.toArray()));
+        }
+        return usuarios;
+    }
+
+    /**
+     * Lista todos los temas registrados, desde el catálogo de paramétricas en memoria.
      * @return lista de temas
      */
     public List<TemaDto> listarTemas(){
-        String sql = "SELECT idTema, nombre FROM Tema";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new TemaDto(
-            rs.getLong("idTema"),
-            rs.getString("nombre")
-        ));
+        return catalogo.obtener().temas();
     }
     
     /**
-     * Lista todas las dificultades de preguntas disponibles.
+     * Lista todas las dificultades de preguntas disponibles, desde el catálogo de paramétricas en memoria.
      * @return lista de dificultades
      */
     public List<DificultadDto> listarDificultades() {
-        String sql = "SELECT idDificultad, nombre FROM DificultadPregunta";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new DificultadDto(
-            rs.getLong("idDificultad"),
-            rs.getString("nombre")
-        ));
+        return catalogo.obtener().dificultades();
     }
 
     /**
-     * Lista todos los tipos de preguntas disponibles.
+     * Lista todos los tipos de preguntas disponibles, desde el catálogo de paramétricas en memoria.
      * @return lista de tipos de pregunta
      */
     public List<TipoPreguntaDto> listarTipos() {
-        String sql = "SELECT idTipo, nombre FROM TipoPregunta";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new TipoPreguntaDto(
-            rs.getLong("idTipo"),
-            rs.getString("nombre")
-        ));
+        return catalogo.obtener().tipos();
     }
 
     /**
@@ -136,17 +194,7 @@ public class PublicoRepository {
      * @return lista de cursos del estudiante
      */
     public List<CursoDto> listarCursosEstudiante(Long idUsuario) {
-        String sql = "SELECT * FROM vista_estudiante_curso WHERE idUsuario = ?";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new CursoDto(
-            rs.getLong("idUsuario"),
-            rs.getLong("idCurso"),
-            rs.getString("nombreCurso"),
-            rs.getInt("creditos"),
-            rs.getString("unidadAcademica"),
-            rs.getLong("idGrupo"),
-            rs.getString("nombreGrupo"),
-            rs.getString("nombreDocente")
-        ), idUsuario);
+        return indiceMembresias.cursosEstudiante(idUsuario);
     }
 
     /**
@@ -155,100 +203,27 @@ public class PublicoRepository {
      * @return lista de cursos del docente
      */
     public List<CursoDto> listarCursosDocente(Long idUsuario) {
-        String sql = "SELECT * FROM vista_docente_curso WHERE idUsuario = ?";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new CursoDto(
-            rs.getLong("idUsuario"),
-            rs.getLong("idCurso"),
-            rs.getString("nombreCurso"),
-            rs.getInt("creditos"),
-            rs.getString("unidadAcademica"),
-            rs.getLong("idGrupo"),
-            rs.getString("nombreGrupo"),
-            rs.getString("nombreDocente")
-        ), idUsuario);
+        return indiceMembresias.cursosDocente(idUsuario);
     }
 
     /**
-     * Lista todas las visibilidades posibles para una pregunta.
+     * Lista todas las visibilidades posibles para una pregunta, desde el catálogo de paramétricas en memoria.
      * @return lista de visibilidades
      */
     public List<VisibilidadDto> listarVisibilidades() {
-        String sql = "SELECT idVisibilidad, nombre FROM VisibilidadPregunta";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new VisibilidadDto(
-            rs.getLong("idVisibilidad"),
-            rs.getString("nombre")
-        ));
+        return catalogo.obtener().visibilidades();
     }
 
     /**
-     * Lista todas las preguntas públicas registradas en el sistema.
-     * @return lista de preguntas públicas
+     * Lista una página de las preguntas públicas de una unidad académica.
+     * @param idUnidad identificador de la unidad académica
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de preguntas públicas
      */
-    @SuppressWarnings("deprecation")
-    public List<ObtenerPreguntaDto> listarPreguntasPublicas(Long idUnidad) {
-        String sql = """
-            SELECT 
-                p.idPregunta,
-                p.enunciado,
-                t.nombre AS tema,
-                v.nombre AS visibilidad,
-                d.nombre AS dificultad,
-                u.nombre || ' ' || u.apellido AS docente,
-                ua.nombre AS unidadAcademica,
-                tp.nombre AS tipoPregunta,
-                p.porcentajeNota,
-                p.fechaCreacion,
-                eg.nombre AS estado,
-                o.idOpcion,
-                o.textoOpcion,
-                o.textoPareja,
-                o.idTipoRespuesta
-            FROM Pregunta p
-            JOIN Tema t ON p.idTema = t.idTema
-            JOIN VisibilidadPregunta v ON p.idVisibilidad = v.idVisibilidad
-            JOIN DificultadPregunta d ON p.idDificultad = d.idDificultad
-            JOIN Usuario u ON p.idDocente = u.idUsuario
-            JOIN UnidadAcademica ua ON p.idUnidad = ua.idUnidad
-            JOIN TipoPregunta tp ON p.idTipo = tp.idTipo
-            JOIN EstadoGeneral eg ON p.idEstado = eg.idEstado
-            JOIN OpcionRespuesta o ON p.idPregunta = o.idPregunta
-            WHERE v.nombre = 'publica' AND ua.idUnidad = ?
-        """;
-    
-        Map<Long, ObtenerPreguntaDto> preguntasMap = new LinkedHashMap<>();
-        jdbcTemplate.query(sql, new Object[]{idUnidad}, rs -> {
-            Long idPregunta = rs.getLong("idPregunta");
-            ObtenerPreguntaDto pregunta = preguntasMap.get(idPregunta);
-    
-            if (pregunta == null) {
-                pregunta = new ObtenerPreguntaDto(
-                    idPregunta,
-                    rs.getString("enunciado"),
-                    rs.getString("tema"),
-                    rs.getString("visibilidad"),
-                    rs.getString("dificultad"),
-                    rs.getString("docente"),
-                    rs.getString("unidadAcademica"),
-                    rs.getString("tipoPregunta"),
-                    rs.getDouble("porcentajeNota"),
-                    rs.getTimestamp("fechaCreacion"),
-                    rs.getString("estado"),
-                    new ArrayList<>()
-                );
-                preguntasMap.put(idPregunta, pregunta);
-            }
-    
-            // Agregar la opción a la lista de opciones de la pregunta
-            List<ObtenerOpcionRespuestaDto> opciones = pregunta.opciones();
-            opciones.add(new ObtenerOpcionRespuestaDto(
-                rs.getLong("idOpcion"),
-                rs.getString("textoOpcion"),
-                rs.getString("textoPareja"),
-                rs.getLong("idTipoRespuesta")
-            ));
-        });
-    
-        return new ArrayList<>(preguntasMap.values());
+    public PaginaDto<ObtenerPreguntaDto> listarPreguntasPublicas(Long idUnidad, Long cursor, Integer tamano) {
+        String filtro = "p.idUnidad = ? AND p.idVisibilidad IN (SELECT vp.idVisibilidad FROM VisibilidadPregunta vp WHERE vp.nombre = 'publica')";
+        return consultaPreguntas.consultar(filtro, List.of(idUnidad), cursor, tamano);
     }
 
     /**
@@ -293,15 +268,37 @@ public class PublicoRepository {
 
 
     /**
-     * Lista todas las unidades académicas existentes.
+     * Lista todas las unidades académicas existentes, desde el catálogo de paramétricas en memoria.
      * @return lista de unidades académicas
      */
     public List<UnidadAcademicaDto> listarUnidades() {
-        String sql = "SELECT idUnidad, nombre FROM UnidadAcademica";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new UnidadAcademicaDto(
-            rs.getLong("idUnidad"),
-            rs.getString("nombre")
-        ));
+        return catalogo.obtener().unidades();
+    }
+
+    /**
+     * Vuelve a leer las tablas paramétricas de la base de datos y reemplaza el catálogo en memoria, salvo que ya se
+     * haya recargado a solicitud hace menos del intervalo mínimo.
+     * @return Optional con el momento de la carga, vacío si la recarga no se hizo por el intervalo mínimo
+     */
+    public Optional<Instant> recargarParametricas() {
+        return catalogo.recargarAPedido().map(CatalogoParametricas.Instantanea::cargadaEn);
+    }
+
+    /**
+     * Milisegundos mínimos entre dos recargas a solicitud de las tablas paramétricas.
+     * @return intervalo mínimo en milisegundos
+     */
+    public long obtenerIntervaloRecargaParametricas() {
+        return catalogo.getRecargaPorFaltanteMs();
+    }
+
+    /**
+     * Obtiene la versión del contenido de una tabla paramétrica según el catálogo en memoria.
+     * @param tabla tabla a consultar
+     * @return versión de la tabla
+     */
+    public long obtenerVersion(TablaParametrica tabla) {
+        return catalogo.version(tabla);
     }
 
     /**
@@ -324,22 +321,12 @@ public class PublicoRepository {
     }
 
     /**
-     * Lista los temas asociados a una unidad académica específica.
+     * Lista los temas asociados a una unidad académica específica, desde el catálogo de paramétricas en memoria.
      * @param idUnidad id de la unidad académica
      * @return lista de temas de la unidad
      */
     public List<TemaDto> listarTemasUnidad(Long idUnidad){
-        String sql = """
-                        SELECT 
-                        t.idTema, 
-                        t.nombre 
-                        FROM Tema t
-                        JOIN Curso c ON t.idCurso = c.idCurso
-                        WHERE c.idUnidad = ?""";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new TemaDto(
-            rs.getLong("idTema"),
-            rs.getString("nombre")
-        ),idUnidad);
+        return catalogo.obtener().temasUnidad(idUnidad);
     }
 
     /**
@@ -348,23 +335,7 @@ public class PublicoRepository {
      * @return lista de grupos del docente
      */
     public List<ObtenerGruposIdDto> listarGruposDocente(Long idUsuario) {
-        String sql = """
-                        SELECT 
-                        g.idGrupo, 
-                        g.nombre,
-                        g.idCurso,
-                        c.nombre AS nombreCurso
-                        FROM Grupo g
-                        JOIN Curso c ON g.idCurso = c.idCurso
-                        JOIN Usuario u ON g.idDocente = u.idUsuario  
-                        WHERE u.idUsuario = ?
-                        """;
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new ObtenerGruposIdDto(
-            rs.getLong("idGrupo"),
-            rs.getString("nombre"),
-            rs.getLong("idCurso"),
-            rs.getString("nombreCurso")
-        ), idUsuario);
+        return indiceMembresias.gruposDocente(idUsuario);
     }
 
     /**
@@ -374,42 +345,16 @@ public class PublicoRepository {
      * @return lista de grupos en los que participa el estudiante
      */
     public List<ObtenerGruposIdDto> listarGruposEstudiante(Long idUsuario) {
-        String sql = """
-                        SELECT 
-                        g.idGrupo, 
-                        g.nombre,
-                        g.idCurso,
-                        c.nombre AS nombreCurso
-                        FROM Grupo g
-                        JOIN Curso c ON c.idCurso = g.idCurso
-                        JOIN GrupoUsuario gu ON g.idGrupo = gu.idGrupo
-                        JOIN Usuario u ON gu.idUsuario = u.idUsuario  
-                        WHERE u.idUsuario = ?
-                        """;
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new ObtenerGruposIdDto(
-            rs.getLong("idGrupo"),
-            rs.getString("nombre"),
-            rs.getLong("idCurso"),
-            rs.getString("nombreCurso")
-        ), idUsuario);
+        return indiceMembresias.gruposEstudiante(idUsuario);
     }
 
+    /**
+     * Lista los temas del curso al que pertenece un grupo, desde el catálogo de paramétricas en memoria.
+     * @param idGrupo id del grupo
+     * @return lista de temas del grupo
+     */
     public List<TemaDto> listarTemasGrupo(Long idGrupo){
-        String sql = """
-                    SELECT 
-                    t.idTema, 
-                    t.nombre
-                    FROM Grupo g
-                    JOIN Curso c ON g.idCurso = c.idCurso
-                    JOIN Tema t ON t.idCurso = c.idCurso
-                    WHERE g.idGrupo = ?
-                    """;
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new TemaDto(
-            rs.getLong("idTema"),
-            rs.getString("nombre")
-        ), idGrupo);
+        return catalogo.obtener().temasGrupo(idGrupo);
     }
 
-
-
 }
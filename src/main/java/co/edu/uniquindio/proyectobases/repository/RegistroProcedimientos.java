@@ -0,0 +1,150 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.simple.SimpleJdbcCall;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Registro compartido de llamadas a procedimientos almacenados.
+ * Cada repositorio declara sus procedimientos una sola vez al construirse y luego reutiliza el mismo
+ * SimpleJdbcCall en cada invocación, evitando reconstruir la llamada y redeclarar sus parámetros por petición.
+ * Un SimpleJdbcCall compilado es seguro para uso concurrente, por lo que una sola instancia atiende todas las peticiones.
+ * La diferencia contra compilar la llamada en cada petición se mide en 'LlamadasProcedimientoBenchmark' (src/jmh).
+ * Cada invocación se publica en Micrometer con el temporizador 'proyectobases.procedimiento' y sus fallos se
+ * cuentan en 'proyectobases.procedimiento.errores', etiquetados por el nombre del procedimiento.
+ */
+@Component
+public class RegistroProcedimientos {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroProcedimientos.class);
+
+    /**
+     * JdbcTemplate sobre el que se construyen las llamadas.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Procedimientos registrados, indexados por su nombre en la base de datos.
+     */
+    private final Map<String, ProcedimientoRegistrado> procedimientos = new ConcurrentHashMap<>();
+
+    /**
+     * Registro de métricas de la aplicación.
+     */
+    private final MeterRegistry registroMetricas;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param jdbcTemplate plantilla JDBC para operaciones de base de datos
+     * @param registroMetricas registro de métricas de la aplicación
+     */
+    public RegistroProcedimientos(JdbcTemplate jdbcTemplate, MeterRegistry registroMetricas) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.registroMetricas = registroMetricas;
+    }
+
+    /**
+     * Registra un procedimiento almacenado con sus parámetros de entrada y salida.
+     * @param nombre nombre del procedimiento en la base de datos
+     * @param parametros parámetros declarados del procedimiento
+     * @throws IllegalStateException si el procedimiento ya estaba registrado
+     */
+    public void registrar(String nombre, SqlParameter... parametros) {
+        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
+            .withProcedureName(nombre)
+            .declareParameters(parametros);
+
+        Timer temporizador = Timer.builder("proyectobases.procedimiento")
+            .description("Duración de las llamadas a procedimientos almacenados")
+            .tag("procedimiento", nombre)
+            .register(registroMetricas);
+        Counter errores = Counter.builder("proyectobases.procedimiento.errores")
+            .description("Llamadas a procedimientos almacenados que terminaron en excepción")
+            .tag("procedimiento", nombre)
+            .register(registroMetricas);
+        if (procedimientos.putIfAbsent(nombre, new ProcedimientoRegistrado(nombre, jdbcCall, temporizador, errores)) != null) {
+            throw new IllegalStateException("El procedimiento '" + nombre + "' ya fue registrado.");
+        }
+    }
+
+    /**
+     * Ejecuta un procedimiento registrado.
+     * @param nombre nombre del procedimiento
+     * @param params parámetros de entrada
+     * @return Map con los parámetros de salida
+     */
+    public Map<String, Object> ejecutar(String nombre, SqlParameterSource params) {
+        ProcedimientoRegistrado procedimiento = obtener(nombre);
+        Timer.Sample muestra = Timer.start(registroMetricas);
+        try {
+            return procedimiento.jdbcCall().execute(params);
+        } catch (RuntimeException e) {
+            procedimiento.errores().increment();
+            throw e;
+        } finally {
+            muestra.stop(procedimiento.temporizador());
+        }
+    }
+
+    /**
+     * Ejecuta un procedimiento registrado.
+     * @param nombre nombre del procedimiento
+     * @param params parámetros de entrada
+     * @return Map con los parámetros de salida
+     */
+    public Map<String, Object> ejecutar(String nombre, Map<String, ?> params) {
+        ProcedimientoRegistrado procedimiento = obtener(nombre);
+        Timer.Sample muestra = Timer.start(registroMetricas);
+        try {
+            return procedimiento.jdbcCall().execute(params);
+        } catch (RuntimeException e) {
+            procedimiento.errores().increment();
+            throw e;
+        } finally {
+            muestra.stop(procedimiento.temporizador());
+        }
+    }
+
+    /**
+     * Compila todas las llamadas registradas una vez la aplicación está lista, para que la lectura de
+     * metadatos del procedimiento no recaiga sobre la primera petición. Si la base de datos no está
+     * disponible la llamada se compilará en su primera ejecución.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void compilar() {
+        for (ProcedimientoRegistrado procedimiento : procedimientos.values()) {
+            try {
+                procedimiento.jdbcCall().compile();
+            } catch (RuntimeException e) {
+                log.warn("No se pudo compilar el procedimiento '{}': {}", procedimiento.nombre(), e.getMessage());
+            }
+        }
+    }
+
+    private ProcedimientoRegistrado obtener(String nombre) {
+        ProcedimientoRegistrado procedimiento = procedimientos.get(nombre);
+        if (procedimiento == null) {
+            throw new IllegalStateException("El procedimiento '" + nombre + "' no está registrado.");
+        }
+        return procedimiento;
+    }
+
+    /**
+     * Llamada compilada junto con sus medidores.
+     */
+    private record ProcedimientoRegistrado(String nombre, SimpleJdbcCall jdbcCall, Timer temporizador, Counter errores) {
+    }
+}
@@ -0,0 +1,139 @@
+package co.edu.uniquindio.proyectobases.seguridad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.SesionDto;
+import co.edu.uniquindio.proyectobases.exception.AccesoExamenException;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+import co.edu.uniquindio.proyectobases.repository.IndiceAutorizacion;
+
+/**
+ * Reglas de acceso de los endpoints con los que un estudiante presenta un examen, resueltas con el
+ * {@link IndiceAutorizacion} en memoria:
+ * <ul>
+ *   <li>Un estudiante solo puede generar u obtener los exámenes de los grupos en los que está inscrito.</li>
+ *   <li>Si la petición trae token de sesión, el estudiante de la ruta debe ser el de la sesión, y los intentos
+ *   sobre los que se registran respuestas o se finaliza deben ser suyos.</li>
+ * </ul>
+ * Por defecto 'examen.autorizacion.requerir-sesion' es true y las peticiones sin token se rechazan; con
+ * 'examen.autorizacion.habilitada' en false no se verifica nada.
+ * Las operaciones de docente sobre todo un examen, como finalizar sus intentos en bloque, exigen siempre la sesión
+ * del docente del examen, sin importar esas propiedades.
+ * <p>
+ * Los clientes guardan el token que devuelve '/api/autorizacion/login' y lo envían en la cabecera
+ * {@code Authorization: Bearer <token>} de todos los endpoints de presentación de exámenes; cuando reciben 401
+ * vuelven a iniciar sesión.
+ * <p>
+ * <b>Poner 'requerir-sesion' en false es un modo de transición inseguro</b>, solo para un despliegue con clientes
+ * que aún envían los ids en la ruta sin token: en esas peticiones {@link #verificarExamen} confía en el id de
+ * estudiante de la ruta (solo comprueba que esté inscrito en el grupo del examen) y {@link #verificarIntento} no
+ * comprueba nada, de modo que quien conozca un id de intento puede registrar respuestas en él o finalizarlo.
+ */
+@Component
+public class AccesoExamenes {
+
+    private static final Logger log = LoggerFactory.getLogger(AccesoExamenes.class);
+
+    /**
+     * Índice de grupos, exámenes e intentos.
+     */
+    private final IndiceAutorizacion indice;
+
+    /**
+     * Repositorio de exámenes, para consultar el docente de un examen.
+     */
+    private final ExamenRepository examenRepository;
+
+    /**
+     * Indica si se verifican los accesos.
+     */
+    private final boolean habilitado;
+
+    /**
+     * Indica si se rechazan las peticiones sin token de sesión.
+     */
+    private final boolean requerirSesion;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param indice índice de grupos, exámenes e intentos
+     * @param examenRepository repositorio de exámenes
+     * @param habilitado si se verifican los accesos
+     * @param requerirSesion si se rechazan las peticiones sin token de sesión
+     */
+    public AccesoExamenes(IndiceAutorizacion indice,
+                          ExamenRepository examenRepository,
+                          @Value("${examen.autorizacion.habilitada:true}") boolean habilitado,
+                          @Value("${examen.autorizacion.requerir-sesion:true}") boolean requerirSesion) {
+        this.indice = indice;
+        this.examenRepository = examenRepository;
+        this.habilitado = habilitado;
+        this.requerirSesion = requerirSesion;
+        if (habilitado && !requerirSesion) {
+            log.warn("'examen.autorizacion.requerir-sesion' está en false: las peticiones sin token no verifican que el "
+                + "estudiante de la ruta ni el dueño del intento sean quien hace la petición");
+        }
+    }
+
+    /**
+     * Verifica que un estudiante pueda presentar un examen. Sin token, y con 'requerir-sesion' en false, solo se
+     * comprueba que el estudiante de la ruta esté inscrito en el grupo del examen, no que sea quien hace la petición.
+     * @param idExamen identificador del examen
+     * @param idEstudiante identificador del estudiante de la ruta
+     * @param sesion sesión del token de la petición, o null si no trae token
+     * @throws AccesoExamenException si el estudiante no puede presentar el examen
+     */
+    public void verificarExamen(Long idExamen, Long idEstudiante, SesionDto sesion) throws AccesoExamenException {
+        if (!habilitado) {
+            return;
+        }
+        verificarSesion(sesion);
+        if (sesion != null && !sesion.idUsuario().equals(idEstudiante)) {
+            throw new AccesoExamenException("No puede presentar exámenes a nombre de otro estudiante");
+        }
+        if (!indice.estudianteEnExamen(idExamen, idEstudiante)) {
+            throw new AccesoExamenException("El estudiante no pertenece al grupo del examen");
+        }
+    }
+
+    /**
+     * Verifica que el intento sea del estudiante de la sesión. Sin token, y con 'requerir-sesion' en false, no se
+     * verifica nada: cualquier intento existente se acepta.
+     * @param idIntento identificador del intento
+     * @param sesion sesión del token de la petición, o null si no trae token
+     * @throws AccesoExamenException si el intento no es del estudiante de la sesión
+     */
+    public void verificarIntento(Long idIntento, SesionDto sesion) throws AccesoExamenException {
+        if (!habilitado) {
+            return;
+        }
+        verificarSesion(sesion);
+        if (sesion != null && !indice.intentoDeEstudiante(idIntento, sesion.idUsuario())) {
+            throw new AccesoExamenException("El intento no pertenece al estudiante");
+        }
+    }
+
+    /**
+     * Verifica que la sesión sea la del docente del examen.
+     * @param idExamen identificador del examen
+     * @param sesion sesión del token de la petición, o null si no trae token
+     * @throws AccesoExamenException si no hay sesión o no es la del docente del examen
+     */
+    public void verificarDocenteExamen(Long idExamen, SesionDto sesion) throws AccesoExamenException {
+        if (sesion == null) {
+            throw new AccesoExamenException("Debe iniciar sesión como docente del examen");
+        }
+        if (!examenRepository.obtenerDocenteExamen(idExamen).map(sesion.idUsuario()::equals).orElse(false)) {
+            throw new AccesoExamenException("Solo el docente del examen puede finalizar sus intentos");
+        }
+    }
+
+    private void verificarSesion(SesionDto sesion) throws AccesoExamenException {
+        if (sesion == null && requerirSesion) {
+            throw new AccesoExamenException("Debe iniciar sesión para presentar el examen");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package co.edu.uniquindio.proyectobases.seguridad;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.uniquindio.proyectobases.dto.MensajeDto;
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.SesionDto;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que valida el token de sesión de la cabecera {@code Authorization: Bearer <token>} sin consultar la base
+ * de datos. Si el token es válido, deja los datos de la sesión en el atributo {@link #ATRIBUTO_SESION} de la
+ * petición, que los controladores reciben con {@code @RequestAttribute}; si es inválido, expiró o fue revocado,
+ * responde 401. Las peticiones sin token siguen su curso, para no romper a los clientes que aún envían los ids
+ * en la ruta.
+ * <p>
+ * El inicio de sesión y los endpoints públicos no usan la sesión y no se filtran: un cliente con un token vencido en
+ * memoria debe poder volver a iniciar sesión o consultar las paramétricas sin recibir 401.
+ */
+@Component
+public class FiltroTokenSesion extends OncePerRequestFilter {
+
+    /**
+     * Nombre del atributo de la petición con el {@link SesionDto} del token.
+     */
+    public static final String ATRIBUTO_SESION = "sesion";
+
+    private static final String PREFIJO = "Bearer ";
+
+    /**
+     * Ruta del inicio de sesión.
+     */
+    private static final String RUTA_LOGIN = "/api/autorizacion/login";
+
+    /**
+     * Prefijo de los endpoints públicos.
+     */
+    private static final String PREFIJO_PUBLICO = "/api/public/";
+
+    /**
+     * Verificador de los tokens.
+     */
+    private final TokenSesion tokenSesion;
+
+    /**
+     * ObjectMapper de la aplicación, para escribir el mensaje de error igual que en las demás respuestas.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param tokenSesion verificador de los tokens
+     * @param mapper ObjectMapper de la aplicación
+     */
+    public FiltroTokenSesion(TokenSesion tokenSesion, ObjectMapper mapper) {
+        this.tokenSesion = tokenSesion;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String cabecera = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (cabecera == null || !cabecera.regionMatches(true, 0, PREFIJO, 0, PREFIJO.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Optional<SesionDto> sesion = tokenSesion.verificar(cabecera.substring(PREFIJO.length()).trim());
+        if (sesion.isEmpty()) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            mapper.writeValue(response.getOutputStream(), new MensajeDto<>(true, "Token de sesión inválido o expirado", null));
+            return;
+        }
+        request.setAttribute(ATRIBUTO_SESION, sesion.get());
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Las solicitudes de verificación de CORS no llevan credenciales, y el inicio de sesión y los endpoints públicos
+     * no dependen de la sesión.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        return ruta.equals(RUTA_LOGIN) || ruta.startsWith(PREFIJO_PUBLICO);
+    }
+}
@@ -0,0 +1,200 @@
+package co.edu.uniquindio.proyectobases.seguridad;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.SesionDto;
+
+/**
+ * Emisión y verificación de los tokens de sesión.
+ * Un token lleva el usuario, su rol y su unidad académica, un identificador aleatorio y la fecha de expiración,
+ * firmados con HMAC-SHA256: se verifica en memoria, sin consultar la base de datos, y el cliente no necesita volver
+ * a pedir 'obtener-usuario' para saber quién es. El formato es {@code datos.firma}, ambos en Base64 URL sin relleno,
+ * donde los datos son {@code idUsuario:idRol:idUnidad:expira:idToken}.
+ * <p>
+ * Los tokens revocados (al cerrar sesión) se guardan en memoria solo hasta su expiración, de modo que el conjunto
+ * de revocados nunca crece más allá de las sesiones vigentes. La clave se toma de 'sesion.token.clave' (Base64,
+ * al menos 32 bytes). Sin clave la aplicación no arranca, salvo que 'sesion.token.clave-temporal' lo permita
+ * explícitamente (desarrollo y pruebas): entonces se genera una al arrancar, los tokens emitidos dejan de ser válidos
+ * al reiniciar y cada instancia rechaza los tokens de las demás.
+ */
+@Component
+public class TokenSesion {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenSesion.class);
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    /**
+     * Clave de firma.
+     */
+    private final SecretKeySpec clave;
+
+    /**
+     * Vigencia de cada token.
+     */
+    private final Duration duracion;
+
+    /**
+     * Instancia de HMAC por hilo, porque {@link Mac} no es segura entre hilos.
+     */
+    private final ThreadLocal<Mac> mac;
+
+    /**
+     * Fuente de los identificadores de token.
+     */
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    /**
+     * Tokens revocados, indexados por su identificador, con su fecha de expiración.
+     */
+    private final Map<String, Instant> revocados = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor con la configuración de los tokens.
+     * @param claveBase64 clave de firma en Base64, o vacía para generar una al arrancar si se permite
+     * @param claveTemporal si se permite generar una clave al arrancar cuando 'sesion.token.clave' está vacía
+     * @param duracionMinutos minutos de vigencia de cada token
+     * @throws IllegalStateException si la clave está vacía y no se permite una temporal, o es demasiado corta
+     */
+    public TokenSesion(@Value("${sesion.token.clave:}") String claveBase64,
+                       @Value("${sesion.token.clave-temporal:false}") boolean claveTemporal,
+                       @Value("${sesion.token.duracion-minutos:480}") long duracionMinutos) {
+        byte[] bytesClave;
+        if (claveBase64 == null || claveBase64.isBlank()) {
+            if (!claveTemporal) {
+                throw new IllegalStateException("'sesion.token.clave' no está configurada; defina una clave en Base64 de al menos "
+                    + "32 bytes, o 'sesion.token.clave-temporal=true' solo en desarrollo");
+            }
+            bytesClave = new byte[32];
+            aleatorio.nextBytes(bytesClave);
+            log.warn("*** 'sesion.token.clave' no está configurada y 'sesion.token.clave-temporal' está habilitada: se generó una "
+                + "clave temporal, los tokens no sobrevivirán a un reinicio ni serán válidos en otras instancias. "
+                + "No use esta configuración en producción. ***");
+        } else {
+            bytesClave = Base64.getDecoder().decode(claveBase64.trim());
+            if (bytesClave.length < 32) {
+                throw new IllegalStateException("'sesion.token.clave' debe tener al menos 32 bytes");
+            }
+        }
+        this.clave = new SecretKeySpec(bytesClave, ALGORITMO);
+        this.duracion = Duration.ofMinutes(duracionMinutos);
+        this.mac = ThreadLocal.withInitial(this::crearMac);
+    }
+
+    /**
+     * Crea una sesión nueva, con un identificador aleatorio y la vigencia configurada.
+     * @param idUsuario identificador del usuario
+     * @param idRol rol del usuario
+     * @param idUnidad unidad académica del usuario, o null si no se conoce
+     * @return datos de la sesión
+     */
+    public SesionDto crear(Long idUsuario, Integer idRol, Long idUnidad) {
+        byte[] id = new byte[12];
+        aleatorio.nextBytes(id);
+        return new SesionDto(idUsuario, idRol, idUnidad, HexFormat.of().formatHex(id), Instant.now().plus(duracion).truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Firma una sesión.
+     * @param sesion datos de la sesión
+     * @return token firmado
+     */
+    public String firmar(SesionDto sesion) {
+        String datos = sesion.idUsuario() + ":" + sesion.idRol() + ":" + (sesion.idUnidad() == null ? "" : sesion.idUnidad())
+            + ":" + sesion.expira().getEpochSecond() + ":" + sesion.idToken();
+        String datosCodificados = CODIFICADOR.encodeToString(datos.getBytes(StandardCharsets.UTF_8));
+        return datosCodificados + "." + CODIFICADOR.encodeToString(firmarBytes(datosCodificados));
+    }
+
+    /**
+     * Verifica un token: su firma, su vigencia y que no esté revocado.
+     * @param token token recibido
+     * @return datos de la sesión si el token es válido, vacío en caso contrario
+     */
+    public Optional<SesionDto> verificar(String token) {
+        int punto = token.indexOf('.');
+        if (punto <= 0 || punto != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String datosCodificados = token.substring(0, punto);
+        try {
+            byte[] firma = DECODIFICADOR.decode(token.substring(punto + 1));
+            if (!MessageDigest.isEqual(firma, firmarBytes(datosCodificados))) {
+                return Optional.empty();
+            }
+            String[] campos = new String(DECODIFICADOR.decode(datosCodificados), StandardCharsets.UTF_8).split(":", -1);
+            if (campos.length != 5) {
+                return Optional.empty();
+            }
+            SesionDto sesion = new SesionDto(
+                Long.valueOf(campos[0]),
+                Integer.valueOf(campos[1]),
+                campos[2].isEmpty() ? null : Long.valueOf(campos[2]),
+                campos[4],
+                Instant.ofEpochSecond(Long.parseLong(campos[3]))
+            );
+            if (!sesion.expira().isAfter(Instant.now()) || revocados.containsKey(sesion.idToken())) {
+                return Optional.empty();
+            }
+            return Optional.of(sesion);
+        } catch (IllegalArgumentException e) {
+            // Base64 o números mal formados
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Revoca una sesión hasta su expiración.
+     * @param sesion sesión a revocar
+     */
+    public void revocar(SesionDto sesion) {
+        revocados.put(sesion.idToken(), sesion.expira());
+    }
+
+    /**
+     * Descarta los tokens revocados que ya expiraron, que de todas formas serían rechazados.
+     */
+    @Scheduled(fixedDelayString = "${sesion.revocacion.limpieza-ms:60000}")
+    public void limpiarRevocados() {
+        Instant ahora = Instant.now();
+        revocados.values().removeIf(expira -> !expira.isAfter(ahora));
+    }
+
+    private byte[] firmarBytes(String datosCodificados) {
+        return mac.get().doFinal(datosCodificados.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac crearMac() {
+        try {
+            Mac instancia = Mac.getInstance(ALGORITMO);
+            instancia.init(clave);
+            return instancia;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 no está disponible", e);
+        }
+    }
+}
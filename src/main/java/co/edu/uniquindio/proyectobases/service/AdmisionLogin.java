@@ -0,0 +1,229 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.LoginResponseDto;
+import co.edu.uniquindio.proyectobases.exception.AdmisionException;
+import co.edu.uniquindio.proyectobases.repository.AutenticacionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Control de admisión de los inicios de sesión.
+ * Cuando abre un examen, un grupo completo inicia sesión en pocos segundos, y cada intento llama al procedimiento
+ * 'validar_login'. Para que esos picos no dejen sin conexiones a los endpoints de presentación de exámenes:
+ * <ul>
+ *   <li>Los intentos idénticos (mismo correo y misma contraseña) que llegan mientras uno está en curso, como los
+ *   doble envíos del formulario, esperan su resultado en lugar de llamar otra vez al procedimiento. La clave de
+ *   agrupación es un resumen SHA-256 del correo y la contraseña, nunca la contraseña en claro.</li>
+ *   <li>Como máximo 'login.admision.concurrencia' llamadas a 'validar_login' se ejecutan a la vez. Las demás esperan
+ *   en una cola acotada a 'login.admision.cola' intentos; con la cola llena, o tras 'login.admision.espera-maxima-ms'
+ *   sin turno, el intento se rechaza de inmediato para que el cliente reintente.</li>
+ * </ul>
+ * Publica en Micrometer la profundidad de la cola, las llamadas en curso, el tiempo de espera por turno, los
+ * rechazos y los intentos agrupados.
+ */
+@Component
+public class AdmisionLogin {
+
+    /**
+     * Repositorio que valida las credenciales.
+     */
+    private final AutenticacionRepository autenticacionRepository;
+
+    /**
+     * Turnos para llamar a 'validar_login'.
+     */
+    private final Semaphore turnos;
+
+    /**
+     * Cantidad total de turnos.
+     */
+    private final int concurrencia;
+
+    /**
+     * Intentos que pueden esperar turno a la vez.
+     */
+    private final int capacidadCola;
+
+    /**
+     * Tiempo máximo de espera por un turno, en milisegundos.
+     */
+    private final long esperaMaximaMs;
+
+    /**
+     * Intentos esperando turno en este momento.
+     */
+    private final AtomicInteger enCola = new AtomicInteger();
+
+    /**
+     * Resultado de cada intento en curso, indexado por el resumen de sus credenciales.
+     */
+    private final Map<String, CompletableFuture<Optional<LoginResponseDto>>> enCurso = new ConcurrentHashMap<>();
+
+    /**
+     * Tiempo en la cola de los intentos que no encontraron un turno libre, admitidos o rechazados por espera.
+     */
+    private final Timer espera;
+
+    /**
+     * Intentos rechazados por cola llena o espera agotada.
+     */
+    private final Counter rechazos;
+
+    /**
+     * Intentos resueltos con el resultado de otro intento idéntico en curso.
+     */
+    private final Counter agrupados;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param autenticacionRepository repositorio que valida las credenciales
+     * @param registro registro de métricas de la aplicación
+     * @param concurrencia llamadas a 'validar_login' que se ejecutan a la vez como máximo
+     * @param capacidadCola intentos que pueden esperar turno a la vez
+     * @param esperaMaximaMs tiempo máximo de espera por un turno, en milisegundos
+     */
+    public AdmisionLogin(AutenticacionRepository autenticacionRepository,
+                         MeterRegistry registro,
+                         @Value("${login.admision.concurrencia:4}") int concurrencia,
+                         @Value("${login.admision.cola:200}") int capacidadCola,
+                         @Value("${login.admision.espera-maxima-ms:3000}") long esperaMaximaMs) {
+        this.autenticacionRepository = autenticacionRepository;
+        this.concurrencia = Math.max(1, concurrencia);
+        this.turnos = new Semaphore(this.concurrencia, true);
+        this.capacidadCola = Math.max(0, capacidadCola);
+        this.esperaMaximaMs = esperaMaximaMs;
+
+        Gauge.builder("proyectobases.login.cola", enCola, AtomicInteger::get)
+            .description("Inicios de sesión esperando turno para validar_login")
+            .register(registro);
+        Gauge.builder("proyectobases.login.en-curso", turnos, semaforo -> this.concurrencia - semaforo.availablePermits())
+            .description("Llamadas a validar_login en curso")
+            .register(registro);
+        this.espera = Timer.builder("proyectobases.login.espera")
+            .description("Tiempo de espera de un inicio de sesión por su turno")
+            .register(registro);
+        this.rechazos = Counter.builder("proyectobases.login.rechazos")
+            .description("Inicios de sesión rechazados por cola llena o espera agotada")
+            .register(registro);
+        this.agrupados = Counter.builder("proyectobases.login.agrupados")
+            .description("Inicios de sesión resueltos con el resultado de un intento idéntico en curso")
+            .register(registro);
+    }
+
+    /**
+     * Valida unas credenciales, compartiendo la llamada con los intentos idénticos en curso.
+     * @param correo correo electrónico del usuario
+     * @param contrasena contraseña del usuario
+     * @return Optional con la información del usuario si las credenciales son correctas, vacío en caso contrario
+     * @throws AdmisionException si el intento se rechazó por exceso de inicios de sesión simultáneos
+     */
+    public Optional<LoginResponseDto> validar(String correo, String contrasena) throws AdmisionException {
+        String clave = resumir(correo, contrasena);
+        CompletableFuture<Optional<LoginResponseDto>> propio = new CompletableFuture<>();
+        CompletableFuture<Optional<LoginResponseDto>> existente = enCurso.putIfAbsent(clave, propio);
+        if (existente != null) {
+            agrupados.increment();
+            return esperarResultado(existente);
+        }
+        try {
+            Optional<LoginResponseDto> resultado = validarConTurno(correo, contrasena);
+            propio.complete(resultado);
+            return resultado;
+        } catch (AdmisionException | RuntimeException e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propio);
+        }
+    }
+
+    private Optional<LoginResponseDto> validarConTurno(String correo, String contrasena) throws AdmisionException {
+        if (!turnos.tryAcquire()) {
+            esperarTurno();
+        }
+        try {
+            return autenticacionRepository.validarLogin(correo, contrasena);
+        } finally {
+            turnos.release();
+        }
+    }
+
+    /**
+     * Espera un turno en la cola acotada; rechaza el intento si la cola está llena o la espera se agota.
+     */
+    private void esperarTurno() throws AdmisionException {
+        if (enCola.incrementAndGet() > capacidadCola) {
+            enCola.decrementAndGet();
+            rechazos.increment();
+            throw new AdmisionException("Hay demasiados inicios de sesión en curso, intente de nuevo en unos segundos.");
+        }
+        long inicio = System.nanoTime();
+        boolean admitido;
+        try {
+            admitido = turnos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmisionException("El inicio de sesión fue interrumpido.");
+        } finally {
+            enCola.decrementAndGet();
+            espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        if (!admitido) {
+            rechazos.increment();
+            throw new AdmisionException("Hay demasiados inicios de sesión en curso, intente de nuevo en unos segundos.");
+        }
+    }
+
+    private static Optional<LoginResponseDto> esperarResultado(CompletableFuture<Optional<LoginResponseDto>> resultado) throws AdmisionException {
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmisionException("El inicio de sesión fue interrumpido.");
+        } catch (CancellationException e) {
+            throw new AdmisionException("El inicio de sesión fue cancelado, intente de nuevo.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AdmisionException causa) {
+                throw new AdmisionException(causa.getMessage());
+            }
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Resumen SHA-256 del correo y la contraseña, usado como clave de agrupación.
+     */
+    private static String resumir(String correo, String contrasena) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(correo).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(contrasena).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+}
@@ -5,35 +5,66 @@ import org.springframework.stereotype.Service;
 
 import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.LoginDto;
 import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.LoginResponseDto;
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.LoginTokenDto;
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.SesionDto;
+import co.edu.uniquindio.proyectobases.dto.UsuarioDto.UsuarioDetalleDto;
+import co.edu.uniquindio.proyectobases.exception.AdmisionException;
 import co.edu.uniquindio.proyectobases.exception.AutorizacionException;
-import co.edu.uniquindio.proyectobases.repository.AutenticacionRepository;
+import co.edu.uniquindio.proyectobases.seguridad.TokenSesion;
 import java.util.Optional;
 
 /**
  * Servicio encargado de la lógica de autenticación de usuarios.
- * Interactúa con el repositorio de autenticación para validar credenciales y retornar información de login.
+ * Valida las credenciales a través del control de admisión de inicios de sesión y emite el token de sesión firmado,
+ * que lleva el usuario, su rol y su unidad académica.
  */
 @Service
 public class AutenticacionService {
     /**
-     * Repositorio que gestiona la validación de credenciales de usuario.
+     * Control de admisión que agrupa los intentos idénticos y limita las validaciones simultáneas de credenciales.
      */
     @Autowired
-    private AutenticacionRepository autenticacionRepository;
+    private AdmisionLogin admisionLogin;
 
     /**
-     * Valida las credenciales de un usuario y retorna la información correspondiente si el login es exitoso.
+     * Cache del detalle de los usuarios, usada para obtener la unidad académica del usuario al iniciar sesión.
+     */
+    @Autowired
+    private CacheUsuarios cacheUsuarios;
+
+    /**
+     * Emisor de los tokens de sesión.
+     */
+    @Autowired
+    private TokenSesion tokenSesion;
+
+    /**
+     * Valida las credenciales de un usuario y, si el login es exitoso, emite su token de sesión.
      *
      * @param dto DTO con los datos de login(correo y contrasena)
-     * @return LoginResponseDto con la respuesta de login si las credenciales son correctas, vacío en caso contrario
+     * @return LoginTokenDto con la información del usuario y su token de sesión
      * @throws AutorizacionException si las credenciales son inválidas
+     * @throws AdmisionException si hay demasiados inicios de sesión en curso
      */
-    public LoginResponseDto login(LoginDto dto) throws AutorizacionException{
-        Optional<LoginResponseDto> loginResponseDto = autenticacionRepository.validarLogin(dto.correo(), dto.contrasena());
-        if (loginResponseDto.isPresent()) {
-            return loginResponseDto.get();
-        } else {
+    public LoginTokenDto login(LoginDto dto) throws AutorizacionException, AdmisionException {
+        Optional<LoginResponseDto> loginResponseDto = admisionLogin.validar(dto.correo(), dto.contrasena());
+        if (loginResponseDto.isEmpty()) {
             throw new AutorizacionException("Credenciales inválidas");
         }
+        LoginResponseDto usuario = loginResponseDto.get();
+        Long idUnidad = cacheUsuarios.obtener(usuario.idUsuario())
+            .map(UsuarioDetalleDto::idUnidad)
+            .orElse(null);
+        SesionDto sesion = tokenSesion.crear(usuario.idUsuario(), usuario.idRol(), idUnidad);
+        return new LoginTokenDto(usuario.idUsuario(), usuario.idRol(), idUnidad, usuario.correo(), tokenSesion.firmar(sesion), sesion.expira());
+    }
+
+    /**
+     * Cierra una sesión: su token deja de aceptarse aunque no haya expirado.
+     *
+     * @param sesion sesión del token de la petición
+     */
+    public void cerrarSesion(SesionDto sesion) {
+        tokenSesion.revocar(sesion);
     }
 }
@@ -0,0 +1,459 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.RespuestaPreguntaDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ResultadoRespuestaDto;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Buffer en memoria de las respuestas de los intentos en curso.
+ * Cada clic del estudiante se guarda en memoria y se anota en un journal local sincronizado a disco; las
+ * respuestas se escriben en la base de datos por lotes de forma periódica, cuando el estudiante guarda
+ * explícitamente y siempre antes de finalizar el intento. Como en 'registrar_respuesta_estudiante', cada opción
+ * elegida es una respuesta y ninguna reemplaza a otra, de modo que las preguntas con varias opciones correctas
+ * conservan todas las opciones marcadas; solo se descartan los clics repetidos sobre la misma opción.
+ * <ul>
+ *   <li>Cuando al intento le quedan menos de 'examen.respuestas.buffer.margen-limite-ms' según el reloj de la
+ *   base de datos, cada respuesta se escribe antes de responder, para que el estudiante reciba el resultado real
+ *   de 'trg_validar_tiempo_respuesta' y no una confirmación que la base rechazaría después.</li>
+ *   <li>Las respuestas que la base rechaza en una escritura periódica no se descartan en silencio: se registran en
+ *   el log y se informan en el resultado del siguiente guardado o finalización del intento.</li>
+ * </ul>
+ * Al iniciar la aplicación se recuperan del journal las respuestas que no alcanzaron a escribirse.
+ * <p>
+ * El journal se sincroniza a disco con commit en grupo: cada respuesta se agrega al archivo con el candado del
+ * journal tomado solo durante la escritura en memoria del sistema operativo, y luego espera a que alguna
+ * sincronización cubra su posición. Un solo hilo ejecuta {@link FileChannel#force(boolean)} a la vez, fuera del
+ * candado, y cubre todas las respuestas agregadas hasta ese momento; las que llegan mientras tanto se sincronizan
+ * juntas en la siguiente. Así, con muchos estudiantes respondiendo, cada sincronización a disco confirma un lote de
+ * respuestas en lugar de una sola.
+ */
+@Component
+public class BufferRespuestas {
+
+    private static final Logger log = LoggerFactory.getLogger(BufferRespuestas.class);
+
+    /**
+     * Repositorio donde se escriben los lotes de respuestas.
+     */
+    private final ExamenRepository examenRepository;
+
+    /**
+     * Indica si el registro de respuestas pasa por el buffer.
+     */
+    private final boolean habilitado;
+
+    /**
+     * Ruta del journal local de respuestas pendientes.
+     */
+    private final Path rutaJournal;
+
+    /**
+     * Tiempo restante del intento por debajo del cual las respuestas se escriben de inmediato, en nanosegundos.
+     */
+    private final long margenLimiteNanos;
+
+    /**
+     * Respuestas pendientes por intento, en el orden en que se eligieron. Los conjuntos solo se modifican con el
+     * monitor {@link #bloqueo} tomado.
+     */
+    private final Map<Long, Set<RespuestaPreguntaDto>> pendientes = new ConcurrentHashMap<>();
+
+    /**
+     * Respuestas que se están escribiendo en la base de datos; se conservan en el journal hasta confirmarse.
+     * Mientras un intento está aquí, ninguna otra escritura del mismo intento comienza.
+     */
+    private final Map<Long, Set<RespuestaPreguntaDto>> enEscritura = new ConcurrentHashMap<>();
+
+    /**
+     * Respuestas rechazadas por la base de datos en una escritura periódica, pendientes de informar al cliente.
+     */
+    private final Map<Long, List<ResultadoRespuestaDto>> rechazadas = new ConcurrentHashMap<>();
+
+    /**
+     * Instante límite de cada intento en el reloj de {@link System#nanoTime()}, calculado una vez por intento con el
+     * tiempo restante que informa la base de datos.
+     */
+    private final Map<Long, Long> limites = new ConcurrentHashMap<>();
+
+    /**
+     * Monitor que protege el paso de respuestas entre pendientes y en escritura, y la espera de las escrituras en
+     * curso. Si se toma junto con {@link #bloqueoJournal}, se toma después de él.
+     */
+    private final Object bloqueo = new Object();
+
+    /**
+     * Candado del canal del journal y de las posiciones escrita y sincronizada. Nunca se mantiene durante una
+     * sincronización a disco de las respuestas.
+     */
+    private final ReentrantLock bloqueoJournal = new ReentrantLock();
+
+    /**
+     * Señal de que terminó una sincronización del journal.
+     */
+    private final Condition sincronizacionTerminada = bloqueoJournal.newCondition();
+
+    /**
+     * Canal de escritura del journal. Protegido por {@link #bloqueoJournal}.
+     */
+    private FileChannel journal;
+
+    /**
+     * Cantidad de respuestas agregadas al journal. Protegido por {@link #bloqueoJournal}.
+     */
+    private long agregadas;
+
+    /**
+     * Cantidad de respuestas agregadas que ya están sincronizadas a disco. Protegido por {@link #bloqueoJournal}.
+     */
+    private long sincronizadas;
+
+    /**
+     * Indica si un hilo está sincronizando el journal a disco. Protegido por {@link #bloqueoJournal}.
+     */
+    private boolean sincronizando;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param examenRepository repositorio de exámenes
+     * @param habilitado si el buffer está habilitado
+     * @param rutaJournal ruta del archivo de journal
+     * @param margenLimiteMs tiempo restante del intento por debajo del cual las respuestas se escriben de inmediato
+     */
+    public BufferRespuestas(ExamenRepository examenRepository,
+                            @Value("${examen.respuestas.buffer.habilitado:false}") boolean habilitado,
+                            @Value("${examen.respuestas.buffer.journal:respuestas-pendientes.journal}") String rutaJournal,
+                            @Value("${examen.respuestas.buffer.margen-limite-ms:30000}") long margenLimiteMs) {
+        this.examenRepository = examenRepository;
+        this.habilitado = habilitado;
+        this.rutaJournal = Paths.get(rutaJournal);
+        this.margenLimiteNanos = TimeUnit.MILLISECONDS.toNanos(margenLimiteMs);
+    }
+
+    /**
+     * Abre el journal y recupera las respuestas que quedaron pendientes en una ejecución anterior.
+     * @throws IOException si no se puede leer o abrir el journal
+     */
+    @PostConstruct
+    public void iniciar() throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        if (Files.exists(rutaJournal)) {
+            int recuperadas = 0;
+            for (String linea : Files.readAllLines(rutaJournal, StandardCharsets.UTF_8)) {
+                String[] campos = linea.split(",");
+                if (campos.length != 3) {
+                    // Línea incompleta por una caída durante la escritura
+                    continue;
+                }
+                pendientes.computeIfAbsent(Long.valueOf(campos[0]), k -> new LinkedHashSet<>())
+                    .add(new RespuestaPreguntaDto(Long.valueOf(campos[1]), Long.valueOf(campos[2])));
+                recuperadas++;
+            }
+            if (recuperadas > 0) {
+                log.info("Se recuperaron {} respuestas pendientes del journal {}", recuperadas, rutaJournal);
+            }
+        }
+        bloqueoJournal.lock();
+        try {
+            reescribirJournal();
+        } finally {
+            bloqueoJournal.unlock();
+        }
+    }
+
+    /**
+     * Indica si el registro de respuestas pasa por el buffer.
+     * @return true si el buffer está habilitado
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Guarda una respuesta en el buffer. La respuesta queda anotada en el journal, y sincronizada a disco, antes de
+     * retornar.
+     * Si al intento le queda menos del margen configurado, la respuesta se escribe de inmediato en la base de datos.
+     * @param idIntento identificador del intento
+     * @param idPregunta identificador de la pregunta
+     * @param idOpcion identificador de la opción
+     * @return 1 si la respuesta quedó en el buffer; si se escribió de inmediato, el resultado de la base de datos
+     */
+    public int registrar(Long idIntento, Long idPregunta, Long idOpcion) {
+        RespuestaPreguntaDto respuesta = new RespuestaPreguntaDto(idPregunta, idOpcion);
+        byte[] linea = (idIntento + "," + idPregunta + "," + idOpcion + "\n").getBytes(StandardCharsets.UTF_8);
+        long posicion;
+        bloqueoJournal.lock();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(linea);
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            posicion = ++agregadas;
+            synchronized (bloqueo) {
+                pendientes.computeIfAbsent(idIntento, k -> new LinkedHashSet<>()).add(respuesta);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir la respuesta en el journal", e);
+        } finally {
+            bloqueoJournal.unlock();
+        }
+        sincronizarHasta(posicion);
+        if (!cercaDelLimite(idIntento)) {
+            return 1;
+        }
+        // Si una escritura periódica ya la llevó a la base de datos no aparece aquí; un rechazo suyo se informa
+        // en el siguiente guardado, como los demás
+        for (ResultadoRespuestaDto resultado : escribir(idIntento)) {
+            if (idPregunta.equals(resultado.idPregunta()) && idOpcion.equals(resultado.idOpcion())) {
+                return resultado.resultado();
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Espera a que el journal esté sincronizado a disco al menos hasta la respuesta agregada en la posición indicada.
+     * Si ningún hilo está sincronizando, este lo hace por todas las respuestas agregadas hasta ahora; si otro lo está
+     * haciendo, espera a que termine y vuelve a comprobar.
+     */
+    private void sincronizarHasta(long posicion) {
+        bloqueoJournal.lock();
+        try {
+            while (sincronizadas < posicion) {
+                if (sincronizando) {
+                    sincronizacionTerminada.awaitUninterruptibly();
+                    continue;
+                }
+                sincronizando = true;
+                long objetivo = agregadas;
+                FileChannel canal = journal;
+                IOException fallo = null;
+                bloqueoJournal.unlock();
+                try {
+                    canal.force(false);
+                } catch (IOException e) {
+                    fallo = e;
+                } finally {
+                    bloqueoJournal.lock();
+                    sincronizando = false;
+                    sincronizacionTerminada.signalAll();
+                }
+                if (fallo != null) {
+                    throw new UncheckedIOException("No se pudo sincronizar el journal de respuestas", fallo);
+                }
+                sincronizadas = Math.max(sincronizadas, objetivo);
+            }
+        } finally {
+            bloqueoJournal.unlock();
+        }
+    }
+
+    /**
+     * Escribe en la base de datos las respuestas pendientes de un intento. Si hay una escritura del intento en
+     * curso, la espera primero, de modo que al retornar todas las respuestas recibidas antes de la llamada están
+     * confirmadas o rechazadas.
+     * Si la escritura falla las respuestas vuelven al buffer.
+     * @param idIntento identificador del intento
+     * @return resultado de cada respuesta escrita, precedido de las respuestas rechazadas en escrituras periódicas
+     *         anteriores; vacío si el intento no tenía respuestas pendientes
+     */
+    public List<ResultadoRespuestaDto> vaciar(Long idIntento) {
+        List<ResultadoRespuestaDto> escritas = escribir(idIntento);
+        List<ResultadoRespuestaDto> anteriores = rechazadas.remove(idIntento);
+        if (anteriores == null) {
+            return escritas;
+        }
+        List<ResultadoRespuestaDto> resultados = new ArrayList<>(anteriores);
+        resultados.addAll(escritas);
+        return resultados;
+    }
+
+    private List<ResultadoRespuestaDto> escribir(Long idIntento) {
+        Set<RespuestaPreguntaDto> respuestas;
+        synchronized (bloqueo) {
+            while (enEscritura.containsKey(idIntento)) {
+                try {
+                    bloqueo.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Se interrumpió la espera de las respuestas del intento " + idIntento, e);
+                }
+            }
+            respuestas = pendientes.remove(idIntento);
+            if (respuestas == null || respuestas.isEmpty()) {
+                return Collections.emptyList();
+            }
+            enEscritura.put(idIntento, respuestas);
+        }
+
+        try {
+            List<ResultadoRespuestaDto> resultados = examenRepository.registrarRespuestasEstudiante(idIntento, new ArrayList<>(respuestas));
+            long rechazos = resultados.stream().filter(resultado -> resultado.resultado() < 0).count();
+            if (rechazos > 0) {
+                log.warn("La base de datos rechazó {} de {} respuestas del intento {}", rechazos, resultados.size(), idIntento);
+            }
+            return resultados;
+        } catch (RuntimeException e) {
+            synchronized (bloqueo) {
+                pendientes.computeIfAbsent(idIntento, k -> new LinkedHashSet<>()).addAll(respuestas);
+            }
+            throw e;
+        } finally {
+            synchronized (bloqueo) {
+                enEscritura.remove(idIntento);
+                bloqueo.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Indica si al intento le queda menos del margen configurado. El tiempo restante se consulta una sola vez por
+     * intento; si el intento no existe se trata como cercano al límite para que la base de datos dé el resultado.
+     */
+    private boolean cercaDelLimite(Long idIntento) {
+        Long limite = limites.get(idIntento);
+        if (limite == null) {
+            long ahora = System.nanoTime();
+            Optional<Long> restantes = examenRepository.obtenerSegundosRestantesIntento(idIntento);
+            if (restantes.isEmpty()) {
+                return true;
+            }
+            limite = ahora + TimeUnit.SECONDS.toNanos(restantes.get());
+            limites.put(idIntento, limite);
+        }
+        return limite - System.nanoTime() < margenLimiteNanos;
+    }
+
+    /**
+     * Escribe periódicamente en la base de datos todas las respuestas pendientes y compacta el journal.
+     */
+    @Scheduled(fixedDelayString = "${examen.respuestas.buffer.intervalo-ms:5000}")
+    public void vaciarTodo() {
+        if (!habilitado || pendientes.isEmpty()) {
+            return;
+        }
+        for (Long idIntento : new ArrayList<>(pendientes.keySet())) {
+            try {
+                List<ResultadoRespuestaDto> rechazos = escribir(idIntento).stream()
+                    .filter(resultado -> resultado.resultado() < 0)
+                    .toList();
+                if (!rechazos.isEmpty()) {
+                    rechazadas.merge(idIntento, rechazos, (anteriores, nuevos) -> {
+                        List<ResultadoRespuestaDto> todos = new ArrayList<>(anteriores);
+                        todos.addAll(nuevos);
+                        return todos;
+                    });
+                }
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron escribir las respuestas del intento {}: {}", idIntento, e.getMessage());
+            }
+        }
+        // Los intentos cuyo tiempo terminó hace más de un margen ya no reciben respuestas
+        long vencimiento = System.nanoTime() - margenLimiteNanos;
+        limites.entrySet().removeIf(entrada -> entrada.getValue() - vencimiento < 0 && !pendientes.containsKey(entrada.getKey()));
+        bloqueoJournal.lock();
+        try {
+            reescribirJournal();
+        } catch (IOException e) {
+            log.warn("No se pudo compactar el journal de respuestas: {}", e.getMessage());
+        } finally {
+            bloqueoJournal.unlock();
+        }
+    }
+
+    /**
+     * Escribe las respuestas pendientes antes de detener la aplicación.
+     * @throws IOException si no se puede cerrar el journal
+     */
+    @PreDestroy
+    public void detener() throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        vaciarTodo();
+        bloqueoJournal.lock();
+        try {
+            esperarSincronizacion();
+            journal.close();
+        } finally {
+            bloqueoJournal.unlock();
+        }
+    }
+
+    /**
+     * Reemplaza el journal por uno que contiene solo las respuestas aún no confirmadas en la base de datos, ya
+     * sincronizado a disco, de modo que todas las respuestas agregadas quedan sincronizadas.
+     * Debe invocarse con {@link #bloqueoJournal} tomado; espera a que termine la sincronización en curso para no
+     * cerrar el canal que otro hilo está sincronizando.
+     * @throws IOException si no se puede escribir el journal
+     */
+    private void reescribirJournal() throws IOException {
+        esperarSincronizacion();
+        StringBuilder contenido = new StringBuilder();
+        synchronized (bloqueo) {
+            agregarLineas(contenido, enEscritura);
+            agregarLineas(contenido, pendientes);
+        }
+
+        Path temporal = rutaJournal.resolveSibling(rutaJournal.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(contenido.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        Files.move(temporal, rutaJournal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = FileChannel.open(rutaJournal, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        sincronizadas = agregadas;
+        sincronizacionTerminada.signalAll();
+    }
+
+    /**
+     * Espera a que termine la sincronización en curso, si la hay. Debe invocarse con {@link #bloqueoJournal} tomado.
+     */
+    private void esperarSincronizacion() {
+        while (sincronizando) {
+            sincronizacionTerminada.awaitUninterruptibly();
+        }
+    }
+
+    private static void agregarLineas(StringBuilder contenido, Map<Long, Set<RespuestaPreguntaDto>> respuestas) {
+        respuestas.forEach((idIntento, delIntento) -> delIntento.forEach(respuesta ->
+            contenido.append(idIntento).append(',').append(respuesta.idPregunta()).append(',').append(respuesta.idOpcion()).append('\n')));
+    }
+}
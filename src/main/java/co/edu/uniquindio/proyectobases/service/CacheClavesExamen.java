@@ -0,0 +1,78 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.cache.CacheAcotada;
+import co.edu.uniquindio.proyectobases.cache.RegistroCaches;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+
+/**
+ * Cache de claves de respuestas por examen, compartida por la validación de respuestas
+ * y la presentación de exámenes. Las entradas se desalojan por tamaño y por tiempo de vida, y se invalidan
+ * explícitamente cada vez que cambia la configuración o las preguntas de un examen.
+ */
+@Component
+public class CacheClavesExamen {
+
+    /**
+     * Repositorio de exámenes desde el que se cargan las claves.
+     */
+    private final ExamenRepository examenRepository;
+
+    /**
+     * Claves de respuestas indexadas por id de examen.
+     */
+    private final CacheAcotada<Long, ClaveExamen> claves;
+
+    /**
+     * Examen de cada intento; un intento nunca cambia de examen, por lo que estas entradas no se invalidan.
+     */
+    private final CacheAcotada<Long, Long> examenesIntento;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param examenRepository repositorio de exámenes
+     * @param registroCaches registro de caches de la aplicación
+     * @param capacidad cantidad máxima de exámenes en cache
+     * @param ttlMinutos minutos de vida de cada clave en cache
+     */
+    public CacheClavesExamen(ExamenRepository examenRepository,
+                             RegistroCaches registroCaches,
+                             @Value("${examen.cache.claves.capacidad:500}") int capacidad,
+                             @Value("${examen.cache.claves.ttl-minutos:30}") long ttlMinutos) {
+        this.examenRepository = examenRepository;
+        this.claves = registroCaches.crear("claves-examen", capacidad, Duration.ofMinutes(ttlMinutos));
+        this.examenesIntento = registroCaches.crear("examen-intento", capacidad * 100, Duration.ofMinutes(ttlMinutos));
+    }
+
+    /**
+     * Obtiene la clave de respuestas de un examen, cargándola de la base de datos si no está en cache.
+     * @param idExamen identificador del examen
+     * @return clave de respuestas del examen
+     */
+    public ClaveExamen obtener(Long idExamen) {
+        return claves.obtener(idExamen, id -> ClaveExamen.desde(examenRepository.obtenerClaveRespuestas(id)));
+    }
+
+    /**
+     * Obtiene la clave de respuestas del examen al que pertenece un intento.
+     * @param idIntento identificador del intento
+     * @return Optional con la clave, vacío si el intento no existe
+     */
+    public Optional<ClaveExamen> obtenerPorIntento(Long idIntento) {
+        Long idExamen = examenesIntento.obtener(idIntento, id -> examenRepository.obtenerExamenIntento(id).orElse(null));
+        return idExamen != null ? Optional.of(obtener(idExamen)) : Optional.empty();
+    }
+
+    /**
+     * Descarta la clave de un examen cuyo contenido cambió.
+     * @param idExamen identificador del examen
+     */
+    public void invalidar(Long idExamen) {
+        claves.invalidar(idExamen);
+    }
+}
@@ -0,0 +1,146 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.uniquindio.proyectobases.cache.CacheAcotada;
+import co.edu.uniquindio.proyectobases.cache.RegistroCaches;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.SeleccionPreguntaDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaEstudianteDto;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+
+/**
+ * Cache del contenido de los exámenes que presentan los estudiantes.
+ * El enunciado y las opciones de cada pregunta son iguales para todos los estudiantes de un examen, por lo que se
+ * cargan una sola vez por examen; en cada solicitud solo se consulta qué preguntas le correspondieron al estudiante
+ * y con qué porcentaje, y la respuesta se arma a partir de la cache sin volver a leer los textos de la base de datos.
+ * Cada pregunta se guarda ya serializada en JSON, con un hueco para el porcentaje del estudiante.
+ * Si al estudiante le correspondió una pregunta que no está en el contenido del examen, se lee esa sola pregunta y
+ * se agrega al contenido en cache, de modo que la siguiente solicitud ya la encuentra.
+ */
+@Component
+public class CacheContenidoExamen {
+
+    /**
+     * Repositorio de exámenes desde el que se carga el contenido.
+     */
+    private final ExamenRepository examenRepository;
+
+    /**
+     * ObjectMapper de la aplicación, usado para serializar las preguntas igual que en las respuestas.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Contenido de cada examen indexado por id de examen.
+     */
+    private final CacheAcotada<Long, Contenido> contenidos;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param examenRepository repositorio de exámenes
+     * @param registroCaches registro de caches de la aplicación
+     * @param mapper ObjectMapper de la aplicación
+     * @param capacidad cantidad máxima de exámenes en cache
+     * @param ttlMinutos minutos de vida del contenido de cada examen en cache
+     */
+    public CacheContenidoExamen(ExamenRepository examenRepository,
+                                RegistroCaches registroCaches,
+                                ObjectMapper mapper,
+                                @Value("${examen.cache.contenido.capacidad:200}") int capacidad,
+                                @Value("${examen.cache.contenido.ttl-minutos:30}") long ttlMinutos) {
+        this.examenRepository = examenRepository;
+        this.mapper = mapper;
+        this.contenidos = registroCaches.crear("contenido-examen", capacidad, Duration.ofMinutes(ttlMinutos));
+    }
+
+    /**
+     * Arma el examen de un estudiante como fragmentos JSON ya serializados: solo se escribe el porcentaje
+     * de cada pregunta, el resto se copia de la cache. El JSON resultante es idéntico al de serializar las preguntas
+     * de la consulta directa sobre 'ExamenEstudiante', en el mismo orden.
+     * @param idExamen identificador del examen
+     * @param idEstudiante identificador del estudiante
+     * @return List con las preguntas del examen del estudiante serializadas
+     */
+    public List<FragmentoJson> obtenerExamenEstudianteJson(Long idExamen, Long idEstudiante) {
+        List<SeleccionPreguntaDto> seleccion = examenRepository.obtenerSeleccionEstudiante(idExamen, idEstudiante);
+        if (seleccion.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, FragmentoJson.Plantilla> plantillas = obtenerContenido(idExamen, seleccion).plantillas();
+        List<FragmentoJson> preguntas = new ArrayList<>(seleccion.size());
+        for (SeleccionPreguntaDto seleccionada : seleccion) {
+            FragmentoJson.Plantilla plantilla = plantillas.get(seleccionada.idPregunta());
+            if (plantilla != null) {
+                preguntas.add(plantilla.con(seleccionada.porcentajePregunta()));
+            }
+        }
+        return preguntas;
+    }
+
+    /**
+     * Descarta el contenido de un examen que cambió.
+     * @param idExamen identificador del examen
+     */
+    public void invalidar(Long idExamen) {
+        contenidos.invalidar(idExamen);
+    }
+
+    private Contenido obtenerContenido(Long idExamen, List<SeleccionPreguntaDto> seleccion) {
+        Contenido contenido = contenidos.obtener(idExamen, this::cargar);
+        List<Long> faltantes = seleccion.stream()
+            .map(SeleccionPreguntaDto::idPregunta)
+            .filter(idPregunta -> !contenido.plantillas().containsKey(idPregunta))
+            .distinct()
+            .toList();
+        if (faltantes.isEmpty()) {
+            return contenido;
+        }
+
+        // Preguntas del estudiante que no están en el contenido del examen, por ejemplo porque se quitaron del examen
+        // después de generar su intento: se leen solo esas, una vez, y quedan en la cache junto al resto
+        Map<Long, FragmentoJson.Plantilla> plantillas = new HashMap<>(contenido.plantillas());
+        examenRepository.obtenerContenidoPreguntas(faltantes).forEach(pregunta -> agregar(pregunta, plantillas));
+        if (!plantillas.keySet().containsAll(faltantes)) {
+            throw new IllegalStateException("El examen " + idExamen + " tiene preguntas asignadas que no existen: " + faltantes);
+        }
+        Contenido completo = new Contenido(Collections.unmodifiableMap(plantillas));
+        contenidos.reemplazar(idExamen, contenido, completo);
+        return completo;
+    }
+
+    private Contenido cargar(Long idExamen) {
+        Map<Long, FragmentoJson.Plantilla> plantillas = new HashMap<>();
+        examenRepository.obtenerContenidoExamen(idExamen).forEach(pregunta -> agregar(pregunta, plantillas));
+        return new Contenido(Collections.unmodifiableMap(plantillas));
+    }
+
+    private void agregar(PreguntaEstudianteDto pregunta, Map<Long, FragmentoJson.Plantilla> plantillas) {
+        PreguntaEstudianteDto compartida = new PreguntaEstudianteDto(
+            pregunta.idPregunta(),
+            pregunta.enunciado(),
+            pregunta.idTipo(),
+            pregunta.idDocente(),
+            pregunta.idUnidad(),
+            null,
+            List.copyOf(pregunta.opciones())
+        );
+        plantillas.put(pregunta.idPregunta(), FragmentoJson.Plantilla.de(mapper, compartida, "porcentajePregunta"));
+    }
+
+    /**
+     * Contenido compartido de un examen: la plantilla JSON de cada pregunta.
+     */
+    private record Contenido(Map<Long, FragmentoJson.Plantilla> plantillas) {}
+}
@@ -0,0 +1,82 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.cache.CacheAcotada;
+import co.edu.uniquindio.proyectobases.cache.RegistroCaches;
+import co.edu.uniquindio.proyectobases.dto.UsuarioDto.UsuarioDetalleDto;
+import co.edu.uniquindio.proyectobases.repository.PublicoRepository;
+
+/**
+ * Cache del detalle de los usuarios, usada por el encabezado de perfil, los listados de usuarios y el inicio de
+ * sesión. Un usuario se carga con 'obtener_usuario_detalle'; varios, con una sola consulta para todos los que no
+ * están en cache. Las entradas se desalojan por tamaño y por tiempo de vida: la aplicación no modifica usuarios,
+ * roles ni unidades, que se cambian directamente en la base de datos, por lo que un cambio se ve a más tardar
+ * cuando vence 'usuario.cache.detalle.ttl-minutos'.
+ */
+@Component
+public class CacheUsuarios {
+
+    /**
+     * Repositorio desde el que se cargan los usuarios.
+     */
+    private final PublicoRepository publicoRepository;
+
+    /**
+     * Detalle de los usuarios indexado por id de usuario.
+     */
+    private final CacheAcotada<Long, UsuarioDetalleDto> usuarios;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param publicoRepository repositorio de información pública
+     * @param registroCaches registro de caches de la aplicación
+     * @param capacidad cantidad máxima de usuarios en cache
+     * @param ttlMinutos minutos de vida de cada usuario en cache
+     */
+    public CacheUsuarios(PublicoRepository publicoRepository,
+                         RegistroCaches registroCaches,
+                         @Value("${usuario.cache.detalle.capacidad:5000}") int capacidad,
+                         @Value("${usuario.cache.detalle.ttl-minutos:10}") long ttlMinutos) {
+        this.publicoRepository = publicoRepository;
+        this.usuarios = registroCaches.crear("detalle-usuario", capacidad, Duration.ofMinutes(ttlMinutos));
+    }
+
+    /**
+     * Obtiene el detalle de un usuario, cargándolo de la base de datos si no está en cache.
+     * @param idUsuario identificador del usuario
+     * @return Optional con el detalle, vacío si el usuario no existe
+     */
+    public Optional<UsuarioDetalleDto> obtener(Long idUsuario) {
+        return Optional.ofNullable(usuarios.obtener(idUsuario, id -> publicoRepository.obtenerUsuarioPorId(id).orElse(null)));
+    }
+
+    /**
+     * Obtiene el detalle de varios usuarios; los que no están en cache se cargan juntos en una sola consulta.
+     * @param idsUsuario identificadores de los usuarios; los repetidos se consultan una vez
+     * @return detalle de los usuarios que existen, en el orden de los ids
+     */
+    public List<UsuarioDetalleDto> obtenerVarios(List<Long> idsUsuario) {
+        List<Long> ids = new ArrayList<>(idsUsuario.size());
+        for (Long idUsuario : idsUsuario) {
+            if (idUsuario != null) {
+                ids.add(idUsuario);
+            }
+        }
+        return new ArrayList<>(usuarios.obtenerVarios(ids, faltantes -> {
+            Map<Long, UsuarioDetalleDto> cargados = new HashMap<>();
+            for (UsuarioDetalleDto usuario : publicoRepository.listarUsuariosPorIds(faltantes)) {
+                cargados.put(usuario.idUsuario(), usuario);
+            }
+            return cargados;
+        }).values());
+    }
+}
@@ -0,0 +1,155 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.OpcionClaveDto;
+
+/**
+ * Clave de respuestas inmutable de un examen en una representación compacta de arreglos primitivos:
+ * las preguntas del examen con su peso, las opciones de cada pregunta y cuáles de ellas son correctas.
+ * Los identificadores se guardan ordenados y se consultan por búsqueda binaria, sin objetos por opción,
+ * de modo que muchas claves caben en la cache y se comparten entre hilos para validar respuestas.
+ */
+public final class ClaveExamen {
+
+    /**
+     * Tipo de respuesta que identifica a una opción correcta, igual que en 'registrar_respuesta_estudiante'.
+     */
+    private static final long TIPO_RESPUESTA_CORRECTA = 1L;
+
+    /**
+     * Identificadores de las preguntas del examen, ordenados.
+     */
+    private final long[] preguntas;
+
+    /**
+     * Peso de la dificultad de cada pregunta, en la misma posición que en {@link #preguntas}.
+     */
+    private final double[] pesos;
+
+    /**
+     * Identificadores de las opciones de las preguntas del examen, ordenados.
+     */
+    private final long[] opciones;
+
+    /**
+     * Posición en {@link #preguntas} de la pregunta a la que pertenece cada opción.
+     */
+    private final int[] preguntaDeOpcion;
+
+    /**
+     * Posiciones en {@link #opciones} de las opciones correctas.
+     */
+    private final BitSet correctas;
+
+    private ClaveExamen(long[] preguntas, double[] pesos, long[] opciones, int[] preguntaDeOpcion, BitSet correctas) {
+        this.preguntas = preguntas;
+        this.pesos = pesos;
+        this.opciones = opciones;
+        this.preguntaDeOpcion = preguntaDeOpcion;
+        this.correctas = correctas;
+    }
+
+    /**
+     * Construye la clave a partir de las opciones de las preguntas del examen.
+     * Las preguntas sin opciones llegan con el id de opción nulo.
+     * @param filas preguntas y opciones del examen con su tipo de respuesta y peso
+     * @return clave de respuestas del examen
+     */
+    public static ClaveExamen desde(List<OpcionClaveDto> filas) {
+        Map<Long, Double> pesosPorPregunta = new TreeMap<>();
+        List<OpcionClaveDto> filasConOpcion = new ArrayList<>();
+        for (OpcionClaveDto fila : filas) {
+            pesosPorPregunta.putIfAbsent(fila.idPregunta(), fila.pesoPregunta() != null ? fila.pesoPregunta() : 0.0);
+            if (fila.idOpcion() != null) {
+                filasConOpcion.add(fila);
+            }
+        }
+
+        long[] preguntas = new long[pesosPorPregunta.size()];
+        double[] pesos = new double[preguntas.length];
+        int i = 0;
+        for (Map.Entry<Long, Double> entrada : pesosPorPregunta.entrySet()) {
+            preguntas[i] = entrada.getKey();
+            pesos[i] = entrada.getValue();
+            i++;
+        }
+
+        filasConOpcion.sort(Comparator.comparing(OpcionClaveDto::idOpcion));
+        long[] opciones = new long[filasConOpcion.size()];
+        int[] preguntaDeOpcion = new int[opciones.length];
+        BitSet correctas = new BitSet(opciones.length);
+        for (int j = 0; j < opciones.length; j++) {
+            OpcionClaveDto fila = filasConOpcion.get(j);
+            opciones[j] = fila.idOpcion();
+            preguntaDeOpcion[j] = Arrays.binarySearch(preguntas, fila.idPregunta());
+            if (fila.idTipoRespuesta() != null && fila.idTipoRespuesta() == TIPO_RESPUESTA_CORRECTA) {
+                correctas.set(j);
+            }
+        }
+        return new ClaveExamen(preguntas, pesos, opciones, preguntaDeOpcion, correctas);
+    }
+
+    /**
+     * Cantidad de preguntas del examen.
+     * @return cantidad de preguntas
+     */
+    public int cantidadPreguntas() {
+        return preguntas.length;
+    }
+
+    /**
+     * Indica si la pregunta pertenece al examen.
+     * @param idPregunta identificador de la pregunta
+     * @return true si la pregunta pertenece al examen
+     */
+    public boolean contienePregunta(long idPregunta) {
+        return Arrays.binarySearch(preguntas, idPregunta) >= 0;
+    }
+
+    /**
+     * Obtiene el peso de la dificultad de una pregunta del examen.
+     * @param idPregunta identificador de la pregunta
+     * @return peso de la pregunta, o 0 si no pertenece al examen
+     */
+    public double pesoPregunta(long idPregunta) {
+        int posicion = Arrays.binarySearch(preguntas, idPregunta);
+        return posicion >= 0 ? pesos[posicion] : 0.0;
+    }
+
+    /**
+     * Indica si la opción es una opción válida de la pregunta indicada dentro del examen.
+     * @param idPregunta identificador de la pregunta
+     * @param idOpcion identificador de la opción
+     * @return true si la opción pertenece a la pregunta
+     */
+    public boolean contieneOpcion(long idPregunta, long idOpcion) {
+        return posicionOpcion(idPregunta, idOpcion) >= 0;
+    }
+
+    /**
+     * Indica si una opción es una respuesta correcta de la pregunta indicada.
+     * @param idPregunta identificador de la pregunta
+     * @param idOpcion identificador de la opción elegida
+     * @return true si la opción pertenece a la pregunta y es correcta
+     */
+    public boolean esCorrecta(long idPregunta, long idOpcion) {
+        int posicion = posicionOpcion(idPregunta, idOpcion);
+        return posicion >= 0 && correctas.get(posicion);
+    }
+
+    private int posicionOpcion(long idPregunta, long idOpcion) {
+        int posicion = Arrays.binarySearch(opciones, idOpcion);
+        if (posicion < 0) {
+            return -1;
+        }
+        int pregunta = preguntaDeOpcion[posicion];
+        return pregunta >= 0 && preguntas[pregunta] == idPregunta ? posicion : -1;
+    }
+}
@@ -2,15 +2,19 @@ package co.edu.uniquindio.proyectobases.service;
 
 import org.springframework.stereotype.Service;
 import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+import co.edu.uniquindio.proyectobases.repository.IndiceAutorizacion;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.CalificacionIntentoDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.CrearExamenDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.EditarExamenDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ExamenGrupoDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ObtenerExamenDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.RespuestaCrearExamenDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.RespuestaPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ResultadoGeneracionExamenDTO;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ResultadoRespuestaDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.cantidadPreguntasDto;
-import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaEstudianteDto;
 import co.edu.uniquindio.proyectobases.exception.ExamenException;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
 
 import java.util.List;
 import java.util.Map;
@@ -19,21 +23,74 @@ import java.util.Optional;
 /**
  * Servicio encargado de la lógica de negocio relacionada con exámenes.
  * Permite crear exámenes a través del repositorio y retorna los resultados en objetos MensajeDto.
+ * Antes de modificar un examen se descartan los intentos pregenerados que nadie ha iniciado, ya que sus
+ * preguntas dejarían de corresponder y volverán a generarse con la configuración nueva; el descarte y la
+ * modificación se hacen a través del pregenerador, sin lotes de pregeneración del examen en curso.
  */
 @Service
 public class ExamenService {
 
+    /**
+     * Cantidad máxima de respuestas que se aceptan en una sola solicitud de registro por lote.
+     */
+    private static final int MAXIMO_RESPUESTAS_POR_LOTE = 200;
+
     /**
      * Repositorio que gestiona la persistencia y consulta de exámenes en la base de datos.
      */
     private final ExamenRepository examenRepository;
 
+    /**
+     * Buffer en memoria de las respuestas de los intentos en curso.
+     */
+    private final BufferRespuestas bufferRespuestas;
+
+    /**
+     * Motor de calificación que reemplaza al procedimiento 'finalizar_intento'.
+     */
+    private final MotorCalificacion motorCalificacion;
+
+    /**
+     * Cache de claves de respuestas por examen, que se invalida cuando cambia un examen.
+     */
+    private final CacheClavesExamen cacheClaves;
+
+    /**
+     * Cache del contenido de los exámenes que presentan los estudiantes, que se invalida cuando cambia un examen.
+     */
+    private final CacheContenidoExamen cacheContenido;
+
+    /**
+     * Índice de autorización, donde se registra el estudiante de cada intento generado.
+     */
+    private final IndiceAutorizacion indiceAutorizacion;
+
+    /**
+     * Pregenerador de intentos, con el que se serializan las modificaciones de cada examen.
+     */
+    private final PregeneradorExamenes pregeneradorExamenes;
+
     /**
      * Constructor con inyección de dependencias.
      * @param examenRepository repositorio de exámenes
+     * @param bufferRespuestas buffer de respuestas de los intentos en curso
+     * @param motorCalificacion motor de calificación
+     * @param cacheClaves cache de claves de respuestas por examen
+     * @param cacheContenido cache del contenido de los exámenes
+     * @param indiceAutorizacion índice de autorización de los intentos
+     * @param pregeneradorExamenes pregenerador de intentos
      */
-    public ExamenService(ExamenRepository examenRepository) {
+    public ExamenService(ExamenRepository examenRepository, BufferRespuestas bufferRespuestas,
+                         MotorCalificacion motorCalificacion, CacheClavesExamen cacheClaves,
+                         CacheContenidoExamen cacheContenido, IndiceAutorizacion indiceAutorizacion,
+                         PregeneradorExamenes pregeneradorExamenes) {
         this.examenRepository = examenRepository;
+        this.bufferRespuestas = bufferRespuestas;
+        this.motorCalificacion = motorCalificacion;
+        this.cacheClaves = cacheClaves;
+        this.cacheContenido = cacheContenido;
+        this.indiceAutorizacion = indiceAutorizacion;
+        this.pregeneradorExamenes = pregeneradorExamenes;
     }
 
     /**
@@ -82,7 +139,10 @@ public class ExamenService {
      * @throws ExamenException si ocurre un error al agregar la pregunta al examen
      */
     public void agregarPreguntaAExamen(Long idExamen, Long idPregunta) throws ExamenException {
-        int resultado = examenRepository.agregarPreguntaExamen(idExamen, idPregunta);
+        int resultado = pregeneradorExamenes.modificarExamen(idExamen,
+            () -> examenRepository.agregarPreguntaExamen(idExamen, idPregunta));
+        cacheClaves.invalidar(idExamen);
+        cacheContenido.invalidar(idExamen);
         if (resultado == -1) {
             throw new ExamenException("La unidad o el tema de la pregunta no coincide con el del examen.");
         } else if (resultado != 1) {
@@ -99,11 +159,17 @@ public class ExamenService {
      * @throws ExamenException si ocurre un error al actualizar la cantidad de preguntas
      */
     public Map<String, Object> actualizarCantidadPreguntas(cantidadPreguntasDto dto) throws ExamenException {
-        return examenRepository.actualizarCantidadPreguntas(dto);
+        Map<String, Object> resultado = pregeneradorExamenes.modificarExamen(dto.idExamen(),
+            () -> examenRepository.actualizarCantidadPreguntas(dto));
+        cacheClaves.invalidar(dto.idExamen());
+        cacheContenido.invalidar(dto.idExamen());
+        return resultado;
     }
 
     /**
      * Genera un examen para un estudiante en la base de datos.
+     * Si el intento del estudiante fue pregenerado, lo inicia en lugar de generar uno nuevo.
+     * El intento queda registrado en el índice de autorización, para verificar sin consultas que sea del estudiante.
      * Si la operación es exitosa, retorna el resultado; en caso contrario, retorna null y marca el mensaje como error.
      *
      * @param idExamen identificador del examen
@@ -112,22 +178,30 @@ public class ExamenService {
      * @throws ExamenException si ocurre un error al generar el examen
      */
     public Optional<ResultadoGeneracionExamenDTO> generarExamenEstudiante(Long idExamen, Long idEstudiante) throws ExamenException {
-        return examenRepository.generarExamenEstudiante(idExamen, idEstudiante);
+        // Si el intento se pregeneró antes de abrir el examen basta con reclamarlo
+        Optional<Long> pregenerado = examenRepository.reclamarIntentoPregenerado(idExamen, idEstudiante);
+        Optional<ResultadoGeneracionExamenDTO> resultado = pregenerado.isPresent()
+            ? Optional.of(new ResultadoGeneracionExamenDTO(pregenerado.get(), 1))
+            : examenRepository.generarExamenEstudiante(idExamen, idEstudiante);
+        resultado.ifPresent(r -> indiceAutorizacion.registrarIntento(r.idIntento(), idEstudiante));
+        return resultado;
     }
 
     /**
-     * Obtiene un examen para un estudiante
+     * Obtiene un examen para un estudiante con cada pregunta ya serializada en JSON.
      * @param idExamen identificador del examen
      * @param idEstudiante identificador del estudiante
-     * @return List con las preguntas del examen
+     * @return List con las preguntas del examen serializadas
      * @throws ExamenException si ocurre un error
      */
-    public List<PreguntaEstudianteDto> obtenerExamenEstudiante(Long idExamen, Long idEstudiante) throws ExamenException {
-        return examenRepository.obtenerExamenEstudiante(idExamen, idEstudiante);
+    public List<FragmentoJson> obtenerExamenEstudianteJson(Long idExamen, Long idEstudiante) throws ExamenException {
+        return cacheContenido.obtenerExamenEstudianteJson(idExamen, idEstudiante);
     }
 
     /**
-     * Registra una respuesta para un estudiante
+     * Registra una respuesta para un estudiante.
+     * Si el buffer de respuestas está habilitado la respuesta se guarda en memoria y se escribe más tarde por lotes,
+     * salvo cuando al intento le queda poco tiempo, caso en el que se escribe de inmediato.
      * @param idIntento identificador del intento
      * @param idPregunta identificador de la pregunta
      * @param idOpcion identificador de la opción
@@ -136,18 +210,86 @@ public class ExamenService {
      * @throws ExamenException si ocurre un error
      */
     public int registrarRespuestaEstudiante(Long idIntento, Long idPregunta, Long idOpcion) throws ExamenException {
+        if (bufferRespuestas.isHabilitado()) {
+            // La opción se valida contra la clave en cache para no aceptar en el buffer respuestas que la base rechazaría
+            Optional<ClaveExamen> clave = cacheClaves.obtenerPorIntento(idIntento);
+            if (clave.isEmpty() || !clave.get().contieneOpcion(idPregunta, idOpcion)) {
+                return -1;
+            }
+            return bufferRespuestas.registrar(idIntento, idPregunta, idOpcion);
+        }
         return examenRepository.registrarRespuestaEstudiante(idIntento, idPregunta, idOpcion);
     }
+
+    /**
+     * Escribe en la base de datos las respuestas del intento que aún están en el buffer.
+     * @param idIntento identificador del intento
+     * @return lista con el resultado de cada respuesta escrita, incluidas las que la base rechazó en escrituras
+     *         periódicas anteriores
+     * @throws ExamenException si ocurre un error
+     */
+    public List<ResultadoRespuestaDto> guardarRespuestas(Long idIntento) throws ExamenException {
+        return bufferRespuestas.vaciar(idIntento);
+    }
     
     /**
-     * Finaliza un intento y obtiene la calificación
+     * Registra en un solo lote varias respuestas de un intento.
+     * @param idIntento identificador del intento
+     * @param respuestas respuestas a registrar (todas o una página de ellas)
+     * @return lista con el resultado de cada respuesta
+     * @throws ExamenException si no se envían respuestas o se supera el máximo permitido por solicitud
+     */
+    public List<ResultadoRespuestaDto> registrarRespuestasEstudiante(Long idIntento, List<RespuestaPreguntaDto> respuestas) throws ExamenException {
+        if (respuestas == null || respuestas.isEmpty()) {
+            throw new ExamenException("Debe enviar al menos una respuesta.");
+        }
+        if (respuestas.size() > MAXIMO_RESPUESTAS_POR_LOTE) {
+            throw new ExamenException("No se pueden registrar más de " + MAXIMO_RESPUESTAS_POR_LOTE + " respuestas por solicitud.");
+        }
+        for (RespuestaPreguntaDto respuesta : respuestas) {
+            if (respuesta == null || respuesta.idPregunta() == null || respuesta.idOpcion() == null) {
+                throw new ExamenException("Cada respuesta debe indicar la pregunta y la opción.");
+            }
+        }
+        return examenRepository.registrarRespuestasEstudiante(idIntento, respuestas);
+    }
+
+    /**
+     * Finaliza un intento y obtiene la calificación.
+     * Antes de calificar se escriben las respuestas del intento que aún estén en el buffer.
      * @param idIntento identificador del intento
      * @return Optional con la calificación si la operación fue exitosa
      * @throws ExamenException si ocurre un error
      */
     public Optional<Double> finalizarIntentoYObtenerCalificacion(Long idIntento) throws ExamenException {
+        bufferRespuestas.vaciar(idIntento);
+        if (motorCalificacion.isHabilitado()) {
+            return motorCalificacion.finalizarIntento(idIntento);
+        }
         return examenRepository.finalizarIntentoYObtenerCalificacion(idIntento);
     }
+
+    /**
+     * Finaliza y califica en bloque todos los intentos abiertos de un examen con el motor de calificación.
+     * Solo se permite después de la fecha de cierre del examen, para no cerrar intentos que aún están en curso.
+     * Los intentos pregenerados que ningún estudiante reclamó se descartan en lugar de calificarse.
+     * Antes de calificar se escriben las respuestas de esos intentos que aún estén en el buffer.
+     * @param idExamen identificador del examen
+     * @return lista con la calificación de cada intento finalizado
+     * @throws ExamenException si el examen no existe o aún no ha cerrado
+     */
+    public List<CalificacionIntentoDto> finalizarIntentosExamen(Long idExamen) throws ExamenException {
+        if (!examenRepository.examenCerrado(idExamen)) {
+            throw new ExamenException("Los intentos de un examen solo se pueden finalizar en bloque después de su fecha de cierre.");
+        }
+        if (bufferRespuestas.isHabilitado()) {
+            for (Long idIntento : examenRepository.listarIntentosAbiertos(idExamen)) {
+                bufferRespuestas.vaciar(idIntento);
+            }
+        }
+        // Los intentos pregenerados que nadie reclamó no se califican: se descartan antes
+        return pregeneradorExamenes.modificarExamen(idExamen, () -> motorCalificacion.finalizarIntentosExamen(idExamen));
+    }
     
     /**
      * Edita un examen
@@ -156,7 +298,10 @@ public class ExamenService {
      * @throws ExamenException si ocurre un error
      */
     public int editarExamen(EditarExamenDto dto) throws ExamenException {
-        return examenRepository.editarExamen(dto);
+        int resultado = pregeneradorExamenes.modificarExamen(dto.idExamen(), () -> examenRepository.editarExamen(dto));
+        cacheClaves.invalidar(dto.idExamen());
+        cacheContenido.invalidar(dto.idExamen());
+        return resultado;
     }
     
     /**
@@ -166,7 +311,10 @@ public class ExamenService {
      * @throws ExamenException si ocurre un error
      */
     public int eliminarExamen(Long idExamen) throws ExamenException {
-        return examenRepository.eliminarExamen(idExamen);
+        int resultado = pregeneradorExamenes.modificarExamen(idExamen, () -> examenRepository.eliminarExamen(idExamen));
+        cacheClaves.invalidar(idExamen);
+        cacheContenido.invalidar(idExamen);
+        return resultado;
     }
 
 }
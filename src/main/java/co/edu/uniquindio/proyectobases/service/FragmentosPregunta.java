@@ -0,0 +1,83 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.uniquindio.proyectobases.cache.CacheAcotada;
+import co.edu.uniquindio.proyectobases.cache.RegistroCaches;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
+
+/**
+ * Cache de las preguntas del banco ya serializadas en JSON, usada por los listados de preguntas de los docentes.
+ * Cada pregunta se serializa una vez y las siguientes respuestas que la incluyan copian sus bytes directamente.
+ * Cada fragmento se guarda junto a la pregunta de la que se serializó y solo se reutiliza si la pregunta recién
+ * consultada es igual a esa; si cambió en la base de datos, por cualquier camino, se vuelve a serializar, de modo que
+ * la respuesta siempre corresponde a lo que retornó la consulta.
+ */
+@Component
+public class FragmentosPregunta {
+
+    /**
+     * ObjectMapper de la aplicación, usado para serializar las preguntas igual que en las respuestas.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Fragmentos JSON indexados por id de pregunta, con la pregunta de la que se serializaron.
+     */
+    private final CacheAcotada<Long, Serializada> fragmentos;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param mapper ObjectMapper de la aplicación
+     * @param registroCaches registro de caches de la aplicación
+     * @param capacidad cantidad máxima de preguntas en cache
+     * @param ttlMinutos minutos de vida de cada fragmento en cache
+     */
+    public FragmentosPregunta(ObjectMapper mapper,
+                              RegistroCaches registroCaches,
+                              @Value("${pregunta.cache.json.capacidad:5000}") int capacidad,
+                              @Value("${pregunta.cache.json.ttl-minutos:30}") long ttlMinutos) {
+        this.mapper = mapper;
+        this.fragmentos = registroCaches.crear("json-pregunta", capacidad, Duration.ofMinutes(ttlMinutos));
+    }
+
+    /**
+     * Obtiene el JSON de cada pregunta, serializando solo las que no están en cache o cambiaron desde que se
+     * serializaron.
+     * @param preguntas preguntas a serializar
+     * @return fragmentos JSON en el mismo orden de las preguntas
+     */
+    public List<FragmentoJson> serializar(List<ObtenerPreguntaDto> preguntas) {
+        List<FragmentoJson> resultado = new ArrayList<>(preguntas.size());
+        for (ObtenerPreguntaDto pregunta : preguntas) {
+            Serializada serializada = fragmentos.consultar(pregunta.idPregunta());
+            if (serializada == null || !serializada.pregunta().equals(pregunta)) {
+                serializada = new Serializada(pregunta, FragmentoJson.de(mapper, pregunta));
+                fragmentos.guardar(pregunta.idPregunta(), serializada);
+            }
+            resultado.add(serializada.json());
+        }
+        return resultado;
+    }
+
+    /**
+     * Descarta el JSON de una pregunta que cambió.
+     * @param idPregunta identificador de la pregunta
+     */
+    public void invalidar(Long idPregunta) {
+        fragmentos.invalidar(idPregunta);
+    }
+
+    /**
+     * JSON de una pregunta junto con la pregunta de la que se serializó.
+     */
+    private record Serializada(ObtenerPreguntaDto pregunta, FragmentoJson json) {}
+}
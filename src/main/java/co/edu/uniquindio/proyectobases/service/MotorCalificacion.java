@@ -0,0 +1,96 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.CalificacionIntentoDto;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+
+/**
+ * Motor de calificación que reemplaza al procedimiento 'finalizar_intento'.
+ * Califica igual que el procedimiento: la calificación de un intento es la suma de los puntajes que
+ * 'registrar_respuesta_estudiante' fijó en cada respuesta al registrarla, de modo que editar la clave de un examen
+ * después de que un estudiante respondió no cambia su calificación.
+ * Un intento individual se califica y finaliza con una sola sentencia, y un intento ya finalizado retorna su
+ * calificación guardada en lugar de volver a finalizarse. El cierre de un examen bloquea sus intentos abiertos, suma
+ * sus puntajes con una consulta y guarda las calificaciones en un solo lote, en lugar de una llamada al
+ * procedimiento por intento.
+ */
+@Component
+public class MotorCalificacion {
+
+    /**
+     * Repositorio de exámenes.
+     */
+    private final ExamenRepository examenRepository;
+
+    /**
+     * Indica si la finalización de intentos individuales usa el motor en lugar del procedimiento almacenado.
+     */
+    private final boolean habilitado;
+
+    /**
+     * Plantilla transaccional que abarca el bloqueo, la lectura y la escritura del cierre de un examen.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param examenRepository repositorio de exámenes
+     * @param transactionManager gestor de transacciones de la fuente de datos
+     * @param habilitado si la finalización de intentos individuales usa el motor
+     */
+    public MotorCalificacion(ExamenRepository examenRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${examen.calificacion.en-memoria:false}") boolean habilitado) {
+        this.examenRepository = examenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+    }
+
+    /**
+     * Indica si la finalización de intentos individuales usa el motor.
+     * @return true si el motor reemplaza al procedimiento 'finalizar_intento'
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Califica y finaliza un intento.
+     * Igual que 'finalizar_intento', un intento inexistente o sin respuestas no se finaliza. Un intento que ya fue
+     * finalizado no se vuelve a calificar: se retorna la calificación guardada, de modo que reintentar la
+     * finalización es seguro.
+     * @param idIntento identificador del intento
+     * @return Optional con la calificación, vacío si el intento no pudo finalizarse
+     */
+    public Optional<Double> finalizarIntento(Long idIntento) {
+        examenRepository.finalizarIntentoConPuntajes(idIntento);
+        return examenRepository.obtenerCalificacionIntento(idIntento);
+    }
+
+    /**
+     * Califica y finaliza en bloque todos los intentos abiertos de un examen.
+     * Los puntajes se suman con una consulta y las calificaciones se guardan en un solo lote, en la transacción que
+     * mantiene bloqueados los intentos. Como en 'finalizar_intento', los intentos sin respuestas quedan abiertos.
+     * @param idExamen identificador del examen
+     * @return calificación de cada intento finalizado
+     */
+    public List<CalificacionIntentoDto> finalizarIntentosExamen(Long idExamen) {
+        return transactionTemplate.execute(status -> {
+            if (examenRepository.bloquearIntentosAbiertos(idExamen).isEmpty()) {
+                return List.<CalificacionIntentoDto>of();
+            }
+            List<CalificacionIntentoDto> calificaciones = examenRepository.sumarPuntajesIntentosAbiertos(idExamen);
+            if (calificaciones.isEmpty()) {
+                return List.<CalificacionIntentoDto>of();
+            }
+            return examenRepository.guardarCalificaciones(calificaciones);
+        });
+    }
+}
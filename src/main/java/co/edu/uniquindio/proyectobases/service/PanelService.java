@@ -0,0 +1,259 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
+import co.edu.uniquindio.proyectobases.dto.CursosDto.CursoDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ExamenGrupoDto;
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.ObtenerExamenDto;
+import co.edu.uniquindio.proyectobases.dto.PanelDto.GrupoPanelDto;
+import co.edu.uniquindio.proyectobases.dto.PanelDto.PanelDocenteDto;
+import co.edu.uniquindio.proyectobases.dto.PanelDto.PanelEstudianteDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.UnidadAcademicaDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
+import co.edu.uniquindio.proyectobases.dto.PublicoDto.ObtenerGruposIdDto;
+import co.edu.uniquindio.proyectobases.exception.PanelException;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+import co.edu.uniquindio.proyectobases.repository.PlazoSentencias;
+import co.edu.uniquindio.proyectobases.repository.PreguntaRepository;
+import co.edu.uniquindio.proyectobases.repository.PublicoRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Servicio que arma en una sola respuesta los paneles de inicio de estudiantes y docentes.
+ * Las consultas a la base de datos de cada panel son independientes entre sí, por lo que se lanzan a la vez en un
+ * grupo acotado de hilos y la latencia del panel queda en la de la consulta más lenta. Si el grupo está saturado el
+ * panel se rechaza con 503 en lugar de ejecutar las consultas en el hilo de la petición. Los cursos y grupos salen
+ * del índice de membresías en memoria, por lo que se leen en el hilo de la petición mientras corren las demás.
+ * Todas las consultas corren con un {@link PlazoSentencias} que vence en el límite del panel, de modo que cada
+ * sentencia recibe como 'queryTimeout' lo que le queda al panel y la base de datos la corta; cancelar el futuro no
+ * interrumpe una llamada JDBC en curso. Cada sentencia toma una conexión solo mientras se ejecuta.
+ */
+@Service
+public class PanelService {
+
+    /**
+     * Repositorio de información pública: cursos, grupos y unidades académicas.
+     */
+    private final PublicoRepository publicoRepository;
+
+    /**
+     * Repositorio de exámenes.
+     */
+    private final ExamenRepository examenRepository;
+
+    /**
+     * Repositorio de preguntas.
+     */
+    private final PreguntaRepository preguntaRepository;
+
+    /**
+     * Cache de las preguntas ya serializadas en JSON, compartida con los listados de preguntas.
+     */
+    private final FragmentosPregunta fragmentosPregunta;
+
+    /**
+     * Hilos dedicados a las consultas de los paneles.
+     */
+    private final ThreadPoolExecutor ejecutor;
+
+    /**
+     * Tiempo máximo para armar un panel, en nanosegundos.
+     */
+    private final long tiempoMaximoNanos;
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param publicoRepository repositorio de información pública
+     * @param examenRepository repositorio de exámenes
+     * @param preguntaRepository repositorio de preguntas
+     * @param fragmentosPregunta cache de las preguntas serializadas en JSON
+     * @param paralelismo cantidad de consultas de paneles que se ejecutan a la vez
+     * @param tiempoMaximoMs tiempo máximo para armar un panel, en milisegundos
+     */
+    public PanelService(PublicoRepository publicoRepository,
+                        ExamenRepository examenRepository,
+                        PreguntaRepository preguntaRepository,
+                        FragmentosPregunta fragmentosPregunta,
+                        @Value("${panel.consultas.paralelismo:8}") int paralelismo,
+                        @Value("${panel.consultas.tiempo-maximo-ms:5000}") long tiempoMaximoMs) {
+        this.publicoRepository = publicoRepository;
+        this.examenRepository = examenRepository;
+        this.preguntaRepository = preguntaRepository;
+        this.fragmentosPregunta = fragmentosPregunta;
+        int hilos = Math.max(1, paralelismo);
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(hilos * 4), new ThreadPoolExecutor.AbortPolicy());
+        this.tiempoMaximoNanos = TimeUnit.MILLISECONDS.toNanos(tiempoMaximoMs);
+    }
+
+    /**
+     * Obtiene el panel de inicio de un estudiante: sus cursos y sus grupos, cada uno con sus exámenes.
+     * Los exámenes de todos los grupos se leen en una sola consulta mientras se leen los cursos y los grupos.
+     * @param idEstudiante identificador del estudiante
+     * @return panel del estudiante
+     * @throws PanelException si el panel no se pudo armar dentro del tiempo máximo
+     */
+    public PanelEstudianteDto obtenerPanelEstudiante(Long idEstudiante) throws PanelException {
+        long limite = System.nanoTime() + tiempoMaximoNanos;
+        CompletableFuture<Map<Long, List<ExamenGrupoDto>>> examenes = lanzar(limite, () -> examenRepository.listarExamenesGruposEstudiante(idEstudiante));
+
+        List<CompletableFuture<?>> consultas = List.of(examenes);
+        List<CursoDto> cursos = enMemoria(limite, consultas, () -> publicoRepository.listarCursosEstudiante(idEstudiante));
+        List<ObtenerGruposIdDto> grupos = enMemoria(limite, consultas, () -> publicoRepository.listarGruposEstudiante(idEstudiante));
+        Map<Long, List<ExamenGrupoDto>> examenesPorGrupo = esperar(examenes, limite, consultas);
+        List<GrupoPanelDto> gruposPanel = new ArrayList<>();
+        for (ObtenerGruposIdDto grupo : grupos) {
+            gruposPanel.add(new GrupoPanelDto(
+                grupo.idGrupo(),
+                grupo.nombre(),
+                grupo.idCurso(),
+                grupo.nombreCurso(),
+                examenesPorGrupo.getOrDefault(grupo.idGrupo(), List.of())
+            ));
+        }
+        return new PanelEstudianteDto(idEstudiante, cursos, gruposPanel);
+    }
+
+    /**
+     * Obtiene el panel de inicio de un docente: sus cursos, grupos, unidades académicas, exámenes y la primera
+     * página de sus preguntas, con las tres consultas a la base de datos en paralelo.
+     * @param idDocente identificador del docente
+     * @param tamanoPreguntas cantidad de preguntas de la primera página, o null para el tamaño predeterminado
+     * @return panel del docente
+     * @throws PanelException si el panel no se pudo armar dentro del tiempo máximo
+     */
+    public PanelDocenteDto obtenerPanelDocente(Long idDocente, Integer tamanoPreguntas) throws PanelException {
+        long limite = System.nanoTime() + tiempoMaximoNanos;
+        CompletableFuture<List<UnidadAcademicaDto>> unidades = lanzar(limite, () -> publicoRepository.listarUnidadesDocente(idDocente));
+        CompletableFuture<List<ObtenerExamenDto>> examenes = lanzar(limite, () -> examenRepository.listarExamenesDocente(idDocente));
+        CompletableFuture<PaginaDto<FragmentoJson>> preguntas = lanzar(limite, () -> {
+            PaginaDto<ObtenerPreguntaDto> pagina = preguntaRepository.listarPreguntasDocente(idDocente, null, tamanoPreguntas);
+            return new PaginaDto<>(fragmentosPregunta.serializar(pagina.elementos()), pagina.cursorSiguiente(), pagina.hayMas());
+        });
+
+        List<CompletableFuture<?>> consultas = List.of(unidades, examenes, preguntas);
+        List<CursoDto> cursos = enMemoria(limite, consultas, () -> publicoRepository.listarCursosDocente(idDocente));
+        List<ObtenerGruposIdDto> grupos = enMemoria(limite, consultas, () -> publicoRepository.listarGruposDocente(idDocente));
+        return new PanelDocenteDto(
+            idDocente,
+            cursos,
+            grupos,
+            esperar(unidades, limite, consultas),
+            esperar(examenes, limite, consultas),
+            esperar(preguntas, limite, consultas)
+        );
+    }
+
+    /**
+     * Detiene los hilos de consulta al cerrar la aplicación.
+     */
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Lanza una consulta en el grupo de hilos, con un plazo de sentencias que vence en el límite del panel.
+     * Si el grupo está saturado retorna un futuro fallido con {@link RejectedExecutionException}.
+     */
+    private <T> CompletableFuture<T> lanzar(long limite, Consulta<T> consulta) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return conPlazo(limite, consulta);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, ejecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Lee en el hilo de la petición una parte del panel que sale del índice en memoria. Si el usuario no está en el
+     * índice, la consulta a la base de datos que lo reemplaza corre con el mismo plazo que las demás; si falla, se
+     * cancelan las consultas ya lanzadas y el error se informa como en {@link #esperar}.
+     */
+    private <T> T enMemoria(long limite, List<CompletableFuture<?>> consultas, Consulta<T> consulta) throws PanelException {
+        try {
+            return conPlazo(limite, consulta);
+        } catch (Exception e) {
+            return esperar(CompletableFuture.failedFuture(e), limite, consultas);
+        }
+    }
+
+    private static <T> T conPlazo(long limite, Consulta<T> consulta) throws Exception {
+        PlazoSentencias.fijar(limite);
+        try {
+            return consulta.ejecutar();
+        } finally {
+            PlazoSentencias.quitar();
+        }
+    }
+
+    /**
+     * Espera el resultado de una consulta hasta el límite del panel. Si el límite se cumple o la consulta falla,
+     * se cancelan las demás consultas del panel. Un rechazo por saturación o un tiempo de consulta agotado se
+     * informan como {@link PanelException} (503); los demás errores de acceso a datos se propagan sin modificar y
+     * los errores de negocio de un repositorio se informan con su mensaje.
+     */
+    private <T> T esperar(CompletableFuture<T> consulta, long limite, List<CompletableFuture<?>> consultas) throws PanelException {
+        try {
+            return consulta.get(Math.max(0L, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            cancelar(consultas);
+            throw new PanelException("El panel no se pudo obtener a tiempo, intente de nuevo.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelar(consultas);
+            throw new PanelException("La obtención del panel fue interrumpida.");
+        } catch (ExecutionException e) {
+            cancelar(consultas);
+            Throwable causa = e.getCause();
+            if (causa instanceof RejectedExecutionException) {
+                throw new PanelException("El servidor está atendiendo demasiados paneles, intente de nuevo.");
+            }
+            if (causa instanceof QueryTimeoutException) {
+                throw new PanelException("El panel no se pudo obtener a tiempo, intente de nuevo.");
+            }
+            if (causa instanceof RuntimeException excepcion) {
+                throw excepcion;
+            }
+            throw new PanelException(causa.getMessage());
+        }
+    }
+
+    private static void cancelar(List<CompletableFuture<?>> consultas) {
+        for (CompletableFuture<?> consulta : consultas) {
+            consulta.cancel(true);
+        }
+    }
+
+    /**
+     * Consulta de un panel, que puede lanzar las excepciones de negocio de su repositorio.
+     */
+    @FunctionalInterface
+    private interface Consulta<T> {
+        T ejecutar() throws Exception;
+    }
+}
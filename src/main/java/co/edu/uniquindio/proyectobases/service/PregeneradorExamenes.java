@@ -0,0 +1,236 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import co.edu.uniquindio.proyectobases.exception.ExamenException;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pregenerador de intentos de examen.
+ * Con una anticipación configurable antes de la fecha de disponibilidad de cada examen, genera el intento de
+ * cada estudiante del grupo con 'generar_examen_estudiante', de modo que al abrirse el examen los estudiantes
+ * solo reclaman un intento ya aleatorizado en lugar de generarlo todos en el mismo segundo.
+ * Los estudiantes se procesan por lotes acotados en un número fijo de hilos para no saturar la base de datos.
+ * <p>
+ * Está deshabilitado por defecto, ya que escribe intentos reales en IntentoExamen antes de la apertura. Un intento
+ * pregenerado es un intento sin fecha de inicio, que la recibe cuando el estudiante lo reclama. Cada lote toma el
+ * bloqueo de lectura de su examen y toda modificación del examen toma el de escritura (ver
+ * {@link #modificarExamen(Long, ModificacionExamen)}), de modo que descartar los intentos pregenerados y cambiar el
+ * examen nunca se intercala con una pregeneración en curso en esta instancia. Con la pregeneración habilitada, los
+ * intentos que nadie reclamó se eliminan una vez pasada la fecha de cierre del examen, para que no queden abiertos
+ * en los listados ni en el índice de autorización.
+ */
+@Component
+public class PregeneradorExamenes {
+
+    private static final Logger log = LoggerFactory.getLogger(PregeneradorExamenes.class);
+
+    /**
+     * Cantidad de bloqueos entre los que se reparten los exámenes.
+     */
+    private static final int CANTIDAD_BLOQUEOS = 64;
+
+    /**
+     * Repositorio de exámenes.
+     */
+    private final ExamenRepository examenRepository;
+
+    /**
+     * Indica si los intentos se pregeneran.
+     */
+    private final boolean habilitado;
+
+    /**
+     * Minutos antes de la fecha de disponibilidad en que se pregeneran los intentos.
+     */
+    private final long anticipacionMinutos;
+
+    /**
+     * Cantidad de estudiantes que procesa cada tarea.
+     */
+    private final int tamanoLote;
+
+    /**
+     * Hilos dedicados a la pregeneración; limitan cuántos lotes se ejecutan a la vez. Null si está deshabilitada.
+     */
+    private final ExecutorService ejecutor;
+
+    /**
+     * Bloqueos por examen, repartidos según el id: los lotes de pregeneración toman el de lectura y las
+     * modificaciones del examen el de escritura.
+     */
+    private final ReadWriteLock[] bloqueos = new ReadWriteLock[CANTIDAD_BLOQUEOS];
+
+    /**
+     * Constructor con inyección de dependencias.
+     * @param examenRepository repositorio de exámenes
+     * @param habilitado si los intentos se pregeneran
+     * @param anticipacionMinutos minutos antes de la apertura en que se pregeneran los intentos
+     * @param paralelismo cantidad de lotes que se procesan a la vez
+     * @param tamanoLote cantidad de estudiantes por lote
+     */
+    public PregeneradorExamenes(ExamenRepository examenRepository,
+                                @Value("${examen.pregeneracion.habilitada:false}") boolean habilitado,
+                                @Value("${examen.pregeneracion.anticipacion-minutos:30}") long anticipacionMinutos,
+                                @Value("${examen.pregeneracion.paralelismo:4}") int paralelismo,
+                                @Value("${examen.pregeneracion.tamano-lote:25}") int tamanoLote) {
+        this.examenRepository = examenRepository;
+        this.habilitado = habilitado;
+        this.anticipacionMinutos = anticipacionMinutos;
+        this.tamanoLote = Math.max(1, tamanoLote);
+        this.ejecutor = habilitado ? Executors.newFixedThreadPool(Math.max(1, paralelismo)) : null;
+        for (int i = 0; i < CANTIDAD_BLOQUEOS; i++) {
+            bloqueos[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Revisa periódicamente los exámenes próximos a abrirse y pregenera los intentos que falten, y elimina los
+     * intentos pregenerados de exámenes ya cerrados que ningún estudiante reclamó. Con la pregeneración
+     * deshabilitada no hace nada.
+     */
+    @Scheduled(fixedDelayString = "${examen.pregeneracion.intervalo-ms:60000}")
+    public void pregenerarPendientes() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            int descartados = examenRepository.descartarIntentosPregeneradosVencidos();
+            if (descartados > 0) {
+                log.info("Se eliminaron {} intentos pregenerados que no se reclamaron antes del cierre", descartados);
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron eliminar los intentos pregenerados vencidos: {}", e.getMessage());
+        }
+        for (Long idExamen : examenRepository.listarExamenesPorPregenerar(anticipacionMinutos)) {
+            try {
+                pregenerarExamen(idExamen);
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron pregenerar los intentos del examen {}: {}", idExamen, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Pregenera los intentos de los estudiantes del grupo de un examen que aún no tienen uno.
+     * @param idExamen identificador del examen
+     * @return cantidad de intentos pregenerados
+     */
+    public int pregenerarExamen(Long idExamen) {
+        if (!habilitado) {
+            return 0;
+        }
+        List<Long> estudiantes = examenRepository.listarEstudiantesSinIntento(idExamen);
+        if (estudiantes.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<Integer>> lotes = new ArrayList<>();
+        for (int inicio = 0; inicio < estudiantes.size(); inicio += tamanoLote) {
+            List<Long> lote = estudiantes.subList(inicio, Math.min(inicio + tamanoLote, estudiantes.size()));
+            lotes.add(ejecutor.submit(() -> pregenerarLote(idExamen, lote)));
+        }
+
+        int generados = 0;
+        for (Future<Integer> lote : lotes) {
+            try {
+                generados += lote.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.warn("Falló un lote de pregeneración del examen {}: {}", idExamen, e.getCause().getMessage());
+            }
+        }
+        log.info("Se pregeneraron {} de {} intentos del examen {}", generados, estudiantes.size(), idExamen);
+        return generados;
+    }
+
+    /**
+     * Descarta los intentos pregenerados que nadie ha iniciado y ejecuta una modificación del examen, sin que
+     * ningún lote de pregeneración del mismo examen esté en curso. Los lotes que empiecen después generan los
+     * intentos con el examen ya modificado.
+     * @param idExamen identificador del examen
+     * @param modificacion operación que modifica el examen
+     * @param <T> tipo del resultado
+     * @return resultado de la modificación
+     * @throws ExamenException si la modificación falla
+     */
+    public <T> T modificarExamen(Long idExamen, ModificacionExamen<T> modificacion) throws ExamenException {
+        Lock escritura = bloqueo(idExamen).writeLock();
+        escritura.lock();
+        try {
+            examenRepository.descartarIntentosPregenerados(idExamen);
+            return modificacion.ejecutar();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Detiene los hilos de pregeneración al cerrar la aplicación.
+     */
+    @PreDestroy
+    public void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private int pregenerarLote(Long idExamen, List<Long> estudiantes) {
+        Lock lectura = bloqueo(idExamen).readLock();
+        lectura.lock();
+        try {
+            int generados = 0;
+            for (Long idEstudiante : estudiantes) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                try {
+                    if (examenRepository.pregenerarIntento(idExamen, idEstudiante).isPresent()) {
+                        generados++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo pregenerar el intento del estudiante {} en el examen {}: {}", idEstudiante, idExamen, e.getMessage());
+                }
+            }
+            return generados;
+        } finally {
+            lectura.unlock();
+        }
+    }
+
+    private ReadWriteLock bloqueo(Long idExamen) {
+        return bloqueos[Math.floorMod(idExamen.hashCode(), CANTIDAD_BLOQUEOS)];
+    }
+
+    /**
+     * Operación sobre un examen que se ejecuta sin pregeneraciones en curso.
+     * @param <T> tipo del resultado
+     */
+    @FunctionalInterface
+    public interface ModificacionExamen<T> {
+
+        /**
+         * Ejecuta la operación.
+         * @return resultado de la operación
+         * @throws ExamenException si la operación falla
+         */
+        T ejecutar() throws ExamenException;
+    }
+}
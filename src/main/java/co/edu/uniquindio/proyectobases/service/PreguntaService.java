@@ -1,16 +1,29 @@
 package co.edu.uniquindio.proyectobases.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.OpcionRespuestaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaDto;
+import co.edu.uniquindio.proyectobases.exception.AdmisionException;
 import co.edu.uniquindio.proyectobases.exception.PreguntaException;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
 import co.edu.uniquindio.proyectobases.repository.PreguntaRepository;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Servicio encargado de gestionar la lógica de negocio relacionada con preguntas y sus opciones de respuesta.
@@ -26,6 +39,50 @@ public class PreguntaService {
     @Autowired
     private PreguntaRepository preguntaRepository;
 
+    /**
+     * Cache de claves de respuestas por examen; se invalidan los exámenes que incluyen una pregunta cuyas opciones cambian.
+     */
+    @Autowired
+    private CacheClavesExamen cacheClaves;
+
+    /**
+     * Cache del contenido de los exámenes; se invalidan los exámenes que incluyen una pregunta cuyas opciones cambian.
+     */
+    @Autowired
+    private CacheContenidoExamen cacheContenido;
+
+    /**
+     * Cache de las preguntas ya serializadas en JSON para los listados.
+     */
+    @Autowired
+    private FragmentosPregunta fragmentosPregunta;
+
+    /**
+     * ObjectMapper de la aplicación, usado para escribir la exportación con el mismo formato de las respuestas.
+     */
+    @Autowired
+    private ObjectMapper mapper;
+
+    /**
+     * Cantidad de filas que se traen de la base de datos en cada viaje durante la exportación del banco.
+     */
+    @Value("${pregunta.exportacion.tamano-bloque:500}")
+    private int tamanoBloqueExportacion;
+
+    /**
+     * Exportaciones del banco que pueden estar en curso a la vez. Cada una ocupa una conexión de la base de datos
+     * mientras dura el flujo, que puede ser de varios minutos con un cliente lento.
+     */
+    private final Semaphore exportaciones;
+
+    /**
+     * Constructor con la configuración de la exportación del banco.
+     * @param concurrenciaExportacion cantidad máxima de exportaciones simultáneas
+     */
+    public PreguntaService(@Value("${pregunta.exportacion.concurrencia:2}") int concurrenciaExportacion) {
+        this.exportaciones = new Semaphore(Math.max(1, concurrenciaExportacion));
+    }
+
     /**
      * Crea una nueva pregunta en la base de datos con la información proporcionada.
      *
@@ -53,6 +110,11 @@ public class PreguntaService {
     public Optional<Long> crearOpcion(Long idPregunta, OpcionRespuestaDto dto) throws PreguntaException {
         Optional<Long> idOpcion = preguntaRepository.crearOpcionRespuesta(idPregunta, dto);
         if (idOpcion.isPresent()) {
+            for (Long idExamen : preguntaRepository.listarExamenesConPregunta(idPregunta)) {
+                cacheClaves.invalidar(idExamen);
+                cacheContenido.invalidar(idExamen);
+            }
+            fragmentosPregunta.invalidar(idPregunta);
             return idOpcion;
         } else {
             throw new PreguntaException("Error al crear la opción de respuesta");
@@ -60,33 +122,39 @@ public class PreguntaService {
     }
 
     /**
-     * Obtiene todas las preguntas del sistema junto con sus opciones de respuesta asociadas.
+     * Obtiene una página de las preguntas del sistema junto con sus opciones de respuesta asociadas.
      *
-     * @return lista de DTOs que contienen preguntas con sus opciones de respuesta
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de DTOs que contienen preguntas con sus opciones de respuesta
      */
-    public List<ObtenerPreguntaDto> obtenerTodasLasPreguntasConOpciones() {
-        return preguntaRepository.obtenerTodasLasPreguntasConOpciones();
+    public PaginaDto<ObtenerPreguntaDto> obtenerTodasLasPreguntasConOpciones(Long cursor, Integer tamano) {
+        return preguntaRepository.obtenerTodasLasPreguntasConOpciones(cursor, tamano);
     }
 
     /**
      * Obtiene todas las preguntas creadas por un docente específico.
      *
      * @param idUsuario identificador del docente cuyas preguntas se desean consultar
-     * @return lista de DTOs con la información de las preguntas del docente
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de DTOs con la información de las preguntas del docente
      */
-    public List<ObtenerPreguntaDto> obtenerPreguntasDocente(Long idUsuario) {
-        return preguntaRepository.listarPreguntasDocente(idUsuario);
+    public PaginaDto<ObtenerPreguntaDto> obtenerPreguntasDocente(Long idUsuario, Long cursor, Integer tamano) {
+        return preguntaRepository.listarPreguntasDocente(idUsuario, cursor, tamano);
     }
 
     /**
      * Obtiene una lista de preguntas filtradas por el tema especificado.
      *
      * @param idTema identificador del tema por el cual se filtran las preguntas
-     * @return lista de preguntas que pertenecen al tema especificado
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de preguntas que pertenecen al tema especificado
      * @throws PreguntaException si ocurre un error al consultar las preguntas
      */
-    public List<ObtenerPreguntaDto> obtenerPreguntasTema(Long idTema) throws PreguntaException {
-        return preguntaRepository.listarPreguntasTema(idTema);
+    public PaginaDto<ObtenerPreguntaDto> obtenerPreguntasTema(Long idTema, Long cursor, Integer tamano) throws PreguntaException {
+        return preguntaRepository.listarPreguntasTema(idTema, cursor, tamano);
     }
 
     /**
@@ -94,10 +162,105 @@ public class PreguntaService {
      *
      * @param idDocente identificador del docente
      * @param idTema identificador del tema
-     * @return lista de preguntas que pertenecen al docente y al tema
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de preguntas que pertenecen al docente y al tema
      */
-    public List<ObtenerPreguntaDto> obtenerPreguntasDocenteYTema(Long idDocente, Long idTema) {
-        return preguntaRepository.listarPreguntasPorDocenteYTema(idDocente, idTema);
+    public PaginaDto<ObtenerPreguntaDto> obtenerPreguntasDocenteYTema(Long idDocente, Long idTema, Long cursor, Integer tamano) {
+        return preguntaRepository.listarPreguntasPorDocenteYTema(idDocente, idTema, cursor, tamano);
     }
-}
 
+    /**
+     * Obtiene el JSON de cada pregunta de una página, reutilizando el de las preguntas ya serializadas.
+     *
+     * @param pagina página de preguntas
+     * @return página con los fragmentos JSON en el mismo orden de las preguntas
+     */
+    public PaginaDto<FragmentoJson> serializarPagina(PaginaDto<ObtenerPreguntaDto> pagina) {
+        return new PaginaDto<>(fragmentosPregunta.serializar(pagina.elementos()), pagina.cursorSiguiente(), pagina.hayMas());
+    }
+
+    /**
+     * Reserva uno de los turnos de exportación del banco de preguntas. El turno se libera cuando termina de
+     * escribirse la exportación retornada, con o sin error, o con {@link Exportacion#liberar()} si la respuesta
+     * termina sin llegar a escribirla.
+     *
+     * @return exportación lista para escribirse en la respuesta
+     * @throws AdmisionException si ya están en curso todas las exportaciones permitidas
+     */
+    public Exportacion reservarExportacion() throws AdmisionException {
+        if (!exportaciones.tryAcquire()) {
+            throw new AdmisionException("Hay demasiadas exportaciones del banco de preguntas en curso, intente de nuevo en unos minutos.");
+        }
+        return new Exportacion();
+    }
+
+    /**
+     * Escribe todas las preguntas con sus opciones como JSON delimitado por saltos de línea (una pregunta por línea),
+     * a medida que se leen de la base de datos. La memoria usada no depende del tamaño del banco y la primera
+     * pregunta se envía apenas se lee.
+     *
+     * @param salida flujo de salida de la respuesta; no se cierra
+     * @throws IOException si no se puede escribir en la salida
+     */
+    private void exportarPreguntasConOpciones(OutputStream salida) throws IOException {
+        ObjectWriter escritor = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generador = mapper.getFactory().createGenerator(salida);
+        generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generador.setRootValueSeparator(null);
+
+        int[] escritas = {0};
+        try {
+            preguntaRepository.exportarPreguntasConOpciones(tamanoBloqueExportacion, pregunta -> {
+                try {
+                    escritor.writeValue(generador, pregunta);
+                    generador.writeRaw('\n');
+                    escritas[0]++;
+                    if (escritas[0] == 1 || escritas[0] % tamanoBloqueExportacion == 0) {
+                        generador.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generador.close();
+    }
+
+    /**
+     * Exportación del banco de preguntas con su turno ya reservado. El turno se devuelve una sola vez, sea al
+     * terminar de escribirla o al liberarla sin escribir.
+     */
+    public final class Exportacion {
+
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        private Exportacion() {
+        }
+
+        /**
+         * Escribe la exportación y libera su turno.
+         * @param salida flujo de salida de la respuesta; no se cierra
+         * @throws IOException si no se puede escribir en la salida
+         */
+        public void escribir(OutputStream salida) throws IOException {
+            try {
+                exportarPreguntasConOpciones(salida);
+            } finally {
+                liberar();
+            }
+        }
+
+        /**
+         * Libera el turno de la exportación si aún no se liberó, por ejemplo cuando la respuesta terminó por tiempo
+         * agotado o por desconexión del cliente antes de escribirla.
+         */
+        public void liberar() {
+            if (liberada.compareAndSet(false, true)) {
+                exportaciones.release();
+            }
+        }
+    }
+}
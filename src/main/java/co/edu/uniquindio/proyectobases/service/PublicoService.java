@@ -9,10 +9,12 @@ import lombok.AllArgsConstructor;
 import co.edu.uniquindio.proyectobases.dto.CursosDto.CursoDto;
 import co.edu.uniquindio.proyectobases.dto.ExamenDto.ExamenResumenDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.DificultadDto;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TablaParametrica;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TemaDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TipoPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.UnidadAcademicaDto;
 import co.edu.uniquindio.proyectobases.dto.ParametricasDto.VisibilidadDto;
+import co.edu.uniquindio.proyectobases.dto.PaginaDto;
 import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
 import co.edu.uniquindio.proyectobases.dto.PublicoDto.ObtenerGruposIdDto;
 import co.edu.uniquindio.proyectobases.dto.UsuarioDto.UsuarioDetalleDto;
@@ -28,11 +30,21 @@ import co.edu.uniquindio.proyectobases.exception.PublicoException;
 @AllArgsConstructor
 public class PublicoService {
 
+    /**
+     * Cantidad máxima de usuarios por petición en 'obtener-usuarios'.
+     */
+    public static final int MAXIMO_USUARIOS_POR_PETICION = 200;
+
     /**
      * Repositorio que provee acceso a la información pública y paramétrica de la base de datos.
      */
     private final PublicoRepository publicoRepository;
 
+    /**
+     * Cache del detalle de los usuarios.
+     */
+    private final CacheUsuarios cacheUsuarios;
+
 
     /**
      * Obtiene el detalle de un usuario a partir de su identificador único.
@@ -42,7 +54,7 @@ public class PublicoService {
      * @throws PublicoException si el usuario no existe
      */
     public UsuarioDetalleDto obtenerUsuario(Long idUsuario) throws PublicoException {
-        Optional<UsuarioDetalleDto> usuario = publicoRepository.obtenerUsuarioPorId(idUsuario);
+        Optional<UsuarioDetalleDto> usuario = cacheUsuarios.obtener(idUsuario);
         if (usuario.isPresent()) {
             return usuario.get();
         } else {
@@ -50,6 +62,20 @@ public class PublicoService {
         }
     }
 
+    /**
+     * Obtiene el detalle de varios usuarios en una sola petición, por ejemplo para los integrantes de un grupo.
+     *
+     * @param idsUsuario identificadores de los usuarios a consultar
+     * @return detalle de los usuarios que existen, en el orden de los ids y sin repetidos
+     * @throws PublicoException si se piden más usuarios de los permitidos por petición
+     */
+    public List<UsuarioDetalleDto> obtenerUsuarios(List<Long> idsUsuario) throws PublicoException {
+        if (idsUsuario.size() > MAXIMO_USUARIOS_POR_PETICION) {
+            throw new PublicoException("Se pueden consultar como máximo " + MAXIMO_USUARIOS_POR_PETICION + " usuarios por petición");
+        }
+        return cacheUsuarios.obtenerVarios(idsUsuario);
+    }
+
 
     /**
      * Obtiene la lista completa de temas registrados en el sistema.
@@ -104,13 +130,16 @@ public class PublicoService {
     }
     
     /**
-     * Obtiene la lista de todas las preguntas públicas disponibles en el sistema.
+     * Obtiene una página de las preguntas públicas disponibles en una unidad académica.
      *
-     * @return lista de preguntas públicas
+     * @param idUnidad identificador de la unidad académica
+     * @param cursor id de la última pregunta de la página anterior, o null para la primera página
+     * @param tamano cantidad de preguntas por página
+     * @return página de preguntas públicas
      * @throws PublicoException si ocurre un error al consultar las preguntas
      */
-    public List<ObtenerPreguntaDto> obtenerPreguntasPublicas(Long idUnidad) throws PublicoException {
-        return publicoRepository.listarPreguntasPublicas(idUnidad);
+    public PaginaDto<ObtenerPreguntaDto> obtenerPreguntasPublicas(Long idUnidad, Long cursor, Integer tamano) throws PublicoException {
+        return publicoRepository.listarPreguntasPublicas(idUnidad, cursor, tamano);
     }
 
     /**
@@ -143,6 +172,37 @@ public class PublicoService {
         return publicoRepository.listarUnidades();
     }
 
+    /**
+     * Recarga desde la base de datos el catálogo en memoria de temas, dificultades, tipos de pregunta,
+     * visibilidades, unidades académicas y estados, para reflejar cambios sin esperar la recarga periódica.
+     *
+     * Como el endpoint es público, solo se admite una recarga por intervalo 'parametricas.recarga-por-faltante-ms'.
+     *
+     * @return fecha y hora de la carga en formato ISO-8601
+     * @throws PublicoException si ya se recargó hace menos del intervalo mínimo
+     */
+    public String recargarParametricas() throws PublicoException {
+        return publicoRepository.recargarParametricas()
+            .orElseThrow(() -> new PublicoException("Las paramétricas ya se recargaron hace menos de "
+                + publicoRepository.obtenerIntervaloRecargaParametricas() / 1000 + " segundos, intente de nuevo más tarde."))
+            .toString();
+    }
+
+    /**
+     * Calcula el ETag de una respuesta de paramétricas a partir de las versiones de las tablas de las que depende.
+     * No consulta la base de datos: las versiones provienen del catálogo en memoria.
+     *
+     * @param tablas tablas de las que depende la respuesta
+     * @return ETag fuerte, entre comillas
+     */
+    public String obtenerEtag(TablaParametrica... tablas) {
+        long version = 17;
+        for (TablaParametrica tabla : tablas) {
+            version = 31 * version + publicoRepository.obtenerVersion(tabla);
+        }
+        return "\"" + Long.toHexString(version) + "\"";
+    }
+
     /**
      * Obtiene la lista de unidades académicas asociadas a un docente específico.
      *
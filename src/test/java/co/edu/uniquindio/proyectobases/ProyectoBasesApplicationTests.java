@@ -3,7 +3,7 @@ package co.edu.uniquindio.proyectobases;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "sesion.token.clave-temporal=true")
 class ProyectoBasesApplicationTests {
 
     @Test
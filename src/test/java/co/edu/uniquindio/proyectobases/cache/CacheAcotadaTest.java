@@ -0,0 +1,271 @@
+package co.edu.uniquindio.proyectobases.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import co.edu.uniquindio.proyectobases.dto.MonitoreoDto.EstadisticaCacheDto;
+
+/**
+ * Verifica el desalojo por capacidad y por tiempo de vida de {@link CacheAcotada}, que los fallos simultáneos de una
+ * clave compartan una sola carga, también cuando la hace una carga de varias claves, y que una carga o un reemplazo
+ * que se cruzan con una invalidación de su clave no dejen un valor viejo en la cache.
+ */
+class CacheAcotadaTest {
+
+    @Test
+    void cargaUnaVezYLuegoAcierta() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertEquals("carga 1", cache.obtener(1L, clave -> "carga " + cargas.incrementAndGet()));
+        assertEquals("carga 1", cache.obtener(1L, clave -> "carga " + cargas.incrementAndGet()));
+
+        EstadisticaCacheDto estadisticas = cache.estadisticas();
+        assertEquals(1, cargas.get());
+        assertEquals(1, estadisticas.aciertos());
+        assertEquals(1, estadisticas.fallos());
+        assertEquals(1, estadisticas.tamano());
+    }
+
+    @Test
+    void desalojaLaMenosUsadaRecientemente() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 2, Duration.ofMinutes(5));
+        cache.obtener(1L, clave -> "uno");
+        cache.obtener(2L, clave -> "dos");
+        cache.obtener(1L, clave -> "otro");
+        cache.obtener(3L, clave -> "tres");
+
+        assertEquals("uno", cache.consultar(1L));
+        assertNull(cache.consultar(2L));
+        assertEquals("tres", cache.consultar(3L));
+        assertEquals(1, cache.estadisticas().desalojos());
+    }
+
+    @Test
+    void lasEntradasExpiradasSeVuelvenACargar() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ZERO);
+        cache.obtener(1L, clave -> "viejo");
+
+        assertNull(cache.consultar(1L));
+        assertEquals("nuevo", cache.obtener(1L, clave -> "nuevo"));
+    }
+
+    @Test
+    void unaCargaQueTerminaDespuesDeUnaInvalidacionNoSeGuarda() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+
+        String cargado = cache.obtener(1L, clave -> {
+            // El examen cambia mientras se lee de la base de datos
+            cache.invalidar(clave);
+            return "anterior al cambio";
+        });
+
+        assertEquals("anterior al cambio", cargado);
+        assertNull(cache.consultar(1L));
+        assertEquals("actual", cache.obtener(1L, clave -> "actual"));
+    }
+
+    @Test
+    void losValoresNulosNoSeGuardan() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+
+        assertNull(cache.obtener(1L, clave -> null));
+        assertEquals(0, cache.estadisticas().tamano());
+    }
+
+    @Test
+    void reemplazarSoloSiElValorNoCambio() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+        String original = cache.obtener(1L, clave -> new String("original"));
+
+        assertTrue(cache.reemplazar(1L, original, "completo"));
+        assertEquals("completo", cache.consultar(1L));
+
+        // El valor esperado se compara por identidad, no por igualdad
+        assertFalse(cache.reemplazar(1L, new String("completo"), "otro"));
+
+        cache.invalidar(1L);
+        assertFalse(cache.reemplazar(1L, "completo", "despues de invalidar"));
+        assertNull(cache.consultar(1L));
+    }
+
+    @Test
+    void invalidarTodoVaciaLaCache() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+        cache.obtener(1L, clave -> "uno");
+        cache.obtener(2L, clave -> "dos");
+
+        cache.invalidarTodo();
+
+        assertEquals(0, cache.estadisticas().tamano());
+        assertEquals(1, cache.estadisticas().invalidaciones());
+    }
+
+    @Test
+    void losFallosSimultaneosCompartenUnaSolaCarga() throws Exception {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            Future<String> primera = hilos.submit(() -> cache.obtener(1L, clave -> {
+                cargaIniciada.countDown();
+                esperar(liberar);
+                return "carga " + cargas.incrementAndGet();
+            }));
+            assertTrue(cargaIniciada.await(5, TimeUnit.SECONDS));
+            List<Future<String>> demas = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                demas.add(hilos.submit(() -> cache.obtener(1L, clave -> "carga " + cargas.incrementAndGet())));
+            }
+            // Los demás fallos quedan esperando la carga en curso
+            Thread.sleep(100);
+            liberar.countDown();
+
+            assertEquals("carga 1", primera.get());
+            for (Future<String> otra : demas) {
+                assertEquals("carga 1", otra.get());
+            }
+            assertEquals(1, cargas.get());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void losQueEsperanRecibenLaExcepcionDeLaCarga() throws Exception {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> primera = hilos.submit(() -> cache.obtener(1L, clave -> {
+                cargaIniciada.countDown();
+                esperar(liberar);
+                throw new IllegalStateException("base de datos caída");
+            }));
+            assertTrue(cargaIniciada.await(5, TimeUnit.SECONDS));
+            Future<String> segunda = hilos.submit(() -> cache.obtener(1L, clave -> "no debería cargar"));
+            Thread.sleep(100);
+            liberar.countDown();
+
+            ExecutionException error = assertThrows(ExecutionException.class, segunda::get);
+            assertTrue(error.getCause() instanceof IllegalStateException);
+            assertThrows(ExecutionException.class, primera::get);
+            // La carga fallida no queda registrada: el siguiente fallo vuelve a cargar
+            assertEquals("recuperado", cache.obtener(1L, clave -> "recuperado"));
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidarOtraClaveNoDescartaLaCarga() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+
+        cache.obtener(1L, clave -> {
+            cache.invalidar(2L);
+            return "uno";
+        });
+
+        assertEquals("uno", cache.consultar(1L));
+    }
+
+    @Test
+    void unValorGuardadoDuranteLaCargaNoSeReemplaza() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+
+        cache.obtener(1L, clave -> {
+            cache.guardar(clave, "guardado");
+            return "cargado antes";
+        });
+
+        assertEquals("guardado", cache.consultar(1L));
+    }
+
+    @Test
+    void laCargaDeVariasClavesSoloPideLasFaltantes() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+        cache.obtener(2L, clave -> "dos");
+        List<Set<Long>> pedidas = new ArrayList<>();
+
+        Map<Long, String> valores = cache.obtenerVarios(List.of(3L, 2L, 1L, 3L, 4L), faltantes -> {
+            pedidas.add(faltantes);
+            return Map.of(1L, "uno", 3L, "tres");
+        });
+
+        assertEquals(List.of(3L, 2L, 1L), List.copyOf(valores.keySet()));
+        assertEquals(List.of("tres", "dos", "uno"), List.copyOf(valores.values()));
+        assertEquals(List.of(Set.of(3L, 1L, 4L)), pedidas);
+        assertEquals("uno", cache.consultar(1L));
+        assertNull(cache.consultar(4L));
+    }
+
+    @Test
+    void unaCargaDeVariasClavesInvalidadaNoSeGuarda() {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+
+        Map<Long, String> valores = cache.obtenerVarios(List.of(1L, 2L), faltantes -> {
+            cache.invalidar(1L);
+            return Map.of(1L, "uno viejo", 2L, "dos");
+        });
+
+        assertEquals(Map.of(1L, "uno viejo", 2L, "dos"), valores);
+        assertNull(cache.consultar(1L));
+        assertEquals("dos", cache.consultar(2L));
+    }
+
+    @Test
+    void unFalloSimultaneoEsperaLaCargaDeVariasClaves() throws Exception {
+        CacheAcotada<Long, String> cache = new CacheAcotada<>("prueba", 10, Duration.ofMinutes(5));
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        try {
+            Future<Map<Long, String>> varias = hilos.submit(() -> cache.obtenerVarios(List.of(1L, 2L), faltantes -> {
+                cargaIniciada.countDown();
+                esperar(liberar);
+                cargas.incrementAndGet();
+                return Map.of(1L, "uno", 2L, "dos");
+            }));
+            assertTrue(cargaIniciada.await(5, TimeUnit.SECONDS));
+            Future<String> una = hilos.submit(() -> cache.obtener(2L, clave -> "dos " + cargas.incrementAndGet()));
+            Thread.sleep(100);
+            liberar.countDown();
+
+            assertEquals(Map.of(1L, "uno", 2L, "dos"), varias.get());
+            assertEquals("dos", una.get());
+            assertEquals(1, cargas.get());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package co.edu.uniquindio.proyectobases.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica que {@link MapaLong} se comporte como un {@code HashMap<Long, V>}, en particular que el borrado con
+ * reubicación hacia atrás deje alcanzables las demás entradas de la misma secuencia de sondeo.
+ */
+class MapaLongTest {
+
+    @Test
+    void guardaReemplazaYElimina() {
+        MapaLong<String> mapa = new MapaLong<>(4);
+        mapa.guardar(1L, "uno");
+        mapa.guardar(2L, "dos");
+        mapa.guardar(1L, "otro uno");
+
+        assertEquals("otro uno", mapa.obtener(1L));
+        assertEquals(2, mapa.tamano());
+
+        mapa.eliminar(1L);
+        mapa.eliminar(1L);
+        mapa.eliminar(3L);
+        assertNull(mapa.obtener(1L));
+        assertEquals("dos", mapa.obtener(2L));
+        assertEquals(1, mapa.tamano());
+    }
+
+    @Test
+    void laClaveReservadaSeRechaza() {
+        MapaLong<String> mapa = new MapaLong<>(4);
+        assertThrows(IllegalArgumentException.class, () -> mapa.guardar(Long.MIN_VALUE, "vacio"));
+        assertNull(mapa.obtener(Long.MIN_VALUE));
+    }
+
+    @Test
+    void eliminarNoPierdeEntradasDeLaMismaSecuenciaDeSondeo() {
+        // Un mapa pequeño y casi lleno forma secuencias largas que cruzan el final del arreglo
+        Random aleatorio = new Random(20240611L);
+        for (int ronda = 0; ronda < 200; ronda++) {
+            MapaLong<Long> mapa = new MapaLong<>(8);
+            Map<Long, Long> esperado = new HashMap<>();
+            for (int operacion = 0; operacion < 400; operacion++) {
+                long clave = aleatorio.nextInt(24) - 12L;
+                if (aleatorio.nextInt(3) == 0) {
+                    mapa.eliminar(clave);
+                    esperado.remove(clave);
+                } else {
+                    mapa.guardar(clave, (long) operacion);
+                    esperado.put(clave, (long) operacion);
+                }
+                for (long buscada = -12; buscada < 12; buscada++) {
+                    assertEquals(esperado.get(buscada), mapa.obtener(buscada), "ronda " + ronda + ", clave " + buscada);
+                }
+                assertEquals(esperado.size(), mapa.tamano());
+            }
+        }
+    }
+
+    @Test
+    void conservaMuchasClavesAlCrecerYAlEliminar() {
+        MapaLong<Long> mapa = new MapaLong<>(0);
+        for (long id = 1; id <= 100_000; id++) {
+            mapa.guardar(id * 1_000_003L, id);
+        }
+        for (long id = 1; id <= 100_000; id += 2) {
+            mapa.eliminar(id * 1_000_003L);
+        }
+
+        assertEquals(50_000, mapa.tamano());
+        for (long id = 1; id <= 100_000; id++) {
+            assertEquals(id % 2 == 0 ? Long.valueOf(id) : null, mapa.obtener(id * 1_000_003L));
+        }
+        long[] suma = {0};
+        mapa.recorrer((clave, valor) -> suma[0] += valor);
+        assertEquals(2_500_050_000L, suma[0]);
+    }
+
+    @Test
+    void laCopiaEsIndependiente() {
+        MapaLong<String> original = new MapaLong<>(4);
+        original.guardar(1L, "uno");
+        original.guardar(2L, "dos");
+
+        MapaLong<String> copia = original.copia();
+        copia.eliminar(1L);
+        copia.guardar(3L, "tres");
+
+        assertEquals("uno", original.obtener(1L));
+        assertNull(original.obtener(3L));
+        assertEquals(2, original.tamano());
+        assertNull(copia.obtener(1L));
+        assertEquals("tres", copia.obtener(3L));
+        assertEquals(2, copia.tamano());
+    }
+}
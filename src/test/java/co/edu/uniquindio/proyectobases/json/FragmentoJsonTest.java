@@ -0,0 +1,79 @@
+package co.edu.uniquindio.proyectobases.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerOpcionRespuestaDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.PreguntaEstudianteDto;
+
+/**
+ * Verifica que los fragmentos y las plantillas escriban exactamente el mismo JSON que Jackson para el objeto original.
+ */
+class FragmentoJsonTest {
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void plantillaCompletadaEsIgualAlObjetoSerializado() throws Exception {
+        PreguntaEstudianteDto compartida = pregunta("¿Cuál es la capital de Colombia?", null);
+        FragmentoJson.Plantilla plantilla = FragmentoJson.Plantilla.de(mapper, compartida, "porcentajePregunta");
+
+        for (Double porcentaje : new Double[] {null, 0.0, 33.33, 100.0, 0.1 + 0.2, 1.0E-5, 12345678.9}) {
+            assertEquals(mapper.writeValueAsString(pregunta(compartida.enunciado(), porcentaje)),
+                mapper.writeValueAsString(plantilla.con(porcentaje)), "porcentaje " + porcentaje);
+        }
+    }
+
+    @Test
+    void elHuecoNoCoincideConTextoDentroDeCadenas() throws Exception {
+        String enunciado = "Explique por qué \"porcentajePregunta\":null no es un JSON válido aquí";
+        FragmentoJson.Plantilla plantilla = FragmentoJson.Plantilla.de(mapper, pregunta(enunciado, null), "porcentajePregunta");
+
+        assertEquals(mapper.writeValueAsString(pregunta(enunciado, 25.5)), mapper.writeValueAsString(plantilla.con(25.5)));
+    }
+
+    @Test
+    void fragmentosDentroDeUnaListaSeEscribenSinAlterar() throws Exception {
+        FragmentoJson.Plantilla plantilla = FragmentoJson.Plantilla.de(mapper, pregunta("Enunciado", null), "porcentajePregunta");
+        List<PreguntaEstudianteDto> originales = new ArrayList<>();
+        List<FragmentoJson> fragmentos = new ArrayList<>();
+        for (double porcentaje : new double[] {10, 20.25, 69.75}) {
+            originales.add(pregunta("Enunciado", porcentaje));
+            fragmentos.add(plantilla.con(porcentaje));
+        }
+        fragmentos.add(FragmentoJson.de(mapper, pregunta("Sin plantilla", 5.0)));
+        originales.add(pregunta("Sin plantilla", 5.0));
+
+        assertEquals(mapper.writeValueAsString(originales), mapper.writeValueAsString(fragmentos));
+    }
+
+    @Test
+    void tamanoEsLaCantidadDeBytesUtf8() throws Exception {
+        PreguntaEstudianteDto original = pregunta("Año, señal y acción", 50.0);
+        FragmentoJson fragmento = FragmentoJson.Plantilla.de(mapper, pregunta(original.enunciado(), null), "porcentajePregunta").con(50.0);
+
+        assertEquals(mapper.writeValueAsBytes(original).length, fragmento.tamano());
+    }
+
+    @Test
+    void campoQueNoSeSerializaComoNuloNoFormaPlantilla() {
+        assertThrows(IllegalStateException.class,
+            () -> FragmentoJson.Plantilla.de(mapper, pregunta("Enunciado", 40.0), "porcentajePregunta"));
+        assertThrows(IllegalStateException.class,
+            () -> FragmentoJson.Plantilla.de(mapper, pregunta("Enunciado", null), "inexistente"));
+    }
+
+    private static PreguntaEstudianteDto pregunta(String enunciado, Double porcentaje) {
+        return new PreguntaEstudianteDto(7L, enunciado, 1L, 3L, 2L, porcentaje, List.of(
+            new ObtenerOpcionRespuestaDto(70L, "Bogotá", null, 1L),
+            new ObtenerOpcionRespuestaDto(71L, "Medellín \"la eterna primavera\"", "pareja", 2L)));
+    }
+}
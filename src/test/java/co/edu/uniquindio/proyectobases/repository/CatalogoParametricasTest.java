@@ -0,0 +1,79 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TablaParametrica;
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TemaDto;
+
+/**
+ * Verifica sobre H2 en modo Oracle que los temas por unidad y por grupo salgan de la misma instantánea que sus
+ * versiones: un cambio en la base de datos no se ve en ellos ni en la versión hasta la siguiente recarga.
+ */
+class CatalogoParametricasTest {
+
+    private final SingleConnectionDataSource h2 = new SingleConnectionDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=Oracle", "sa", "", true);
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(h2);
+
+    private final CatalogoParametricas catalogo = new CatalogoParametricas(jdbcTemplate, 0);
+
+    @BeforeEach
+    void preparar() {
+        jdbcTemplate.execute("CREATE TABLE Tema (idTema NUMBER(19), nombre VARCHAR2(100), idCurso NUMBER(19))");
+        jdbcTemplate.execute("CREATE TABLE EstadoGeneral (idEstado NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE DificultadPregunta (idDificultad NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE TipoPregunta (idTipo NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE VisibilidadPregunta (idVisibilidad NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE UnidadAcademica (idUnidad NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE Curso (idCurso NUMBER(19), idUnidad NUMBER(19))");
+        jdbcTemplate.execute("CREATE TABLE Grupo (idGrupo NUMBER(19), idCurso NUMBER(19))");
+        jdbcTemplate.update("INSERT INTO Curso (idCurso, idUnidad) VALUES (1, 10), (2, 10), (3, 20)");
+        jdbcTemplate.update("INSERT INTO Grupo (idGrupo, idCurso) VALUES (100, 1), (200, 3)");
+        jdbcTemplate.update("INSERT INTO Tema (idTema, nombre, idCurso) VALUES (1, 'Consultas', 1), (2, 'Joins', 2), "
+            + "(3, 'Índices', 3), (4, 'Vistas', 1)");
+    }
+
+    @AfterEach
+    void cerrar() {
+        h2.destroy();
+    }
+
+    @Test
+    void losTemasPorUnidadYPorGrupoSalenDeLaInstantanea() {
+        CatalogoParametricas.Instantanea instantanea = catalogo.recargar();
+
+        assertEquals(List.of(1L, 2L, 4L), ids(instantanea.temasUnidad(10)));
+        assertEquals(List.of(3L), ids(instantanea.temasUnidad(20)));
+        assertEquals(List.of(1L, 4L), ids(instantanea.temasGrupo(100)));
+        assertEquals(List.of(), instantanea.temasGrupo(999));
+    }
+
+    @Test
+    void unCambioSoloSeVeConSuVersionTrasRecargar() {
+        catalogo.recargar();
+        long versionGrupo = catalogo.version(TablaParametrica.GRUPO);
+
+        jdbcTemplate.update("UPDATE Grupo SET idCurso = 2 WHERE idGrupo = 100");
+        assertEquals(List.of(1L, 4L), ids(catalogo.obtener().temasGrupo(100)));
+        assertEquals(versionGrupo, catalogo.version(TablaParametrica.GRUPO));
+
+        catalogo.recargar();
+        assertEquals(List.of(2L), ids(catalogo.obtener().temasGrupo(100)));
+        assertNotEquals(versionGrupo, catalogo.version(TablaParametrica.GRUPO));
+    }
+
+    private static List<Long> ids(List<TemaDto> temas) {
+        return temas.stream().map(TemaDto::idTema).toList();
+    }
+}
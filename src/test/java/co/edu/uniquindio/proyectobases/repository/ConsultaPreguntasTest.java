@@ -0,0 +1,97 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import co.edu.uniquindio.proyectobases.dto.ParametricasDto.TablaParametrica;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
+
+/**
+ * Verifica sobre H2 en modo Oracle, con un pool de una sola conexión, que {@link ConsultaPreguntas} resuelva los
+ * nombres de paramétricas creadas después de cargar el catálogo sin pedir una segunda conexión mientras la consulta
+ * tiene tomada la suya.
+ */
+class ConsultaPreguntasTest {
+
+    private final SingleConnectionDataSource h2 = new SingleConnectionDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=Oracle", "sa", "", true);
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DataSourceLimitado(h2, 1, 100));
+
+    private CatalogoParametricas catalogo;
+    private ConsultaPreguntas consulta;
+
+    @BeforeEach
+    void preparar() {
+        crearEsquema();
+        catalogo = new CatalogoParametricas(jdbcTemplate, 0);
+        catalogo.recargar();
+        consulta = new ConsultaPreguntas(jdbcTemplate, catalogo);
+
+        // Tema creado después de cargar el catálogo
+        jdbcTemplate.update("INSERT INTO Tema (idTema, nombre, idCurso) VALUES (2, 'Joins', 1)");
+        jdbcTemplate.update("INSERT INTO Pregunta (idPregunta, enunciado, idTema, idVisibilidad, idDificultad, idDocente, "
+            + "idUnidad, idTipo, porcentajeNota, fechaCreacion, idEstado) VALUES (1, 'P1', 1, 1, 1, 1, 1, 1, 10, SYSTIMESTAMP, 1)");
+        jdbcTemplate.update("INSERT INTO Pregunta (idPregunta, enunciado, idTema, idVisibilidad, idDificultad, idDocente, "
+            + "idUnidad, idTipo, porcentajeNota, fechaCreacion, idEstado) VALUES (2, 'P2', 2, 1, 1, 1, 1, 1, 10, SYSTIMESTAMP, 1)");
+        jdbcTemplate.update("INSERT INTO OpcionRespuesta (idOpcion, idPregunta, textoOpcion, textoPareja, idTipoRespuesta) "
+            + "VALUES (1, 1, 'A', NULL, 1), (2, 2, 'B', NULL, 1), (3, 2, 'C', NULL, 2)");
+    }
+
+    @AfterEach
+    void cerrar() {
+        h2.destroy();
+    }
+
+    @Test
+    void laPaginaResuelveLosIdsDesconocidosAlTerminarLaConsulta() {
+        List<ObtenerPreguntaDto> preguntas = consulta.consultar("1 = 1", List.of(), null, 10).elementos();
+
+        assertEquals(List.of("Consultas", "Joins"), preguntas.stream().map(ObtenerPreguntaDto::tema).toList());
+        assertEquals(List.of(1, 2), preguntas.stream().map(pregunta -> pregunta.opciones().size()).toList());
+        assertEquals("Joins", catalogo.nombreConocido(TablaParametrica.TEMA, 2));
+    }
+
+    @Test
+    void elRecorridoLeeLosIdsDesconocidosConSuConexion() {
+        List<ObtenerPreguntaDto> preguntas = new ArrayList<>();
+        consulta.recorrer("1 = 1", List.of(), 10, preguntas::add);
+
+        assertEquals(List.of("Consultas", "Joins"), preguntas.stream().map(ObtenerPreguntaDto::tema).toList());
+        assertEquals(List.of(1, 2), preguntas.stream().map(pregunta -> pregunta.opciones().size()).toList());
+        assertEquals("Joins", catalogo.nombreConocido(TablaParametrica.TEMA, 2));
+    }
+
+    private void crearEsquema() {
+        jdbcTemplate.execute("CREATE TABLE Tema (idTema NUMBER(19), nombre VARCHAR2(100), idCurso NUMBER(19))");
+        jdbcTemplate.execute("CREATE TABLE EstadoGeneral (idEstado NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE DificultadPregunta (idDificultad NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE TipoPregunta (idTipo NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE VisibilidadPregunta (idVisibilidad NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE UnidadAcademica (idUnidad NUMBER(19), nombre VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE Curso (idCurso NUMBER(19), idUnidad NUMBER(19))");
+        jdbcTemplate.execute("CREATE TABLE Grupo (idGrupo NUMBER(19), idCurso NUMBER(19))");
+        jdbcTemplate.execute("CREATE TABLE Usuario (idUsuario NUMBER(19), nombre VARCHAR2(100), apellido VARCHAR2(100))");
+        jdbcTemplate.execute("CREATE TABLE Pregunta (idPregunta NUMBER(19), enunciado VARCHAR2(400), idTema NUMBER(19), "
+            + "idVisibilidad NUMBER(19), idDificultad NUMBER(19), idDocente NUMBER(19), idUnidad NUMBER(19), "
+            + "idTipo NUMBER(19), porcentajeNota NUMBER(5,2), fechaCreacion TIMESTAMP, idEstado NUMBER(19))");
+        jdbcTemplate.execute("CREATE TABLE OpcionRespuesta (idOpcion NUMBER(19), idPregunta NUMBER(19), "
+            + "textoOpcion VARCHAR2(400), textoPareja VARCHAR2(400), idTipoRespuesta NUMBER(19))");
+        jdbcTemplate.update("INSERT INTO Tema (idTema, nombre, idCurso) VALUES (1, 'Consultas', 1)");
+        jdbcTemplate.update("INSERT INTO EstadoGeneral (idEstado, nombre) VALUES (1, 'Activo')");
+        jdbcTemplate.update("INSERT INTO DificultadPregunta (idDificultad, nombre) VALUES (1, 'Baja')");
+        jdbcTemplate.update("INSERT INTO TipoPregunta (idTipo, nombre) VALUES (1, 'Selección única')");
+        jdbcTemplate.update("INSERT INTO VisibilidadPregunta (idVisibilidad, nombre) VALUES (1, 'Pública')");
+        jdbcTemplate.update("INSERT INTO UnidadAcademica (idUnidad, nombre) VALUES (1, 'Ingeniería')");
+        jdbcTemplate.update("INSERT INTO Usuario (idUsuario, nombre, apellido) VALUES (1, 'Ana', 'Ruiz')");
+    }
+}
@@ -0,0 +1,90 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica que {@link DataSourceLimitado} devuelva cada permiso una sola vez: al cerrar la conexión, aunque se cierre
+ * varias veces, y cuando el pool no entrega la conexión.
+ */
+class DataSourceLimitadoTest {
+
+    @Test
+    void cerrarLaConexionDevuelveElPermisoUnaSolaVez() throws SQLException {
+        Connection real = mock(Connection.class);
+        DataSource destino = mock(DataSource.class);
+        when(destino.getConnection()).thenReturn(real);
+        DataSourceLimitado limitado = new DataSourceLimitado(destino, 2, 10);
+
+        Connection primera = limitado.getConnection();
+        Connection segunda = limitado.getConnection();
+        assertEquals(2, limitado.getEnUso());
+
+        primera.close();
+        primera.close();
+        assertEquals(1, limitado.getEnUso());
+        verify(real, times(1)).close();
+
+        segunda.close();
+        assertEquals(0, limitado.getEnUso());
+    }
+
+    @Test
+    void sinPermisosLaEsperaAgotadaSeRechaza() throws SQLException {
+        DataSource destino = mock(DataSource.class);
+        when(destino.getConnection()).thenReturn(mock(Connection.class));
+        DataSourceLimitado limitado = new DataSourceLimitado(destino, 1, 10);
+
+        Connection prestada = limitado.getConnection();
+        assertThrows(SQLTransientConnectionException.class, limitado::getConnection);
+        assertEquals(1, limitado.getRechazos());
+
+        prestada.close();
+        limitado.getConnection().close();
+        assertEquals(0, limitado.getEnUso());
+    }
+
+    @Test
+    void unErrorDelPoolDevuelveElPermiso() throws SQLException {
+        DataSource destino = mock(DataSource.class);
+        when(destino.getConnection()).thenThrow(new SQLException("pool agotado"));
+        DataSourceLimitado limitado = new DataSourceLimitado(destino, 1, 10);
+
+        assertThrows(SQLException.class, limitado::getConnection);
+        assertThrows(SQLException.class, limitado::getConnection);
+        assertEquals(0, limitado.getEnUso());
+        assertEquals(0, limitado.getRechazos());
+    }
+
+    @Test
+    void losDemasMetodosSeDelegan() throws SQLException {
+        Connection real = mock(Connection.class);
+        Statement sentencia = mock(Statement.class);
+        when(real.createStatement()).thenReturn(sentencia);
+        DataSource destino = mock(DataSource.class);
+        when(destino.getConnection()).thenReturn(real);
+        DataSourceLimitado limitado = new DataSourceLimitado(destino, 1, 10);
+
+        try (Connection conexion = limitado.getConnection()) {
+            assertSame(sentencia, conexion.createStatement());
+            assertEquals(conexion, conexion);
+            assertNotEquals(conexion, real);
+        }
+        assertEquals(0, limitado.getEnUso());
+    }
+}
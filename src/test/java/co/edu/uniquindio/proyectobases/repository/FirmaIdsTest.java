@@ -0,0 +1,77 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Verifica que la firma calculada en SQL por {@link FirmaIds#columnasSql(String)} coincida con la calculada en Java
+ * por {@link FirmaIds.Acumulador}, sobre H2 en modo Oracle.
+ */
+class FirmaIdsTest {
+
+    @Test
+    void laFirmaEnSqlCoincideConLaFirmaEnJava() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:h2:mem:firma;MODE=Oracle", "sa", "", true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE GrupoUsuario (idGrupo NUMBER(19), idUsuario NUMBER(19))");
+
+            Random aleatorio = new Random(20240612L);
+            Map<Long, FirmaIds.Acumulador> esperadas = new HashMap<>();
+            List<Object[]> filas = new ArrayList<>();
+            for (long idGrupo = 1; idGrupo <= 50; idGrupo++) {
+                int cantidad = 1 + aleatorio.nextInt(80);
+                for (int i = 0; i < cantidad; i++) {
+                    // Ids pequeños, cercanos al módulo y mayores que él, para ejercitar la reducción modular
+                    long idUsuario = switch (aleatorio.nextInt(3)) {
+                        case 0 -> 1 + aleatorio.nextInt(100_000);
+                        case 1 -> FirmaIds.MODULO - 50 + aleatorio.nextInt(100);
+                        default -> 1 + (aleatorio.nextLong() >>> 24);
+                    };
+                    filas.add(new Object[] {idGrupo, idUsuario});
+                    esperadas.computeIfAbsent(idGrupo, id -> new FirmaIds.Acumulador()).agregar(idUsuario);
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO GrupoUsuario (idGrupo, idUsuario) VALUES (?, ?)", filas);
+
+            Map<Long, FirmaIds> calculadas = new HashMap<>();
+            jdbcTemplate.query("SELECT idGrupo, " + FirmaIds.columnasSql("idUsuario") + " FROM GrupoUsuario GROUP BY idGrupo",
+                (RowCallbackHandler) rs -> calculadas.put(rs.getLong("idGrupo"), FirmaIds.leer(rs)));
+
+            assertEquals(esperadas.size(), calculadas.size());
+            esperadas.forEach((idGrupo, acumulador) -> assertEquals(acumulador.firma(), calculadas.get(idGrupo), "grupo " + idGrupo));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void laFirmaNoDependeDelOrdenYCambiaAlReemplazarUnId() {
+        FirmaIds.Acumulador ascendente = new FirmaIds.Acumulador();
+        FirmaIds.Acumulador descendente = new FirmaIds.Acumulador();
+        FirmaIds.Acumulador reemplazado = new FirmaIds.Acumulador();
+        for (long id = 1; id <= 10; id++) {
+            ascendente.agregar(id);
+            descendente.agregar(11 - id);
+        }
+        // 1 y 4 salen, 2 y 3 entran: misma cantidad y misma suma, distinta suma de cuadrados
+        for (long id : new long[] {2, 2, 3, 3, 5, 6, 7, 8, 9, 10}) {
+            reemplazado.agregar(id);
+        }
+
+        assertEquals(ascendente.firma(), descendente.firma());
+        assertEquals(ascendente.firma().suma(), reemplazado.firma().suma());
+        assertNotEquals(ascendente.firma(), reemplazado.firma());
+    }
+}
@@ -0,0 +1,142 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica la representación de los miembros de un grupo de {@link IndiceAutorizacion}, y sobre H2 en modo Oracle
+ * que las recargas descarten los exámenes eliminados y muevan la base del arreglo de intentos, y que las consultas
+ * a la base de datos se cuenten como fallos del índice.
+ */
+class IndiceAutorizacionTest {
+
+    private final SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=Oracle", "sa", "", true);
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+
+    @AfterEach
+    void cerrar() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void unGrupoDensoSeGuardaComoMapaDeBits() {
+        IndiceAutorizacion.MiembrosGrupo miembros = IndiceAutorizacion.MiembrosGrupo.de(List.of(1005L, 1001L, 1003L, 1003L));
+
+        assertTrue(miembros.esMapaDeBits());
+        assertTrue(miembros.contiene(1001));
+        assertTrue(miembros.contiene(1003));
+        assertTrue(miembros.contiene(1005));
+        assertFalse(miembros.contiene(1002));
+        assertFalse(miembros.contiene(1000));
+        assertFalse(miembros.contiene(1006));
+        assertFalse(miembros.contiene(-1));
+        assertFalse(miembros.contiene(1001 + (1L << 40)));
+    }
+
+    @Test
+    void unGrupoDispersoSeGuardaComoListaOrdenada() {
+        IndiceAutorizacion.MiembrosGrupo miembros = IndiceAutorizacion.MiembrosGrupo.de(List.of(9_000_000_000L, 7L, 3_000_000L));
+
+        assertFalse(miembros.esMapaDeBits());
+        assertTrue(miembros.contiene(7));
+        assertTrue(miembros.contiene(3_000_000));
+        assertTrue(miembros.contiene(9_000_000_000L));
+        assertFalse(miembros.contiene(8));
+        assertFalse(miembros.contiene(9_000_000_001L));
+    }
+
+    @Test
+    void laFirmaCuentaLasFilasRepetidas() {
+        FirmaIds.Acumulador esperada = new FirmaIds.Acumulador();
+        for (long id : new long[] {1005, 1001, 1003, 1003}) {
+            esperada.agregar(id);
+        }
+
+        assertEquals(esperada.firma(), IndiceAutorizacion.MiembrosGrupo.de(List.of(1005L, 1001L, 1003L, 1003L)).firma());
+    }
+
+    @Test
+    void laRecargaCompletaDescartaLosExamenesEliminados() {
+        crearEsquema();
+        jdbcTemplate.update("INSERT INTO GrupoUsuario (idGrupo, idUsuario) VALUES (10, 100), (10, 101)");
+        jdbcTemplate.update("INSERT INTO Examen (idExamen, idGrupo) VALUES (1, 10)");
+        IndiceAutorizacion indice = new IndiceAutorizacion(jdbcTemplate, registro, true, 1000);
+        indice.recargar();
+
+        assertTrue(indice.estudianteEnExamen(1, 100));
+        assertFalse(indice.estudianteEnExamen(1, 102));
+        assertEquals(0, fallos("examen"));
+        assertEquals(1, fallos("grupo"));
+
+        jdbcTemplate.update("DELETE FROM Examen WHERE idExamen = 1");
+        indice.recargarPeriodicamente();
+
+        assertFalse(indice.estudianteEnExamen(1, 100));
+        assertEquals(1, fallos("examen"));
+    }
+
+    @Test
+    void losIntentosNuevosFueraDelArregloMuevenLaBase() {
+        crearEsquema();
+        for (long idIntento = 1; idIntento <= 3; idIntento++) {
+            insertarIntento(idIntento, 100 + idIntento);
+        }
+        IndiceAutorizacion indice = new IndiceAutorizacion(jdbcTemplate, registro, true, 8);
+        indice.recargar();
+        assertTrue(indice.intentoDeEstudiante(1, 101));
+        assertEquals(0, fallos("intento"));
+
+        // Con un arreglo de 8 intentos desde el 1, los intentos 9 a 12 no cabrían
+        for (long idIntento = 4; idIntento <= 12; idIntento++) {
+            insertarIntento(idIntento, 100 + idIntento);
+        }
+        indice.recargarCambios();
+
+        List<Long> nuevos = new ArrayList<>();
+        for (long idIntento = 9; idIntento <= 12; idIntento++) {
+            if (!indice.intentoDeEstudiante(idIntento, 100 + idIntento)) {
+                nuevos.add(idIntento);
+            }
+        }
+        assertEquals(List.of(), nuevos);
+        assertFalse(indice.intentoDeEstudiante(12, 101));
+        assertEquals(0, fallos("intento"));
+
+        // El intento 1 quedó antes de la nueva base: se confirma en la base de datos
+        assertTrue(indice.intentoDeEstudiante(1, 101));
+        assertEquals(1, fallos("intento"));
+    }
+
+    private void crearEsquema() {
+        jdbcTemplate.execute("CREATE TABLE GrupoUsuario (idGrupo NUMBER(19), idUsuario NUMBER(19))");
+        jdbcTemplate.execute("CREATE TABLE Examen (idExamen NUMBER(19), idGrupo NUMBER(19))");
+        jdbcTemplate.execute("CREATE TABLE IntentoExamen (idIntento NUMBER(19), idEstudiante NUMBER(19), "
+            + "fechaInicio TIMESTAMP, fechaFin TIMESTAMP, ipacceso VARCHAR2(64))");
+    }
+
+    private void insertarIntento(long idIntento, long idEstudiante) {
+        jdbcTemplate.update("INSERT INTO IntentoExamen (idIntento, idEstudiante, fechaInicio, fechaFin, ipacceso) "
+            + "VALUES (?, ?, SYSTIMESTAMP, NULL, '127.0.0.1')",
+            idIntento, idEstudiante);
+    }
+
+    private double fallos(String tipo) {
+        return registro.get("proyectobases.autorizacion.fallos").tag("tipo", tipo).counter().count();
+    }
+}
@@ -0,0 +1,53 @@
+package co.edu.uniquindio.proyectobases.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica sobre H2 que {@link JdbcTemplateMedido} le dé a cada sentencia como 'queryTimeout' lo que le queda al
+ * {@link PlazoSentencias} del hilo, y que rechace las sentencias que se inician con el plazo vencido.
+ */
+class PlazoSentenciasTest {
+
+    private final SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=Oracle", "sa", "", true);
+
+    private final JdbcTemplateMedido jdbcTemplate = new JdbcTemplateMedido(dataSource, new SimpleMeterRegistry(), 10);
+
+    private final StatementCallback<Integer> leerTiempoMaximo = sentencia -> sentencia.getQueryTimeout();
+
+    @AfterEach
+    void cerrar() {
+        PlazoSentencias.quitar();
+        dataSource.destroy();
+    }
+
+    @Test
+    void cadaSentenciaRecibeLoQueLeQuedaAlPlazo() {
+        assertEquals(0, jdbcTemplate.execute(leerTiempoMaximo));
+
+        PlazoSentencias.fijar(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2500));
+        assertEquals(3, jdbcTemplate.execute(leerTiempoMaximo));
+
+        jdbcTemplate.setQueryTimeout(1);
+        assertEquals(1, jdbcTemplate.execute(leerTiempoMaximo));
+    }
+
+    @Test
+    void conElPlazoVencidoLaSentenciaSeRechaza() {
+        PlazoSentencias.fijar(System.nanoTime() - 1);
+
+        assertThrows(QueryTimeoutException.class, () -> jdbcTemplate.execute(leerTiempoMaximo));
+    }
+}
@@ -0,0 +1,52 @@
+package co.edu.uniquindio.proyectobases.seguridad;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.SesionDto;
+import co.edu.uniquindio.proyectobases.exception.AccesoExamenException;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+import co.edu.uniquindio.proyectobases.repository.IndiceAutorizacion;
+
+/**
+ * Verifica que {@link AccesoExamenes} exija por defecto la sesión del dueño del intento, y que sin token solo acepte
+ * la petición en el modo de transición con 'requerir-sesion' en false.
+ */
+class AccesoExamenesTest {
+
+    private static final SesionDto SESION = new SesionDto(100L, 3, 1L, "token", Instant.now().plusSeconds(60));
+
+    private final IndiceAutorizacion indice = mock(IndiceAutorizacion.class);
+
+    private final ExamenRepository examenRepository = mock(ExamenRepository.class);
+
+    @Test
+    void porDefectoSinTokenSeRechazaElIntento() {
+        AccesoExamenes acceso = new AccesoExamenes(indice, examenRepository, true, true);
+        when(indice.intentoDeEstudiante(7, 100)).thenReturn(true);
+
+        assertThrows(AccesoExamenException.class, () -> acceso.verificarIntento(7L, null));
+        assertDoesNotThrow(() -> acceso.verificarIntento(7L, SESION));
+    }
+
+    @Test
+    void elIntentoDeOtroEstudianteSeRechaza() {
+        AccesoExamenes acceso = new AccesoExamenes(indice, examenRepository, true, true);
+        when(indice.intentoDeEstudiante(7, 100)).thenReturn(false);
+
+        assertThrows(AccesoExamenException.class, () -> acceso.verificarIntento(7L, SESION));
+    }
+
+    @Test
+    void sinRequerirSesionSeAceptaLaPeticionSinToken() {
+        AccesoExamenes acceso = new AccesoExamenes(indice, examenRepository, true, false);
+
+        assertDoesNotThrow(() -> acceso.verificarIntento(7L, null));
+    }
+}
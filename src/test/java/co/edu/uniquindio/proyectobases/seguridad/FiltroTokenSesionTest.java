@@ -0,0 +1,84 @@
+package co.edu.uniquindio.proyectobases.seguridad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.SesionDto;
+
+/**
+ * Verifica que {@link FiltroTokenSesion} rechace los tokens inválidos con 401, salvo en el inicio de sesión y en los
+ * endpoints públicos, donde la petición sigue su curso sin sesión.
+ */
+class FiltroTokenSesionTest {
+
+    private final TokenSesion tokenSesion = new TokenSesion(
+        Base64.getEncoder().encodeToString("clave de prueba de 32 bytes o mas".getBytes(StandardCharsets.UTF_8)), false, 60);
+
+    private final FiltroTokenSesion filtro = new FiltroTokenSesion(tokenSesion, Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void unTokenValidoDejaLaSesionEnLaPeticion() throws Exception {
+        SesionDto sesion = tokenSesion.crear(15L, 2, 4L);
+        MockHttpServletRequest peticion = peticion("GET", "/api/examen/obtener/1", tokenSesion.firmar(sesion));
+        MockFilterChain cadena = new MockFilterChain();
+
+        filtro.doFilter(peticion, new MockHttpServletResponse(), cadena);
+
+        assertEquals(sesion, peticion.getAttribute(FiltroTokenSesion.ATRIBUTO_SESION));
+        assertNotNull(cadena.getRequest());
+    }
+
+    @Test
+    void unTokenInvalidoSeRechazaConNoAutorizado() throws Exception {
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        MockFilterChain cadena = new MockFilterChain();
+
+        filtro.doFilter(peticion("GET", "/api/examen/obtener/1", "vencido.token"), respuesta, cadena);
+
+        assertEquals(401, respuesta.getStatus());
+        assertNull(cadena.getRequest());
+    }
+
+    @Test
+    void elInicioDeSesionYLosEndpointsPublicosIgnoranUnTokenInvalido() throws Exception {
+        for (String ruta : new String[] {"/api/autorizacion/login", "/api/public/obtener-temas"}) {
+            MockHttpServletRequest peticion = peticion("POST", ruta, "vencido.token");
+            MockHttpServletResponse respuesta = new MockHttpServletResponse();
+            MockFilterChain cadena = new MockFilterChain();
+
+            filtro.doFilter(peticion, respuesta, cadena);
+
+            assertEquals(200, respuesta.getStatus(), ruta);
+            assertNotNull(cadena.getRequest(), ruta);
+            assertNull(peticion.getAttribute(FiltroTokenSesion.ATRIBUTO_SESION), ruta);
+        }
+    }
+
+    @Test
+    void sinTokenLaPeticionSigueSuCurso() throws Exception {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", "/api/examen/obtener/1");
+        MockFilterChain cadena = new MockFilterChain();
+
+        filtro.doFilter(peticion, new MockHttpServletResponse(), cadena);
+
+        assertNotNull(cadena.getRequest());
+        assertNull(peticion.getAttribute(FiltroTokenSesion.ATRIBUTO_SESION));
+    }
+
+    private static MockHttpServletRequest peticion(String metodo, String ruta, String token) {
+        MockHttpServletRequest peticion = new MockHttpServletRequest(metodo, ruta);
+        peticion.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return peticion;
+    }
+}
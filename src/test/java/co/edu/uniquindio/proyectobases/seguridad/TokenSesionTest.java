@@ -0,0 +1,103 @@
+package co.edu.uniquindio.proyectobases.seguridad;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.SesionDto;
+
+/**
+ * Verifica que {@link TokenSesion} acepte solo los tokens que firmó, vigentes y no revocados, y que no arranque sin
+ * una clave adecuada.
+ */
+class TokenSesionTest {
+
+    private static final String CLAVE = Base64.getEncoder().encodeToString("clave de prueba de 32 bytes o mas".getBytes(StandardCharsets.UTF_8));
+
+    private static final String OTRA_CLAVE = Base64.getEncoder().encodeToString("otra clave de prueba de 32 bytes!".getBytes(StandardCharsets.UTF_8));
+
+    private final TokenSesion tokenSesion = new TokenSesion(CLAVE, false, 60);
+
+    @Test
+    void unTokenFirmadoSeVerificaConLosMismosDatos() {
+        SesionDto sesion = tokenSesion.crear(15L, 2, 4L);
+        assertEquals(sesion, tokenSesion.verificar(tokenSesion.firmar(sesion)).orElseThrow());
+
+        SesionDto sinUnidad = tokenSesion.crear(16L, 1, null);
+        assertEquals(sinUnidad, tokenSesion.verificar(tokenSesion.firmar(sinUnidad)).orElseThrow());
+    }
+
+    @Test
+    void unTokenAlteradoSeRechaza() {
+        String token = tokenSesion.firmar(tokenSesion.crear(15L, 2, 4L));
+        int punto = token.indexOf('.');
+        String firma = token.substring(punto + 1);
+
+        // Otro usuario con la firma original
+        String datosAlterados = codificar("16:2:4:" + Instant.now().plus(1, ChronoUnit.HOURS).getEpochSecond() + ":abc");
+        assertTrue(tokenSesion.verificar(datosAlterados + "." + firma).isEmpty());
+
+        // Un carácter cambiado en la firma
+        char ultimo = firma.charAt(firma.length() - 1);
+        String firmaAlterada = firma.substring(0, firma.length() - 1) + (ultimo == 'A' ? 'B' : 'A');
+        assertTrue(tokenSesion.verificar(token.substring(0, punto + 1) + firmaAlterada).isEmpty());
+
+        // Firmado con otra clave
+        TokenSesion otra = new TokenSesion(OTRA_CLAVE, false, 60);
+        assertTrue(tokenSesion.verificar(otra.firmar(otra.crear(15L, 2, 4L))).isEmpty());
+    }
+
+    @Test
+    void unTokenExpiradoSeRechaza() {
+        SesionDto vencida = new SesionDto(15L, 2, 4L, "a1b2c3", Instant.now().minusSeconds(1).truncatedTo(ChronoUnit.SECONDS));
+        assertTrue(tokenSesion.verificar(tokenSesion.firmar(vencida)).isEmpty());
+
+        TokenSesion sinVigencia = new TokenSesion(CLAVE, false, 0);
+        assertTrue(sinVigencia.verificar(sinVigencia.firmar(sinVigencia.crear(15L, 2, 4L))).isEmpty());
+    }
+
+    @Test
+    void unTokenRevocadoSeRechaza() {
+        SesionDto sesion = tokenSesion.crear(15L, 2, 4L);
+        SesionDto otraSesion = tokenSesion.crear(15L, 2, 4L);
+        tokenSesion.revocar(sesion);
+        tokenSesion.limpiarRevocados();
+
+        assertTrue(tokenSesion.verificar(tokenSesion.firmar(sesion)).isEmpty());
+        assertTrue(tokenSesion.verificar(tokenSesion.firmar(otraSesion)).isPresent());
+    }
+
+    @Test
+    void unTokenMalFormadoSeRechaza() {
+        String datosIncompletos = codificar("15:2:4:" + Instant.now().plus(1, ChronoUnit.HOURS).getEpochSecond());
+        String firmaValida = tokenSesion.firmar(tokenSesion.crear(15L, 2, 4L)).split("\\.")[1];
+
+        for (String token : new String[] {"", ".", "sinpunto", "a.b.c", "!!!.###", ".firma", datosIncompletos + "." + firmaValida}) {
+            assertTrue(tokenSesion.verificar(token).isEmpty(), token);
+        }
+    }
+
+    @Test
+    void sinClaveNoArrancaSalvoQueSePermitaUnaTemporal() {
+        assertThrows(IllegalStateException.class, () -> new TokenSesion("", false, 60));
+        assertThrows(IllegalStateException.class, () -> new TokenSesion(null, false, 60));
+        assertThrows(IllegalStateException.class,
+            () -> new TokenSesion(Base64.getEncoder().encodeToString(new byte[16]), true, 60));
+
+        TokenSesion temporal = new TokenSesion("", true, 60);
+        SesionDto sesion = temporal.crear(15L, 2, 4L);
+        assertEquals(sesion, temporal.verificar(temporal.firmar(sesion)).orElseThrow());
+        assertTrue(tokenSesion.verificar(temporal.firmar(sesion)).isEmpty());
+    }
+
+    private static String codificar(String datos) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(datos.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,165 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import co.edu.uniquindio.proyectobases.dto.AutenticacionDto.LoginResponseDto;
+import co.edu.uniquindio.proyectobases.exception.AdmisionException;
+import co.edu.uniquindio.proyectobases.repository.AutenticacionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica que {@link AdmisionLogin} agrupe los intentos idénticos simultáneos en una sola llamada a 'validar_login'
+ * y rechace los intentos que no caben en la cola o no consiguen turno a tiempo.
+ */
+class AdmisionLoginTest {
+
+    private static final LoginResponseDto USUARIO = new LoginResponseDto(7L, 2, "ana@uniquindio.edu.co");
+
+    private final AutenticacionRepository repositorio = mock(AutenticacionRepository.class);
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+
+    /**
+     * Llamadas a 'validar_login' que ya comenzaron.
+     */
+    private final CountDownLatch llamadaIniciada = new CountDownLatch(1);
+
+    /**
+     * Permite terminar las llamadas a 'validar_login' retenidas.
+     */
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @AfterEach
+    void cerrar() {
+        liberar.countDown();
+        hilos.shutdownNow();
+    }
+
+    @Test
+    void losIntentosIdenticosCompartenUnaLlamada() throws Exception {
+        retenerLlamadas();
+        AdmisionLogin admision = new AdmisionLogin(repositorio, registro, 4, 10, 1000);
+
+        Future<Optional<LoginResponseDto>> primero = hilos.submit(() -> admision.validar("ana@uniquindio.edu.co", "clave"));
+        assertTrue(llamadaIniciada.await(5, TimeUnit.SECONDS));
+        Future<Optional<LoginResponseDto>> segundo = hilos.submit(() -> admision.validar("ana@uniquindio.edu.co", "clave"));
+        esperarHasta(() -> contador("proyectobases.login.agrupados") == 1);
+        liberar.countDown();
+
+        assertSame(USUARIO, primero.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertSame(USUARIO, segundo.get(5, TimeUnit.SECONDS).orElseThrow());
+        verify(repositorio, times(1)).validarLogin("ana@uniquindio.edu.co", "clave");
+    }
+
+    @Test
+    void unIntentoTerminadoNoSeReutiliza() throws AdmisionException {
+        when(repositorio.validarLogin(anyString(), anyString())).thenReturn(Optional.of(USUARIO)).thenReturn(Optional.empty());
+        AdmisionLogin admision = new AdmisionLogin(repositorio, registro, 4, 10, 1000);
+
+        assertTrue(admision.validar("ana@uniquindio.edu.co", "clave").isPresent());
+        assertTrue(admision.validar("ana@uniquindio.edu.co", "clave").isEmpty());
+        verify(repositorio, times(2)).validarLogin("ana@uniquindio.edu.co", "clave");
+        assertEquals(0, contador("proyectobases.login.agrupados"));
+    }
+
+    @Test
+    void unErrorDelIntentoEnCursoLlegaATodosLosAgrupados() throws Exception {
+        when(repositorio.validarLogin(anyString(), anyString())).thenAnswer(invocacion -> {
+            llamadaIniciada.countDown();
+            liberar.await();
+            throw new IllegalStateException("base de datos caída");
+        });
+        AdmisionLogin admision = new AdmisionLogin(repositorio, registro, 4, 10, 1000);
+
+        Future<Optional<LoginResponseDto>> primero = hilos.submit(() -> admision.validar("ana@uniquindio.edu.co", "clave"));
+        assertTrue(llamadaIniciada.await(5, TimeUnit.SECONDS));
+        Future<Optional<LoginResponseDto>> segundo = hilos.submit(() -> admision.validar("ana@uniquindio.edu.co", "clave"));
+        esperarHasta(() -> contador("proyectobases.login.agrupados") == 1);
+        liberar.countDown();
+
+        ExecutionException errorPrimero = assertThrows(ExecutionException.class, () -> primero.get(5, TimeUnit.SECONDS));
+        ExecutionException errorSegundo = assertThrows(ExecutionException.class, () -> segundo.get(5, TimeUnit.SECONDS));
+        assertTrue(errorPrimero.getCause() instanceof IllegalStateException);
+        assertTrue(errorSegundo.getCause() instanceof IllegalStateException);
+        verify(repositorio, times(1)).validarLogin("ana@uniquindio.edu.co", "clave");
+    }
+
+    @Test
+    void conLaColaLlenaElIntentoSeRechazaDeInmediato() throws Exception {
+        retenerLlamadas();
+        AdmisionLogin admision = new AdmisionLogin(repositorio, registro, 1, 0, 1000);
+
+        Future<Optional<LoginResponseDto>> enCurso = hilos.submit(() -> admision.validar("ana@uniquindio.edu.co", "clave"));
+        assertTrue(llamadaIniciada.await(5, TimeUnit.SECONDS));
+
+        assertThrows(AdmisionException.class, () -> admision.validar("luis@uniquindio.edu.co", "otra"));
+        assertEquals(1, contador("proyectobases.login.rechazos"));
+        assertEquals(0, registro.timer("proyectobases.login.espera").count());
+
+        liberar.countDown();
+        assertTrue(enCurso.get(5, TimeUnit.SECONDS).isPresent());
+        verify(repositorio, times(0)).validarLogin("luis@uniquindio.edu.co", "otra");
+    }
+
+    @Test
+    void sinTurnoAntesDeLaEsperaMaximaElIntentoSeRechaza() throws Exception {
+        retenerLlamadas();
+        AdmisionLogin admision = new AdmisionLogin(repositorio, registro, 1, 5, 50);
+
+        Future<Optional<LoginResponseDto>> enCurso = hilos.submit(() -> admision.validar("ana@uniquindio.edu.co", "clave"));
+        assertTrue(llamadaIniciada.await(5, TimeUnit.SECONDS));
+
+        assertThrows(AdmisionException.class, () -> admision.validar("luis@uniquindio.edu.co", "otra"));
+        assertEquals(1, contador("proyectobases.login.rechazos"));
+        assertEquals(1, registro.timer("proyectobases.login.espera").count());
+        assertEquals(0.0, registro.get("proyectobases.login.cola").gauge().value());
+
+        liberar.countDown();
+        assertTrue(enCurso.get(5, TimeUnit.SECONDS).isPresent());
+        assertTrue(admision.validar("luis@uniquindio.edu.co", "otra").isPresent());
+        assertEquals(0.0, registro.get("proyectobases.login.en-curso").gauge().value());
+    }
+
+    /**
+     * Hace que cada llamada a 'validar_login' avise que comenzó y espere a {@link #liberar} antes de responder.
+     */
+    private void retenerLlamadas() {
+        when(repositorio.validarLogin(anyString(), anyString())).thenAnswer(invocacion -> {
+            llamadaIniciada.countDown();
+            liberar.await();
+            return Optional.of(USUARIO);
+        });
+    }
+
+    private double contador(String nombre) {
+        return registro.counter(nombre).count();
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "la condición no se cumplió a tiempo");
+            Thread.sleep(5);
+        }
+    }
+}
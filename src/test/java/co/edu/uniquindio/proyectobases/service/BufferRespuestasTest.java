@@ -0,0 +1,88 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+
+/**
+ * Verifica que las respuestas registradas en paralelo en {@link BufferRespuestas} queden todas en el journal, y que
+ * se recuperen al reiniciar aunque se compacte el journal mientras se registran.
+ */
+class BufferRespuestasTest {
+
+    private static final int HILOS = 8;
+    private static final int RESPUESTAS_POR_HILO = 200;
+
+    @TempDir
+    Path directorio;
+
+    private final ExamenRepository repositorio = mock(ExamenRepository.class);
+    private final ExecutorService hilos = Executors.newFixedThreadPool(HILOS + 1);
+
+    @AfterEach
+    void cerrar() {
+        hilos.shutdownNow();
+    }
+
+    @Test
+    void lasRespuestasParalelasQuedanTodasEnElJournal() throws Exception {
+        when(repositorio.obtenerSegundosRestantesIntento(anyLong())).thenReturn(Optional.of(3600L));
+        // Sin base de datos disponible las respuestas siguen pendientes y cada vaciado solo compacta el journal
+        when(repositorio.registrarRespuestasEstudiante(anyLong(), anyList())).thenThrow(new IllegalStateException("sin base de datos"));
+        Path journal = directorio.resolve("respuestas.journal");
+        BufferRespuestas buffer = new BufferRespuestas(repositorio, true, journal.toString(), 30000);
+        buffer.iniciar();
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int hilo = 0; hilo < HILOS; hilo++) {
+            long idIntento = hilo + 1;
+            tareas.add(hilos.submit(() -> {
+                for (long idPregunta = 1; idPregunta <= RESPUESTAS_POR_HILO; idPregunta++) {
+                    assertEquals(1, buffer.registrar(idIntento, idPregunta, idPregunta * 10));
+                }
+            }));
+        }
+        Future<?> compactaciones = hilos.submit(() -> {
+            while (tareas.stream().anyMatch(tarea -> !tarea.isDone())) {
+                buffer.vaciarTodo();
+            }
+        });
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        compactaciones.get();
+
+        Set<String> esperadas = new HashSet<>();
+        for (long idIntento = 1; idIntento <= HILOS; idIntento++) {
+            for (long idPregunta = 1; idPregunta <= RESPUESTAS_POR_HILO; idPregunta++) {
+                esperadas.add(idIntento + "," + idPregunta + "," + idPregunta * 10);
+            }
+        }
+        assertEquals(esperadas, new HashSet<>(Files.readAllLines(journal, StandardCharsets.UTF_8)));
+
+        // Un buffer nuevo sobre el mismo journal recupera las mismas respuestas al compactarlo
+        BufferRespuestas reiniciado = new BufferRespuestas(repositorio, true, journal.toString(), 30000);
+        reiniciado.iniciar();
+        assertEquals(esperadas, new HashSet<>(Files.readAllLines(journal, StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,56 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.OpcionClaveDto;
+
+/**
+ * Verifica que {@link ClaveExamen} valide las opciones contra la pregunta a la que pertenecen, con el mismo criterio
+ * de opción correcta que 'registrar_respuesta_estudiante'.
+ */
+class ClaveExamenTest {
+
+    private static final long CORRECTA = 1L;
+    private static final long INCORRECTA = 2L;
+
+    @Test
+    void soloLasOpcionesDeTipoCorrectoSonCorrectas() {
+        ClaveExamen clave = ClaveExamen.desde(List.of(
+            opcion(10, 100, CORRECTA), opcion(10, 101, INCORRECTA), opcion(10, 102, CORRECTA)));
+
+        assertTrue(clave.esCorrecta(10, 100));
+        assertFalse(clave.esCorrecta(10, 101));
+        assertTrue(clave.esCorrecta(10, 102));
+        assertFalse(clave.esCorrecta(10, 103));
+    }
+
+    @Test
+    void opcionDeOtraPreguntaNoEsCorrecta() {
+        ClaveExamen clave = ClaveExamen.desde(List.of(opcion(10, 100, CORRECTA), opcion(20, 200, CORRECTA)));
+
+        assertTrue(clave.contieneOpcion(10, 100));
+        assertFalse(clave.contieneOpcion(20, 100));
+        assertFalse(clave.esCorrecta(20, 100));
+    }
+
+    @Test
+    void preguntaSinOpcionesQuedaEnLaClave() {
+        ClaveExamen clave = ClaveExamen.desde(List.of(
+            new OpcionClaveDto(10L, null, null, 3.0), opcion(20, 200, CORRECTA)));
+
+        assertEquals(2, clave.cantidadPreguntas());
+        assertTrue(clave.contienePregunta(10));
+        assertEquals(3.0, clave.pesoPregunta(10));
+        assertFalse(clave.contieneOpcion(10, 200));
+    }
+
+    private static OpcionClaveDto opcion(long idPregunta, long idOpcion, long tipo) {
+        return new OpcionClaveDto(idPregunta, idOpcion, tipo, 1.0);
+    }
+}
@@ -0,0 +1,53 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.edu.uniquindio.proyectobases.cache.RegistroCaches;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerOpcionRespuestaDto;
+import co.edu.uniquindio.proyectobases.dto.PreguntaDto.ObtenerPreguntaDto;
+import co.edu.uniquindio.proyectobases.json.FragmentoJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica que {@link FragmentosPregunta} reutilice el JSON de una pregunta solo mientras la pregunta consultada siga
+ * siendo igual, y que una pregunta editada por fuera de la aplicación se sirva con su contenido actual.
+ */
+class FragmentosPreguntaTest {
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final FragmentosPregunta fragmentos = new FragmentosPregunta(mapper, new RegistroCaches(new SimpleMeterRegistry()), 100, 30);
+
+    @Test
+    void unaPreguntaIgualReutilizaSuFragmento() {
+        FragmentoJson primero = fragmentos.serializar(List.of(pregunta("¿Qué es un índice?", "Una estructura"))).get(0);
+        FragmentoJson segundo = fragmentos.serializar(List.of(pregunta("¿Qué es un índice?", "Una estructura"))).get(0);
+
+        assertSame(primero, segundo);
+    }
+
+    @Test
+    void unaPreguntaQueCambioSeVuelveASerializar() throws Exception {
+        fragmentos.serializar(List.of(pregunta("¿Qué es un índice?", "Una estructura")));
+
+        ObtenerPreguntaDto editada = pregunta("¿Qué es un índice B+?", "Un árbol");
+        FragmentoJson fragmento = fragmentos.serializar(List.of(editada)).get(0);
+
+        assertEquals(mapper.writeValueAsString(editada), mapper.writeValueAsString(fragmento));
+    }
+
+    private static ObtenerPreguntaDto pregunta(String enunciado, String opcion) {
+        return new ObtenerPreguntaDto(7L, enunciado, "Índices", "Pública", "Media", "Ana", "Ingeniería", "Única",
+            20.0, Timestamp.valueOf("2024-05-17 10:00:00"), "Activa",
+            List.of(new ObtenerOpcionRespuestaDto(70L, opcion, null, 1L)));
+    }
+}
@@ -0,0 +1,173 @@
+package co.edu.uniquindio.proyectobases.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import co.edu.uniquindio.proyectobases.dto.ExamenDto.CalificacionIntentoDto;
+import co.edu.uniquindio.proyectobases.repository.ExamenRepository;
+import co.edu.uniquindio.proyectobases.repository.RegistroProcedimientos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verifica sobre H2 en modo Oracle que {@link MotorCalificacion} califique igual que 'finalizar_intento': con la
+ * misma consulta del procedimiento, la suma de los puntajes que 'registrar_respuesta_estudiante' fijó en cada
+ * respuesta, sin importar cómo haya cambiado la clave del examen después.
+ */
+class MotorCalificacionTest {
+
+    private static final long EXAMEN = 1L;
+
+    /**
+     * Consulta con la que 'finalizar_intento' calcula la nota total de un intento.
+     */
+    private static final String NOTA_FINALIZAR_INTENTO = """
+        SELECT SUM(puntajeObtenido)
+        FROM IntentoExamen i
+        JOIN RespuestaEstudiante r ON i.idIntento = r.idIntento
+        WHERE i.idIntento = ?
+        GROUP BY i.idIntento, idExamen, fechaInicio
+        """;
+
+    private final SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=Oracle", "sa", "", true);
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    private MotorCalificacion motor;
+
+    @BeforeEach
+    void preparar() {
+        jdbcTemplate.execute("""
+            CREATE TABLE IntentoExamen (idIntento NUMBER(19), idEstudiante NUMBER(19), idExamen NUMBER(19),
+                fechaInicio TIMESTAMP, fechaFin TIMESTAMP, tiempoEmpleado NUMBER, calificacion NUMBER(6,2),
+                ipacceso VARCHAR2(50), idEstado NUMBER)
+            """);
+        jdbcTemplate.execute("""
+            CREATE TABLE RespuestaEstudiante (idIntento NUMBER(19), idPregunta NUMBER(19), idOpcion NUMBER(19),
+                puntajeObtenido NUMBER(5,2))
+            """);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        ExamenRepository examenRepository = new ExamenRepository(jdbcTemplate,
+            new RegistroProcedimientos(jdbcTemplate, new SimpleMeterRegistry()), transactionManager);
+        motor = new MotorCalificacion(examenRepository, transactionManager, true);
+    }
+
+    @AfterEach
+    void cerrar() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void finalizarUnIntentoDaLaNotaDelProcedimiento() {
+        Random aleatorio = new Random(20240517L);
+        for (long idIntento = 1; idIntento <= 50; idIntento++) {
+            crearIntento(idIntento);
+            registrarAlAzar(aleatorio, idIntento, 1 + aleatorio.nextInt(30));
+            BigDecimal esperada = jdbcTemplate.queryForObject(NOTA_FINALIZAR_INTENTO, BigDecimal.class, idIntento);
+
+            assertEquals(Optional.of(esperada.doubleValue()), motor.finalizarIntento(idIntento), "intento " + idIntento);
+            assertEquals(5, jdbcTemplate.queryForObject(
+                "SELECT idEstado FROM IntentoExamen WHERE idIntento = ? AND fechaFin IS NOT NULL", Integer.class, idIntento));
+        }
+    }
+
+    @Test
+    void laNotaNoCambiaSiLaClaveCambiaDespuesDeResponder() {
+        crearIntento(1);
+        // La opción 100 era correcta al responder y guardó su porcentaje; aunque luego se marque incorrecta en la
+        // clave, 'finalizar_intento' suma el puntaje guardado
+        registrar(1, 10, 100, "33.33");
+        registrar(1, 20, 200, "33.33");
+        registrar(1, 30, 300, "33.34");
+        registrar(1, 40, 400, "0");
+
+        assertEquals(Optional.of(100.0), motor.finalizarIntento(1L));
+    }
+
+    @Test
+    void unIntentoSinRespuestasNoSeFinaliza() {
+        crearIntento(1);
+
+        assertEquals(Optional.empty(), motor.finalizarIntento(1L));
+        assertNull(jdbcTemplate.queryForObject("SELECT fechaFin FROM IntentoExamen WHERE idIntento = 1", Object.class));
+    }
+
+    @Test
+    void reintentarLaFinalizacionRetornaLaNotaGuardada() {
+        crearIntento(1);
+        registrar(1, 10, 100, "40");
+        assertEquals(Optional.of(40.0), motor.finalizarIntento(1L));
+
+        registrar(1, 20, 200, "60");
+
+        assertEquals(Optional.of(40.0), motor.finalizarIntento(1L));
+    }
+
+    @Test
+    void elCierreDelExamenDaLaNotaDelProcedimientoACadaIntento() {
+        Random aleatorio = new Random(20240612L);
+        Map<Long, Double> esperadas = new HashMap<>();
+        for (long idIntento = 1; idIntento <= 40; idIntento++) {
+            crearIntento(idIntento);
+            registrarAlAzar(aleatorio, idIntento, 1 + aleatorio.nextInt(30));
+            esperadas.put(idIntento, jdbcTemplate.queryForObject(NOTA_FINALIZAR_INTENTO, BigDecimal.class, idIntento).doubleValue());
+        }
+        crearIntento(41);
+        crearIntento(42);
+        registrar(42, 10, 100, "50");
+        motor.finalizarIntento(42L);
+
+        Map<Long, Double> calificadas = new HashMap<>();
+        for (CalificacionIntentoDto calificacion : motor.finalizarIntentosExamen(EXAMEN)) {
+            calificadas.put(calificacion.idIntento(), calificacion.calificacion());
+        }
+
+        assertEquals(esperadas, calificadas);
+        Map<Long, Double> guardadas = new HashMap<>();
+        jdbcTemplate.query("SELECT idIntento, calificacion FROM IntentoExamen WHERE fechaFin IS NOT NULL AND idIntento <= 40",
+            (RowCallbackHandler) rs -> guardadas.put(rs.getLong("idIntento"), rs.getBigDecimal("calificacion").doubleValue()));
+        assertEquals(esperadas, guardadas);
+        // El intento sin respuestas queda abierto, como con el procedimiento
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM IntentoExamen WHERE idIntento = 41 AND fechaFin IS NULL", Integer.class));
+        assertEquals(List.of(), motor.finalizarIntentosExamen(EXAMEN));
+    }
+
+    private void crearIntento(long idIntento) {
+        jdbcTemplate.update("INSERT INTO IntentoExamen (idIntento, idEstudiante, idExamen, fechaInicio, ipacceso) "
+            + "VALUES (?, ?, ?, SYSTIMESTAMP - INTERVAL '30' MINUTE, '127.0.0.1')", idIntento, 100 + idIntento, EXAMEN);
+    }
+
+    /**
+     * Registra respuestas como 'registrar_respuesta_estudiante': cada una con el porcentaje de su pregunta si la
+     * opción era correcta al responder, o cero si no.
+     */
+    private void registrarAlAzar(Random aleatorio, long idIntento, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            BigDecimal puntaje = aleatorio.nextBoolean()
+                ? BigDecimal.valueOf(1 + aleatorio.nextInt(2000), 2)
+                : BigDecimal.ZERO;
+            registrar(idIntento, i, 1000L * i + aleatorio.nextInt(4), puntaje.toPlainString());
+        }
+    }
+
+    private void registrar(long idIntento, long idPregunta, long idOpcion, String puntaje) {
+        jdbcTemplate.update("INSERT INTO RespuestaEstudiante (idIntento, idPregunta, idOpcion, puntajeObtenido) VALUES (?, ?, ?, ?)",
+            idIntento, idPregunta, idOpcion, new BigDecimal(puntaje));
+    }
+}